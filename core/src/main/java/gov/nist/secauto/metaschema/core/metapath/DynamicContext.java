@@ -5,7 +5,9 @@
 
 package gov.nist.secauto.metaschema.core.metapath;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 import gov.nist.secauto.metaschema.core.configuration.DefaultConfiguration;
 import gov.nist.secauto.metaschema.core.configuration.IConfiguration;
@@ -21,6 +23,7 @@ import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.Clock;
 import java.time.ZoneId;
@@ -29,7 +32,6 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -43,12 +45,31 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 /**
  * The implementation of a Metapath <a href="https://www.w3.org/TR/xpath-31/#eval_context">dynamic
  * context</a>.
+ * <p>
+ * A dynamic context can be used to evaluate expressions concurrently from
+ * multiple threads. Loaded documents and cached function results are held in
+ * concurrent maps that are shared by all contexts derived from the same
+ * original context, and the execution stack is maintained separately for each
+ * evaluating thread. Variable bindings and the evaluation configuration are
+ * mutable, so a thread that needs to change either should evaluate using its
+ * own {@link #fork()} of this context.
  */
 public class DynamicContext { // NOPMD - intentional data class
-  @NonNull
-  private final Map<Integer, ISequence<?>> letVariableMap;
+  /**
+   * The variable bindings visible in this context.
+   */
+  @Nullable
+  private volatile VariableFrame variables;
+  /**
+   * The variable bindings inherited from the context this context was derived
+   * from, which are shared and must not be replaced.
+   */
+  @Nullable
+  private final VariableFrame inheritedVariables;
   @NonNull
   private final SharedState sharedState;
+  @NonNull
+  private final IMutableConfiguration<MetapathEvaluationFeature<?>> configuration;
 
   /**
    * Construct a new dynamic context with a default static context.
@@ -64,13 +85,22 @@ public class DynamicContext { // NOPMD - intentional data class
    *          the Metapath static context
    */
   public DynamicContext(@NonNull StaticContext staticContext) {
-    this.letVariableMap = new ConcurrentHashMap<>();
+    this.variables = null;
+    this.inheritedVariables = null;
     this.sharedState = new SharedState(staticContext);
+    this.configuration = new DefaultConfiguration<>();
+    this.configuration.enableFeature(MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES);
+    this.configuration.enableFeature(MetapathEvaluationFeature.METAPATH_USE_DESCENDANT_NAME_INDEX);
   }
 
-  private DynamicContext(@NonNull DynamicContext context) {
-    this.letVariableMap = new ConcurrentHashMap<>(context.letVariableMap);
+  private DynamicContext(
+      @NonNull DynamicContext context,
+      @NonNull IMutableConfiguration<MetapathEvaluationFeature<?>> configuration) {
+    VariableFrame inherited = context.variables;
+    this.variables = inherited;
+    this.inheritedVariables = inherited;
     this.sharedState = context.sharedState;
+    this.configuration = configuration;
   }
 
   private static class SharedState {
@@ -83,13 +113,12 @@ public class DynamicContext { // NOPMD - intentional data class
     @NonNull
     private final Map<URI, IDocumentNodeItem> availableDocuments;
     @NonNull
-    private final Map<CalledContext, ISequence<?>> functionResultCache;
+    private final Cache<CalledContext, ISequence<?>> functionResultCache;
     @Nullable
-    private CachingLoader documentLoader;
-    @NonNull
-    private final IMutableConfiguration<MetapathEvaluationFeature<?>> configuration;
+    private volatile CachingLoader documentLoader;
     @NonNull
-    private final Deque<IExpression> executionStack = new ArrayDeque<>();
+    private final ThreadLocal<Deque<IExpression>> executionStack = ObjectUtils.notNull(
+        ThreadLocal.withInitial(ArrayDeque::new));
 
     public SharedState(@NonNull StaticContext staticContext) {
       this.staticContext = staticContext;
@@ -98,13 +127,22 @@ public class DynamicContext { // NOPMD - intentional data class
 
       this.implicitTimeZone = ObjectUtils.notNull(clock.getZone());
       this.currentDateTime = ObjectUtils.notNull(ZonedDateTime.now(clock));
-      this.availableDocuments = new HashMap<>();
+      this.availableDocuments = new ConcurrentHashMap<>();
       this.functionResultCache = ObjectUtils.notNull(Caffeine.newBuilder()
           .maximumSize(5000)
           .expireAfterAccess(10, TimeUnit.MINUTES)
-          .<CalledContext, ISequence<?>>build().asMap());
-      this.configuration = new DefaultConfiguration<>();
-      this.configuration.enableFeature(MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES);
+          .recordStats()
+          .<CalledContext, ISequence<?>>build());
+    }
+
+    /**
+     * Get the execution stack for the current thread.
+     *
+     * @return the execution stack
+     */
+    @NonNull
+    public Deque<IExpression> getExecutionStack() {
+      return ObjectUtils.notNull(executionStack.get());
     }
   }
 
@@ -112,14 +150,30 @@ public class DynamicContext { // NOPMD - intentional data class
    * Generate a new dynamic context that is a copy of this dynamic context.
    * <p>
    * This method can be used to create a new sub-context where changes can be made without affecting
-   * this context. This is useful for setting information that is only used in a limited evaluation
+   * this context. The variable bindings of this context are shared with the new context without being
+   * copied. This is useful for setting information that is only used in a limited evaluation
    * sub-scope, such as for handling variable assignment.
    *
    * @return a new dynamic context
    */
   @NonNull
   public DynamicContext subContext() {
-    return new DynamicContext(this);
+    return new DynamicContext(this, configuration);
+  }
+
+  /**
+   * Generate a new dynamic context for use in a concurrent evaluation.
+   * <p>
+   * The new context shares the static context, current date and time, available
+   * documents, document loader, and function result cache with this context.
+   * Its variable bindings and evaluation configuration are copies, which allows
+   * them to be changed without affecting this context or any other fork.
+   *
+   * @return a new dynamic context
+   */
+  @NonNull
+  public DynamicContext fork() {
+    return new DynamicContext(this, new DefaultConfiguration<>(configuration.getFeatureValues()));
   }
 
   /**
@@ -201,11 +255,14 @@ public class DynamicContext { // NOPMD - intentional data class
    */
   @Nullable
   public ISequence<?> getCachedResult(@NonNull CalledContext callingContext) {
-    return sharedState.functionResultCache.get(callingContext);
+    return sharedState.functionResultCache.getIfPresent(callingContext);
   }
 
   /**
    * Cache a function call result for a that has the property {@link FunctionProperty#DETERMINISTIC}.
+   * <p>
+   * If a result was already cached for the call by a concurrent evaluation, the
+   * existing result is retained.
    *
    * @param callingContext
    *          the calling context information that distinguishes the call from any other call
@@ -213,8 +270,21 @@ public class DynamicContext { // NOPMD - intentional data class
    *          the function call result
    */
   public void cacheResult(@NonNull CalledContext callingContext, @NonNull ISequence<?> result) {
-    ISequence<?> old = sharedState.functionResultCache.put(callingContext, result);
-    assert old == null;
+    sharedState.functionResultCache.asMap().putIfAbsent(callingContext, result);
+  }
+
+  /**
+   * Get a snapshot of the function result cache statistics.
+   * <p>
+   * The statistics are shared by this context and all contexts derived from the
+   * same original context. Only calls that were admitted to the cache, based on
+   * the function's {@link IFunction.MemoizationPolicy}, are counted.
+   *
+   * @return the statistics
+   */
+  @NonNull
+  public CacheStats getFunctionResultCacheStatistics() {
+    return ObjectUtils.notNull(sharedState.functionResultCache.stats());
   }
 
   /**
@@ -227,7 +297,7 @@ public class DynamicContext { // NOPMD - intentional data class
    */
   @NonNull
   public DynamicContext disablePredicateEvaluation() {
-    this.sharedState.configuration.disableFeature(MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES);
+    this.configuration.disableFeature(MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES);
     return this;
   }
 
@@ -240,7 +310,58 @@ public class DynamicContext { // NOPMD - intentional data class
    */
   @NonNull
   public DynamicContext enablePredicateEvaluation() {
-    this.sharedState.configuration.enableFeature(MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES);
+    this.configuration.enableFeature(MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES);
+    return this;
+  }
+
+  /**
+   * Used to disable the use of a document's descendant name index when searching
+   * for named descendant nodes.
+   *
+   * @return this dynamic context
+   */
+  @NonNull
+  public DynamicContext disableDescendantNameIndex() {
+    this.configuration.disableFeature(MetapathEvaluationFeature.METAPATH_USE_DESCENDANT_NAME_INDEX);
+    return this;
+  }
+
+  /**
+   * Used to enable the use of a document's descendant name index when searching
+   * for named descendant nodes.
+   * <p>
+   * This is the default behavior if unchanged.
+   *
+   * @return this dynamic context
+   */
+  @NonNull
+  public DynamicContext enableDescendantNameIndex() {
+    this.configuration.enableFeature(MetapathEvaluationFeature.METAPATH_USE_DESCENDANT_NAME_INDEX);
+    return this;
+  }
+
+  /**
+   * Used to enable evaluating Metapath expressions using their compiled form.
+   *
+   * @return this dynamic context
+   * @see MetapathEvaluationFeature#METAPATH_COMPILE_EXPRESSIONS
+   */
+  @NonNull
+  public DynamicContext enableExpressionCompilation() {
+    this.configuration.enableFeature(MetapathEvaluationFeature.METAPATH_COMPILE_EXPRESSIONS);
+    return this;
+  }
+
+  /**
+   * Used to disable evaluating Metapath expressions using their compiled form.
+   * <p>
+   * This is the default behavior if unchanged.
+   *
+   * @return this dynamic context
+   */
+  @NonNull
+  public DynamicContext disableExpressionCompilation() {
+    this.configuration.disableFeature(MetapathEvaluationFeature.METAPATH_COMPILE_EXPRESSIONS);
     return this;
   }
 
@@ -251,7 +372,7 @@ public class DynamicContext { // NOPMD - intentional data class
    */
   @NonNull
   public IConfiguration<MetapathEvaluationFeature<?>> getConfiguration() {
-    return sharedState.configuration;
+    return configuration;
   }
 
   /**
@@ -261,15 +382,12 @@ public class DynamicContext { // NOPMD - intentional data class
    *          the variable qualified name
    * @return the non-null variable value
    * @throws MetapathException
-   *           of the variable has not been assigned or if the variable value is {@code null}
+   *           of the variable has not been assigned
    */
   @NonNull
   public ISequence<?> getVariableValue(@NonNull IEnhancedQName name) {
-    ISequence<?> retval = letVariableMap.get(name.getIndexPosition());
+    ISequence<?> retval = VariableFrame.lookup(variables, name.getIndexPosition());
     if (retval == null) {
-      if (letVariableMap.containsKey(name.getIndexPosition())) {
-        throw new MetapathException(String.format("Variable '%s' has null contents.", name));
-      }
       throw new StaticMetapathException(
           StaticMetapathException.NOT_DEFINED,
           String.format("Variable '%s' not defined in the dynamic context.", name));
@@ -305,41 +423,48 @@ public class DynamicContext { // NOPMD - intentional data class
    */
   @NonNull
   public DynamicContext bindVariableValue(@NonNull IEnhancedQName name, @NonNull ISequence<?> boundValue) {
-    letVariableMap.put(name.getIndexPosition(), boundValue);
+    this.variables = VariableFrame.bind(variables, inheritedVariables, name.getIndexPosition(), boundValue);
     return this;
   }
 
   /**
-   * Push the current expression under evaluation to the execution queue.
+   * Push the current expression under evaluation to the execution queue of the
+   * current thread.
    *
    * @param expression
    *          the expression to push
    */
   public void pushExecutionStack(@NonNull IExpression expression) {
-    this.sharedState.executionStack.push(expression);
+    this.sharedState.getExecutionStack().push(expression);
   }
 
   /**
-   * Pop the expression that was under evaluation from the execution queue.
+   * Pop the expression that was under evaluation from the execution queue of
+   * the current thread.
    *
    * @param expression
    *          the expected expression to be popped
    */
   public void popExecutionStack(@NonNull IExpression expression) {
-    IExpression popped = this.sharedState.executionStack.pop();
+    Deque<IExpression> stack = this.sharedState.getExecutionStack();
+    IExpression popped = stack.pop();
+    if (stack.isEmpty()) {
+      // avoid retaining the stack in pooled threads once evaluation completes
+      this.sharedState.executionStack.remove();
+    }
     if (!expression.equals(popped)) {
       throw new IllegalStateException("Popped expression does not match expected expression");
     }
   }
 
   /**
-   * Return a copy of the current execution stack.
+   * Return a copy of the current thread's execution stack.
    *
    * @return the execution stack
    */
   @NonNull
   public List<IExpression> getExecutionStack() {
-    return CollectionUtil.unmodifiableList(new ArrayList<>(this.sharedState.executionStack));
+    return CollectionUtil.unmodifiableList(new ArrayList<>(this.sharedState.getExecutionStack()));
   }
 
   /**
@@ -380,12 +505,18 @@ public class DynamicContext { // NOPMD - intentional data class
 
     @Override
     public IDocumentNodeItem loadAsNodeItem(URI uri) throws IOException {
-      IDocumentNodeItem retval = sharedState.availableDocuments.get(uri);
-      if (retval == null) {
-        retval = getProxiedDocumentLoader().loadAsNodeItem(uri);
-        sharedState.availableDocuments.put(uri, retval);
+      try {
+        // the load is performed at most once per URI, even with concurrent callers
+        return ObjectUtils.notNull(sharedState.availableDocuments.computeIfAbsent(uri, key -> {
+          try {
+            return getProxiedDocumentLoader().loadAsNodeItem(ObjectUtils.notNull(key));
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        }));
+      } catch (UncheckedIOException ex) {
+        throw ex.getCause();
       }
-      return retval;
     }
 
     public class ContextUriResolver implements IUriResolver {
@@ -52,7 +52,7 @@ public interface IMetapathExpression {
     /**
      * The result is expected to be an {@link IItem} value.
      */
-    ITEM(IItem.class, sequence -> sequence.getFirstItem(true));
+    ITEM(IItem.class, sequence -> ISequence.getFirstItem(sequence.stream(), true));
 
     @NonNull
     private final Class<?> clazz;
@@ -217,8 +217,7 @@ public interface IMetapathExpression {
   default <T> T evaluateAs(
       @Nullable IItem focus,
       @NonNull ResultType resultType) {
-    ISequence<?> result = evaluate(focus);
-    return resultType.convert(result);
+    return evaluateAs(focus, resultType, new DynamicContext(getStaticContext()));
   }
 
   /**
@@ -249,7 +248,7 @@ public interface IMetapathExpression {
       @Nullable IItem focus,
       @NonNull ResultType resultType,
       @NonNull DynamicContext dynamicContext) {
-    ISequence<?> result = evaluate(focus, dynamicContext);
+    ISequence<?> result = evaluateStreaming(focus, dynamicContext);
     return resultType.convert(result);
   }
 
@@ -308,4 +307,34 @@ public interface IMetapathExpression {
   <T extends IItem> ISequence<T> evaluate(
       @Nullable IItem focus,
       @NonNull DynamicContext dynamicContext);
+
+  /**
+   * Evaluate this Metapath expression using the provided {@code focus} as the
+   * initial evaluation context, without materializing the result.
+   * <p>
+   * Unlike {@link #evaluate(IItem, DynamicContext)}, the resulting sequence may
+   * be backed by a stream that is evaluated as items are pulled from it. This
+   * allows a consumer that only needs some of the items, such as an existence
+   * check, to stop evaluation early. The resulting sequence must be consumed at
+   * most once, and any evaluation errors may be raised while it is consumed.
+   * Use {@link ISequence#reusable()} if the sequence needs to be consumed more
+   * than once.
+   *
+   * @param <T>
+   *          the type of items contained in the resulting sequence
+   * @param focus
+   *          the outer focus of the expression
+   * @param dynamicContext
+   *          the dynamic context to use for evaluation
+   * @return a sequence of Metapath items representing the result of the
+   *         evaluation
+   * @throws MetapathException
+   *           if an error occurred during evaluation
+   */
+  @NonNull
+  default <T extends IItem> ISequence<T> evaluateStreaming(
+      @Nullable IItem focus,
+      @NonNull DynamicContext dynamicContext) {
+    return evaluate(focus, dynamicContext);
+  }
 }
@@ -26,6 +26,28 @@ public final class MetapathEvaluationFeature<V>
   public static final MetapathEvaluationFeature<Boolean> METAPATH_EVALUATE_PREDICATES
       = new MetapathEvaluationFeature<>("evaluate-predicates", Boolean.class, true);
 
+  /**
+   * If enabled, answer descendant searches for a named node using an index of
+   * the document's nodes, when the document supports one. Otherwise, the
+   * document's node tree is walked for each search.
+   */
+  @NonNull
+  public static final MetapathEvaluationFeature<Boolean> METAPATH_USE_DESCENDANT_NAME_INDEX
+      = new MetapathEvaluationFeature<>("use-descendant-name-index", Boolean.class, true);
+
+  /**
+   * If enabled, evaluate expressions using a form compiled by the
+   * {@link gov.nist.secauto.metaschema.core.metapath.cst.CSTCompiler}, otherwise
+   * evaluate the compact syntax tree directly.
+   * <p>
+   * Compiled evaluation produces the same results, but avoids much of the
+   * per-node overhead of evaluating the tree. Since compiled nodes are not
+   * recorded on the execution stack, it is disabled by default.
+   */
+  @NonNull
+  public static final MetapathEvaluationFeature<Boolean> METAPATH_COMPILE_EXPRESSIONS
+      = new MetapathEvaluationFeature<>("compile-expressions", Boolean.class, false);
+
   private MetapathEvaluationFeature(
       @NonNull String name,
       @NonNull Class<V> valueClass,
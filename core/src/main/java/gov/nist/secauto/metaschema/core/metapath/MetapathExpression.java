@@ -10,7 +10,10 @@ import gov.nist.secauto.metaschema.core.metapath.antlr.Metapath10;
 import gov.nist.secauto.metaschema.core.metapath.antlr.Metapath10Lexer;
 import gov.nist.secauto.metaschema.core.metapath.antlr.ParseTreePrinter;
 import gov.nist.secauto.metaschema.core.metapath.cst.BuildCSTVisitor;
+import gov.nist.secauto.metaschema.core.metapath.cst.CSTCompiler;
+import gov.nist.secauto.metaschema.core.metapath.cst.CSTOptimizer;
 import gov.nist.secauto.metaschema.core.metapath.cst.CSTPrinter;
+import gov.nist.secauto.metaschema.core.metapath.cst.ICompiledExpression;
 import gov.nist.secauto.metaschema.core.metapath.cst.path.ContextItem;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
@@ -32,6 +35,7 @@ import java.nio.charset.StandardCharsets;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import nl.talsmasoftware.lazy4j.Lazy;
 
 /**
  * Supports compiling and executing Metapath expressions.
@@ -55,9 +59,14 @@ class MetapathExpression implements IMetapathExpression {
   private final IExpression expression;
   @NonNull
   private final StaticContext staticContext;
+  @NonNull
+  private final Lazy<ICompiledExpression> compiledExpression;
 
   /**
    * Compiles a Metapath expression string using the provided static context.
+   * <p>
+   * Previously compiled expressions are retrieved from the shared
+   * {@link MetapathExpressionCache}.
    *
    * @param path
    *          the metapath expression
@@ -69,6 +78,25 @@ class MetapathExpression implements IMetapathExpression {
    */
   @NonNull
   public static MetapathExpression compile(@NonNull String path, @NonNull StaticContext context) {
+    return ".".equals(path)
+        ? CONTEXT_NODE
+        : MetapathExpressionCache.instance().get(path, context, MetapathExpression::compileUncached);
+  }
+
+  /**
+   * Compiles a Metapath expression string using the provided static context,
+   * without consulting the compiled expression cache.
+   *
+   * @param path
+   *          the metapath expression
+   * @param context
+   *          the static evaluation context
+   * @return the compiled expression object
+   * @throws MetapathException
+   *           if an error occurred while compiling the Metapath expression
+   */
+  @NonNull
+  static MetapathExpression compileUncached(@NonNull String path, @NonNull StaticContext context) {
     @NonNull
     MetapathExpression retval;
     if (".".equals(path)) {
@@ -80,6 +108,9 @@ class MetapathExpression implements IMetapathExpression {
         logAst(tree);
         IExpression expr = new BuildCSTVisitor(context).visit(tree);
         logCst(expr);
+        if (context.isOptimizeExpressions()) {
+          expr = CSTOptimizer.optimize(expr, context);
+        }
         retval = new MetapathExpression(path, expr, context);
       } catch (StaticMetapathException ex) {
         String message = ex.getMessageText();
@@ -154,6 +185,7 @@ class MetapathExpression implements IMetapathExpression {
     this.path = path;
     this.expression = expr;
     this.staticContext = staticContext;
+    this.compiledExpression = ObjectUtils.notNull(Lazy.lazy(() -> CSTCompiler.compile(expr)));
   }
 
   @Override
@@ -171,6 +203,25 @@ class MetapathExpression implements IMetapathExpression {
     return expression;
   }
 
+  /**
+   * Evaluate the Metapath against the provided focus, using the compiled form of
+   * the Metapath if
+   * {@link MetapathEvaluationFeature#METAPATH_COMPILE_EXPRESSIONS} is enabled.
+   *
+   * @param focus
+   *          the outer focus of the expression
+   * @param dynamicContext
+   *          the dynamic evaluation context
+   * @return the result of evaluation, which may be stream-backed
+   */
+  @NonNull
+  private ISequence<?> evaluateExpression(@Nullable IItem focus, @NonNull DynamicContext dynamicContext) {
+    ISequence<?> focusSequence = ISequence.of(focus);
+    return dynamicContext.getConfiguration().isFeatureEnabled(MetapathEvaluationFeature.METAPATH_COMPILE_EXPRESSIONS)
+        ? ObjectUtils.notNull(compiledExpression.get()).evaluate(dynamicContext, focusSequence)
+        : getCSTNode().accept(dynamicContext, focusSequence);
+  }
+
   @Override
   public StaticContext getStaticContext() {
     return staticContext;
@@ -187,16 +238,47 @@ class MetapathExpression implements IMetapathExpression {
       @Nullable IItem focus,
       @NonNull DynamicContext dynamicContext) {
     try {
-      return ObjectUtils.asType(getCSTNode().accept(dynamicContext, ISequence.of(focus)).reusable());
+      return ObjectUtils.asType(evaluateExpression(focus, dynamicContext).reusable());
     } catch (MetapathException ex) {
-      throw new MetapathException(
-          String.format("An error occurred while evaluating the expression '%s'. %s",
-              getPath(),
-              ex.getLocalizedMessage()),
-          ex);
+      throw newEvaluationException(ex);
     }
   }
 
+  @Override
+  @NonNull
+  public <T extends IItem> ISequence<T> evaluateStreaming(
+      @Nullable IItem focus,
+      @NonNull DynamicContext dynamicContext) {
+    try {
+      return ObjectUtils.asType(evaluateExpression(focus, dynamicContext));
+    } catch (MetapathException ex) {
+      throw newEvaluationException(ex);
+    }
+  }
+
+  @Override
+  public <T> T evaluateAs(
+      @Nullable IItem focus,
+      @NonNull ResultType resultType,
+      @NonNull DynamicContext dynamicContext) {
+    try {
+      // the conversion pulls items from the streaming result, which may raise
+      // evaluation errors
+      return resultType.convert(evaluateStreaming(focus, dynamicContext));
+    } catch (MetapathException ex) {
+      throw newEvaluationException(ex);
+    }
+  }
+
+  @NonNull
+  private MetapathException newEvaluationException(@NonNull MetapathException ex) {
+    return new MetapathException(
+        String.format("An error occurred while evaluating the expression '%s'. %s",
+            getPath(),
+            ex.getLocalizedMessage()),
+        ex);
+  }
+
   @FunctionalInterface
   interface ConversionFunction {
     @Nullable
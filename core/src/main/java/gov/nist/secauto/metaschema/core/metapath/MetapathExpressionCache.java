@@ -0,0 +1,83 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath;
+
+import gov.nist.secauto.metaschema.core.util.AbstractBoundedCache;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A bounded, thread-safe cache of compiled Metapath expressions.
+ * <p>
+ * Compiled expressions are keyed by the Metapath expression string and the
+ * identity of the {@link StaticContext} used to compile the expression, since a
+ * static context does not override {@link Object#equals(Object)}. Since
+ * a static context is immutable, the same expression compiled against the same
+ * static context will always produce an equivalent compact syntax tree (CST),
+ * allowing the result of compilation to be shared across evaluations and
+ * threads.
+ * <p>
+ * Compilation failures are not cached.
+ */
+public final class MetapathExpressionCache
+    extends AbstractBoundedCache<Map.Entry<String, StaticContext>, MetapathExpression> {
+  /**
+   * The default maximum number of compiled expressions to retain.
+   */
+  public static final long DEFAULT_MAXIMUM_SIZE = 2000;
+
+  @NonNull
+  private static final MetapathExpressionCache INSTANCE = new MetapathExpressionCache(DEFAULT_MAXIMUM_SIZE);
+
+  /**
+   * Get the shared cache used when compiling Metapath expressions using
+   * {@link IMetapathExpression#compile(String, StaticContext)}.
+   *
+   * @return the shared cache instance
+   */
+  @NonNull
+  public static MetapathExpressionCache instance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Construct a new cache.
+   *
+   * @param maximumSize
+   *          the maximum number of compiled expressions to retain, after which
+   *          the least valuable entries will be evicted
+   */
+  public MetapathExpressionCache(long maximumSize) {
+    super(maximumSize);
+  }
+
+  /**
+   * Get the compiled expression for the provided Metapath, compiling the
+   * expression using the provided {@code compiler} if it is not already cached.
+   *
+   * @param path
+   *          the Metapath expression
+   * @param staticContext
+   *          the static context used to compile the expression
+   * @param compiler
+   *          the function used to compile the expression on a cache miss
+   * @return the compiled expression
+   * @throws MetapathException
+   *           if an error occurred while compiling the Metapath expression
+   */
+  @NonNull
+  MetapathExpression get(
+      @NonNull String path,
+      @NonNull StaticContext staticContext,
+      @NonNull BiFunction<String, StaticContext, MetapathExpression> compiler) {
+    return get(
+        Map.entry(path, staticContext),
+        key -> compiler.apply(key.getKey(), key.getValue()));
+  }
+}
@@ -86,6 +86,7 @@ public final class StaticContext {
   @Nullable
   private final String defaultFunctionNamespace;
   private final boolean useWildcardWhenNamespaceNotDefaulted;
+  private final boolean optimizeExpressions;
 
   /**
    * Get the mapping of prefix to namespace URI for all well-known namespaces provided by default to
@@ -145,6 +146,7 @@ public final class StaticContext {
     this.defaultModelNamespace = builder.defaultModelNamespace;
     this.defaultFunctionNamespace = builder.defaultFunctionNamespace;
     this.useWildcardWhenNamespaceNotDefaulted = builder.useWildcardWhenNamespaceNotDefaulted;
+    this.optimizeExpressions = builder.optimizeExpressions;
   }
 
   /**
@@ -576,6 +578,7 @@ public final class StaticContext {
     builder.namespaces.putAll(this.knownPrefixToNamespace);
     builder.defaultModelNamespace = this.defaultModelNamespace;
     builder.defaultFunctionNamespace = this.defaultFunctionNamespace;
+    builder.optimizeExpressions = this.optimizeExpressions;
     return builder;
   }
 
@@ -590,6 +593,16 @@ public final class StaticContext {
     return useWildcardWhenNamespaceNotDefaulted && getDefaultModelNamespace() == null;
   }
 
+  /**
+   * Indicates if compiled Metapath expressions should be optimized using the
+   * {@link gov.nist.secauto.metaschema.core.metapath.cst.CSTOptimizer}.
+   *
+   * @return {@code true} if expressions are optimized or {@code false} otherwise
+   */
+  public boolean isOptimizeExpressions() {
+    return optimizeExpressions;
+  }
+
   /**
    * Create a new static context builder that allows for fine-grained adjustments when creating a new
    * static context.
@@ -606,6 +619,7 @@ public final class StaticContext {
    */
   public static final class Builder {
     private boolean useWildcardWhenNamespaceNotDefaulted; // false
+    private boolean optimizeExpressions = true;
     @Nullable
     private URI baseUri;
     @NonNull
@@ -766,6 +780,20 @@ public final class StaticContext {
       return this;
     }
 
+    /**
+     * Set if compiled Metapath expressions should be optimized. Optimization is
+     * enabled by default.
+     *
+     * @param value
+     *          {@code true} if on or {@code false} otherwise
+     * @return this builder
+     */
+    @NonNull
+    public Builder optimizeExpressions(boolean value) {
+      this.optimizeExpressions = value;
+      return this;
+    }
+
     /**
      * Construct a new static context using the information provided to the builder.
      *
@@ -0,0 +1,115 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath;
+
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An immutable variable binding that is part of a chain of bindings, with the
+ * most recent binding at the head of the chain.
+ * <p>
+ * Since frames are never modified, a chain can be shared by any number of
+ * dynamic contexts. Creating a sub-context only requires referencing the
+ * current head of the chain, and a binding made in the sub-context prepends a
+ * new frame without affecting the chain seen by any other context.
+ */
+final class VariableFrame {
+  private final int name;
+  @NonNull
+  private final ISequence<?> value;
+  @Nullable
+  private final VariableFrame parent;
+
+  /**
+   * Construct a new frame.
+   *
+   * @param name
+   *          the index position of the variable's qualified name
+   * @param value
+   *          the value bound to the variable
+   * @param parent
+   *          the next frame in the chain, or {@code null} if this is the last
+   *          frame
+   */
+  VariableFrame(int name, @NonNull ISequence<?> value, @Nullable VariableFrame parent) {
+    this.name = name;
+    this.value = value;
+    this.parent = parent;
+  }
+
+  /**
+   * Get the value of the most recent binding of a variable in the chain starting
+   * with the provided frame.
+   *
+   * @param head
+   *          the first frame in the chain, or {@code null} if the chain is empty
+   * @param name
+   *          the index position of the variable's qualified name
+   * @return the bound value, or {@code null} if the variable is not bound
+   */
+  @Nullable
+  static ISequence<?> lookup(@Nullable VariableFrame head, int name) {
+    ISequence<?> retval = null;
+    for (VariableFrame frame = head; frame != null; frame = frame.parent) {
+      if (frame.name == name) {
+        retval = frame.value;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Bind a variable, replacing any existing binding of the variable made after
+   * the provided base frame.
+   * <p>
+   * Replacing an existing binding keeps the chain from growing when a variable
+   * is repeatedly re-bound in the same context, such as for each iteration of a
+   * {@code for} expression. Frames that are part of the base chain are shared
+   * with other contexts, so bindings in the base chain are shadowed instead.
+   *
+   * @param head
+   *          the first frame in the chain, or {@code null} if the chain is empty
+   * @param base
+   *          the first frame that is shared with other contexts, or {@code null}
+   *          if no frames are shared
+   * @param name
+   *          the index position of the variable's qualified name
+   * @param value
+   *          the value to bind to the variable
+   * @return the new head of the chain
+   */
+  @NonNull
+  static VariableFrame bind(
+      @Nullable VariableFrame head,
+      @Nullable VariableFrame base,
+      int name,
+      @NonNull ISequence<?> value) {
+    return new VariableFrame(name, value, unbind(head, base, name));
+  }
+
+  @Nullable
+  private static VariableFrame unbind(
+      @Nullable VariableFrame head,
+      @Nullable VariableFrame base,
+      int name) {
+    VariableFrame retval;
+    if (head == base || head == null) {
+      // the variable is not bound after the base
+      retval = head;
+    } else if (head.name == name) {
+      // a variable is bound at most once after the base
+      retval = head.parent;
+    } else {
+      VariableFrame parent = unbind(head.parent, base, name);
+      retval = parent == head.parent ? head : new VariableFrame(head.name, head.value, parent);
+    }
+    return retval;
+  }
+}
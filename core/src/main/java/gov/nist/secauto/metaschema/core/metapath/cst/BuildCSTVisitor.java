@@ -64,6 +64,7 @@ import gov.nist.secauto.metaschema.core.metapath.cst.type.Treat;
 import gov.nist.secauto.metaschema.core.metapath.cst.type.TypeTestSupport;
 import gov.nist.secauto.metaschema.core.metapath.function.ComparisonFunctions;
 import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
+import gov.nist.secauto.metaschema.core.metapath.function.regex.RegexUtil;
 import gov.nist.secauto.metaschema.core.metapath.impl.AbstractKeySpecifier;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
 import gov.nist.secauto.metaschema.core.metapath.item.function.IKeySpecifier;
@@ -391,6 +392,8 @@ public class BuildCSTVisitor
         parseArgumentList(ObjectUtils.notNull(ctx.argumentlist()))
             .collect(Collectors.toUnmodifiableList()));
 
+    precompileRegexPattern(ObjectUtils.notNull(ctx.eqname().getText()), arguments);
+
     return new StaticFunctionCall(
         ObjectUtils.notNull(ctx.getText()),
         () -> getContext().lookupFunction(
@@ -399,6 +402,37 @@ public class BuildCSTVisitor
         arguments);
   }
 
+  /**
+   * Compile the literal regular expression pattern provided to a call of a
+   * regular expression function, if the pattern and any flags are provided as
+   * string literals.
+   *
+   * @param name
+   *          the lexical name of the called function
+   * @param arguments
+   *          the function call's argument expressions
+   */
+  private void precompileRegexPattern(@NonNull String name, @NonNull List<IExpression> arguments) {
+    int arity = arguments.size();
+    if ((arity == 2 || arity == 3)
+        && arguments.get(1) instanceof StringLiteral
+        && (arity == 2 || arguments.get(2) instanceof StringLiteral)) {
+      IEnhancedQName qname;
+      try {
+        qname = getContext().parseFunctionName(name);
+      } catch (StaticMetapathException ex) {
+        // the error will be reported when the function is resolved
+        qname = null;
+      }
+
+      if (qname != null && RegexUtil.isPatternFunction(qname)) {
+        String pattern = ((StringLiteral) arguments.get(1)).getValue().asString();
+        String flags = arity == 2 ? "" : ((StringLiteral) arguments.get(2)).getValue().asString();
+        RegexUtil.precompilePattern(pattern, flags);
+      }
+    }
+  }
+
   // ============================================================
   // https://www.w3.org/TR/xpath-31/#doc-xpath31-NamedFunctionRef
   // ============================================================
@@ -1259,6 +1293,8 @@ public class BuildCSTVisitor
             = ctx.getChild(Metapath10.ArrowfunctionspecifierContext.class, offset);
         if (arrowCtx.eqname() != null) {
           // named function
+          precompileRegexPattern(ObjectUtils.notNull(arrowCtx.eqname().getText()), arguments);
+
           return new StaticFunctionCall(
               ObjectUtils.notNull(arrowCtx.getText()),
               () -> getContext().lookupFunction(ObjectUtils.notNull(arrowCtx.eqname().getText()), arguments.size()),
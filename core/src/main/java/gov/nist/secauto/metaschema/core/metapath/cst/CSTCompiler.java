@@ -0,0 +1,308 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.cst;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.DynamicMetapathException;
+import gov.nist.secauto.metaschema.core.metapath.IExpression;
+import gov.nist.secauto.metaschema.core.metapath.MetapathEvaluationFeature;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.DecimalLiteral;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.EmptySequence;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.ILiteralExpression;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.IntegerLiteral;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.StringLiteral;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.And;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.GeneralComparison;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.Or;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.PredicateExpression;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.ValueComparison;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.ContextItem;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.FlagStep;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.INodeTestExpression;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.ModelInstanceStep;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.NameNodeTest;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.RelativeSlashPath;
+import gov.nist.secauto.metaschema.core.metapath.function.ComparisonFunctions;
+import gov.nist.secauto.metaschema.core.metapath.function.library.FnBoolean;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.ItemUtils;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IBooleanItem;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Compiles a compact syntax tree (CST) into a tree of closures that evaluate
+ * the expression directly.
+ * <p>
+ * The closures produce the same results as evaluating the CST, but perform as
+ * much of each node's work as possible once, at compile time. Literal values
+ * are wrapped in a sequence once, name tests are bound to the matching child
+ * lookup, and paths, predicates, comparisons, boolean operators, and static
+ * function calls call their compiled children directly. This avoids the virtual
+ * dispatch and the execution stack bookkeeping performed for each node by
+ * {@link IExpression#accept(DynamicContext, ISequence)}.
+ * <p>
+ * Any node that is not supported by this compiler, along with its sub-tree, is
+ * evaluated using the CST. As a result, only unsupported nodes are recorded on
+ * the execution stack during evaluation.
+ * <p>
+ * Compiled expressions are immutable and may be shared across threads.
+ */
+public final class CSTCompiler {
+  private CSTCompiler() {
+    // disable construction
+  }
+
+  /**
+   * Compile the provided CST.
+   *
+   * @param expr
+   *          the root of the CST to compile
+   * @return the compiled expression
+   */
+  @NonNull
+  public static ICompiledExpression compile(@NonNull IExpression expr) {
+    return new CompilingVisitor().compile(expr);
+  }
+
+  /**
+   * Produces a compiled expression for each visited node.
+   */
+  @SuppressWarnings("PMD.ExcessivePublicCount")
+  private static final class CompilingVisitor
+      extends AbstractExpressionVisitor<ICompiledExpression, Void> {
+
+    @SuppressWarnings("null")
+    @NonNull
+    public ICompiledExpression compile(@NonNull IExpression expr) {
+      return ObjectUtils.notNull(expr.accept(this, null));
+    }
+
+    @NonNull
+    private ICompiledExpression[] compileAll(@NonNull List<? extends IExpression> exprs) {
+      ICompiledExpression[] retval = new ICompiledExpression[exprs.size()];
+      for (int i = 0; i < retval.length; i++) {
+        retval[i] = compile(ObjectUtils.notNull(exprs.get(i)));
+      }
+      return retval;
+    }
+
+    @Override
+    protected ICompiledExpression visitChildren(IExpression expr, Void context) {
+      // the node is not supported, so the node and its sub-tree are evaluated
+      // using the CST
+      return expr::accept;
+    }
+
+    @Override
+    protected ICompiledExpression aggregateResult(
+        ICompiledExpression result,
+        ICompiledExpression nextResult,
+        Void context) {
+      // only called by the base visitChildren, which is overridden above
+      throw new UnsupportedOperationException("Method not used. Unsupported nodes are evaluated using the CST.");
+    }
+
+    @Override
+    protected ICompiledExpression defaultResult() {
+      // only called by the base visitChildren, which is overridden above
+      throw new UnsupportedOperationException("Method not used. Unsupported nodes are evaluated using the CST.");
+    }
+
+    @NonNull
+    private static ICompiledExpression compileLiteral(@NonNull ILiteralExpression<?> expr) {
+      ISequence<?> value = ISequence.of(expr.getValue());
+      return (dynamicContext, focus) -> value;
+    }
+
+    @Override
+    public ICompiledExpression visitIntegerLiteral(IntegerLiteral expr, Void context) {
+      return compileLiteral(expr);
+    }
+
+    @Override
+    public ICompiledExpression visitDecimalLiteral(DecimalLiteral expr, Void context) {
+      return compileLiteral(expr);
+    }
+
+    @Override
+    public ICompiledExpression visitStringLiteral(StringLiteral expr, Void context) {
+      return compileLiteral(expr);
+    }
+
+    @Override
+    public ICompiledExpression visitEmptySequence(EmptySequence<?> expr, Void context) {
+      return (dynamicContext, focus) -> ISequence.empty();
+    }
+
+    @Override
+    public ICompiledExpression visitContextItem(ContextItem expr, Void context) {
+      return (dynamicContext, focus) -> {
+        if (focus.isEmpty()) {
+          throw new DynamicMetapathException(DynamicMetapathException.DYNAMIC_CONTEXT_ABSENT, "The context is empty");
+        }
+        return focus;
+      };
+    }
+
+    @Override
+    public ICompiledExpression visitRelativeSlashPath(RelativeSlashPath expr, Void context) {
+      ICompiledExpression left = compile(expr.getLeft());
+      ICompiledExpression right = compile(expr.getRight());
+      return (dynamicContext, focus) -> {
+        ISequence<?> leftResult = left.evaluate(dynamicContext, focus);
+
+        // ensures the left sequence is list backed
+        return leftResult.isEmpty()
+            ? ISequence.empty()
+            : right.evaluate(dynamicContext, leftResult);
+      };
+    }
+
+    @Override
+    public ICompiledExpression visitModelInstanceStep(ModelInstanceStep expr, Void context) {
+      INodeTestExpression test = expr.getTest();
+
+      ICompiledExpression retval;
+      if (test instanceof NameNodeTest) {
+        IEnhancedQName name = ((NameNodeTest) test).getName();
+        retval = (dynamicContext, focus) -> ISequence.of(ObjectUtils.notNull(focus.stream()
+            .map(ItemUtils::checkItemIsNodeItemForStep)
+            .flatMap(item -> item.getModelItemsByName(name).stream())));
+      } else {
+        retval = expr::accept;
+      }
+      return retval;
+    }
+
+    @Override
+    public ICompiledExpression visitFlagStep(FlagStep expr, Void context) {
+      INodeTestExpression test = expr.getTest();
+
+      ICompiledExpression retval;
+      if (test instanceof NameNodeTest) {
+        IEnhancedQName name = ((NameNodeTest) test).getName();
+        retval = (dynamicContext, focus) -> ISequence.of(ObjectUtils.notNull(focus.stream()
+            .map(ItemUtils::checkItemIsNodeItemForStep)
+            .flatMap(item -> Stream.ofNullable(item.getFlagByName(name)))));
+      } else {
+        retval = expr::accept;
+      }
+      return retval;
+    }
+
+    @Override
+    public ICompiledExpression visitPredicate(PredicateExpression expr, Void context) {
+      ICompiledExpression retval;
+      if (expr.isPositional()) {
+        // positional selection is already optimized by the predicate expression
+        retval = expr::accept;
+      } else {
+        ICompiledExpression base = compile(expr.getBase());
+        ICompiledExpression[] predicates = compileAll(expr.getPredicates());
+        retval = (dynamicContext, focus) -> {
+          ISequence<?> result = base.evaluate(dynamicContext, focus);
+          if (dynamicContext.getConfiguration().isFeatureEnabled(
+              MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES)) {
+            for (ICompiledExpression predicate : predicates) {
+              result = filter(result, predicate, dynamicContext);
+            }
+          }
+          return result;
+        };
+      }
+      return retval;
+    }
+
+    @NonNull
+    private static ISequence<?> filter(
+        @NonNull ISequence<?> sequence,
+        @NonNull ICompiledExpression predicate,
+        @NonNull DynamicContext dynamicContext) {
+      return ISequence.of(ObjectUtils.notNull(sequence.stream().filter(item -> {
+        assert item != null;
+        return FnBoolean.fnBooleanAsPrimitive(predicate.evaluate(dynamicContext, ISequence.of(item)));
+      })));
+    }
+
+    @Override
+    public ICompiledExpression visitGeneralComparison(GeneralComparison expr, Void context) {
+      ICompiledExpression left = compile(expr.getLeft());
+      ICompiledExpression right = compile(expr.getRight());
+      ComparisonFunctions.Operator operator = expr.getOperator();
+      return (dynamicContext, focus) -> {
+        ISequence<? extends IAnyAtomicItem> leftItems = ISequence.of(left.evaluate(dynamicContext, focus).atomize());
+        ISequence<? extends IAnyAtomicItem> rightItems = ISequence.of(right.evaluate(dynamicContext, focus).atomize());
+        return ISequence.of(ComparisonFunctions.generalComparison(leftItems, operator, rightItems));
+      };
+    }
+
+    @Override
+    public ICompiledExpression visitValueComparison(ValueComparison expr, Void context) {
+      ICompiledExpression left = compile(expr.getLeft());
+      ICompiledExpression right = compile(expr.getRight());
+      ComparisonFunctions.Operator operator = expr.getOperator();
+      return (dynamicContext, focus) -> {
+        IAnyAtomicItem leftItem
+            = ISequence.of(left.evaluate(dynamicContext, focus).atomize()).getFirstItem(false);
+        IAnyAtomicItem rightItem
+            = ISequence.of(right.evaluate(dynamicContext, focus).atomize()).getFirstItem(false);
+        return leftItem == null || rightItem == null
+            ? ISequence.empty()
+            : ISequence.of(ComparisonFunctions.valueCompairison(leftItem, operator, rightItem));
+      };
+    }
+
+    @Override
+    public ICompiledExpression visitAnd(And expr, Void context) {
+      ICompiledExpression[] children = compileAll(expr.getChildren());
+      return (dynamicContext, focus) -> {
+        boolean retval = true;
+        for (ICompiledExpression child : children) {
+          if (!FnBoolean.fnBooleanAsPrimitive(child.evaluate(dynamicContext, focus))) {
+            retval = false;
+            break;
+          }
+        }
+        return ISequence.of(IBooleanItem.valueOf(retval));
+      };
+    }
+
+    @Override
+    public ICompiledExpression visitOr(Or expr, Void context) {
+      ICompiledExpression[] children = compileAll(expr.getChildren());
+      return (dynamicContext, focus) -> {
+        boolean retval = false;
+        for (ICompiledExpression child : children) {
+          if (FnBoolean.fnBooleanAsPrimitive(child.evaluate(dynamicContext, focus))) {
+            retval = true;
+            break;
+          }
+        }
+        return ISequence.of(IBooleanItem.valueOf(retval));
+      };
+    }
+
+    @Override
+    public ICompiledExpression visitStaticFunctionCall(StaticFunctionCall expr, Void context) {
+      ICompiledExpression[] arguments = compileAll(expr.getChildren());
+      return (dynamicContext, focus) -> {
+        List<ISequence<?>> argumentValues = new ArrayList<>(arguments.length);
+        for (ICompiledExpression argument : arguments) {
+          argumentValues.add(argument.evaluate(dynamicContext, focus).contentsAsSequence());
+        }
+        return expr.getInvoker().invoke(argumentValues, dynamicContext, focus);
+      };
+    }
+  }
+}
@@ -0,0 +1,420 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.cst;
+
+import gov.nist.secauto.metaschema.core.metapath.IExpression;
+import gov.nist.secauto.metaschema.core.metapath.StaticContext;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.ArraySequenceConstructor;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.ArraySquareConstructor;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.IntegerLiteral;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.MapConstructor;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.Quantified;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.SimpleMap;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.StringConcat;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.And;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.GeneralComparison;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.If;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.Or;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.PredicateExpression;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.ValueComparison;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.Addition;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.Division;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.IntegerDivision;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.Modulo;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.Multiplication;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.Negate;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.Subtraction;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.RelativeDoubleSlashPath;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.RelativeSlashPath;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.RootDoubleSlashPath;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.RootSlashPath;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Performs a rule-based rewrite of a compact syntax tree (CST), producing a
+ * semantically equivalent tree that requires fewer node visits to evaluate.
+ * <p>
+ * The tree is rewritten bottom-up. Once the children of a node are optimized,
+ * each enabled {@link CSTRewriteRule} is applied to the node until no rule
+ * applies. Only nodes that can be reconstructed by this optimizer have their
+ * children optimized; any other node, such as a lookup, cast, or function
+ * reference, is left as-is, along with its sub-tree.
+ * <p>
+ * A predicate that is not an integer literal is never rewritten into one, since
+ * an integer literal predicate selects the item at that position, while any
+ * other predicate filters items using its effective boolean value.
+ */
+public final class CSTOptimizer {
+  private static final Logger LOGGER = LogManager.getLogger(CSTOptimizer.class);
+
+  private CSTOptimizer() {
+    // disable construction
+  }
+
+  /**
+   * Optimize the provided CST using all rules in the {@link CSTRewriteRule}
+   * catalog.
+   *
+   * @param expr
+   *          the root of the CST to optimize
+   * @param staticContext
+   *          the static context used to compile the expression
+   * @return the optimized CST, which may be the same as the provided tree if no
+   *         optimization was possible
+   */
+  @NonNull
+  public static IExpression optimize(@NonNull IExpression expr, @NonNull StaticContext staticContext) {
+    return optimize(expr, staticContext, ObjectUtils.notNull(EnumSet.allOf(CSTRewriteRule.class)));
+  }
+
+  /**
+   * Optimize the provided CST using the provided rules.
+   *
+   * @param expr
+   *          the root of the CST to optimize
+   * @param staticContext
+   *          the static context used to compile the expression
+   * @param rules
+   *          the rules to apply
+   * @return the optimized CST, which may be the same as the provided tree if no
+   *         optimization was possible
+   */
+  @NonNull
+  public static IExpression optimize(
+      @NonNull IExpression expr,
+      @NonNull StaticContext staticContext,
+      @NonNull Set<CSTRewriteRule> rules) {
+    IExpression retval = new RewriteVisitor(rules).rewrite(expr, staticContext);
+
+    if (LOGGER.isDebugEnabled() && !expr.equals(retval)) {
+      LOGGER.atDebug().log(String.format("Optimized Metapath CST:%nBefore:%n%s%nAfter:%n%s",
+          CSTPrinter.toString(expr),
+          CSTPrinter.toString(retval)));
+    }
+    return retval;
+  }
+
+  /**
+   * Rewrites expression nodes.
+   * <p>
+   * A visitation produces a new expression if the node's children were
+   * rewritten, or {@code null} if the node is unchanged.
+   */
+  @SuppressWarnings("PMD.ExcessivePublicCount")
+  private static final class RewriteVisitor
+      extends AbstractExpressionVisitor<IExpression, StaticContext> {
+    @NonNull
+    private final Set<CSTRewriteRule> rules;
+
+    private RewriteVisitor(@NonNull Set<CSTRewriteRule> rules) {
+      this.rules = rules;
+    }
+
+    @NonNull
+    public IExpression rewrite(@NonNull IExpression expr, @NonNull StaticContext context) {
+      IExpression rebuilt = visit(expr, context);
+      IExpression retval = rebuilt == null ? expr : rebuilt;
+
+      boolean changed;
+      do {
+        changed = false;
+        for (CSTRewriteRule rule : rules) {
+          IExpression rewritten = rule.rewrite(retval, context);
+          if (rewritten != null) {
+            retval = rewritten;
+            changed = true;
+            break;
+          }
+        }
+      } while (changed);
+      return retval;
+    }
+
+    /**
+     * Rewrite the provided child expressions.
+     *
+     * @param children
+     *          the child expressions to rewrite
+     * @param context
+     *          the static context
+     * @return the rewritten children, or {@code null} if no child was changed
+     */
+    @Nullable
+    private List<IExpression> rewriteChildren(
+        @NonNull List<? extends IExpression> children,
+        @NonNull StaticContext context) {
+      boolean changed = false;
+      List<IExpression> retval = new ArrayList<>(children.size());
+      for (IExpression child : children) {
+        assert child != null;
+        IExpression rewritten = rewrite(child, context);
+        changed = changed || !child.equals(rewritten);
+        retval.add(rewritten);
+      }
+      return changed ? CollectionUtil.unmodifiableList(retval) : null;
+    }
+
+    @Override
+    protected IExpression visitChildren(IExpression expr, StaticContext context) {
+      // the node cannot be rebuilt, so its children are not optimized
+      return null;
+    }
+
+    @Override
+    protected IExpression aggregateResult(IExpression result, IExpression nextResult, StaticContext context) {
+      return null;
+    }
+
+    @Override
+    protected IExpression defaultResult() {
+      return null;
+    }
+
+    @Override
+    public IExpression visitAddition(Addition expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new Addition(expr.getText(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitSubtraction(Subtraction expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new Subtraction(expr.getText(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitMultiplication(Multiplication expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new Multiplication(expr.getText(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitDivision(Division expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new Division(expr.getText(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitIntegerDivision(IntegerDivision expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new IntegerDivision(expr.getText(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitModulo(Modulo expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new Modulo(expr.getText(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitNegate(Negate expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new Negate(expr.getText(), children.get(0));
+    }
+
+    @Override
+    public IExpression visitGeneralComparison(GeneralComparison expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null
+          ? null
+          : new GeneralComparison(expr.getText(), children.get(0), expr.getOperator(), children.get(1));
+    }
+
+    @Override
+    public IExpression visitValueComparison(ValueComparison expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null
+          ? null
+          : new ValueComparison(expr.getText(), children.get(0), expr.getOperator(), children.get(1));
+    }
+
+    @Override
+    public IExpression visitAnd(And expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new And(expr.getText(), children);
+    }
+
+    @Override
+    public IExpression visitOr(Or expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new Or(expr.getText(), children);
+    }
+
+    @Override
+    public IExpression visitIf(If expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null
+          ? null
+          : new If(expr.getText(), children.get(0), children.get(1), children.get(2));
+    }
+
+    @Override
+    public IExpression visitStringConcat(StringConcat expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new StringConcat(expr.getText(), children);
+    }
+
+    @Override
+    public IExpression visitStaticFunctionCall(StaticFunctionCall expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new StaticFunctionCall(expr.getText(), expr::getFunction, children);
+    }
+
+    @Override
+    public IExpression visitPredicate(PredicateExpression expr, StaticContext context) {
+      IExpression base = expr.getBase();
+      IExpression newBase = rewrite(base, context);
+      boolean changed = !base.equals(newBase);
+
+      List<IExpression> predicates = new ArrayList<>(expr.getPredicates().size());
+      for (IExpression predicate : expr.getPredicates()) {
+        assert predicate != null;
+        IExpression rewritten = rewrite(predicate, context);
+        if (rewritten instanceof IntegerLiteral && !(predicate instanceof IntegerLiteral)) {
+          // folding into an integer literal would make the predicate positional
+          rewritten = predicate;
+        }
+        changed = changed || !predicate.equals(rewritten);
+        predicates.add(rewritten);
+      }
+      return changed
+          ? new PredicateExpression(expr.getText(), newBase, CollectionUtil.unmodifiableList(predicates))
+          : null;
+    }
+
+    @Override
+    public IExpression visitRelativeSlashPath(RelativeSlashPath expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new RelativeSlashPath(expr.getText(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitRelativeDoubleSlashPath(RelativeDoubleSlashPath expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null
+          ? null
+          : new RelativeDoubleSlashPath(expr.getText(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitRootSlashPath(RootSlashPath expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new RootSlashPath(expr.getText(), children.get(0));
+    }
+
+    @Override
+    public IExpression visitRootDoubleSlashPath(RootDoubleSlashPath expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new RootDoubleSlashPath(expr.getText(), children.get(0));
+    }
+
+    @Override
+    public IExpression visitSimpleMap(SimpleMap expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new SimpleMap(expr.getText(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitLet(Let expr, StaticContext context) {
+      // the bound expression is not a child of the let expression
+      Let.VariableDeclaration variable = expr.getVariable();
+      List<IExpression> children = rewriteChildren(
+          ObjectUtils.notNull(List.of(variable.getBoundExpression(), expr.getReturnExpression())),
+          context);
+      return children == null
+          ? null
+          : new Let(expr.getText(), variable.getName(), children.get(0), children.get(1));
+    }
+
+    @Override
+    public IExpression visitFor(For expr, StaticContext context) {
+      Let.VariableDeclaration variable = expr.getVariable();
+      List<IExpression> children = rewriteChildren(
+          ObjectUtils.notNull(List.of(variable.getBoundExpression(), expr.getReturnExpression())),
+          context);
+      return children == null
+          ? null
+          : new For(
+              expr.getText(),
+              new Let.VariableDeclaration(variable.getName(), children.get(0)),
+              children.get(1));
+    }
+
+    @Override
+    public IExpression visitQuantified(Quantified expr, StaticContext context) {
+      Map<IEnhancedQName, IExpression> inClauses = expr.getInClauses();
+      List<IExpression> children = rewriteChildren(
+          ObjectUtils.notNull(Stream.concat(inClauses.values().stream(), Stream.of(expr.getSatisfies()))
+              .collect(Collectors.toList())),
+          context);
+
+      IExpression retval = null;
+      if (children != null) {
+        Map<IEnhancedQName, IExpression> newInClauses = new LinkedHashMap<>(); // NOPMD ordering needed
+        int index = 0;
+        for (IEnhancedQName name : inClauses.keySet()) {
+          newInClauses.put(name, children.get(index++));
+        }
+        retval = new Quantified(
+            expr.getText(),
+            expr.getQuantifier(),
+            newInClauses,
+            ObjectUtils.notNull(children.get(index)));
+      }
+      return retval;
+    }
+
+    @Override
+    public IExpression visitArray(ArraySequenceConstructor expr, StaticContext context) {
+      IExpression member = expr.getExpression();
+      IExpression retval = null;
+      if (member != null) {
+        IExpression rewritten = rewrite(member, context);
+        retval = member.equals(rewritten) ? null : new ArraySequenceConstructor(expr.getText(), rewritten);
+      }
+      return retval;
+    }
+
+    @Override
+    public IExpression visitArray(ArraySquareConstructor expr, StaticContext context) {
+      List<IExpression> children = rewriteChildren(expr.getChildren(), context);
+      return children == null ? null : new ArraySquareConstructor(expr.getText(), children);
+    }
+
+    @Override
+    public IExpression visitMapConstructor(MapConstructor expr, StaticContext context) {
+      boolean changed = false;
+      List<MapConstructor.Entry> entries = new ArrayList<>(expr.getChildren().size());
+      for (MapConstructor.Entry entry : expr.getChildren()) {
+        List<IExpression> children = rewriteChildren(entry.getChildren(), context);
+        if (children == null) {
+          entries.add(entry);
+        } else {
+          entries.add(new MapConstructor.Entry(entry.getText(), children.get(0), children.get(1)));
+          changed = true;
+        }
+      }
+      return changed ? new MapConstructor(expr.getText(), CollectionUtil.unmodifiableList(entries)) : null;
+    }
+  }
+}
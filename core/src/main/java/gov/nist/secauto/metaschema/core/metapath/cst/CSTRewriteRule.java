@@ -0,0 +1,349 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.cst;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.IExpression;
+import gov.nist.secauto.metaschema.core.metapath.MetapathConstants;
+import gov.nist.secauto.metaschema.core.metapath.StaticContext;
+import gov.nist.secauto.metaschema.core.metapath.StaticMetapathException;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.DecimalLiteral;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.ILiteralExpression;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.IntegerLiteral;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.StringConcat;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.StringLiteral;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.AbstractComparison;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.And;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.If;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.Or;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.AbstractBasicArithmeticExpression;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.Negate;
+import gov.nist.secauto.metaschema.core.metapath.function.ComparisonFunctions;
+import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.item.IItem;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IBooleanItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IDecimalItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The catalog of rewrite rules applied by the {@link CSTOptimizer} to a
+ * compiled compact syntax tree (CST).
+ * <p>
+ * Each rule either produces a semantically equivalent replacement for a given
+ * expression node, or {@code null} if the rule does not apply. Rules are only
+ * applied to nodes whose children have already been optimized.
+ */
+public enum CSTRewriteRule {
+  /**
+   * Replaces an arithmetic, comparison, string concatenation, or static function
+   * call expression whose operands are all constant with a constant representing
+   * the result of the expression.
+   * <p>
+   * Static function calls are only folded if the function is deterministic,
+   * context independent, and focus independent. Any error raised while folding
+   * is deferred to evaluation time by leaving the expression unchanged.
+   */
+  CONSTANT_FOLDING {
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    @Override
+    IExpression rewrite(IExpression expr, StaticContext staticContext) {
+      IExpression retval = null;
+      if (isFoldable(expr)) {
+        try {
+          ISequence<?> result = expr.accept(new DynamicContext(staticContext), ISequence.empty());
+          retval = newConstant(expr.getText(), result);
+        } catch (RuntimeException ex) { // NOPMD - errors must be raised during evaluation
+          // leave the expression unchanged
+          retval = null;
+        }
+      }
+      return retval;
+    }
+  },
+  /**
+   * Simplifies boolean logic having constant operands.
+   * <p>
+   * This includes removing {@code true()} operands from an {@code and}
+   * expression, removing {@code false()} operands from an {@code or}
+   * expression, short-circuiting an {@code and} or {@code or} that has an
+   * operand that determines the result, and replacing an {@code if} expression
+   * having a constant test with the selected branch.
+   */
+  BOOLEAN_SIMPLIFICATION {
+    @Override
+    IExpression rewrite(IExpression expr, StaticContext staticContext) {
+      IExpression retval = null;
+      if (expr instanceof And) {
+        retval = simplifyLogic(expr, false);
+      } else if (expr instanceof Or) {
+        retval = simplifyLogic(expr, true);
+      } else if (expr instanceof If) {
+        List<? extends IExpression> children = expr.getChildren();
+        Boolean test = getBooleanConstant(children.get(0));
+        if (test != null) {
+          retval = children.get(test ? 1 : 2);
+        }
+      }
+      return retval;
+    }
+  },
+  /**
+   * Replaces a comparison of {@code fn:count} against {@code 0} or {@code 1}
+   * with the equivalent {@code fn:exists} or {@code fn:empty} call, which can
+   * stop at the first item instead of counting all items.
+   */
+  COUNT_TO_EXISTS {
+    @Override
+    IExpression rewrite(IExpression expr, StaticContext staticContext) {
+      IExpression retval = null;
+      if (expr instanceof AbstractComparison) {
+        AbstractComparison comparison = (AbstractComparison) expr;
+        IExpression left = comparison.getLeft();
+        IExpression right = comparison.getRight();
+        ComparisonFunctions.Operator operator = comparison.getOperator();
+
+        IExpression countArgument = getCountArgument(left);
+        BigInteger value = getIntegerConstant(right);
+        if (countArgument == null) {
+          // try the reverse of the comparison
+          countArgument = getCountArgument(right);
+          value = getIntegerConstant(left);
+          operator = reverse(operator);
+        }
+
+        if (countArgument != null && value != null) {
+          Boolean exists = null;
+          if (BigInteger.ZERO.equals(value)) {
+            if (operator == ComparisonFunctions.Operator.GT || operator == ComparisonFunctions.Operator.NE) {
+              exists = true;
+            } else if (operator == ComparisonFunctions.Operator.EQ || operator == ComparisonFunctions.Operator.LE) {
+              exists = false;
+            }
+          } else if (BigInteger.ONE.equals(value)) {
+            if (operator == ComparisonFunctions.Operator.GE) {
+              exists = true;
+            } else if (operator == ComparisonFunctions.Operator.LT) {
+              exists = false;
+            }
+          }
+
+          if (exists != null) {
+            IEnhancedQName name = exists ? FN_EXISTS : FN_EMPTY;
+            retval = new StaticFunctionCall(
+                expr.getText(),
+                () -> StaticContext.lookupFunction(name, 1),
+                CollectionUtil.singletonList(countArgument));
+          }
+        }
+      }
+      return retval;
+    }
+  };
+
+  @NonNull
+  private static final IEnhancedQName FN_TRUE = IEnhancedQName.of(MetapathConstants.NS_METAPATH_FUNCTIONS, "true");
+  @NonNull
+  private static final IEnhancedQName FN_FALSE = IEnhancedQName.of(MetapathConstants.NS_METAPATH_FUNCTIONS, "false");
+  @NonNull
+  private static final IEnhancedQName FN_COUNT = IEnhancedQName.of(MetapathConstants.NS_METAPATH_FUNCTIONS, "count");
+  @NonNull
+  private static final IEnhancedQName FN_EXISTS
+      = IEnhancedQName.of(MetapathConstants.NS_METAPATH_FUNCTIONS, "exists");
+  @NonNull
+  private static final IEnhancedQName FN_EMPTY = IEnhancedQName.of(MetapathConstants.NS_METAPATH_FUNCTIONS, "empty");
+
+  /**
+   * Apply this rule to the provided expression.
+   *
+   * @param expr
+   *          the expression to rewrite, whose children are already optimized
+   * @param staticContext
+   *          the static context used to compile the expression
+   * @return the replacement expression, or {@code null} if the rule does not
+   *         apply
+   */
+  @Nullable
+  abstract IExpression rewrite(@NonNull IExpression expr, @NonNull StaticContext staticContext);
+
+  private static boolean isFoldable(@NonNull IExpression expr) {
+    boolean retval;
+    if (expr instanceof AbstractBasicArithmeticExpression
+        || expr instanceof Negate
+        || expr instanceof AbstractComparison
+        || expr instanceof StringConcat) {
+      retval = true;
+    } else if (expr instanceof StaticFunctionCall) {
+      IFunction function = getFunction((StaticFunctionCall) expr);
+      retval = function != null
+          && function.isDeterministic()
+          && !function.isContextDepenent()
+          && !function.isFocusDependent()
+          // avoid folding an existing boolean constant
+          && getBooleanConstant(expr) == null;
+    } else {
+      retval = false;
+    }
+    return retval && expr.getChildren().stream().allMatch(CSTRewriteRule::isConstant);
+  }
+
+  private static boolean isConstant(@NonNull IExpression expr) {
+    return expr instanceof ILiteralExpression || getBooleanConstant(expr) != null;
+  }
+
+  @Nullable
+  private static IFunction getFunction(@NonNull StaticFunctionCall call) {
+    IFunction retval;
+    try {
+      retval = call.getFunction();
+    } catch (StaticMetapathException ex) {
+      // the function does not exist, which will be reported during evaluation
+      retval = null;
+    }
+    return retval;
+  }
+
+  private static boolean isFunction(
+      @NonNull IExpression expr,
+      @NonNull IEnhancedQName name,
+      int arity) {
+    boolean retval = false;
+    if (expr instanceof StaticFunctionCall && expr.getChildren().size() == arity) {
+      IFunction function = getFunction((StaticFunctionCall) expr);
+      retval = function != null && name.equals(function.getQName());
+    }
+    return retval;
+  }
+
+  @Nullable
+  private static Boolean getBooleanConstant(@NonNull IExpression expr) {
+    Boolean retval = null;
+    if (isFunction(expr, FN_TRUE, 0)) {
+      retval = true;
+    } else if (isFunction(expr, FN_FALSE, 0)) {
+      retval = false;
+    }
+    return retval;
+  }
+
+  @Nullable
+  private static BigInteger getIntegerConstant(@NonNull IExpression expr) {
+    return expr instanceof IntegerLiteral
+        ? ((IntegerLiteral) expr).getValue().asInteger()
+        : null;
+  }
+
+  @Nullable
+  private static IExpression getCountArgument(@NonNull IExpression expr) {
+    return isFunction(expr, FN_COUNT, 1)
+        ? expr.getChildren().get(0)
+        : null;
+  }
+
+  @NonNull
+  private static ComparisonFunctions.Operator reverse(@NonNull ComparisonFunctions.Operator operator) {
+    ComparisonFunctions.Operator retval;
+    switch (operator) {
+    case LT:
+      retval = ComparisonFunctions.Operator.GT;
+      break;
+    case LE:
+      retval = ComparisonFunctions.Operator.GE;
+      break;
+    case GT:
+      retval = ComparisonFunctions.Operator.LT;
+      break;
+    case GE:
+      retval = ComparisonFunctions.Operator.LE;
+      break;
+    default:
+      retval = operator;
+      break;
+    }
+    return retval;
+  }
+
+  /**
+   * Simplify an {@code and} or {@code or} expression.
+   *
+   * @param expr
+   *          the expression to simplify
+   * @param determiningValue
+   *          the operand value that determines the result of the expression,
+   *          which is {@code false} for {@code and} and {@code true} for
+   *          {@code or}
+   * @return the simplified expression or {@code null} if no simplification is
+   *         possible
+   */
+  @Nullable
+  private static IExpression simplifyLogic(@NonNull IExpression expr, boolean determiningValue) {
+    List<? extends IExpression> children = expr.getChildren();
+    List<IExpression> remaining = new ArrayList<>(children.size());
+    for (IExpression child : children) {
+      Boolean value = getBooleanConstant(child);
+      if (value == null) {
+        remaining.add(child);
+      } else if (value == determiningValue) {
+        return newBooleanConstant(expr.getText(), determiningValue); // NOPMD - readability
+      }
+    }
+
+    IExpression retval;
+    if (remaining.size() == children.size()) {
+      // nothing to simplify
+      retval = null;
+    } else if (remaining.isEmpty()) {
+      retval = newBooleanConstant(expr.getText(), !determiningValue);
+    } else if (remaining.size() == 1
+        && IBooleanItem.class.isAssignableFrom(remaining.get(0).getStaticResultType())) {
+      retval = remaining.get(0);
+    } else {
+      List<IExpression> operands = CollectionUtil.unmodifiableList(remaining);
+      retval = determiningValue
+          ? new Or(expr.getText(), operands)
+          : new And(expr.getText(), operands);
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static IExpression newBooleanConstant(@NonNull String text, boolean value) {
+    IEnhancedQName name = value ? FN_TRUE : FN_FALSE;
+    return new StaticFunctionCall(
+        text,
+        () -> StaticContext.lookupFunction(name, 0),
+        CollectionUtil.emptyList());
+  }
+
+  @Nullable
+  private static IExpression newConstant(@NonNull String text, @NonNull ISequence<?> result) {
+    IExpression retval = null;
+    if (result.size() == 1) {
+      IItem item = result.get(0);
+      if (item instanceof IBooleanItem) {
+        retval = newBooleanConstant(text, ((IBooleanItem) item).toBoolean());
+      } else if (IIntegerItem.type().equals(item.getType())) {
+        retval = new IntegerLiteral(text, ((IIntegerItem) item).asInteger());
+      } else if (IDecimalItem.type().equals(item.getType())) {
+        retval = new DecimalLiteral(text, ((IDecimalItem) item).asDecimal());
+      } else if (IStringItem.type().equals(item.getType())) {
+        // the literal constructor expects a quoted value
+        retval = new StringLiteral(text, "\"" + ((IStringItem) item).asString() + "\"");
+      }
+    }
+    return retval;
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.cst;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A Metapath expression that has been compiled by the {@link CSTCompiler} into
+ * a directly executable form.
+ */
+@FunctionalInterface
+public interface ICompiledExpression {
+  /**
+   * Evaluate the compiled expression, producing a sequence result.
+   *
+   * @param dynamicContext
+   *          the dynamic evaluation context
+   * @param focus
+   *          the outer focus of the expression
+   * @return the result of evaluation
+   */
+  @NonNull
+  ISequence<?> evaluate(@NonNull DynamicContext dynamicContext, @NonNull ISequence<?> focus);
+}
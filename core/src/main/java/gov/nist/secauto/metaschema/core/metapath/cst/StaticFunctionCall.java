@@ -9,10 +9,12 @@ import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.IExpression;
 import gov.nist.secauto.metaschema.core.metapath.StaticMetapathException;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.function.IFunctionInvoker;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -38,6 +40,8 @@ public class StaticFunctionCall
   private final Lazy<IFunction> functionSupplier;
   @NonNull
   private final List<IExpression> arguments;
+  @NonNull
+  private final Lazy<IFunctionInvoker> invoker;
 
   /**
    * Construct a new function call expression.
@@ -58,6 +62,10 @@ public class StaticFunctionCall
     super(text);
     this.functionSupplier = ObjectUtils.notNull(Lazy.lazy(functionSupplier));
     this.arguments = arguments;
+    this.invoker = ObjectUtils.notNull(Lazy.lazy(() -> getFunction().bind(
+        ObjectUtils.notNull(arguments.stream()
+            .<Class<? extends IItem>>map(IExpression::getStaticResultType)
+            .collect(Collectors.toList())))));
   }
 
   /**
@@ -80,6 +88,19 @@ public class StaticFunctionCall
     return function;
   }
 
+  /**
+   * Get the invoker used to call the function, which is bound to the function
+   * using the static result types of the argument expressions.
+   *
+   * @return the invoker
+   * @throws StaticMetapathException
+   *           if the function was not found
+   */
+  @NonNull
+  public IFunctionInvoker getInvoker() {
+    return ObjectUtils.notNull(invoker.get());
+  }
+
   @Override
   public List<IExpression> getChildren() {
     return arguments;
@@ -104,11 +125,13 @@ public class StaticFunctionCall
 
   @Override
   protected ISequence<?> evaluate(DynamicContext dynamicContext, ISequence<?> focus) {
-    List<ISequence<?>> arguments = ObjectUtils.notNull(this.arguments.stream()
-        .map(expression -> expression.accept(dynamicContext, focus).contentsAsSequence())
-        .collect(Collectors.toList()));
+    List<ISequence<?>> arguments = new ArrayList<>(this.arguments.size());
+    for (IExpression expression : this.arguments) {
+      arguments.add(expression.accept(dynamicContext, focus).contentsAsSequence());
+    }
 
-    IFunction function = getFunction();
-    return function.execute(arguments, dynamicContext, focus);
+    // the invoker is bound to the function using the static types of the argument
+    // expressions
+    return getInvoker().invoke(arguments, dynamicContext, focus);
   }
 }
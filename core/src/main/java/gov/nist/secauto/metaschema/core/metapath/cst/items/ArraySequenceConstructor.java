@@ -41,6 +41,16 @@ public class ArraySequenceConstructor
     this.expr = expression;
   }
 
+  /**
+   * Get the expression used to produce the array members.
+   *
+   * @return the expression, or {@code null} if the array is empty
+   */
+  @Nullable
+  public IExpression getExpression() {
+    return expr;
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public Class<IArrayItem> getBaseResultType() {
@@ -9,11 +9,11 @@ import gov.nist.secauto.metaschema.core.metapath.IExpression;
 import gov.nist.secauto.metaschema.core.metapath.cst.IExpressionVisitor;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.node.DocumentOrder;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Predicate;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -44,9 +44,9 @@ public class Except
 
   @Override
   protected ISequence<?> applyFilterTo(@NonNull List<? extends IItem> source, @NonNull List<? extends IItem> items) {
-    Set<IItem> filterSet = new HashSet<>(items);
+    Predicate<IItem> filter = DocumentOrder.memberOf(items);
     return ISequence.of(ObjectUtils.notNull(source.stream()
-        .filter(item -> !filterSet.contains(item))));
+        .filter(filter.negate())));
   }
 
   @Override
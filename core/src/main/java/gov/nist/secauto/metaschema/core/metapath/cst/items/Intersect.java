@@ -9,6 +9,7 @@ import gov.nist.secauto.metaschema.core.metapath.IExpression;
 import gov.nist.secauto.metaschema.core.metapath.cst.IExpressionVisitor;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.node.DocumentOrder;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.List;
@@ -41,9 +42,8 @@ public class Intersect
 
   @Override
   protected ISequence<?> applyFilterTo(@NonNull List<? extends IItem> source, @NonNull List<? extends IItem> items) {
-    return ISequence.of(ObjectUtils.notNull(source.stream()
-        .distinct()
-        .filter(items::contains)));
+    return ISequence.of(ObjectUtils.notNull(DocumentOrder.distinct(source.stream())
+        .filter(DocumentOrder.memberOf(items))));
   }
 
   @Override
@@ -9,9 +9,12 @@ import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.IExpression;
 import gov.nist.secauto.metaschema.core.metapath.cst.AbstractBinaryExpression;
 import gov.nist.secauto.metaschema.core.metapath.cst.IExpressionVisitor;
+import gov.nist.secauto.metaschema.core.metapath.function.ArithmeticFunctionException;
+import gov.nist.secauto.metaschema.core.metapath.impl.IntegerRangeSequence;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -62,13 +65,45 @@ public class Range
     if (left == null || right == null || left.compareTo(right) > 0) {
       retval = ISequence.empty();
     } else {
+      try {
+        retval = newRange(left, right);
+      } catch (ArithmeticException ex) {
+        throw new ArithmeticFunctionException(
+            ArithmeticFunctionException.OVERFLOW_UNDERFLOW_ERROR,
+            String.format("The range '%s to %s' contains more than %d items.",
+                left.asString(),
+                right.asString(),
+                Integer.MAX_VALUE),
+            ex);
+      }
+    }
+    return retval;
+  }
 
+  /**
+   * Get the sequence of integers from {@code left} to {@code right}, inclusive.
+   *
+   * @param left
+   *          the first integer in the range
+   * @param right
+   *          the last integer in the range, which must not be less than
+   *          {@code left}
+   * @return the sequence
+   * @throws ArithmeticException
+   *           if the range contains more than {@link Integer#MAX_VALUE} items
+   */
+  @NonNull
+  private static ISequence<IIntegerItem> newRange(@NonNull IIntegerItem left, @NonNull IIntegerItem right) {
+    ISequence<IIntegerItem> retval;
+    if (left.isLongValue() && right.isLongValue()) {
+      retval = IntegerRangeSequence.of(left.asLong(), right.asLong());
+    } else {
       BigInteger min = left.asInteger();
       BigInteger max = right.asInteger();
 
       List<IIntegerItem> range = new ArrayList<>(max.subtract(min).add(BigInteger.ONE).intValueExact());
-      for (BigInteger val = left.asInteger(); val.compareTo(max) <= 0; val = val.add(BigInteger.ONE)) {
-        range.add(IIntegerItem.valueOf(val));
+      for (BigInteger val = min; val.compareTo(max) <= 0; val = val.add(BigInteger.ONE)) {
+        range.add(IIntegerItem.valueOf(ObjectUtils.notNull(val)));
       }
 
       retval = ISequence.ofCollection(range);
@@ -12,6 +12,7 @@ import gov.nist.secauto.metaschema.core.metapath.cst.ExpressionUtils;
 import gov.nist.secauto.metaschema.core.metapath.cst.IExpressionVisitor;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.node.DocumentOrder;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.List;
@@ -57,14 +58,14 @@ public class Union
   protected ISequence<?> evaluate(DynamicContext dynamicContext, ISequence<?> focus) {
     // now process the union
     @NonNull
-    Stream<? extends IItem> retval = ObjectUtils.notNull(getChildren().stream()
+    Stream<? extends IItem> retval = DocumentOrder.distinct(ObjectUtils.notNull(getChildren().stream()
         .flatMap(child -> {
           ISequence<?> result = child.accept(
               dynamicContext,
               // ensure the sequence is backed by a list
               focus.reusable());
           return result.stream();
-        }).distinct());
+        })));
     return ISequence.of(retval);
   }
 }
@@ -12,15 +12,13 @@ import gov.nist.secauto.metaschema.core.metapath.cst.AbstractExpression;
 import gov.nist.secauto.metaschema.core.metapath.cst.IExpressionVisitor;
 import gov.nist.secauto.metaschema.core.metapath.cst.items.IntegerLiteral;
 import gov.nist.secauto.metaschema.core.metapath.function.library.FnBoolean;
-import gov.nist.secauto.metaschema.core.metapath.item.IItem;
+import gov.nist.secauto.metaschema.core.metapath.impl.StreamSequence;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
-import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,10 +35,18 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  */
 public class PredicateExpression
     extends AbstractExpression {
+  private static final long NOT_POSITIONAL = -1;
+
   @NonNull
   private final IExpression base;
   @NonNull
   private final List<IExpression> predicates;
+  /**
+   * The position selected by each predicate, or {@link #NOT_POSITIONAL} if the
+   * predicate is evaluated for its effective boolean value.
+   */
+  @NonNull
+  private final long[] positions;
 
   /**
    * Construct a new predicate expression.
@@ -59,6 +65,31 @@ public class PredicateExpression
     super(text);
     this.base = base;
     this.predicates = predicates;
+    this.positions = new long[predicates.size()];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = toPosition(ObjectUtils.notNull(predicates.get(i)));
+    }
+  }
+
+  /**
+   * Classify a predicate based on how it selects items.
+   * <p>
+   * An integer literal selects the item at the matching position. Any other
+   * predicate is evaluated for its effective boolean value.
+   *
+   * @param predicate
+   *          the predicate to classify
+   * @return the position selected by the predicate, {@code 0} if the predicate
+   *         is positional but can never match, or {@link #NOT_POSITIONAL} if the
+   *         predicate is not positional
+   */
+  private static long toPosition(@NonNull IExpression predicate) {
+    long retval = NOT_POSITIONAL;
+    if (predicate instanceof IntegerLiteral) {
+      IIntegerItem value = ((IntegerLiteral) predicate).getValue();
+      retval = value.isLongValue() && value.asLong() > 0 ? value.asLong() : 0;
+    }
+    return retval;
   }
 
   /**
@@ -87,49 +118,108 @@ public class PredicateExpression
         Stream.concat(Stream.of(getBase()), getPredicates().stream()).collect(Collectors.toList()));
   }
 
+  /**
+   * Determine if any of the predicates selects items by their position.
+   * <p>
+   * The result of a predicate that is not positional depends only on the item
+   * being filtered, allowing the predicates to be applied to any sequence
+   * containing the item.
+   *
+   * @return {@code true} if a predicate is positional, or {@code false}
+   *         otherwise
+   */
+  public boolean isPositional() {
+    return Arrays.stream(positions).anyMatch(position -> position != NOT_POSITIONAL);
+  }
+
   @Override
   protected ISequence<?> evaluate(@NonNull DynamicContext dynamicContext,
       @NonNull ISequence<?> focus) {
+    return filter(getBase().accept(dynamicContext, focus), dynamicContext);
+  }
 
-    ISequence<?> retval = getBase().accept(dynamicContext, focus);
+  /**
+   * Filter the provided sequence using the predicates.
+   * <p>
+   * Each predicate is applied to the items selected by the preceding
+   * predicates, so the position used by a positional predicate is relative to
+   * those items.
+   *
+   * @param sequence
+   *          the sequence to filter
+   * @param dynamicContext
+   *          the dynamic evaluation context
+   * @return the sequence of items matching all predicates
+   */
+  @NonNull
+  public ISequence<?> filter(
+      @NonNull ISequence<?> sequence,
+      @NonNull DynamicContext dynamicContext) {
+    ISequence<?> retval = sequence;
 
     if (dynamicContext.getConfiguration().isFeatureEnabled(MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES)) {
-      // evaluate the predicates for this step
-      AtomicInteger index = new AtomicInteger();
-
-      Stream<? extends IItem> stream = ObjectUtils.notNull(
-          retval.stream().map(item -> Map.entry(BigInteger.valueOf(index.incrementAndGet()), item)).filter(entry -> {
-            @SuppressWarnings("null")
-            @NonNull
-            IItem item = entry.getValue();
-
-            // return false if any predicate evaluates to false
-            return !predicates.stream()
-                .map(predicateExpr -> {
-                  boolean bool;
-                  if (predicateExpr instanceof IntegerLiteral) {
-                    // reduce the result to the matching item
-                    BigInteger predicateIndex = ((IntegerLiteral) predicateExpr).getValue().asInteger();
-
-                    // get the position of the item
-                    final BigInteger position = entry.getKey();
-
-                    // it is a match if the position matches
-                    bool = position.equals(predicateIndex);
-                  } else {
-                    ISequence<?> innerFocus = ISequence.of(item);
-                    ISequence<?> predicateResult = predicateExpr.accept(dynamicContext, innerFocus);
-                    bool = FnBoolean.fnBoolean(predicateResult).toBoolean();
-                  }
-                  return bool;
-                }).anyMatch(x -> !x);
-          }).map(Entry::getValue));
-
-      retval = ISequence.of(stream);
+      for (int i = 0; i < positions.length; i++) {
+        long position = positions[i];
+        retval = position == NOT_POSITIONAL
+            ? filterByBoolean(retval, ObjectUtils.notNull(predicates.get(i)), dynamicContext)
+            : selectPosition(retval, position);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Select the item at the provided position.
+   * <p>
+   * If the sequence is still backed by a stream, no items after the selected
+   * item are evaluated. Otherwise, the item is retrieved directly by its index.
+   *
+   * @param sequence
+   *          the sequence to select from
+   * @param position
+   *          the one-based position of the item to select
+   * @return a sequence containing the selected item, or an empty sequence if
+   *         there is no item at the position
+   */
+  @NonNull
+  private static ISequence<?> selectPosition(@NonNull ISequence<?> sequence, long position) {
+    ISequence<?> retval;
+    if (position < 1) {
+      retval = ISequence.empty();
+    } else if (sequence instanceof StreamSequence && !((StreamSequence<?>) sequence).isMaterialized()) {
+      retval = ISequence.of(sequence.stream().skip(position - 1).limit(1));
+    } else if (position <= sequence.size()) {
+      retval = ISequence.of(sequence.get((int) position - 1));
+    } else {
+      retval = ISequence.empty();
     }
     return retval;
   }
 
+  /**
+   * Select the items for which the effective boolean value of the provided
+   * predicate is {@code true}, using each item as the focus.
+   *
+   * @param sequence
+   *          the sequence to filter
+   * @param predicate
+   *          the predicate to evaluate
+   * @param dynamicContext
+   *          the dynamic evaluation context
+   * @return the sequence of matching items
+   */
+  @NonNull
+  private static ISequence<?> filterByBoolean(
+      @NonNull ISequence<?> sequence,
+      @NonNull IExpression predicate,
+      @NonNull DynamicContext dynamicContext) {
+    return ISequence.of(ObjectUtils.notNull(sequence.stream().filter(item -> {
+      assert item != null;
+      ISequence<?> predicateResult = predicate.accept(dynamicContext, ISequence.of(item));
+      return FnBoolean.fnBoolean(predicateResult).toBoolean();
+    })));
+  }
+
   @Override
   public <RESULT, CONTEXT> RESULT accept(@NonNull IExpressionVisitor<RESULT, CONTEXT> visitor, CONTEXT context) {
     return visitor.visitPredicate(this, context);
@@ -9,10 +9,13 @@ import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.IExpression;
 import gov.nist.secauto.metaschema.core.metapath.function.FunctionUtils;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.AtomicItemKind;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.INumericItem;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -27,9 +30,30 @@ import edu.umd.cs.findbugs.annotations.Nullable;
  * The arithmetic operation method
  * {@link #operation(IAnyAtomicItem, IAnyAtomicItem)} must be implemented by
  * extending classes to provide the evaluation logic.
+ * <p>
+ * The strategies provided by {@link #getStrategies()} are resolved once for
+ * each pair of {@link AtomicItemKind}, so selecting the strategy for a pair of
+ * items is a table lookup. When the static result types of both
+ * sub-expressions determine the item kinds, the strategy is selected when the
+ * expression is constructed.
  */
 public abstract class AbstractBasicArithmeticExpression
     extends AbstractArithmeticExpression<IAnyAtomicItem> {
+  @NonNull
+  private static final Map<Class<?>, OperationStrategy[][]> DISPATCH_TABLES = new ConcurrentHashMap<>();
+
+  /**
+   * The strategy to use for each pair of left and right item kinds, derived
+   * from {@link #getStrategies()}.
+   */
+  @NonNull
+  private final OperationStrategy[][] dispatchTable;
+  /**
+   * The strategy selected using the static result types of the sub-expressions,
+   * or {@code null} if the strategy must be selected during evaluation.
+   */
+  @Nullable
+  private final OperationStrategy boundStrategy;
 
   /**
    * An expression that represents a basic arithmetic operation on two values.
@@ -46,6 +70,82 @@ public abstract class AbstractBasicArithmeticExpression
       @NonNull IExpression left,
       @NonNull IExpression right) {
     super(text, left, right, IAnyAtomicItem.class);
+    this.dispatchTable = DISPATCH_TABLES.computeIfAbsent(
+        getClass(),
+        key -> newDispatchTable(getStrategies())); // NOPMD - returns a constant
+    this.boundStrategy = bindStrategy(left, right);
+  }
+
+  /**
+   * Build a table of the strategy to use for each pair of left and right item
+   * kinds, based on the provided class mapping.
+   * <p>
+   * A row is {@code null} if there is no strategy mapping for the left kind, in
+   * which case the operation is performed on numeric values. An entry in a
+   * non-{@code null} row is {@code null} if the operation is not supported.
+   *
+   * @param strategies
+   *          the mapping of left class to right class to strategy
+   * @return the table, indexed by the ordinal of the left and right item kinds
+   */
+  @NonNull
+  private static OperationStrategy[][] newDispatchTable(
+      @NonNull Map<
+          Class<? extends IAnyAtomicItem>,
+          Map<Class<? extends IAnyAtomicItem>, OperationStrategy>> strategies) {
+    List<AtomicItemKind> kinds = AtomicItemKind.all();
+    OperationStrategy[][] retval = new OperationStrategy[kinds.size()][];
+    for (AtomicItemKind left : kinds) {
+      Map<Class<? extends IAnyAtomicItem>, OperationStrategy> typeStrategies
+          = findStrategy(strategies, left.getItemClass());
+      if (typeStrategies != null) {
+        OperationStrategy[] row = new OperationStrategy[kinds.size()];
+        for (AtomicItemKind right : kinds) {
+          row[right.ordinal()] = findStrategy(typeStrategies, right.getItemClass());
+        }
+        retval[left.ordinal()] = row;
+      }
+    }
+    return retval;
+  }
+
+  @Nullable
+  private static <T> T findStrategy(
+      @NonNull Map<Class<? extends IAnyAtomicItem>, T> strategies,
+      @NonNull Class<? extends IAnyAtomicItem> itemClass) {
+    // the first assignable mapping wins, matching the order the mapping was declared
+    return strategies.entrySet().stream()
+        .filter(entry -> entry.getKey().isAssignableFrom(itemClass))
+        .map(Map.Entry::getValue)
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Select the strategy to use ahead of evaluation, if the static result types
+   * of both sub-expressions determine the kinds of their items.
+   *
+   * @param left
+   *          the left sub-expression
+   * @param right
+   *          the right sub-expression
+   * @return the strategy, or {@code null} if the strategy must be selected
+   *         during evaluation
+   */
+  @Nullable
+  private OperationStrategy bindStrategy(@NonNull IExpression left, @NonNull IExpression right) {
+    AtomicItemKind leftKind = AtomicItemKind.forStaticType(left.getStaticResultType());
+    AtomicItemKind rightKind = AtomicItemKind.forStaticType(right.getStaticResultType());
+
+    OperationStrategy retval = null;
+    if (leftKind != null && rightKind != null) {
+      OperationStrategy[] row = dispatchTable[leftKind.ordinal()];
+      if (row != null) {
+        // may still be null, in which case an error is raised during evaluation
+        retval = row[rightKind.ordinal()];
+      }
+    }
+    return retval;
   }
 
   @Override
@@ -94,46 +194,30 @@ public abstract class AbstractBasicArithmeticExpression
    *          the second item
    * @return the result of the operation
    */
-  @SuppressWarnings("PMD.OnlyOneReturn")
   @NonNull
   protected IAnyAtomicItem operation(
       @NonNull IAnyAtomicItem left,
       @NonNull IAnyAtomicItem right) {
-
-    Map<
-        Class<? extends IAnyAtomicItem>,
-        Map<Class<? extends IAnyAtomicItem>, OperationStrategy>> strategies = getStrategies();
-    Class<? extends IAnyAtomicItem> leftClass = left.getClass();
-
-    // Find matching strategy for minuend type
-    Map<Class<? extends IAnyAtomicItem>, OperationStrategy> typeStrategies = null;
-    for (Map.Entry<Class<? extends IAnyAtomicItem>,
-        Map<Class<? extends IAnyAtomicItem>, OperationStrategy>> entry : strategies.entrySet()) {
-      if (entry.getKey().isAssignableFrom(leftClass)) {
-        // this is a matching strategy map
-        typeStrategies = entry.getValue();
-        break;
-      }
-    }
-
-    if (typeStrategies == null) {
-      return operationAsNumeric(
-          FunctionUtils.toNumeric(left),
-          FunctionUtils.toNumeric(right));
-    }
-
-    // Find matching strategy for subtrahend type
-    Class<? extends IAnyAtomicItem> rightClass = right.getClass();
-    for (Map.Entry<Class<? extends IAnyAtomicItem>, OperationStrategy> entry : typeStrategies.entrySet()) {
-      if (entry.getKey().isAssignableFrom(rightClass)) {
-        // this is matching strategy, execute it
-        return entry.getValue().execute(left, right);
+    IAnyAtomicItem retval;
+    if (boundStrategy == null) {
+      OperationStrategy[] row = dispatchTable[left.getAtomicKind().ordinal()];
+      if (row == null) {
+        retval = operationAsNumeric(
+            FunctionUtils.toNumeric(left),
+            FunctionUtils.toNumeric(right));
+      } else {
+        OperationStrategy strategy = row[right.getAtomicKind().ordinal()];
+        if (strategy == null) {
+          throw new UnsupportedOperationException(unsupportedMessage(
+              left.toSignature(),
+              right.toSignature()));
+        }
+        retval = strategy.execute(left, right);
       }
+    } else {
+      retval = boundStrategy.execute(left, right);
     }
-
-    throw new UnsupportedOperationException(unsupportedMessage(
-        left.toSignature(),
-        right.toSignature()));
+    return retval;
   }
 
   /**
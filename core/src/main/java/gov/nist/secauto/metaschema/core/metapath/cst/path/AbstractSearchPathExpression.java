@@ -7,15 +7,21 @@ package gov.nist.secauto.metaschema.core.metapath.cst.path;
 
 import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.IExpression;
+import gov.nist.secauto.metaschema.core.metapath.MetapathEvaluationFeature;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.PredicateExpression;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.ItemUtils;
+import gov.nist.secauto.metaschema.core.metapath.item.node.DescendantNameIndex;
+import gov.nist.secauto.metaschema.core.metapath.item.node.DocumentOrder;
 import gov.nist.secauto.metaschema.core.metapath.item.node.ICycledAssemblyNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
+import java.util.List;
 import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * A base class for Metapath expressions based on the XPath 3.1 <a href=
@@ -72,6 +78,82 @@ public abstract class AbstractSearchPathExpression
     // ensure the sequence is backed by a list
     ISequence<?> focus = outerFocus.reusable();
 
+    // a single node can be searched using an index, since the result is
+    // in document order without duplicates
+    Stream<? extends INodeItem> retval = null;
+    if (focus.size() == 1
+        && dynamicContext.getConfiguration().isFeatureEnabled(
+            MetapathEvaluationFeature.METAPATH_USE_DESCENDANT_NAME_INDEX)) {
+      retval = searchIndex(
+          expression,
+          dynamicContext,
+          ItemUtils.checkItemIsNodeItemForStep(focus.get(0)));
+    }
+    return retval == null ? searchTree(expression, dynamicContext, focus) : retval;
+  }
+
+  /**
+   * Search the descendants of the {@code focus} using the document's
+   * {@link DescendantNameIndex}.
+   * <p>
+   * Only a flag or model step with a name test, optionally filtered by
+   * non-positional predicates, can be answered using the index.
+   *
+   * @param expression
+   *          the expression to evaluate
+   * @param dynamicContext
+   *          the evaluation context
+   * @param focus
+   *          the current context node
+   * @return the matching nodes in document order, or {@code null} if the search
+   *         cannot be answered using an index
+   */
+  @Nullable
+  private static Stream<? extends INodeItem> searchIndex(
+      @NonNull IExpression expression,
+      @NonNull DynamicContext dynamicContext,
+      @NonNull INodeItem focus) {
+    IExpression step = expression;
+    PredicateExpression predicate = null;
+    if (expression instanceof PredicateExpression && !((PredicateExpression) expression).isPositional()) {
+      predicate = (PredicateExpression) expression;
+      step = predicate.getBase();
+    }
+
+    Stream<? extends INodeItem> retval = null;
+    if (step instanceof ModelInstanceStep || step instanceof FlagStep) {
+      AbstractStepExpression<?> nameStep = (AbstractStepExpression<?>) step;
+      INodeTestExpression test = nameStep.getTest();
+      DescendantNameIndex index = test instanceof NameNodeTest ? DescendantNameIndex.forNode(focus) : null;
+      List<INodeItem> descendants = index == null
+          ? null
+          : index.getDescendantsWithName(focus, ((NameNodeTest) test).getName());
+
+      if (descendants != null) {
+        // the step's children are the flags or model items of the descendants
+        Class<? extends INodeItem> kind = nameStep.getBaseResultType();
+        ISequence<?> matches = ISequence.of(ObjectUtils.notNull(descendants.stream().filter(kind::isInstance)));
+
+        if (predicate != null) {
+          matches = predicate.filter(matches, dynamicContext);
+        }
+
+        @SuppressWarnings("unchecked")
+        Stream<? extends INodeItem> stream = (Stream<? extends INodeItem>) matches.stream();
+        retval = stream;
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private Stream<? extends INodeItem> searchTree(
+      @NonNull IExpression expression,
+      @NonNull DynamicContext dynamicContext,
+      @NonNull ISequence<?> outerFocus) {
+    // ensure the sequence is backed by a list
+    ISequence<?> focus = outerFocus.reusable();
+
     // check the current focus
     @SuppressWarnings("unchecked")
     Stream<? extends INodeItem> nodeMatches
@@ -91,7 +173,7 @@ public abstract class AbstractSearchPathExpression
             Stream<? extends INodeItem> flags = focusedNode.flags();
             Stream<? extends INodeItem> modelItems = focusedNode.modelItems();
 
-            matches = search(
+            matches = searchTree(
                 expression,
                 dynamicContext,
                 ISequence.of(ObjectUtils.notNull(Stream.concat(flags, modelItems))));
@@ -99,6 +181,6 @@ public abstract class AbstractSearchPathExpression
           return matches;
         });
 
-    return ObjectUtils.notNull(Stream.concat(nodeMatches, childMatches).distinct());
+    return DocumentOrder.distinct(ObjectUtils.notNull(Stream.concat(nodeMatches, childMatches)));
   }
 }
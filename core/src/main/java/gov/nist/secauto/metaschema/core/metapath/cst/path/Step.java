@@ -7,17 +7,23 @@ package gov.nist.secauto.metaschema.core.metapath.cst.path;
 
 import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.IExpression;
+import gov.nist.secauto.metaschema.core.metapath.MetapathEvaluationFeature;
 import gov.nist.secauto.metaschema.core.metapath.cst.AbstractExpression;
 import gov.nist.secauto.metaschema.core.metapath.cst.ExpressionUtils;
 import gov.nist.secauto.metaschema.core.metapath.cst.IExpressionVisitor;
+import gov.nist.secauto.metaschema.core.metapath.impl.StreamSequence;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.ItemUtils;
+import gov.nist.secauto.metaschema.core.metapath.item.node.DescendantNameIndex;
+import gov.nist.secauto.metaschema.core.metapath.item.node.DocumentOrder;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IModelNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -108,18 +114,93 @@ public class Step
 
   @Override
   protected ISequence<?> evaluate(DynamicContext dynamicContext, ISequence<?> focus) {
+    IItem singleItem = getSingleItem(focus);
+    INodeItem singleNode = singleItem == null ? null : ItemUtils.checkItemIsNodeItemForStep(singleItem);
+    ISequence<?> retval = singleNode == null
+        ? null
+        : evaluateUsingIndex(dynamicContext, singleNode);
+    return retval == null ? evaluateAxis(dynamicContext, focus, singleNode) : retval;
+  }
+
+  /**
+   * Get the only item of the provided focus.
+   * <p>
+   * A stream-backed focus that is not yet materialized is not inspected, since
+   * determining its size would require evaluating all of its items.
+   *
+   * @param focus
+   *          the focus to get the item from
+   * @return the item, or {@code null} if the focus does not contain exactly one
+   *         item or is not yet materialized
+   */
+  @Nullable
+  private static IItem getSingleItem(@NonNull ISequence<?> focus) {
+    IItem retval = null;
+    if ((!(focus instanceof StreamSequence) || ((StreamSequence<?>) focus).isMaterialized())
+        && focus.size() == 1) {
+      retval = focus.get(0);
+    }
+    return retval;
+  }
+
+  /**
+   * Evaluate a descendant step with a name test against the provided node using
+   * the document's {@link DescendantNameIndex}.
+   *
+   * @param dynamicContext
+   *          the dynamic evaluation context
+   * @param focus
+   *          the node to evaluate the step against
+   * @return the matching nodes in document order, or {@code null} if the step
+   *         cannot be evaluated using an index
+   */
+  @Nullable
+  private ISequence<?> evaluateUsingIndex(@NonNull DynamicContext dynamicContext, @NonNull INodeItem focus) {
+    Axis axis = getAxis();
+    INodeTestExpression test = getStep();
+
+    ISequence<?> retval = null;
+    if ((axis == Axis.DESCENDANT || axis == Axis.DESCENDANT_OR_SELF)
+        && test instanceof NameNodeTest
+        && dynamicContext.getConfiguration().isFeatureEnabled(
+            MetapathEvaluationFeature.METAPATH_USE_DESCENDANT_NAME_INDEX)) {
+      NameNodeTest nameTest = (NameNodeTest) test;
+      DescendantNameIndex index = DescendantNameIndex.forNode(focus);
+      List<INodeItem> descendants = index == null ? null : index.getDescendantsWithName(focus, nameTest.getName());
+
+      if (descendants != null) {
+        // the descendant axes only include model items
+        Stream<INodeItem> matches = descendants.stream().filter(IModelNodeItem.class::isInstance);
+        if (axis == Axis.DESCENDANT_OR_SELF && nameTest.match(focus)) {
+          matches = Stream.concat(Stream.of(focus), matches);
+        }
+        retval = ISequence.of(ObjectUtils.notNull(matches));
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private ISequence<?> evaluateAxis(
+      @NonNull DynamicContext dynamicContext,
+      @NonNull ISequence<?> focus,
+      @Nullable INodeItem singleNode) {
     Axis axis = getAxis();
 
     ISequence<? extends INodeItem> axisResult;
-    if (focus.isEmpty()) {
+    if (singleNode != null) {
+      // the axis of a single node never produces duplicates, so the stream
+      // pipeline and distinct check can be avoided
+      axisResult = ISequence.of(axis.execute(singleNode));
+    } else if (focus.isEmpty()) {
       axisResult = ISequence.empty();
     } else {
-      axisResult = ISequence.of(ObjectUtils.notNull(focus.stream()
+      axisResult = ISequence.of(DocumentOrder.distinct(ObjectUtils.notNull(focus.stream()
           .map(ItemUtils::checkItemIsNodeItemForStep)
           .flatMap(item -> {
             assert item != null;
             return axis.execute(item);
-          }).distinct()));
+          }))));
     }
 
     IExpression step = getStep();
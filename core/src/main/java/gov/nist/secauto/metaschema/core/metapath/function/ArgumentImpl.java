@@ -17,10 +17,19 @@ class ArgumentImpl implements IArgument {
   private final IEnhancedQName name;
   @NonNull
   private final ISequenceType sequenceType;
+  private final boolean streaming;
 
   protected ArgumentImpl(@NonNull IEnhancedQName name, @NonNull ISequenceType sequenceType) {
+    this(name, sequenceType, false);
+  }
+
+  protected ArgumentImpl(
+      @NonNull IEnhancedQName name,
+      @NonNull ISequenceType sequenceType,
+      boolean streaming) {
     this.name = name;
     this.sequenceType = sequenceType;
+    this.streaming = streaming;
   }
 
   @Override
@@ -33,6 +42,11 @@ class ArgumentImpl implements IArgument {
     return sequenceType;
   }
 
+  @Override
+  public boolean isStreaming() {
+    return streaming;
+  }
+
   @SuppressWarnings("null")
   @Override
   public String toSignature() {
@@ -48,7 +62,7 @@ class ArgumentImpl implements IArgument {
 
   @Override
   public int hashCode() {
-    return Objects.hash(name, sequenceType);
+    return Objects.hash(name, sequenceType, streaming);
   }
 
   @Override
@@ -60,6 +74,8 @@ class ArgumentImpl implements IArgument {
       return false; // NOPMD - readability
     }
     ArgumentImpl other = (ArgumentImpl) obj;
-    return Objects.equals(name, other.name) && Objects.equals(sequenceType, other.sequenceType);
+    return Objects.equals(name, other.name)
+        && Objects.equals(sequenceType, other.sequenceType)
+        && streaming == other.streaming;
   }
 }
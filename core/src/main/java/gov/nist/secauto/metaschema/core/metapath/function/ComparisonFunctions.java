@@ -8,6 +8,7 @@ package gov.nist.secauto.metaschema.core.metapath.function;
 import gov.nist.secauto.metaschema.core.metapath.function.impl.OperationFunctions;
 import gov.nist.secauto.metaschema.core.metapath.function.library.FnNot;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.AtomicItemKind;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IBase64BinaryItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IBooleanItem;
@@ -22,10 +23,16 @@ import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IUntypedAtomicItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IYearMonthDurationItem;
 import gov.nist.secauto.metaschema.core.metapath.type.InvalidTypeMetapathException;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * A collection of comparison functions supporting value and general
@@ -68,6 +75,19 @@ public final class ComparisonFunctions {
     GE;
   }
 
+  /**
+   * The minimum number of item pairs in a general comparison for which a
+   * join-based comparison is used.
+   */
+  private static final long GENERAL_COMPARISON_JOIN_THRESHOLD = 32;
+
+  /**
+   * The comparison implementations for each pair of item kinds, or {@code null}
+   * if the kinds are not comparable.
+   */
+  @NonNull
+  private static final ValueComparator[][] VALUE_COMPARATORS = newValueComparators();
+
   private ComparisonFunctions() {
     // disable construction
   }
@@ -91,6 +111,12 @@ public final class ComparisonFunctions {
 
   /**
    * Compare the sets of atomic items.
+   * <p>
+   * The comparison returns as soon as a matching pair of items is found. When
+   * both sequences are large and contain only string-like items, or only
+   * numeric items, the comparison is performed using a hash join for equality
+   * and the sequence minimum and maximum for ordering, avoiding a comparison of
+   * every pair of items.
    *
    * @param leftItems
    *          the first set of items to compare
@@ -101,39 +127,169 @@ public final class ComparisonFunctions {
    * @return a or an empty {@link ISequence} if either item is {@code null}
    */
   @NonNull
-  public static IBooleanItem generalComparison( // NOPMD - acceptable complexity
+  public static IBooleanItem generalComparison(
       @NonNull ISequence<? extends IAnyAtomicItem> leftItems,
       @NonNull Operator operator,
       @NonNull ISequence<? extends IAnyAtomicItem> rightItems) {
+    IBooleanItem retval;
+    if (leftItems.isEmpty() || rightItems.isEmpty()) {
+      retval = IBooleanItem.FALSE;
+    } else if ((long) leftItems.size() * rightItems.size() >= GENERAL_COMPARISON_JOIN_THRESHOLD) {
+      ValueEqualityKey key = ValueEqualityKey.forGeneralComparison(leftItems, rightItems);
+      retval = key == null
+          ? pairwiseGeneralComparison(leftItems, operator, rightItems)
+          : joinGeneralComparison(leftItems, operator, rightItems, key);
+    } else {
+      retval = pairwiseGeneralComparison(leftItems, operator, rightItems);
+    }
+    return retval;
+  }
 
-    IBooleanItem retval = IBooleanItem.FALSE;
+  @NonNull
+  private static IBooleanItem pairwiseGeneralComparison(
+      @NonNull ISequence<? extends IAnyAtomicItem> leftItems,
+      @NonNull Operator operator,
+      @NonNull ISequence<? extends IAnyAtomicItem> rightItems) {
     for (IAnyAtomicItem left : leftItems) {
       assert left != null;
       for (IAnyAtomicItem right : rightItems) {
         assert right != null;
-        IAnyAtomicItem leftCast;
-        IAnyAtomicItem rightCast;
-        if (left instanceof IUntypedAtomicItem) {
-          if (right instanceof IUntypedAtomicItem) {
-            leftCast = IStringItem.cast(left);
-            rightCast = IStringItem.cast(right);
-          } else {
-            leftCast = applyGeneralComparisonCast(right, left);
-            rightCast = right;
-          }
-        } else if (right instanceof IUntypedAtomicItem) {
-          leftCast = left;
-          rightCast = applyGeneralComparisonCast(left, right);
-        } else {
-          leftCast = left;
-          rightCast = right;
+        if (generalCompare(left, operator, right)) {
+          // the result is known
+          return IBooleanItem.TRUE; // NOPMD - early exit
         }
+      }
+    }
+    return IBooleanItem.FALSE;
+  }
 
-        assert leftCast != null;
-        IBooleanItem result = compare(leftCast, operator, rightCast);
-        if (IBooleanItem.TRUE.equals(result)) {
-          retval = IBooleanItem.TRUE;
-        }
+  /**
+   * Compare a pair of items from a general comparison, casting untyped items as
+   * needed.
+   *
+   * @param left
+   *          the value to compare against
+   * @param operator
+   *          the comparison operator
+   * @param right
+   *          the value to compare with
+   * @return {@code true} if the comparison holds, or {@code false} otherwise
+   */
+  private static boolean generalCompare(
+      @NonNull IAnyAtomicItem left,
+      @NonNull Operator operator,
+      @NonNull IAnyAtomicItem right) {
+    IAnyAtomicItem leftCast;
+    IAnyAtomicItem rightCast;
+    if (left instanceof IUntypedAtomicItem) {
+      if (right instanceof IUntypedAtomicItem) {
+        leftCast = IStringItem.cast(left);
+        rightCast = IStringItem.cast(right);
+      } else {
+        leftCast = applyGeneralComparisonCast(right, left);
+        rightCast = right;
+      }
+    } else if (right instanceof IUntypedAtomicItem) {
+      leftCast = left;
+      rightCast = applyGeneralComparisonCast(left, right);
+    } else {
+      leftCast = left;
+      rightCast = right;
+    }
+
+    return compare(leftCast, operator, rightCast).toBoolean();
+  }
+
+  @NonNull
+  private static IBooleanItem joinGeneralComparison(
+      @NonNull ISequence<? extends IAnyAtomicItem> leftItems,
+      @NonNull Operator operator,
+      @NonNull ISequence<? extends IAnyAtomicItem> rightItems,
+      @NonNull ValueEqualityKey key) {
+    boolean retval;
+    switch (operator) {
+    case EQ:
+      retval = intersects(leftItems, rightItems, key);
+      break;
+    case NE:
+      retval = !isSingleValue(leftItems, rightItems, key);
+      break;
+    case LT:
+      retval = generalCompare(min(leftItems), Operator.LT, max(rightItems));
+      break;
+    case LE:
+      retval = generalCompare(min(leftItems), Operator.LT, max(rightItems))
+          || intersects(leftItems, rightItems, key);
+      break;
+    case GT:
+      retval = generalCompare(max(leftItems), Operator.GT, min(rightItems));
+      break;
+    case GE:
+      retval = generalCompare(max(leftItems), Operator.GT, min(rightItems))
+          || intersects(leftItems, rightItems, key);
+      break;
+    default:
+      throw new IllegalArgumentException(String.format("Unsupported operator '%s'", operator.name()));
+    }
+    return IBooleanItem.valueOf(retval);
+  }
+
+  /**
+   * Determine if any item in the left sequence is equal to an item in the right
+   * sequence, by probing a hash set built from the smaller sequence.
+   */
+  private static boolean intersects(
+      @NonNull List<? extends IAnyAtomicItem> leftItems,
+      @NonNull List<? extends IAnyAtomicItem> rightItems,
+      @NonNull ValueEqualityKey key) {
+    List<? extends IAnyAtomicItem> build;
+    List<? extends IAnyAtomicItem> probe;
+    if (leftItems.size() <= rightItems.size()) {
+      build = leftItems;
+      probe = rightItems;
+    } else {
+      build = rightItems;
+      probe = leftItems;
+    }
+
+    Set<Object> keys = new HashSet<>(build.size() * 2);
+    for (IAnyAtomicItem item : build) {
+      keys.add(key.keyFor(ObjectUtils.notNull(item)));
+    }
+    return probe.stream().anyMatch(item -> keys.contains(key.keyFor(ObjectUtils.notNull(item))));
+  }
+
+  /**
+   * Determine if all items in both sequences are equal to the same value.
+   */
+  private static boolean isSingleValue(
+      @NonNull List<? extends IAnyAtomicItem> leftItems,
+      @NonNull List<? extends IAnyAtomicItem> rightItems,
+      @NonNull ValueEqualityKey key) {
+    Object value = key.keyFor(ObjectUtils.notNull(leftItems.get(0)));
+    return Stream.concat(leftItems.stream(), rightItems.stream())
+        .allMatch(item -> value.equals(key.keyFor(ObjectUtils.notNull(item))));
+  }
+
+  @NonNull
+  private static IAnyAtomicItem min(@NonNull List<? extends IAnyAtomicItem> items) {
+    IAnyAtomicItem retval = ObjectUtils.notNull(items.get(0));
+    for (IAnyAtomicItem item : items) {
+      assert item != null;
+      if (generalCompare(item, Operator.LT, retval)) {
+        retval = item;
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static IAnyAtomicItem max(@NonNull List<? extends IAnyAtomicItem> items) {
+    IAnyAtomicItem retval = ObjectUtils.notNull(items.get(0));
+    for (IAnyAtomicItem item : items) {
+      assert item != null;
+      if (generalCompare(item, Operator.GT, retval)) {
+        retval = item;
       }
     }
     return retval;
@@ -178,35 +334,92 @@ public final class ComparisonFunctions {
    * @return the comparison result
    */
   @NonNull
-  public static IBooleanItem compare( // NOPMD - unavoidable
+  public static IBooleanItem compare(
       @NonNull IAnyAtomicItem left,
       @NonNull Operator operator,
       @NonNull IAnyAtomicItem right) {
-    @NonNull
-    IBooleanItem retval;
-    if (left instanceof IStringItem || right instanceof IStringItem) {
-      retval = stringCompare(IStringItem.cast(left), operator, IStringItem.cast(right));
-    } else if (left instanceof INumericItem && right instanceof INumericItem) {
-      retval = numericCompare((INumericItem) left, operator, (INumericItem) right);
-    } else if (left instanceof IBooleanItem && right instanceof IBooleanItem) {
-      retval = booleanCompare((IBooleanItem) left, operator, (IBooleanItem) right);
-    } else if (left instanceof IDateTimeItem && right instanceof IDateTimeItem) {
-      retval = dateTimeCompare((IDateTimeItem) left, operator, (IDateTimeItem) right);
-    } else if (left instanceof IDateItem && right instanceof IDateItem) {
-      retval = dateCompare((IDateItem) left, operator, (IDateItem) right);
-    } else if (left instanceof IDurationItem && right instanceof IDurationItem) {
-      retval = durationCompare((IDurationItem) left, operator, (IDurationItem) right);
-    } else if (left instanceof IBase64BinaryItem && right instanceof IBase64BinaryItem) {
-      retval = binaryCompare((IBase64BinaryItem) left, operator, (IBase64BinaryItem) right);
-    } else {
+    ValueComparator comparator = VALUE_COMPARATORS[left.getAtomicKind().ordinal()][right.getAtomicKind().ordinal()];
+    if (comparator == null) {
       throw new InvalidTypeMetapathException(
           null,
           String.format("invalid types for comparison: %s %s %s", left.getClass().getName(),
               operator.name().toLowerCase(Locale.ROOT), right.getClass().getName()));
     }
+    return comparator.compare(left, operator, right);
+  }
+
+  /**
+   * Build the table of comparison implementations, indexed by the ordinal of the
+   * left and right item kinds.
+   *
+   * @return the table
+   */
+  @NonNull
+  private static ValueComparator[][] newValueComparators() {
+    List<AtomicItemKind> kinds = AtomicItemKind.all();
+    ValueComparator[][] retval = new ValueComparator[kinds.size()][kinds.size()];
+    for (AtomicItemKind left : kinds) {
+      for (AtomicItemKind right : kinds) {
+        retval[left.ordinal()][right.ordinal()] = resolveValueComparator(
+            ObjectUtils.notNull(left),
+            ObjectUtils.notNull(right));
+      }
+    }
     return retval;
   }
 
+  @SuppressWarnings("PMD.CyclomaticComplexity")
+  @Nullable
+  private static ValueComparator resolveValueComparator(@NonNull AtomicItemKind left, @NonNull AtomicItemKind right) {
+    ValueComparator retval;
+    if (left == AtomicItemKind.STRING || right == AtomicItemKind.STRING) {
+      retval = (leftItem, operator, rightItem) -> stringCompare(
+          IStringItem.cast(leftItem),
+          operator,
+          IStringItem.cast(rightItem));
+    } else if (isKind(INumericItem.class, left, right)) {
+      retval = (leftItem, operator, rightItem) -> numericCompare(
+          (INumericItem) leftItem,
+          operator,
+          (INumericItem) rightItem);
+    } else if (isKind(IBooleanItem.class, left, right)) {
+      retval = (leftItem, operator, rightItem) -> booleanCompare(
+          (IBooleanItem) leftItem,
+          operator,
+          (IBooleanItem) rightItem);
+    } else if (isKind(IDateTimeItem.class, left, right)) {
+      retval = (leftItem, operator, rightItem) -> dateTimeCompare(
+          (IDateTimeItem) leftItem,
+          operator,
+          (IDateTimeItem) rightItem);
+    } else if (isKind(IDateItem.class, left, right)) {
+      retval = (leftItem, operator, rightItem) -> dateCompare(
+          (IDateItem) leftItem,
+          operator,
+          (IDateItem) rightItem);
+    } else if (isKind(IDurationItem.class, left, right)) {
+      retval = (leftItem, operator, rightItem) -> durationCompare(
+          (IDurationItem) leftItem,
+          operator,
+          (IDurationItem) rightItem);
+    } else if (isKind(IBase64BinaryItem.class, left, right)) {
+      retval = (leftItem, operator, rightItem) -> binaryCompare(
+          (IBase64BinaryItem) leftItem,
+          operator,
+          (IBase64BinaryItem) rightItem);
+    } else {
+      retval = null;
+    }
+    return retval;
+  }
+
+  private static boolean isKind(
+      @NonNull Class<? extends IAnyAtomicItem> itemClass,
+      @NonNull AtomicItemKind left,
+      @NonNull AtomicItemKind right) {
+    return itemClass.isAssignableFrom(left.getItemClass()) && itemClass.isAssignableFrom(right.getItemClass());
+  }
+
   /**
    * Perform a string-based comparison of the {@code right} item against the
    * {@code left} item using the specified {@code operator}.
@@ -594,4 +807,13 @@ public final class ComparisonFunctions {
       @NonNull IAnyAtomicItem right) {
     return IIntegerItem.valueOf(left.compareTo(right));
   }
+
+  /**
+   * Compares two items of a specific pair of item kinds.
+   */
+  @FunctionalInterface
+  private interface ValueComparator {
+    @NonNull
+    IBooleanItem compare(@NonNull IAnyAtomicItem left, @NonNull Operator operator, @NonNull IAnyAtomicItem right);
+  }
 }
@@ -33,6 +33,8 @@ public class DefaultFunction
   @NonNull
   private final ISequenceType result;
   @NonNull
+  private final MemoizationPolicy memoizationPolicy;
+  @NonNull
   private final IFunctionExecutor handler;
 
   /**
@@ -46,6 +48,8 @@ public class DefaultFunction
    *          the argument signatures or an empty list
    * @param result
    *          the type of the result
+   * @param memoizationPolicy
+   *          the policy used to determine if call results are memoized
    * @param handler
    *          the handler to call to execute the function
    */
@@ -56,10 +60,12 @@ public class DefaultFunction
       @NonNull EnumSet<FunctionProperty> properties,
       @NonNull List<IArgument> arguments,
       @NonNull ISequenceType result,
+      @NonNull MemoizationPolicy memoizationPolicy,
       @NonNull IFunctionExecutor handler) {
     super(name, namespace, arguments);
     this.properties = Collections.unmodifiableSet(properties);
     this.result = result;
+    this.memoizationPolicy = memoizationPolicy;
     this.handler = handler;
   }
 
@@ -73,6 +79,11 @@ public class DefaultFunction
     return result;
   }
 
+  @Override
+  public MemoizationPolicy getMemoizationPolicy() {
+    return memoizationPolicy;
+  }
+
   /**
    * Execute the provided function using the provided arguments, dynamic context,
    * and focus.
@@ -53,6 +53,21 @@ public interface IArgument {
   @NonNull
   String toSignature();
 
+  /**
+   * Determine if the function consumes this argument's sequence at most once, in
+   * a single pass.
+   * <p>
+   * A streaming argument with the sequence type {@code item()*} can be provided
+   * to the function without being fully evaluated, allowing the function to stop
+   * pulling items once its result is known.
+   *
+   * @return {@code true} if the argument can be streamed, or {@code false}
+   *         otherwise
+   */
+  default boolean isStreaming() {
+    return false;
+  }
+
   /**
    * Get a new argument builder.
    *
@@ -79,6 +94,7 @@ public interface IArgument {
     @NonNull
     private IItemType type;
     private Occurrence occurrence;
+    private boolean streaming;
 
     private Builder() {
       // construct a new non-initialized builder
@@ -179,6 +195,19 @@ public interface IArgument {
       return occurrence(Occurrence.ONE_OR_MORE);
     }
 
+    /**
+     * Identifies that the function consumes the argument's sequence at most once,
+     * in a single pass.
+     *
+     * @return this builder
+     * @see IArgument#isStreaming()
+     */
+    @NonNull
+    public Builder streaming() {
+      this.streaming = true;
+      return this;
+    }
+
     @NonNull
     private Builder occurrence(@NonNull Occurrence occurrence) {
       Objects.requireNonNull(occurrence, "occurrence");
@@ -195,7 +224,8 @@ public interface IArgument {
     public IArgument build() {
       return new ArgumentImpl(
           ObjectUtils.requireNonNull(name, "the argument name must not be null"),
-          ISequenceType.of(type, ObjectUtils.requireNonNull(occurrence, "occurrence")));
+          ISequenceType.of(type, ObjectUtils.requireNonNull(occurrence, "occurrence")),
+          streaming);
     }
   }
 }
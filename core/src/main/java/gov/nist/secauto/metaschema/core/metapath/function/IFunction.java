@@ -70,6 +70,31 @@ public interface IFunction extends IItem {
     UNBOUNDED_ARITY;
   }
 
+  /**
+   * Identifies how the results of calls to a {@link FunctionProperty#DETERMINISTIC}
+   * function are memoized in the dynamic context's function result cache.
+   * <p>
+   * Caching a result requires hashing the call's arguments and maintaining a
+   * cache entry, which can cost more than executing a cheap function.
+   */
+  enum MemoizationPolicy {
+    /**
+     * Call results are never cached. This is appropriate for functions that are
+     * cheaper to execute than to cache.
+     */
+    NEVER,
+    /**
+     * Call results are cached once the observed execution cost of the function is
+     * high enough to benefit from caching.
+     */
+    ADAPTIVE,
+    /**
+     * Call results are always cached. This is appropriate for functions that are
+     * known to be expensive to execute.
+     */
+    ALWAYS;
+  }
+
   /**
    * Get the type information for this item.
    *
@@ -161,6 +186,20 @@ public interface IFunction extends IItem {
     return getProperties().contains(FunctionProperty.FOCUS_DEPENDENT);
   }
 
+  /**
+   * Get the policy used to determine if the results of calls to this function are
+   * memoized.
+   * <p>
+   * By default, calls to a deterministic function are memoized adaptively, while
+   * calls to any other function are never memoized.
+   *
+   * @return the memoization policy
+   */
+  @NonNull
+  default MemoizationPolicy getMemoizationPolicy() {
+    return isDeterministic() ? MemoizationPolicy.ADAPTIVE : MemoizationPolicy.NEVER;
+  }
+
   /**
    * Determines if the final argument can be repeated.
    *
@@ -217,6 +256,23 @@ public interface IFunction extends IItem {
       @NonNull DynamicContext dynamicContext,
       @NonNull ISequence<?> focus);
 
+  /**
+   * Bind this function to a call site whose argument expressions produce items
+   * of the provided static result types.
+   * <p>
+   * Implementations can use the static types to select an argument conversion
+   * strategy once, instead of on every call. The resulting invoker must produce
+   * the same result as {@link #execute(List, DynamicContext, ISequence)}.
+   *
+   * @param staticArgumentTypes
+   *          the static result type of each argument expression at the call site
+   * @return the invoker to use for calls made at the call site
+   */
+  @NonNull
+  default IFunctionInvoker bind(@NonNull List<Class<? extends IItem>> staticArgumentTypes) {
+    return this::execute;
+  }
+
   @Override
   default IAnyAtomicItem toAtomicItem() {
     throw new InvalidTypeFunctionException(InvalidTypeFunctionException.DATA_ITEM_IS_FUNCTION, this);
@@ -281,6 +337,7 @@ public interface IFunction extends IItem {
     @NonNull
     private Occurrence returnOccurrence = Occurrence.ONE;
     private IFunctionExecutor functionHandler;
+    private MemoizationPolicy memoizationPolicy;
 
     private Builder(@NonNull StaticContext staticContext) {
       this.staticContext = staticContext;
@@ -396,6 +453,24 @@ public interface IFunction extends IItem {
       return this;
     }
 
+    /**
+     * Define how the results of calls to the function are memoized.
+     * <p>
+     * If not set, the default policy described by
+     * {@link IFunction#getMemoizationPolicy()} is used.
+     *
+     * @param policy
+     *          the memoization policy
+     * @return this builder
+     * @see IFunction.MemoizationPolicy
+     */
+    @NonNull
+    public Builder memoization(@NonNull MemoizationPolicy policy) {
+      Objects.requireNonNull(policy, "policy");
+      this.memoizationPolicy = policy;
+      return this;
+    }
+
     /**
      * Indicate if the last argument can be repeated.
      *
@@ -562,6 +637,13 @@ public interface IFunction extends IItem {
         throw new IllegalStateException("to allow unbounded arity, at least one argument must be provided");
       }
 
+      MemoizationPolicy policy = memoizationPolicy;
+      if (policy == null) {
+        policy = properties.contains(FunctionProperty.DETERMINISTIC)
+            ? MemoizationPolicy.ADAPTIVE
+            : MemoizationPolicy.NEVER;
+      }
+
       return new DefaultFunction(
           ObjectUtils.requireNonNull(name, "the name must not be null"),
           ObjectUtils.requireNonNull(namespace, "the namespace must not be null"),
@@ -569,6 +651,7 @@ public interface IFunction extends IItem {
           new ArrayList<>(arguments),
           // FIXME: Should return type be ISequenceType?
           ISequenceType.of(returnType, returnOccurrence),
+          policy,
           ObjectUtils.requireNonNull(functionHandler, "the function handler must not be null"));
     }
   }
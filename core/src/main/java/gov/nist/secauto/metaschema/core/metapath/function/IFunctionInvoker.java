@@ -0,0 +1,42 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.function;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.MetapathException;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * This functional interface provides a dispatch method for invoking a function
+ * that has been bound to a specific call site using {@link IFunction#bind(List)}.
+ */
+@FunctionalInterface
+public interface IFunctionInvoker {
+  /**
+   * Invoke the bound function with the provided {@code arguments}, using the
+   * provided {@code DynamicContext} and {@code focus}.
+   *
+   * @param arguments
+   *          the function arguments, one for each argument type the function was
+   *          bound with
+   * @param dynamicContext
+   *          the dynamic evaluation context
+   * @param focus
+   *          the current focus or an empty sequence if there is no focus
+   * @return the function result
+   * @throws MetapathException
+   *           if an error occurred while executing the function
+   */
+  @NonNull
+  ISequence<?> invoke(
+      @NonNull List<? extends ISequence<?>> arguments,
+      @NonNull DynamicContext dynamicContext,
+      @NonNull ISequence<?> focus);
+}
@@ -0,0 +1,187 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.function;
+
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IBooleanItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.INumericItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IUntypedAtomicItem;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The kinds of atomic items that can be compared for equality using a hashable
+ * key, along with the key used for each kind.
+ * <p>
+ * Two items of the same kind are equal based on the {@code eq} value
+ * comparison if and only if their keys are equal. This allows operations that
+ * compare many items for equality to use hash tables instead of comparing
+ * every pair of items.
+ * <p>
+ * Keys are only provided for sequences whose items are all of the same kind.
+ * Comparing items of different kinds may require casting one of the items,
+ * which does not result in a transitive equality relation.
+ */
+public enum ValueEqualityKey {
+  /**
+   * String items, which are compared by their codepoints.
+   */
+  STRING {
+    @Override
+    public Object keyFor(IAnyAtomicItem item) {
+      return item.asString();
+    }
+  },
+  /**
+   * Numeric items, which are compared by their numeric value regardless of
+   * their type or scale.
+   */
+  NUMERIC {
+    @Override
+    public Object keyFor(IAnyAtomicItem item) {
+      return numericKey((INumericItem) item);
+    }
+  },
+  /**
+   * Boolean items.
+   */
+  BOOLEAN {
+    @Override
+    public Object keyFor(IAnyAtomicItem item) {
+      return ((IBooleanItem) item).toBoolean();
+    }
+  };
+
+  @NonNull
+  private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+  @NonNull
+  private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+  /**
+   * Get the key used to determine equality for the provided item.
+   * <p>
+   * The item must be of this kind.
+   *
+   * @param item
+   *          the item
+   * @return the equality key
+   */
+  @NonNull
+  public abstract Object keyFor(@NonNull IAnyAtomicItem item);
+
+  /**
+   * Get the key for a numeric value.
+   * <p>
+   * Integral values within the {@code long} range use a {@link Long} key, which
+   * avoids creating a decimal for the most common numbers. Other values use a
+   * decimal without trailing zeros, so values that differ only in scale have the
+   * same key.
+   *
+   * @param item
+   *          the numeric item
+   * @return the key
+   */
+  @NonNull
+  private static Object numericKey(@NonNull INumericItem item) {
+    Object retval;
+    if (item instanceof IIntegerItem && ((IIntegerItem) item).isLongValue()) {
+      retval = ((IIntegerItem) item).asLong();
+    } else {
+      BigDecimal value = item instanceof IIntegerItem
+          ? new BigDecimal(((IIntegerItem) item).asInteger())
+          : item.asDecimal();
+      value = value.stripTrailingZeros();
+      retval = value.scale() <= 0 && value.compareTo(LONG_MIN) >= 0 && value.compareTo(LONG_MAX) <= 0
+          ? (Object) value.longValueExact()
+          : value;
+    }
+    return ObjectUtils.notNull(retval);
+  }
+
+  /**
+   * Get the kind of the provided item.
+   *
+   * @param item
+   *          the item
+   * @return the kind, or {@code null} if the item is not of a kind supported by
+   *         keys
+   */
+  @Nullable
+  public static ValueEqualityKey forItem(@NonNull IAnyAtomicItem item) {
+    ValueEqualityKey retval;
+    if (item instanceof IStringItem) {
+      retval = STRING;
+    } else if (item instanceof INumericItem) {
+      retval = NUMERIC;
+    } else if (item instanceof IBooleanItem) {
+      retval = BOOLEAN;
+    } else {
+      retval = null;
+    }
+    return retval;
+  }
+
+  /**
+   * Get the kind shared by all of the provided items.
+   *
+   * @param items
+   *          the items
+   * @return the kind, or {@code null} if there are no items or if the items are
+   *         not all of the same kind
+   */
+  @Nullable
+  public static ValueEqualityKey forItems(@NonNull Collection<? extends IAnyAtomicItem> items) {
+    ValueEqualityKey retval = null;
+    for (IAnyAtomicItem item : items) {
+      ValueEqualityKey kind = forItem(ObjectUtils.notNull(item));
+      if (kind == null || retval != null && kind != retval) {
+        retval = null;
+        break;
+      }
+      retval = kind;
+    }
+    return retval;
+  }
+
+  /**
+   * Get the kind shared by all of the provided items for the purpose of a
+   * general comparison.
+   * <p>
+   * In a general comparison, two untyped items are compared as strings.
+   * Untyped items mixed with other items are not supported, since an untyped
+   * item is cast to the other item's type, which may fail.
+   *
+   * @param leftItems
+   *          the first set of items to compare
+   * @param rightItems
+   *          the second set of items to compare
+   * @return the kind, or {@code null} if the items are not all strings, all
+   *         untyped, or all numeric
+   */
+  @Nullable
+  static ValueEqualityKey forGeneralComparison(
+      @NonNull Collection<? extends IAnyAtomicItem> leftItems,
+      @NonNull Collection<? extends IAnyAtomicItem> rightItems) {
+    ValueEqualityKey retval;
+    if (leftItems.stream().allMatch(IUntypedAtomicItem.class::isInstance)
+        && rightItems.stream().allMatch(IUntypedAtomicItem.class::isInstance)) {
+      retval = STRING;
+    } else {
+      retval = forItems(leftItems);
+      if (retval == BOOLEAN || retval != forItems(rightItems)) {
+        retval = null;
+      }
+    }
+    return retval;
+  }
+}
@@ -11,17 +11,23 @@ import gov.nist.secauto.metaschema.core.metapath.MetapathException;
 import gov.nist.secauto.metaschema.core.metapath.function.CalledContext;
 import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.function.IFunctionInvoker;
+import gov.nist.secauto.metaschema.core.metapath.impl.IntegerRangeSequence;
+import gov.nist.secauto.metaschema.core.metapath.impl.StreamSequence;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.IItemVisitor;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyUriItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
 import gov.nist.secauto.metaschema.core.metapath.type.IItemType;
 import gov.nist.secauto.metaschema.core.metapath.type.ISequenceType;
 import gov.nist.secauto.metaschema.core.metapath.type.InvalidTypeMetapathException;
+import gov.nist.secauto.metaschema.core.metapath.type.Occurrence;
 import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
 import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -41,6 +47,8 @@ public abstract class AbstractFunction implements IFunction {
   private final IEnhancedQName qname;
   @NonNull
   private final List<IArgument> arguments;
+  @NonNull
+  private final FunctionCostProfile costProfile = new FunctionCostProfile();
 
   /**
    * Construct a new function using the provided name and namespace, used together
@@ -143,20 +151,48 @@ public abstract class AbstractFunction implements IFunction {
       assert argument != null;
       assert parameter != null;
 
-      retval.add(convertArgument(argument, parameter));
+      retval.add(convertArgument(argument, parameter, true));
     }
     return CollectionUtil.unmodifiableList(retval);
   }
 
+  /**
+   * Determine if the argument accepts any sequence without conversion, in which
+   * case the sequence is passed through unevaluated to allow the function to
+   * consume it lazily.
+   *
+   * @param argument
+   *          the argument signature
+   * @return {@code true} if the argument is a streaming {@code item()*}, or
+   *         {@code false} otherwise
+   */
+  private static boolean isPassThrough(@NonNull IArgument argument) {
+    ISequenceType sequenceType = argument.getSequenceType();
+    return argument.isStreaming()
+        && Occurrence.ZERO_OR_MORE.equals(sequenceType.getOccurrence())
+        && IItemType.item().equals(sequenceType.getType());
+  }
+
   @NonNull
   private static ISequence<?> convertArgument(
       @NonNull IArgument argument,
-      @NonNull ISequence<?> parameter) {
+      @NonNull ISequence<?> parameter,
+      boolean tryUnconverted) {
+    if (isPassThrough(argument)) {
+      return parameter;
+    }
+
     ISequenceType sequenceType = argument.getSequenceType();
 
     // apply occurrence
     ISequence<?> result = sequenceType.getOccurrence().getSequenceHandler().handle(parameter);
 
+    if (tryUnconverted && isInstanceOf(result, sequenceType.getType())) {
+      // the items already have the required type, so function conversion would not
+      // change them
+      return result;
+    }
+
     // apply function conversion and type promotion to the parameter
     if (!result.isEmpty()) {
       IItemType type = sequenceType.getType();
@@ -168,6 +204,36 @@ public abstract class AbstractFunction implements IFunction {
     return sequenceType.test(result);
   }
 
+  /**
+   * Determine if all items in the sequence are instances of the required type.
+   * <p>
+   * An atomic item atomizes to itself, so a sequence whose items all match the
+   * required type is unchanged by function conversion.
+   *
+   * @param sequence
+   *          the sequence to check
+   * @param requiredType
+   *          the expected item type for the sequence
+   * @return {@code true} if all items match, or {@code false} otherwise
+   */
+  private static boolean isInstanceOf(@NonNull ISequence<?> sequence, @NonNull IItemType requiredType) {
+    Class<? extends IItem> requiredClass = requiredType.getItemClass();
+
+    boolean retval = true;
+    // only node, map, array, and function tests refine their item class, so the
+    // items of an integer range match if the class matches; this avoids creating
+    // every item in the range
+    if (!(sequence instanceof IntegerRangeSequence && requiredClass.isAssignableFrom(IIntegerItem.class))) {
+      for (IItem item : sequence) {
+        if (!requiredClass.isInstance(item) || !requiredType.isInstance(item)) {
+          retval = false;
+          break;
+        }
+      }
+    }
+    return retval;
+  }
+
   /**
    * Based on XPath 3.1
    * <a href="https://www.w3.org/TR/xpath-31/#dt-function-conversion">function
@@ -227,20 +293,111 @@ public abstract class AbstractFunction implements IFunction {
     return contextItem;
   }
 
+  /**
+   * Determine if a call using the provided arguments can be memoized.
+   * <p>
+   * Keying a cached result on an argument that is still backed by a stream
+   * requires evaluating the whole stream, which would defeat any short-circuiting
+   * performed by the function. Such arguments are also freshly evaluated, so
+   * memoization only saves the cost of the function body.
+   *
+   * @param arguments
+   *          the converted function arguments
+   * @return {@code true} if the call can be memoized, or {@code false} otherwise
+   */
+  private static boolean isMemoizable(@NonNull List<ISequence<?>> arguments) {
+    return arguments.stream()
+        .noneMatch(arg -> arg instanceof StreamSequence && !((StreamSequence<?>) arg).isMaterialized());
+  }
+
+  /**
+   * Get the observed execution cost of this function.
+   *
+   * @return the cost profile
+   */
+  @NonNull
+  FunctionCostProfile getCostProfile() {
+    return costProfile;
+  }
+
+  /**
+   * Determine if all items of the provided function result have been produced.
+   * <p>
+   * The execution time of a call that returns a lazily evaluated stream only
+   * reflects the cost of setting up the stream, since the items are produced as
+   * the caller consumes them. Only calls returning a materialized result are
+   * used to profile the cost of a function.
+   *
+   * @param result
+   *          the function result
+   * @return {@code true} if the result is materialized, or {@code false}
+   *         otherwise
+   */
+  private static boolean isMaterialized(@NonNull ISequence<?> result) {
+    return !(result instanceof StreamSequence) || ((StreamSequence<?>) result).isMaterialized();
+  }
+
   @Override
   public ISequence<?> execute(
       @NonNull List<? extends ISequence<?>> arguments,
       @NonNull DynamicContext dynamicContext,
       @NonNull ISequence<?> focus) {
+    return execute(arguments, dynamicContext, focus, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned invoker resolves the signature of each argument once. An
+   * argument whose static type cannot overlap the required item type is always
+   * converted. For other arguments, conversion is skipped at call time when the
+   * items already have the required type. The static type is not relied on for
+   * correctness, since it may only approximate the actual item types.
+   */
+  @Override
+  public IFunctionInvoker bind(@NonNull List<Class<? extends IItem>> staticArgumentTypes) {
+    List<IArgument> signature = getArguments();
+    int arity = staticArgumentTypes.size();
+
+    IFunctionInvoker retval;
+    if (signature.isEmpty() && arity > 0 || arity > signature.size() && !isArityUnbounded()) {
+      // let execute report the signature mismatch
+      retval = this::execute;
+    } else {
+      IArgument[] boundArguments = new IArgument[arity];
+      boolean[] tryUnconverted = new boolean[arity];
+      for (int i = 0; i < arity; i++) {
+        IArgument argument = signature.get(Math.min(i, signature.size() - 1));
+        Class<? extends IItem> requiredClass = argument.getSequenceType().getType().getItemClass();
+        Class<? extends IItem> staticClass = staticArgumentTypes.get(i);
+
+        boundArguments[i] = argument;
+        tryUnconverted[i] = requiredClass.isAssignableFrom(staticClass)
+            || staticClass.isAssignableFrom(requiredClass);
+      }
+      retval = new BoundInvoker(boundArguments, tryUnconverted);
+    }
+    return retval;
+  }
+
+  @NonNull
+  private ISequence<?> execute(
+      @NonNull List<? extends ISequence<?>> arguments,
+      @NonNull DynamicContext dynamicContext,
+      @NonNull ISequence<?> focus,
+      @Nullable BoundInvoker invoker) {
 
     try {
       IItem contextItem = getContextItem(focus);
 
-      List<ISequence<?>> convertedArguments = convertArguments(this, arguments, dynamicContext);
+      List<ISequence<?>> convertedArguments = invoker == null
+          ? convertArguments(this, arguments, dynamicContext)
+          : invoker.convertArguments(arguments);
 
+      MemoizationPolicy policy = getMemoizationPolicy();
       CalledContext callingContext = null;
       ISequence<?> result = null;
-      if (isDeterministic()) {
+      if (isDeterministic() && costProfile.isAdmitted(policy) && isMemoizable(convertedArguments)) {
         // check cache
         callingContext = new CalledContext(this, convertedArguments, contextItem);
         // TODO: implement something like computeIfAbsent
@@ -249,14 +406,21 @@ public abstract class AbstractFunction implements IFunction {
       }
 
       if (result == null) {
+        boolean profile = MemoizationPolicy.ADAPTIVE.equals(policy);
+        long start = profile ? System.nanoTime() : 0;
+
         result = executeInternal(convertedArguments, dynamicContext, contextItem);
 
         if (callingContext != null) {
+          // ensure the result sequence is list backed, which also produces any lazily
+          // computed items before the execution time is recorded
+          result = result.reusable();
           // add result to cache
-          dynamicContext.cacheResult(
-              callingContext,
-              // ensure the result sequence is list backed
-              result.reusable());
+          dynamicContext.cacheResult(callingContext, result);
+        }
+
+        if (profile && isMaterialized(result)) {
+          costProfile.record(System.nanoTime() - start);
         }
       }
 
@@ -316,4 +480,42 @@ public abstract class AbstractFunction implements IFunction {
   public String toString() {
     return toSignature();
   }
+
+  /**
+   * Invokes this function using argument signatures that were resolved when the
+   * function was bound to a call site.
+   */
+  private final class BoundInvoker implements IFunctionInvoker {
+    @NonNull
+    private final IArgument[] arguments;
+    @NonNull
+    private final boolean[] tryUnconverted;
+
+    private BoundInvoker(@NonNull IArgument[] arguments, @NonNull boolean[] tryUnconverted) {
+      this.arguments = arguments;
+      this.tryUnconverted = tryUnconverted;
+    }
+
+    @Override
+    public ISequence<?> invoke(
+        List<? extends ISequence<?>> parameters,
+        DynamicContext dynamicContext,
+        ISequence<?> focus) {
+      return parameters.size() == arguments.length
+          ? execute(parameters, dynamicContext, focus, this)
+          : execute(parameters, dynamicContext, focus);
+    }
+
+    @NonNull
+    private List<ISequence<?>> convertArguments(@NonNull List<? extends ISequence<?>> parameters) {
+      List<ISequence<?>> retval = new ArrayList<>(arguments.length);
+      for (int i = 0; i < arguments.length; i++) {
+        retval.add(convertArgument(
+            ObjectUtils.notNull(arguments[i]),
+            ObjectUtils.notNull(parameters.get(i)),
+            tryUnconverted[i]));
+      }
+      return CollectionUtil.unmodifiableList(retval);
+    }
+  }
 }
@@ -0,0 +1,100 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.function.impl;
+
+import gov.nist.secauto.metaschema.core.metapath.function.IFunction.MemoizationPolicy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Tracks the observed execution cost of a function, which is used to decide if
+ * calls to a function with the {@link MemoizationPolicy#ADAPTIVE} policy are
+ * admitted to the function result cache.
+ * <p>
+ * The cost is an exponential moving average of the execution time, so
+ * admission follows changes in the typical cost of a call. Updates from
+ * concurrent executions may occasionally be lost, which only affects the
+ * accuracy of the average.
+ */
+final class FunctionCostProfile {
+  /**
+   * The number of executions observed before a function can be admitted.
+   */
+  static final long WARMUP_EXECUTIONS = 16;
+  /**
+   * The average execution time, in nanoseconds, at or above which a function is
+   * admitted. Below this, computing the cache key and maintaining the cache entry
+   * typically costs more than executing the function.
+   */
+  static final long ADMISSION_THRESHOLD_NANOS = 10_000;
+  /**
+   * The weight of a new sample in the moving average, expressed as a right shift
+   * (i.e., {@code 1/8}).
+   */
+  private static final int SMOOTHING_SHIFT = 3;
+
+  @NonNull
+  private final AtomicLong executions = new AtomicLong();
+  private volatile long averageNanos;
+
+  /**
+   * Determine if call results should be cached based on the provided policy and
+   * the observed cost.
+   *
+   * @param policy
+   *          the function's memoization policy
+   * @return {@code true} if call results should be cached, or {@code false}
+   *         otherwise
+   */
+  public boolean isAdmitted(@NonNull MemoizationPolicy policy) {
+    boolean retval;
+    switch (policy) {
+    case ALWAYS:
+      retval = true;
+      break;
+    case ADAPTIVE:
+      retval = executions.get() >= WARMUP_EXECUTIONS && averageNanos >= ADMISSION_THRESHOLD_NANOS;
+      break;
+    case NEVER:
+    default:
+      retval = false;
+      break;
+    }
+    return retval;
+  }
+
+  /**
+   * Record the execution time of a call.
+   *
+   * @param nanos
+   *          the execution time in nanoseconds
+   */
+  public void record(long nanos) {
+    long count = executions.getAndIncrement();
+    long average = averageNanos;
+    averageNanos = count == 0 ? nanos : average + (nanos - average >> SMOOTHING_SHIFT);
+  }
+
+  /**
+   * Get the number of recorded executions.
+   *
+   * @return the execution count
+   */
+  public long getExecutions() {
+    return executions.get();
+  }
+
+  /**
+   * Get the average execution time.
+   *
+   * @return the average execution time in nanoseconds
+   */
+  public long getAverageNanos() {
+    return averageNanos;
+  }
+}
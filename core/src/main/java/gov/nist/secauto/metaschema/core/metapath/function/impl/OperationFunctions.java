@@ -1031,9 +1031,10 @@ public final class OperationFunctions {
     if (arg1 == null || arg2 == null) {
       retval = IBooleanItem.FALSE;
     } else if (arg1 instanceof IIntegerItem && arg2 instanceof IIntegerItem) {
-      retval = IBooleanItem.valueOf(arg1.asInteger().equals(arg2.asInteger()));
+      retval = IBooleanItem.valueOf(((IIntegerItem) arg1).compareTo((IIntegerItem) arg2) == 0);
     } else {
-      retval = IBooleanItem.valueOf(arg1.asDecimal().equals(arg2.asDecimal()));
+      // compare ignoring scale, so that 2 and 2.0 are equal
+      retval = IBooleanItem.valueOf(arg1.asDecimal().compareTo(arg2.asDecimal()) == 0);
     }
     return retval;
   }
@@ -1055,7 +1056,7 @@ public final class OperationFunctions {
     if (arg1 == null || arg2 == null) {
       retval = IBooleanItem.FALSE;
     } else if (arg1 instanceof IIntegerItem && arg2 instanceof IIntegerItem) {
-      int result = arg1.asInteger().compareTo(arg2.asInteger());
+      int result = ((IIntegerItem) arg1).compareTo((IIntegerItem) arg2);
       retval = IBooleanItem.valueOf(result > 0);
     } else {
       int result = arg1.asDecimal().compareTo(arg2.asDecimal());
@@ -1081,7 +1082,7 @@ public final class OperationFunctions {
     if (arg1 == null || arg2 == null) {
       retval = IBooleanItem.FALSE;
     } else if (arg1 instanceof IIntegerItem && arg2 instanceof IIntegerItem) {
-      int result = arg1.asInteger().compareTo(arg2.asInteger());
+      int result = ((IIntegerItem) arg1).compareTo((IIntegerItem) arg2);
       retval = IBooleanItem.valueOf(result < 0);
     } else {
       int result = arg1.asDecimal().compareTo(arg2.asDecimal());
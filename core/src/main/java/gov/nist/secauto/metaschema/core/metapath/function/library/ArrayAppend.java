@@ -10,13 +10,13 @@ import gov.nist.secauto.metaschema.core.metapath.MetapathConstants;
 import gov.nist.secauto.metaschema.core.metapath.function.FunctionUtils;
 import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.impl.PersistentVector;
 import gov.nist.secauto.metaschema.core.metapath.item.ICollectionValue;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.function.IArrayItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -85,9 +85,7 @@ public final class ArrayAppend {
       @NonNull IArrayItem<T> array,
       @NonNull T appendage) {
 
-    List<T> copy = new ArrayList<>(array);
-    copy.add(appendage);
-
-    return IArrayItem.ofCollection(copy);
+    // the persistent list shares its structure with the original array
+    return IArrayItem.ofCollection(PersistentVector.copyOf(array.getValue()).append(appendage));
   }
 }
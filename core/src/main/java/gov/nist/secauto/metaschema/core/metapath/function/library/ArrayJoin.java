@@ -10,6 +10,7 @@ import gov.nist.secauto.metaschema.core.metapath.MetapathConstants;
 import gov.nist.secauto.metaschema.core.metapath.function.FunctionUtils;
 import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.impl.PersistentVector;
 import gov.nist.secauto.metaschema.core.metapath.item.ICollectionValue;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
@@ -18,7 +19,6 @@ import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -74,8 +74,13 @@ public final class ArrayJoin {
   @NonNull
   public static <T extends ICollectionValue> IArrayItem<T> join(
       @NonNull Collection<? extends IArrayItem<T>> arrays) {
-    return IArrayItem.ofCollection(ObjectUtils.notNull(arrays.stream()
-        .flatMap(Collection::stream)
-        .collect(Collectors.toList())));
+    // appending to a persistent list shares its structure with the first array
+    PersistentVector<T> retval = PersistentVector.empty();
+    for (IArrayItem<T> array : arrays) {
+      retval = retval.isEmpty()
+          ? PersistentVector.copyOf(array.getValue())
+          : retval.appendAll(array);
+    }
+    return IArrayItem.ofCollection(retval);
   }
 }
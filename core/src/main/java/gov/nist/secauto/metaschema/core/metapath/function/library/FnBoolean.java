@@ -21,6 +21,7 @@ import gov.nist.secauto.metaschema.core.metapath.item.atomic.IUntypedAtomicItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
+import java.util.Iterator;
 import java.util.List;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -39,10 +40,12 @@ public final class FnBoolean {
       .deterministic()
       .contextIndependent()
       .focusIndependent()
+      .memoization(IFunction.MemoizationPolicy.NEVER)
       .argument(IArgument.builder()
           .name("arg")
           .type(IItem.type())
           .zeroOrMore()
+          .streaming()
           .build())
       .returnType(IBooleanItem.type())
       .returnOne()
@@ -86,6 +89,10 @@ public final class FnBoolean {
    * A helper method that gets the effective boolean value of the provided
    * sequence based on <a href="https://www.w3.org/TR/xpath-31/#id-ebv">XPath
    * 3.1</a>.
+   * <p>
+   * At most two items are pulled from the sequence, which allows a stream-backed
+   * sequence to be evaluated without being fully materialized. The sequence must
+   * not be used again by the caller.
    *
    * @param sequence
    *          the sequence to evaluate
@@ -93,11 +100,12 @@ public final class FnBoolean {
    */
   public static boolean fnBooleanAsPrimitive(@NonNull ISequence<?> sequence) {
     boolean retval = false;
-    IItem first = sequence.getFirstItem(false);
-    if (first != null) {
+    Iterator<? extends IItem> iterator = sequence.stream().limit(2).iterator();
+    if (iterator.hasNext()) {
+      IItem first = ObjectUtils.notNull(iterator.next());
       if (first instanceof INodeItem) {
         retval = true;
-      } else if (sequence.size() == 1) {
+      } else if (!iterator.hasNext()) {
         retval = fnBooleanAsPrimitive(first);
       }
     }
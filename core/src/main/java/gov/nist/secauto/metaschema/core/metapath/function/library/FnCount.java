@@ -34,6 +34,7 @@ public final class FnCount {
       .deterministic()
       .contextIndependent()
       .focusIndependent()
+      .memoization(IFunction.MemoizationPolicy.NEVER)
       .argument(IArgument.builder()
           .name("arg")
           .type(IItem.type())
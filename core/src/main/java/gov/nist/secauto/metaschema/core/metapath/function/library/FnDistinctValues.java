@@ -12,14 +12,21 @@ import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
 import gov.nist.secauto.metaschema.core.metapath.function.InvalidTypeFunctionException;
 import gov.nist.secauto.metaschema.core.metapath.function.InvalidValueForCastFunctionException;
+import gov.nist.secauto.metaschema.core.metapath.function.ValueEqualityKey;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -74,11 +81,72 @@ public final class FnDistinctValues {
    */
   @NonNull
   public static Stream<IAnyAtomicItem> fnDistinctValues(@NonNull List<IAnyAtomicItem> values) {
-    Set<IAnyAtomicItem> distinctValues = new TreeSet<>(FnDistinctValues::compare);
-    distinctValues.addAll(values);
+    ValueEqualityKey key = ValueEqualityKey.forItems(values);
+
+    Collection<IAnyAtomicItem> distinctValues;
+    if (key == null) {
+      distinctValues = distinctByComparison(values);
+    } else {
+      // keep the first item for each key
+      Map<Object, IAnyAtomicItem> keyedValues = new LinkedHashMap<>(); // NOPMD - intentional
+      for (IAnyAtomicItem value : values) {
+        keyedValues.putIfAbsent(key.keyFor(ObjectUtils.notNull(value)), value);
+      }
+      distinctValues = keyedValues.values();
+    }
     return ObjectUtils.notNull(distinctValues.stream());
   }
 
+  /**
+   * Get the first occurrence of each distinct value in a list of values of
+   * differing kinds.
+   * <p>
+   * Values of a kind supported by {@link ValueEqualityKey} are compared to the
+   * distinct values of the same kind using a hash set of their keys. Since a
+   * comparison between values of differing kinds may involve casting, these
+   * values are compared pairwise only to the distinct values of the other kinds.
+   * Values of an unsupported kind are compared pairwise to all distinct values.
+   *
+   * @param values
+   *          the items to get destinct values for
+   * @return a the list of distinct values
+   */
+  @NonNull
+  private static List<IAnyAtomicItem> distinctByComparison(@NonNull List<IAnyAtomicItem> values) {
+    List<IAnyAtomicItem> retval = new ArrayList<>();
+    // the distinct values and their keys, grouped by kind
+    Map<ValueEqualityKey, List<IAnyAtomicItem>> valuesByKind = new EnumMap<>(ValueEqualityKey.class);
+    Map<ValueEqualityKey, Set<Object>> keysByKind = new EnumMap<>(ValueEqualityKey.class);
+    // the distinct values that have no kind
+    List<IAnyAtomicItem> unkeyedValues = new ArrayList<>();
+
+    for (IAnyAtomicItem value : values) {
+      assert value != null;
+      ValueEqualityKey kind = ValueEqualityKey.forItem(value);
+      Object key = kind == null ? null : kind.keyFor(value);
+
+      boolean distinct = (kind == null || !keysByKind.getOrDefault(kind, CollectionUtil.emptySet()).contains(key))
+          && !matchesAny(unkeyedValues, value)
+          && valuesByKind.entrySet().stream()
+              .noneMatch(entry -> entry.getKey() != kind && matchesAny(ObjectUtils.notNull(entry.getValue()), value));
+
+      if (distinct) {
+        retval.add(value);
+        if (kind == null) {
+          unkeyedValues.add(value);
+        } else {
+          keysByKind.computeIfAbsent(kind, k -> new HashSet<>()).add(key);
+          valuesByKind.computeIfAbsent(kind, k -> new ArrayList<>()).add(value);
+        }
+      }
+    }
+    return retval;
+  }
+
+  private static boolean matchesAny(@NonNull List<IAnyAtomicItem> distinctValues, @NonNull IAnyAtomicItem value) {
+    return distinctValues.stream().anyMatch(distinct -> compare(ObjectUtils.notNull(distinct), value) == 0);
+  }
+
   private static int compare(@NonNull IAnyAtomicItem item1, @NonNull IAnyAtomicItem item2) {
     int retval;
     try {
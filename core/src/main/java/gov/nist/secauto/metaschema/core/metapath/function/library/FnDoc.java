@@ -38,6 +38,7 @@ public final class FnDoc {
       .deterministic()
       .contextDependent()
       .focusIndependent()
+      .memoization(IFunction.MemoizationPolicy.ALWAYS)
       .argument(IArgument.builder()
           .name("arg1")
           .type(IStringItem.type())
@@ -34,10 +34,12 @@ public final class FnEmpty {
       .deterministic()
       .contextIndependent()
       .focusIndependent()
+      .memoization(IFunction.MemoizationPolicy.NEVER)
       .argument(IArgument.builder()
           .name("arg")
           .type(IItem.type())
           .zeroOrMore()
+          .streaming()
           .build())
       .returnType(IBooleanItem.type())
       .returnOne()
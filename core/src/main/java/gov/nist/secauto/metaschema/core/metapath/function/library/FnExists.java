@@ -33,10 +33,12 @@ public final class FnExists {
       .deterministic()
       .contextIndependent()
       .focusIndependent()
+      .memoization(IFunction.MemoizationPolicy.NEVER)
       .argument(IArgument.builder()
           .name("arg")
           .type(IItem.type())
           .zeroOrMore()
+          .streaming()
           .build())
       .returnType(IBooleanItem.type())
       .returnOne()
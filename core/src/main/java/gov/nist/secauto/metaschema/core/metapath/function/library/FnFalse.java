@@ -30,6 +30,7 @@ public final class FnFalse {
       .deterministic()
       .contextIndependent()
       .focusIndependent()
+      .memoization(IFunction.MemoizationPolicy.NEVER)
       .returnType(IBooleanItem.type())
       .returnOne()
       .functionHandler(FnFalse::execute)
@@ -36,6 +36,7 @@ public final class FnHead {
           .name("arg")
           .type(IItem.type())
           .zeroOrMore()
+          .streaming()
           .build())
       .returnType(IItem.type())
       .returnZeroOrOne()
@@ -53,7 +54,8 @@ public final class FnHead {
       @NonNull DynamicContext dynamicContext,
       IItem focus) {
     ISequence<?> items = FunctionUtils.asType(ObjectUtils.requireNonNull(arguments.get(0)));
-    return ISequence.of(fnHead(items));
+    // only pull the first item, avoiding evaluation of the remaining items
+    return ISequence.of(ISequence.getFirstItem(items.stream(), false));
   }
 
   /**
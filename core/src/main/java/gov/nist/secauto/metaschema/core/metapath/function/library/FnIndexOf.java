@@ -11,6 +11,7 @@ import gov.nist.secauto.metaschema.core.metapath.function.ComparisonFunctions;
 import gov.nist.secauto.metaschema.core.metapath.function.FunctionUtils;
 import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.function.ValueEqualityKey;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
@@ -85,6 +86,46 @@ public final class FnIndexOf {
   @NonNull
   public static ISequence<IIntegerItem> fnIndexOf(@NonNull List<IAnyAtomicItem> items,
       @NonNull IAnyAtomicItem search) {
+    ValueEqualityKey key = ValueEqualityKey.forItem(search);
+    return key != null && key == ValueEqualityKey.forItems(items)
+        ? indexOfKey(items, key, key.keyFor(search))
+        : indexOfByComparison(items, search);
+  }
+
+  /**
+   * Find the matching items by comparing the equality key of each item with the
+   * key of the item to match.
+   *
+   * @param items
+   *          the items to match against, which must all be of the key's kind
+   * @param key
+   *          the kind of equality key to use
+   * @param searchKey
+   *          the key of the item to match
+   * @return a list of index numbers indicating the position of matches in the
+   *         sequence
+   */
+  @NonNull
+  private static ISequence<IIntegerItem> indexOfKey(
+      @NonNull List<IAnyAtomicItem> items,
+      @NonNull ValueEqualityKey key,
+      @NonNull Object searchKey) {
+    int index = 0;
+    List<IIntegerItem> indices = new ArrayList<>();
+    for (IAnyAtomicItem item : items) {
+      ++index;
+      if (searchKey.equals(key.keyFor(ObjectUtils.notNull(item)))) {
+        // Offset for Metapath indices that start from 1
+        indices.add(IIntegerItem.valueOf(index));
+      }
+    }
+    return ISequence.ofCollection(indices);
+  }
+
+  @NonNull
+  private static ISequence<IIntegerItem> indexOfByComparison(
+      @NonNull List<IAnyAtomicItem> items,
+      @NonNull IAnyAtomicItem search) {
     int index = 0;
     ListIterator<IAnyAtomicItem> iterator = items.listIterator();
     List<IIntegerItem> indices = new ArrayList<>();
@@ -12,9 +12,12 @@ import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.node.DocumentOrder;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -75,14 +78,36 @@ public final class FnInnermost {
    */
   @NonNull
   public static Stream<? extends INodeItem> fnInnermost(@NonNull List<? extends INodeItem> arg) {
-    Set<? extends INodeItem> ancestors = arg.stream()
-        .distinct()
-        .flatMap(INodeItem::ancestor)
-        .collect(Collectors.toSet());
+    List<? extends INodeItem> nodes = ObjectUtils.notNull(DocumentOrder.distinct(arg.stream())
+        .collect(Collectors.toList()));
 
-    return ObjectUtils.notNull(arg.stream()
-        .distinct()
-        .filter(node -> !ancestors.contains(node)));
+    Stream<? extends INodeItem> retval;
+    if (DocumentOrder.isOrderedInSameDocument(nodes)) {
+      // a node's descendants directly follow it in document order, so a node is an
+      // ancestor of another member if the next member in document order is within
+      // its descendant range
+      List<? extends INodeItem> sorted = nodes.stream()
+          .sorted(Comparator.comparingInt(DocumentOrder::ordinal))
+          .collect(Collectors.toList());
+      BitSet ancestors = new BitSet();
+      for (int i = 0; i < sorted.size() - 1; i++) {
+        INodeItem node = ObjectUtils.notNull(sorted.get(i));
+        if (DocumentOrder.ordinal(ObjectUtils.notNull(sorted.get(i + 1))) <= DocumentOrder
+            .lastDescendantOrdinal(node)) {
+          ancestors.set(DocumentOrder.ordinal(node));
+        }
+      }
+      retval = nodes.stream()
+          .filter(node -> !ancestors.get(DocumentOrder.ordinal(ObjectUtils.notNull(node))));
+    } else {
+      Set<? extends INodeItem> ancestors = nodes.stream()
+          .flatMap(INodeItem::ancestor)
+          .collect(Collectors.toSet());
+
+      retval = nodes.stream()
+          .filter(node -> !ancestors.contains(node));
+    }
+    return ObjectUtils.notNull(retval);
   }
 
   private FnInnermost() {
@@ -10,6 +10,7 @@ import gov.nist.secauto.metaschema.core.metapath.MetapathConstants;
 import gov.nist.secauto.metaschema.core.metapath.function.FunctionUtils;
 import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.function.regex.RegexPatternCache;
 import gov.nist.secauto.metaschema.core.metapath.function.regex.RegexUtil;
 import gov.nist.secauto.metaschema.core.metapath.function.regex.RegularExpressionMetapathException;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
@@ -19,7 +20,6 @@ import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.List;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -137,7 +137,7 @@ public final class FnMatches {
    */
   public static boolean fnMatches(@NonNull String input, @NonNull String pattern, @NonNull String flags) {
     try {
-      return Pattern.compile(pattern, RegexUtil.parseFlags(flags))
+      return RegexPatternCache.instance().get(pattern, RegexUtil.parseFlags(flags))
           .matcher(input).find();
     } catch (PatternSyntaxException ex) {
       throw new RegularExpressionMetapathException(
@@ -32,10 +32,12 @@ public final class FnNot {
       .deterministic()
       .contextIndependent()
       .focusIndependent()
+      .memoization(IFunction.MemoizationPolicy.NEVER)
       .argument(IArgument.builder()
           .name("arg")
           .type(IItem.type())
           .zeroOrMore()
+          .streaming()
           .build())
       .returnType(IBooleanItem.type())
       .returnOne()
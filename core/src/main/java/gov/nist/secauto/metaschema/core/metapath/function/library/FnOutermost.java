@@ -12,12 +12,16 @@ import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.node.DocumentOrder;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -75,11 +79,36 @@ public final class FnOutermost {
    */
   @NonNull
   public static Stream<? extends INodeItem> fnOutermost(@NonNull List<? extends INodeItem> arg) {
-    Set<? extends INodeItem> values = new HashSet<>(arg);
+    List<? extends INodeItem> nodes = ObjectUtils.notNull(DocumentOrder.distinct(arg.stream())
+        .collect(Collectors.toList()));
 
-    return ObjectUtils.notNull(arg.stream()
-        .distinct()
-        .filter(node -> !node.ancestor().anyMatch(values::contains)));
+    Stream<? extends INodeItem> retval;
+    if (DocumentOrder.isOrderedInSameDocument(nodes)) {
+      // scanning in document order, a node has an ancestor in the list if it is
+      // within the descendant range of the last node that was kept
+      List<? extends INodeItem> sorted = nodes.stream()
+          .sorted(Comparator.comparingInt(DocumentOrder::ordinal))
+          .collect(Collectors.toList());
+      BitSet descendants = new BitSet();
+      int lastKept = DocumentOrder.NO_ORDINAL;
+      for (INodeItem node : sorted) {
+        assert node != null;
+        int ordinal = DocumentOrder.ordinal(node);
+        if (ordinal <= lastKept) {
+          descendants.set(ordinal);
+        } else {
+          lastKept = DocumentOrder.lastDescendantOrdinal(node);
+        }
+      }
+      retval = nodes.stream()
+          .filter(node -> !descendants.get(DocumentOrder.ordinal(ObjectUtils.notNull(node))));
+    } else {
+      Set<? extends INodeItem> values = new HashSet<>(nodes);
+
+      retval = nodes.stream()
+          .filter(node -> !node.ancestor().anyMatch(values::contains));
+    }
+    return ObjectUtils.notNull(retval);
   }
 
   private FnOutermost() {
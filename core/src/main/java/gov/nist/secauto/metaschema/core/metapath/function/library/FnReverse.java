@@ -10,6 +10,7 @@ import gov.nist.secauto.metaschema.core.metapath.MetapathConstants;
 import gov.nist.secauto.metaschema.core.metapath.function.FunctionUtils;
 import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.impl.IntegerRangeSequence;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
@@ -55,7 +56,9 @@ public final class FnReverse {
       @NonNull DynamicContext dynamicContext,
       IItem focus) {
     ISequence<?> target = FunctionUtils.asType(ObjectUtils.requireNonNull(arguments.get(0)));
-    return ISequence.ofCollection(fnReverse(target));
+    return target instanceof IntegerRangeSequence
+        ? ((IntegerRangeSequence) target).reverse()
+        : ISequence.ofCollection(fnReverse(target));
   }
 
   /**
@@ -34,6 +34,7 @@ public final class FnStringLength {
       .deterministic()
       .contextDependent()
       .focusDependent()
+      .memoization(IFunction.MemoizationPolicy.NEVER)
       .returnType(IIntegerItem.type())
       .returnOne()
       .functionHandler(FnStringLength::executeNoArg)
@@ -46,6 +47,7 @@ public final class FnStringLength {
       .deterministic()
       .contextIndependent()
       .focusIndependent()
+      .memoization(IFunction.MemoizationPolicy.NEVER)
       .argument(IArgument.builder()
           .name("arg1")
           .type(IStringItem.type())
@@ -12,6 +12,7 @@ import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
 import gov.nist.secauto.metaschema.core.metapath.function.InvalidArgumentFunctionException;
 import gov.nist.secauto.metaschema.core.metapath.function.impl.OperationFunctions;
+import gov.nist.secauto.metaschema.core.metapath.impl.IntegerRangeSequence;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
@@ -132,6 +133,10 @@ public final class FnSum {
       return items.get(0);
     }
 
+    if (items instanceof IntegerRangeSequence) {
+      return ((IntegerRangeSequence) items).sum();
+    }
+
     // tell cpd to start ignoring code - CPD-OFF
 
     Map<Class<? extends IAnyAtomicItem>, Integer> typeCounts = FunctionUtils.countTypes(
@@ -10,6 +10,7 @@ import gov.nist.secauto.metaschema.core.metapath.MetapathConstants;
 import gov.nist.secauto.metaschema.core.metapath.function.FunctionUtils;
 import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.function.regex.RegexPatternCache;
 import gov.nist.secauto.metaschema.core.metapath.function.regex.RegexUtil;
 import gov.nist.secauto.metaschema.core.metapath.function.regex.RegularExpressionMetapathException;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
@@ -21,7 +22,6 @@ import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -199,7 +199,7 @@ public final class FnTokenize {
     }
 
     try {
-      Matcher matcher = Pattern.compile(pattern, RegexUtil.parseFlags(flags)).matcher(input);
+      Matcher matcher = RegexPatternCache.instance().get(pattern, RegexUtil.parseFlags(flags)).matcher(input);
 
       int lastPosition = 0;
       int length = input.length();
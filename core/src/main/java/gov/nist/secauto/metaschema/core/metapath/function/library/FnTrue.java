@@ -30,6 +30,7 @@ public final class FnTrue {
       .deterministic()
       .contextIndependent()
       .focusIndependent()
+      .memoization(IFunction.MemoizationPolicy.NEVER)
       .returnType(IBooleanItem.type())
       .returnOne()
       .functionHandler(FnTrue::execute)
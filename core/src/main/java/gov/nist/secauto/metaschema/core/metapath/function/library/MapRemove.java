@@ -10,6 +10,7 @@ import gov.nist.secauto.metaschema.core.metapath.MetapathConstants;
 import gov.nist.secauto.metaschema.core.metapath.function.FunctionUtils;
 import gov.nist.secauto.metaschema.core.metapath.function.IArgument;
 import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.impl.PersistentHashMap;
 import gov.nist.secauto.metaschema.core.metapath.item.ICollectionValue;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
@@ -20,9 +21,6 @@ import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -87,13 +85,11 @@ public final class MapRemove {
   public static <V extends ICollectionValue> IMapItem<V> removeItems(
       @NonNull IMapItem<V> map,
       @NonNull Collection<? extends IAnyAtomicItem> keys) {
-    Set<IMapKey> keySet = keys.stream()
-        .map(IAnyAtomicItem::asMapKey)
-        .collect(Collectors.toSet());
-
-    Map<IMapKey, V> remaining = ObjectUtils.notNull(map.entrySet().stream()
-        .filter(entry -> !keySet.contains(entry.getKey()))
-        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+    // the persistent map shares its structure with the original map
+    PersistentHashMap<IMapKey, V> remaining = PersistentHashMap.copyOf(map.getValue());
+    for (IAnyAtomicItem key : keys) {
+      remaining = remaining.without(key.asMapKey());
+    }
 
     return IMapItem.ofCollection(remaining);
   }
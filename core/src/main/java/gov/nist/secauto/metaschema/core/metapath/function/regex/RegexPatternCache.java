@@ -0,0 +1,78 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.function.regex;
+
+import gov.nist.secauto.metaschema.core.util.AbstractBoundedCache;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A bounded, thread-safe cache of compiled regular expression patterns.
+ * <p>
+ * Compiled patterns are keyed by the regular expression and the
+ * {@link Pattern} flags bitmask. Since a {@link Pattern} is immutable, a
+ * compiled pattern can be shared across evaluations and threads.
+ * <p>
+ * Compilation failures are not cached.
+ */
+public final class RegexPatternCache
+    extends AbstractBoundedCache<Map.Entry<String, Integer>, Pattern> {
+  /**
+   * The default maximum number of compiled patterns to retain.
+   */
+  public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+  @NonNull
+  private static final RegexPatternCache INSTANCE = new RegexPatternCache(DEFAULT_MAXIMUM_SIZE);
+
+  /**
+   * Get the shared cache used by the Metapath regular expression functions and
+   * constraints.
+   *
+   * @return the shared cache instance
+   */
+  @NonNull
+  public static RegexPatternCache instance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Construct a new cache.
+   *
+   * @param maximumSize
+   *          the maximum number of compiled patterns to retain, after which the
+   *          least valuable entries will be evicted
+   */
+  public RegexPatternCache(long maximumSize) {
+    super(maximumSize);
+  }
+
+  /**
+   * Get the compiled pattern for the provided regular expression, compiling the
+   * pattern if it is not already cached.
+   *
+   * @param regex
+   *          the regular expression
+   * @param flags
+   *          the {@link Pattern} flags bitmask
+   * @return the compiled pattern
+   * @throws PatternSyntaxException
+   *           if the regular expression's syntax is invalid
+   * @throws IllegalArgumentException
+   *           if the flags bitmask contains an unsupported flag
+   * @see Pattern#compile(String, int)
+   */
+  @NonNull
+  public Pattern get(@NonNull String regex, int flags) {
+    return get(
+        Map.entry(regex, flags),
+        key -> Pattern.compile(key.getKey(), key.getValue()));
+  }
+}
@@ -5,11 +5,57 @@
 
 package gov.nist.secauto.metaschema.core.metapath.function.regex;
 
+import gov.nist.secauto.metaschema.core.metapath.MetapathConstants;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 public final class RegexUtil {
+  /**
+   * The functions that accept a regular expression pattern as their second
+   * argument and optional flags as their third argument.
+   */
+  @NonNull
+  private static final Set<IEnhancedQName> PATTERN_FUNCTIONS = Set.of(
+      IEnhancedQName.of(MetapathConstants.NS_METAPATH_FUNCTIONS, "matches"),
+      IEnhancedQName.of(MetapathConstants.NS_METAPATH_FUNCTIONS, "tokenize"));
+
+  /**
+   * Determine if the provided function accepts a regular expression pattern as
+   * its second argument and optional flags as its third argument.
+   *
+   * @param function
+   *          the name of the function
+   * @return {@code true} if the function accepts a pattern, or {@code false}
+   *         otherwise
+   */
+  public static boolean isPatternFunction(@NonNull IEnhancedQName function) {
+    return PATTERN_FUNCTIONS.contains(function);
+  }
+
+  /**
+   * Compile the provided regular expression pattern ahead of its use.
+   * <p>
+   * The compiled pattern is stored in the shared {@link RegexPatternCache}, so
+   * the pattern does not need to be compiled when a function using it is
+   * evaluated. Invalid patterns and flags are ignored, allowing the error to be
+   * raised when the function is evaluated.
+   *
+   * @param pattern
+   *          the regular expression pattern
+   * @param flags
+   *          the regular expression flags
+   */
+  public static void precompilePattern(@NonNull String pattern, @NonNull String flags) {
+    try {
+      RegexPatternCache.instance().get(pattern, parseFlags(flags));
+    } catch (IllegalArgumentException ex) { // NOPMD - intentional
+      // defer the error to evaluation
+    }
+  }
 
   /**
    * Parse the regular expression flags according to
@@ -112,16 +112,12 @@ public abstract class AbstractMapItem<VALUE extends ICollectionValue>
       return false;
     }
 
-    Iterator<Map.Entry<IMapKey, VALUE>> thisIterator = entrySet().iterator();
-    Iterator<? extends Map.Entry<IMapKey, ? extends ICollectionValue>> otherIterator = otherItem.entrySet().iterator();
+    // maps are unordered, so the entries are matched by key
     boolean retval = true;
-    while (thisIterator.hasNext() && otherIterator.hasNext()) {
-      Map.Entry<IMapKey, ? extends ICollectionValue> i1 = thisIterator.next();
-      Map.Entry<IMapKey, ? extends ICollectionValue> i2 = otherIterator.next();
-
-      retval = i1.getKey().equals(i2.getKey())
-          && i1.getValue().deepEquals(i2.getValue());
-      if (!retval) {
+    for (Map.Entry<IMapKey, VALUE> entry : entrySet()) {
+      ICollectionValue otherValue = otherItem.get(entry.getKey());
+      if (otherValue == null || !entry.getValue().deepEquals(otherValue)) {
+        retval = false;
         break;
       }
     }
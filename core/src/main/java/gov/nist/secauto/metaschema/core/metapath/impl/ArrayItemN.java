@@ -42,7 +42,7 @@ public class ArrayItemN<ITEM extends ICollectionValue>
    *          a list containing the items to add to the array
    */
   public ArrayItemN(@NonNull List<ITEM> items) {
-    this.items = CollectionUtil.unmodifiableList(items);
+    this.items = items instanceof PersistentVector ? items : CollectionUtil.unmodifiableList(items);
   }
 
   @Override
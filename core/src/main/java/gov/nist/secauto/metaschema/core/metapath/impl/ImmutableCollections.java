@@ -280,5 +280,20 @@ public final class ImmutableCollections {
     public Set<Entry<K, V>> entrySet() {
       return Collections.unmodifiableSet(getValue().entrySet());
     }
+
+    @Override
+    public V get(Object key) {
+      return getValue().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return getValue().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return getValue().size();
+    }
   }
 }
@@ -0,0 +1,198 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.impl;
+
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A Metapath sequence containing a contiguous range of integers.
+ * <p>
+ * Only the bounds of the range are stored. Integer items are created as they
+ * are accessed, so the memory used by the sequence does not depend on the
+ * number of items in the range. The size, indexed access, membership tests,
+ * and reversal are all performed in constant time.
+ */
+public final class IntegerRangeSequence
+    extends AbstractSequence<IIntegerItem> {
+  private final long first;
+  private final int size;
+  private final boolean descending;
+  @NonNull
+  private final List<IIntegerItem> items = new RangeList();
+
+  /**
+   * Get a sequence containing the integers from {@code start} to {@code end},
+   * inclusive, in ascending order.
+   *
+   * @param start
+   *          the first integer in the range
+   * @param end
+   *          the last integer in the range
+   * @return the sequence, which is empty if {@code start} is greater than
+   *         {@code end}
+   * @throws ArithmeticException
+   *           if the range contains more than {@link Integer#MAX_VALUE} items
+   */
+  @NonNull
+  public static ISequence<IIntegerItem> of(long start, long end) {
+    ISequence<IIntegerItem> retval;
+    if (start > end) {
+      retval = ISequence.empty();
+    } else if (start == end) {
+      retval = ISequence.of(IIntegerItem.valueOf(start));
+    } else {
+      retval = new IntegerRangeSequence(
+          start,
+          Math.toIntExact(Math.addExact(Math.subtractExact(end, start), 1)),
+          false);
+    }
+    return retval;
+  }
+
+  private IntegerRangeSequence(long first, int size, boolean descending) {
+    this.first = first;
+    this.size = size;
+    this.descending = descending;
+  }
+
+  /**
+   * Get the integer value at the provided index.
+   *
+   * @param index
+   *          the index, which must be within the range
+   * @return the value
+   */
+  private long valueAt(int index) {
+    return descending ? first - index : first + index;
+  }
+
+  /**
+   * Get the index of the provided value.
+   *
+   * @param obj
+   *          the value to find
+   * @return the index, or {@code -1} if the value is not in the range
+   */
+  private int indexOfValue(Object obj) {
+    int retval = -1;
+    if (obj instanceof IIntegerItem && ((IIntegerItem) obj).isLongValue()) {
+      long value = ((IIntegerItem) obj).asLong();
+      long index = descending ? first - value : value - first;
+      if (index >= 0 && index < size) {
+        retval = (int) index;
+      }
+    }
+    return retval;
+  }
+
+  @Override
+  protected List<IIntegerItem> asList() {
+    return items;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public IIntegerItem get(int index) {
+    Objects.checkIndex(index, size);
+    return IIntegerItem.valueOf(valueAt(index));
+  }
+
+  @Override
+  public boolean contains(Object obj) {
+    return indexOfValue(obj) >= 0;
+  }
+
+  @Override
+  public int indexOf(Object obj) {
+    return indexOfValue(obj);
+  }
+
+  @Override
+  public int lastIndexOf(Object obj) {
+    return indexOfValue(obj);
+  }
+
+  @Override
+  public Stream<IIntegerItem> stream() {
+    return ObjectUtils.notNull(IntStream.range(0, size).mapToObj(index -> IIntegerItem.valueOf(valueAt(index))));
+  }
+
+  /**
+   * Get a sequence containing the integers of this range in reverse order.
+   *
+   * @return the reversed sequence
+   */
+  @NonNull
+  public IntegerRangeSequence reverse() {
+    return new IntegerRangeSequence(valueAt(size - 1), size, !descending);
+  }
+
+  /**
+   * Get the sum of the integers in this range.
+   *
+   * @return the sum
+   */
+  @NonNull
+  public IIntegerItem sum() {
+    // the sum of an arithmetic progression is n * (first + last) / 2
+    BigInteger total = BigInteger.valueOf(first).add(BigInteger.valueOf(valueAt(size - 1)));
+    return IIntegerItem.valueOf(total.multiply(BigInteger.valueOf(size)).shiftRight(1));
+  }
+
+  /**
+   * Provides a list view of the range.
+   */
+  private final class RangeList
+      extends AbstractList<IIntegerItem>
+      implements RandomAccess {
+
+    @Override
+    public IIntegerItem get(int index) {
+      return IntegerRangeSequence.this.get(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+      return indexOfValue(obj) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object obj) {
+      return indexOfValue(obj);
+    }
+
+    @Override
+    public int lastIndexOf(Object obj) {
+      return indexOfValue(obj);
+    }
+  }
+}
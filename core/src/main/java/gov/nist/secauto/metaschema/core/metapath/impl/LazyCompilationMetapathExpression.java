@@ -65,4 +65,14 @@ public class LazyCompilationMetapathExpression implements IMetapathExpression {
   public <T extends IItem> ISequence<T> evaluate(IItem focus, DynamicContext dynamicContext) {
     return getCompiledMetapath().evaluate(focus, dynamicContext);
   }
+
+  @Override
+  public <T extends IItem> ISequence<T> evaluateStreaming(IItem focus, DynamicContext dynamicContext) {
+    return getCompiledMetapath().evaluateStreaming(focus, dynamicContext);
+  }
+
+  @Override
+  public <T> T evaluateAs(IItem focus, ResultType resultType, DynamicContext dynamicContext) {
+    return getCompiledMetapath().evaluateAs(focus, resultType, dynamicContext);
+  }
 }
@@ -43,7 +43,7 @@ public class MapItemN<VALUE extends ICollectionValue>
    *          a map containing the entries to add to the map
    */
   public MapItemN(@NonNull Map<IMapKey, VALUE> entries) {
-    this.entries = CollectionUtil.unmodifiableMap(entries);
+    this.entries = entries instanceof PersistentHashMap ? entries : CollectionUtil.unmodifiableMap(entries);
   }
 
   @Override
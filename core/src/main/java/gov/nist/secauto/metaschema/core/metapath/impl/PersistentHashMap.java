@@ -0,0 +1,525 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.impl;
+
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An immutable map implemented as a hash array mapped trie.
+ * <p>
+ * The {@link #with(Object, Object)} and {@link #without(Object)} operations
+ * produce a new map in {@code O(log n)} time, which shares all unchanged trie
+ * nodes with this map. This allows a map to be built incrementally, one entry
+ * at a time, without copying the map for each entry.
+ * <p>
+ * Keys and values must not be {@code null}.
+ *
+ * @param <K>
+ *          the Java type of the map keys
+ * @param <V>
+ *          the Java type of the map values
+ */
+public final class PersistentHashMap<K, V>
+    extends ImmutableCollections.AbstractImmutableMap<K, V> {
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  /**
+   * The maximum trie depth, which is one more than the number of bitmap levels
+   * needed to consume a 32-bit hash, to allow for a collision node.
+   */
+  private static final int MAX_DEPTH = 8;
+
+  @NonNull
+  private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+  @Nullable
+  private final Node root;
+  private final int size;
+
+  /**
+   * Get an empty map.
+   *
+   * @param <K>
+   *          the Java type of the map keys
+   * @param <V>
+   *          the Java type of the map values
+   * @return the empty map
+   */
+  @SuppressWarnings("unchecked")
+  @NonNull
+  public static <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Get a map containing the entries of the provided map.
+   * <p>
+   * If the provided map is already a {@link PersistentHashMap}, it is returned
+   * as-is.
+   *
+   * @param <K>
+   *          the Java type of the map keys
+   * @param <V>
+   *          the Java type of the map values
+   * @param map
+   *          the map to copy
+   * @return the map
+   */
+  @SuppressWarnings("unchecked")
+  @NonNull
+  public static <K, V> PersistentHashMap<K, V> copyOf(@NonNull Map<? extends K, ? extends V> map) {
+    PersistentHashMap<K, V> retval;
+    if (map instanceof PersistentHashMap) {
+      retval = (PersistentHashMap<K, V>) map;
+    } else {
+      retval = empty();
+      for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+        retval = retval.with(ObjectUtils.notNull(entry.getKey()), ObjectUtils.notNull(entry.getValue()));
+      }
+    }
+    return retval;
+  }
+
+  private PersistentHashMap(@Nullable Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  private static int hash(@NonNull Object key) {
+    int hash = key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  /**
+   * Get a map that contains the entries of this map, with the provided key
+   * mapped to the provided value.
+   *
+   * @param key
+   *          the key
+   * @param value
+   *          the value to map to the key
+   * @return the new map, or this map if the key is already mapped to the value
+   */
+  @NonNull
+  public PersistentHashMap<K, V> with(@NonNull K key, @NonNull V value) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(value, "value");
+
+    Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<>(key, value);
+    int hash = hash(key);
+
+    boolean[] added = new boolean[1];
+    Node newRoot = root == null
+        ? BitmapNode.EMPTY.put(hash, entry, 0, added)
+        : root.put(hash, entry, 0, added);
+
+    return newRoot == root ? this : new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Get a map that contains the entries of this map, without the provided key.
+   *
+   * @param key
+   *          the key to remove
+   * @return the new map, or this map if the key is not mapped
+   */
+  @NonNull
+  public PersistentHashMap<K, V> without(@NonNull Object key) {
+    Node node = root;
+
+    PersistentHashMap<K, V> retval = this;
+    if (node != null) {
+      Node newRoot = node.remove(hash(key), key, 0);
+      if (newRoot != node) {
+        retval = newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+      }
+    }
+    return retval;
+  }
+
+  @Nullable
+  private Entry<?, ?> find(@Nullable Object key) {
+    Node node = root;
+    return key == null || node == null ? null : node.find(hash(key), key, 0);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public V get(Object key) {
+    Entry<?, ?> entry = find(key);
+    return entry == null ? null : (V) entry.getValue();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(Object obj) {
+        boolean retval = false;
+        if (obj instanceof Map.Entry) {
+          Entry<?, ?> other = (Entry<?, ?>) obj;
+          Entry<?, ?> entry = find(other.getKey());
+          retval = entry != null && entry.getValue().equals(other.getValue());
+        }
+        return retval;
+      }
+    };
+  }
+
+  /**
+   * A trie node, whose slots contain either map entries or child nodes.
+   */
+  private abstract static class Node {
+    /**
+     * Get the slots of this node.
+     *
+     * @return the slots, which must not be modified
+     */
+    @NonNull
+    abstract Object[] slots();
+
+    @Nullable
+    abstract Entry<?, ?> find(int hash, @NonNull Object key, int shift);
+
+    @NonNull
+    abstract Node put(int hash, @NonNull Entry<?, ?> entry, int shift, @NonNull boolean[] added);
+
+    @Nullable
+    abstract Node remove(int hash, @NonNull Object key, int shift);
+
+    /**
+     * Get the only entry in this node, if this node has exactly one entry and no
+     * child nodes. Such a node can be replaced by the entry in its parent.
+     *
+     * @return the entry or {@code null}
+     */
+    @Nullable
+    Entry<?, ?> singleEntry() {
+      Object[] slots = slots();
+      return slots.length == 1 && slots[0] instanceof Map.Entry ? (Entry<?, ?>) slots[0] : null;
+    }
+  }
+
+  /**
+   * A node that holds up to 32 slots, indexed using 5 bits of the key hash at
+   * the node's depth.
+   */
+  private static final class BitmapNode
+      extends Node {
+    @NonNull
+    private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+    @NonNull
+    private final Object[] slots;
+
+    private BitmapNode(int bitmap, @NonNull Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+
+    @Override
+    Object[] slots() {
+      return slots;
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    Entry<?, ?> find(int hash, Object key, int shift) {
+      int bit = bit(hash, shift);
+
+      Entry<?, ?> retval = null;
+      if ((bitmap & bit) != 0) {
+        Object slot = slots[index(bit)];
+        if (slot instanceof Node) {
+          retval = ((Node) slot).find(hash, key, shift + BITS);
+        } else if (key.equals(((Entry<?, ?>) slot).getKey())) {
+          retval = (Entry<?, ?>) slot;
+        }
+      }
+      return retval;
+    }
+
+    @Override
+    Node put(int hash, Entry<?, ?> entry, int shift, boolean[] added) {
+      int bit = bit(hash, shift);
+      int index = index(bit);
+
+      Node retval;
+      if ((bitmap & bit) == 0) {
+        Object[] newSlots = new Object[slots.length + 1];
+        System.arraycopy(slots, 0, newSlots, 0, index);
+        newSlots[index] = entry;
+        System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+        added[0] = true;
+        retval = new BitmapNode(bitmap | bit, newSlots);
+      } else {
+        Object slot = slots[index];
+        Object newSlot;
+        if (slot instanceof Node) {
+          newSlot = ((Node) slot).put(hash, entry, shift + BITS, added);
+        } else {
+          Entry<?, ?> existing = (Entry<?, ?>) slot;
+          if (existing.getKey().equals(entry.getKey())) {
+            newSlot = existing.getValue().equals(entry.getValue()) ? existing : entry;
+          } else {
+            newSlot = pair(shift + BITS, existing, hash(existing.getKey()), entry, hash);
+            added[0] = true;
+          }
+        }
+        retval = newSlot == slot ? this : new BitmapNode(bitmap, replace(slots, index, newSlot));
+      }
+      return retval;
+    }
+
+    @Override
+    Node remove(int hash, Object key, int shift) {
+      int bit = bit(hash, shift);
+
+      Node retval = this;
+      if ((bitmap & bit) != 0) {
+        int index = index(bit);
+        Object slot = slots[index];
+        if (slot instanceof Node) {
+          Node child = (Node) slot;
+          Node newChild = child.remove(hash, key, shift + BITS);
+          if (newChild == null) {
+            retval = removeSlot(bit, index);
+          } else if (newChild != child) {
+            Entry<?, ?> single = newChild.singleEntry();
+            retval = new BitmapNode(bitmap, replace(slots, index, single == null ? newChild : single));
+          }
+        } else if (key.equals(((Entry<?, ?>) slot).getKey())) {
+          retval = removeSlot(bit, index);
+        }
+      }
+      return retval;
+    }
+
+    @Nullable
+    private Node removeSlot(int bit, int index) {
+      Node retval = null;
+      if (bitmap != bit) {
+        Object[] newSlots = new Object[slots.length - 1];
+        System.arraycopy(slots, 0, newSlots, 0, index);
+        System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+        retval = new BitmapNode(bitmap ^ bit, newSlots);
+      }
+      return retval;
+    }
+  }
+
+  /**
+   * A node that holds entries whose keys have the same hash.
+   */
+  private static final class CollisionNode
+      extends Node {
+    private final int hash;
+    @NonNull
+    private final Object[] entries;
+
+    private CollisionNode(int hash, @NonNull Object[] entries) {
+      this.hash = hash;
+      this.entries = entries;
+    }
+
+    @Override
+    Object[] slots() {
+      return entries;
+    }
+
+    private int indexOf(@NonNull Object key) {
+      int retval = -1;
+      for (int i = 0; i < entries.length; i++) {
+        if (key.equals(((Entry<?, ?>) entries[i]).getKey())) {
+          retval = i;
+          break;
+        }
+      }
+      return retval;
+    }
+
+    @Override
+    Entry<?, ?> find(int hash, Object key, int shift) {
+      int index = this.hash == hash ? indexOf(key) : -1;
+      return index < 0 ? null : (Entry<?, ?>) entries[index];
+    }
+
+    @Override
+    Node put(int hash, Entry<?, ?> entry, int shift, boolean[] added) {
+      Node retval;
+      if (this.hash == hash) {
+        int index = indexOf(entry.getKey());
+        if (index < 0) {
+          Object[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+          newEntries[entries.length] = entry;
+          added[0] = true;
+          retval = new CollisionNode(hash, newEntries);
+        } else if (((Entry<?, ?>) entries[index]).getValue().equals(entry.getValue())) {
+          retval = this;
+        } else {
+          retval = new CollisionNode(hash, replace(entries, index, entry));
+        }
+      } else {
+        // nest this node in a bitmap node, which can distinguish the hashes
+        retval = new BitmapNode(bit(this.hash, shift), new Object[] { this }).put(hash, entry, shift, added);
+      }
+      return retval;
+    }
+
+    @Override
+    Node remove(int hash, Object key, int shift) {
+      int index = this.hash == hash ? indexOf(key) : -1;
+
+      Node retval = this;
+      if (index >= 0) {
+        if (entries.length == 1) {
+          retval = null;
+        } else {
+          Object[] newEntries = new Object[entries.length - 1];
+          System.arraycopy(entries, 0, newEntries, 0, index);
+          System.arraycopy(entries, index + 1, newEntries, index, entries.length - index - 1);
+          retval = new CollisionNode(hash, newEntries);
+        }
+      }
+      return retval;
+    }
+  }
+
+  @NonNull
+  private static Node pair(
+      int shift,
+      @NonNull Entry<?, ?> entry1,
+      int hash1,
+      @NonNull Entry<?, ?> entry2,
+      int hash2) {
+    Node retval;
+    if (hash1 == hash2) {
+      retval = new CollisionNode(hash1, new Object[] { entry1, entry2 });
+    } else {
+      boolean[] added = new boolean[1];
+      retval = BitmapNode.EMPTY
+          .put(hash1, entry1, shift, added)
+          .put(hash2, entry2, shift, added);
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static Object[] replace(@NonNull Object[] slots, int index, @NonNull Object slot) {
+    Object[] retval = slots.clone();
+    retval[index] = slot;
+    return retval;
+  }
+
+  /**
+   * Iterates over the entries in a trie using a depth-first traversal.
+   *
+   * @param <K>
+   *          the Java type of the map keys
+   * @param <V>
+   *          the Java type of the map values
+   */
+  private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+    @NonNull
+    private final Object[][] slotStack = new Object[MAX_DEPTH][];
+    @NonNull
+    private final int[] indexStack = new int[MAX_DEPTH];
+    private int depth;
+    @Nullable
+    private Entry<K, V> next;
+
+    private EntryIterator(@Nullable Node root) {
+      if (root == null) {
+        depth = -1;
+      } else {
+        slotStack[0] = root.slots();
+      }
+      advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      next = null;
+      while (depth >= 0 && next == null) {
+        Object[] slots = slotStack[depth];
+        int index = indexStack[depth];
+        if (index >= slots.length) {
+          depth--;
+        } else {
+          indexStack[depth] = index + 1;
+          Object slot = slots[index];
+          if (slot instanceof Node) {
+            depth++;
+            slotStack[depth] = ((Node) slot).slots();
+            indexStack[depth] = 0;
+          } else {
+            next = (Entry<K, V>) slot;
+          }
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      Entry<K, V> retval = next;
+      if (retval == null) {
+        throw new NoSuchElementException();
+      }
+      advance();
+      return retval;
+    }
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.impl;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * An immutable list implemented as a 32-way bit-partitioned vector trie with a
+ * tail buffer.
+ * <p>
+ * The {@link #append(Object)} and {@link #with(int, Object)} operations produce
+ * a new list in {@code O(log n)} time, which shares all unchanged trie nodes
+ * with this list. This allows a list to be built incrementally, one member at a
+ * time, without copying the list for each member.
+ * <p>
+ * Members must not be {@code null}.
+ *
+ * @param <E>
+ *          the Java type of the list members
+ */
+public final class PersistentVector<E>
+    extends AbstractList<E>
+    implements RandomAccess {
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  @NonNull
+  private static final PersistentVector<?> EMPTY
+      = new PersistentVector<>(0, BITS, new Object[WIDTH], new Object[0]);
+
+  private final int size;
+  private final int shift;
+  @NonNull
+  private final Object[] root;
+  @NonNull
+  private final Object[] tail;
+
+  /**
+   * Get an empty list.
+   *
+   * @param <E>
+   *          the Java type of the list members
+   * @return the empty list
+   */
+  @SuppressWarnings("unchecked")
+  @NonNull
+  public static <E> PersistentVector<E> empty() {
+    return (PersistentVector<E>) EMPTY;
+  }
+
+  /**
+   * Get a list containing the members of the provided collection.
+   * <p>
+   * If the provided collection is already a {@link PersistentVector}, it is
+   * returned as-is.
+   *
+   * @param <E>
+   *          the Java type of the list members
+   * @param collection
+   *          the collection to copy
+   * @return the list
+   */
+  @SuppressWarnings("unchecked")
+  @NonNull
+  public static <E> PersistentVector<E> copyOf(@NonNull Collection<? extends E> collection) {
+    return collection instanceof PersistentVector
+        ? (PersistentVector<E>) collection
+        : PersistentVector.<E>empty().appendAll(collection);
+  }
+
+  private PersistentVector(int size, int shift, @NonNull Object[] root, @NonNull Object[] tail) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+  }
+
+  /**
+   * Get the index of the first member stored in the tail buffer.
+   *
+   * @return the index
+   */
+  private int tailOffset() {
+    return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+  }
+
+  /**
+   * Get the leaf array containing the member at the provided index.
+   *
+   * @param index
+   *          the member index, which must be within bounds
+   * @return the leaf array
+   */
+  @NonNull
+  private Object[] leafFor(int index) {
+    Object[] retval;
+    if (index >= tailOffset()) {
+      retval = tail;
+    } else {
+      retval = root;
+      for (int level = shift; level > 0; level -= BITS) {
+        retval = (Object[]) retval[(index >>> level) & MASK];
+      }
+    }
+    return retval;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public E get(int index) {
+    Objects.checkIndex(index, size);
+    return (E) leafFor(index)[index & MASK];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<>() {
+      private int index;
+      private Object[] leaf;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public E next() {
+        if (index >= size) {
+          throw new NoSuchElementException();
+        }
+        if ((index & MASK) == 0 || leaf == null) {
+          leaf = leafFor(index);
+        }
+        return (E) leaf[index++ & MASK];
+      }
+    };
+  }
+
+  /**
+   * Get a list that contains the members of this list, followed by the provided
+   * member.
+   *
+   * @param member
+   *          the member to append
+   * @return the new list
+   */
+  @NonNull
+  public PersistentVector<E> append(@NonNull E member) {
+    Objects.requireNonNull(member, "member");
+
+    PersistentVector<E> retval;
+    if (size - tailOffset() < WIDTH) {
+      // room in the tail
+      Object[] newTail = new Object[tail.length + 1];
+      System.arraycopy(tail, 0, newTail, 0, tail.length);
+      newTail[tail.length] = member;
+      retval = new PersistentVector<>(size + 1, shift, root, newTail);
+    } else {
+      // push the full tail into the trie
+      Object[] newRoot;
+      int newShift = shift;
+      if ((size >>> BITS) > (1 << shift)) {
+        // the trie is full, so add a level
+        newRoot = new Object[WIDTH];
+        newRoot[0] = root;
+        newRoot[1] = newPath(shift, tail);
+        newShift += BITS;
+      } else {
+        newRoot = pushTail(shift, root, tail);
+      }
+      retval = new PersistentVector<>(size + 1, newShift, newRoot, new Object[] { member });
+    }
+    return retval;
+  }
+
+  /**
+   * Get a list that contains the members of this list, followed by the members
+   * of the provided collection.
+   *
+   * @param members
+   *          the members to append
+   * @return the new list
+   */
+  @NonNull
+  public PersistentVector<E> appendAll(@NonNull Collection<? extends E> members) {
+    PersistentVector<E> retval = this;
+    for (E member : members) {
+      retval = retval.append(member);
+    }
+    return retval;
+  }
+
+  @NonNull
+  private Object[] pushTail(int level, @NonNull Object[] parent, @NonNull Object[] tailNode) {
+    int subIndex = ((size - 1) >>> level) & MASK;
+    Object[] retval = parent.clone();
+
+    Object[] nodeToInsert;
+    if (level == BITS) {
+      nodeToInsert = tailNode;
+    } else {
+      Object[] child = (Object[]) parent[subIndex];
+      nodeToInsert = child == null
+          ? newPath(level - BITS, tailNode)
+          : pushTail(level - BITS, child, tailNode);
+    }
+    retval[subIndex] = nodeToInsert;
+    return retval;
+  }
+
+  @NonNull
+  private static Object[] newPath(int level, @NonNull Object[] node) {
+    Object[] retval = node;
+    for (int current = level; current > 0; current -= BITS) {
+      Object[] parent = new Object[WIDTH];
+      parent[0] = retval;
+      retval = parent;
+    }
+    return retval;
+  }
+
+  /**
+   * Get a list that contains the members of this list, with the member at the
+   * provided index replaced by the provided member.
+   *
+   * @param index
+   *          the index of the member to replace
+   * @param member
+   *          the replacement member
+   * @return the new list
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of bounds
+   */
+  @NonNull
+  public PersistentVector<E> with(int index, @NonNull E member) {
+    Objects.checkIndex(index, size);
+    Objects.requireNonNull(member, "member");
+
+    PersistentVector<E> retval;
+    if (index >= tailOffset()) {
+      Object[] newTail = tail.clone();
+      newTail[index & MASK] = member;
+      retval = new PersistentVector<>(size, shift, root, newTail);
+    } else {
+      retval = new PersistentVector<>(size, shift, replace(shift, root, index, member), tail);
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static Object[] replace(int level, @NonNull Object[] node, int index, @NonNull Object member) {
+    Object[] retval = node.clone();
+    if (level == 0) {
+      retval[index & MASK] = member;
+    } else {
+      int subIndex = (index >>> level) & MASK;
+      retval[subIndex] = replace(level - BITS, (Object[]) node[subIndex], index, member);
+    }
+    return retval;
+  }
+}
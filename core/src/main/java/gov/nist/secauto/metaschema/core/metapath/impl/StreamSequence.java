@@ -7,14 +7,18 @@ package gov.nist.secauto.metaschema.core.metapath.impl;
 
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -64,6 +68,59 @@ public class StreamSequence<ITEM extends IItem>
     return list;
   }
 
+  /**
+   * Determine if the items of this sequence have been collected into a list.
+   * <p>
+   * A sequence that is not materialized can only be streamed once, and will
+   * require full evaluation of the underlying stream to support any list-based
+   * operations.
+   *
+   * @return {@code true} if the sequence is backed by a list, or {@code false}
+   *         if it is still backed by the original stream
+   */
+  public boolean isMaterialized() {
+    instanceLock.lock();
+    try {
+      return list != null;
+    } finally {
+      instanceLock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If the sequence is not yet materialized, at most one item is pulled from the
+   * underlying stream to determine if the sequence is empty. The remaining items
+   * are not evaluated.
+   */
+  @SuppressWarnings("PMD.NullAssignment")
+  @Override
+  public boolean isEmpty() {
+    boolean retval;
+    instanceLock.lock();
+    try {
+      if (list == null && stream != null) {
+        Spliterator<ITEM> spliterator = ObjectUtils.notNull(stream.spliterator());
+        List<ITEM> first = new ArrayList<>(1);
+        if (spliterator.tryAdvance(first::add)) {
+          // push the pulled item back in front of the remaining items
+          stream = Stream.concat(first.stream(), StreamSupport.stream(spliterator, false));
+          retval = false;
+        } else {
+          list = CollectionUtil.emptyList();
+          stream = null;
+          retval = true;
+        }
+      } else {
+        retval = asList().isEmpty();
+      }
+    } finally {
+      instanceLock.unlock();
+    }
+    return retval;
+  }
+
   @Override
   public ISequence<ITEM> reusable() {
     // force the stream to be backed by a list
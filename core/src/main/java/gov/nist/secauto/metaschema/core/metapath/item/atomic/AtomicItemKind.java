@@ -0,0 +1,161 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.atomic;
+
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Identifies the broad kind of an atomic item, for use in selecting the
+ * implementation of an operation that depends on the types of its operands.
+ * <p>
+ * The kind of an item is determined once for each item class and then cached,
+ * so operations can select an implementation using the kind's
+ * {@link #ordinal()} as an index into a table, instead of testing the item
+ * against a chain of types on every call.
+ */
+public enum AtomicItemKind {
+  /**
+   * String items, including all types derived from {@link IStringItem}.
+   */
+  STRING(IStringItem.class),
+  /**
+   * Integer items, including all types derived from {@link IIntegerItem}.
+   */
+  INTEGER(IIntegerItem.class),
+  /**
+   * Decimal items that are not integers.
+   */
+  DECIMAL(IDecimalItem.class),
+  /**
+   * Other numeric items.
+   */
+  NUMERIC(INumericItem.class),
+  /**
+   * Boolean items.
+   */
+  BOOLEAN(IBooleanItem.class),
+  /**
+   * Date and time items.
+   */
+  DATE_TIME(IDateTimeItem.class),
+  /**
+   * Date items.
+   */
+  DATE(IDateItem.class),
+  /**
+   * Time items.
+   */
+  TIME(ITimeItem.class),
+  /**
+   * Year and month duration items.
+   */
+  YEAR_MONTH_DURATION(IYearMonthDurationItem.class),
+  /**
+   * Day and time duration items.
+   */
+  DAY_TIME_DURATION(IDayTimeDurationItem.class),
+  /**
+   * Other duration items.
+   */
+  DURATION(IDurationItem.class),
+  /**
+   * Base64 encoded binary items.
+   */
+  BASE64_BINARY(IBase64BinaryItem.class),
+  /**
+   * All other atomic items.
+   */
+  OTHER(IAnyAtomicItem.class);
+
+  @NonNull
+  private static final List<AtomicItemKind> VALUES = ObjectUtils.notNull(List.of(values()));
+
+  @NonNull
+  private static final ClassValue<AtomicItemKind> KIND_BY_CLASS = new ClassValue<>() {
+    @Override
+    protected AtomicItemKind computeValue(Class<?> type) {
+      return resolve(type);
+    }
+  };
+
+  @NonNull
+  private final Class<? extends IAnyAtomicItem> itemClass;
+
+  AtomicItemKind(@NonNull Class<? extends IAnyAtomicItem> itemClass) {
+    this.itemClass = itemClass;
+  }
+
+  /**
+   * Get the item interface shared by all items of this kind.
+   *
+   * @return the item interface
+   */
+  @NonNull
+  public Class<? extends IAnyAtomicItem> getItemClass() {
+    return itemClass;
+  }
+
+  /**
+   * Get all kinds, in ordinal order.
+   *
+   * @return the kinds
+   */
+  @NonNull
+  public static List<AtomicItemKind> all() {
+    return VALUES;
+  }
+
+  /**
+   * Get the kind of the provided item.
+   *
+   * @param item
+   *          the item
+   * @return the kind
+   */
+  @NonNull
+  public static AtomicItemKind of(@NonNull IAnyAtomicItem item) {
+    return ObjectUtils.notNull(KIND_BY_CLASS.get(item.getClass()));
+  }
+
+  /**
+   * Get the kind shared by every item whose class is derived from the provided
+   * static type.
+   * <p>
+   * This can be used to select an implementation ahead of evaluation when the
+   * static type of an operand is known.
+   *
+   * @param type
+   *          the static type
+   * @return the kind, or {@code null} if items derived from the type may be of
+   *         more than one kind
+   */
+  @Nullable
+  public static AtomicItemKind forStaticType(@NonNull Class<?> type) {
+    AtomicItemKind retval = null;
+    if (IAnyAtomicItem.class.isAssignableFrom(type)) {
+      AtomicItemKind kind = resolve(type);
+      // the type must not be a super type of the interface for another kind
+      if (VALUES.stream().noneMatch(other -> other != kind && type.isAssignableFrom(other.itemClass))) {
+        retval = kind;
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static AtomicItemKind resolve(@NonNull Class<?> type) {
+    // the kinds are ordered from most to least specific, so the first match wins
+    return ObjectUtils.notNull(VALUES.stream()
+        .filter(kind -> kind.itemClass.isAssignableFrom(type))
+        .findFirst()
+        .orElse(OTHER));
+  }
+}
@@ -43,6 +43,17 @@ public interface IAnyAtomicItem extends IAtomicValuedItem {
     return this;
   }
 
+  /**
+   * Get the kind of this item, which is used to select type-specific
+   * implementations of comparison and arithmetic operations.
+   *
+   * @return the kind
+   */
+  @NonNull
+  default AtomicItemKind getAtomicKind() {
+    return AtomicItemKind.of(this);
+  }
+
   /**
    * Get the "wrapped" value represented by this item.
    *
@@ -10,6 +10,7 @@ import gov.nist.secauto.metaschema.core.metapath.function.ArithmeticFunctionExce
 import gov.nist.secauto.metaschema.core.metapath.function.CastFunctionException;
 import gov.nist.secauto.metaschema.core.metapath.function.InvalidValueForCastFunctionException;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.impl.IntegerItemImpl;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.impl.LongIntegerItemImpl;
 import gov.nist.secauto.metaschema.core.metapath.type.IAtomicOrUnionType;
 import gov.nist.secauto.metaschema.core.metapath.type.InvalidTypeMetapathException;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
@@ -82,10 +83,7 @@ public interface IIntegerItem extends IDecimalItem {
    */
   @NonNull
   static IIntegerItem valueOf(int value) {
-    @SuppressWarnings("null")
-    @NonNull
-    BigInteger bigInteger = BigInteger.valueOf(value);
-    return valueOf(bigInteger);
+    return valueOf((long) value);
   }
 
   /**
@@ -97,10 +95,15 @@ public interface IIntegerItem extends IDecimalItem {
    */
   @NonNull
   static IIntegerItem valueOf(long value) {
-    @SuppressWarnings("null")
-    @NonNull
-    BigInteger bigInteger = BigInteger.valueOf(value);
-    return valueOf(bigInteger);
+    IIntegerItem retval;
+    if (value < 0) { // negative
+      retval = new LongIntegerItemImpl(value);
+    } else if (value == 0) { // zero
+      retval = INonNegativeIntegerItem.valueOf(value);
+    } else { // positive
+      retval = IPositiveIntegerItem.valueOf(value);
+    }
+    return retval;
   }
 
   /**
@@ -112,7 +115,7 @@ public interface IIntegerItem extends IDecimalItem {
    */
   @NonNull
   static IIntegerItem valueOf(boolean value) {
-    return valueOf(ObjectUtils.notNull(value ? BigInteger.ONE : BigInteger.ZERO));
+    return value ? ONE : ZERO;
   }
 
   /**
@@ -124,13 +127,12 @@ public interface IIntegerItem extends IDecimalItem {
    */
   @NonNull
   static IIntegerItem valueOf(@NonNull BigInteger value) {
-    int signum = value.signum();
-
     IIntegerItem retval;
-    if (signum == -1) { // negative
+    if (value.bitLength() < Long.SIZE) {
+      // use the compact representation
+      retval = valueOf(value.longValue());
+    } else if (value.signum() == -1) { // negative
       retval = new IntegerItemImpl(value);
-    } else if (signum == 0) { // zero
-      retval = INonNegativeIntegerItem.valueOf(value);
     } else { // positive
       retval = IPositiveIntegerItem.valueOf(value);
     }
@@ -172,10 +174,39 @@ public interface IIntegerItem extends IDecimalItem {
     return cast(item);
   }
 
+  /**
+   * Determine if the value of this item can be represented as a Java
+   * {@code long} without loss.
+   *
+   * @return {@code true} if the value fits in a {@code long}, or {@code false}
+   *         otherwise
+   */
+  default boolean isLongValue() {
+    return asInteger().bitLength() < Long.SIZE;
+  }
+
+  /**
+   * Get the value of this item as a Java {@code long}.
+   * <p>
+   * This must only be called if {@link #isLongValue()} returns {@code true}.
+   *
+   * @return the value
+   */
+  default long asLong() {
+    return asInteger().longValue();
+  }
+
   @Override
   default IIntegerItem abs() {
-    BigInteger value = asInteger();
-    return value.signum() > -1 ? this : valueOf(ObjectUtils.notNull(value.abs()));
+    IIntegerItem retval;
+    if (isLongValue() && asLong() != Long.MIN_VALUE) {
+      long value = asLong();
+      retval = value >= 0 ? this : valueOf(-value);
+    } else {
+      BigInteger value = asInteger();
+      retval = value.signum() > -1 ? this : valueOf(ObjectUtils.notNull(value.abs()));
+    }
+    return retval;
   }
 
   @Override
@@ -199,7 +230,7 @@ public interface IIntegerItem extends IDecimalItem {
   default int toIntValueExact() {
     // asInteger() is well-defined for integer items, so this should be safe
     try {
-      return asInteger().intValueExact();
+      return isLongValue() ? Math.toIntExact(asLong()) : asInteger().intValueExact();
     } catch (ArithmeticException ex) {
       throw new CastFunctionException(
           CastFunctionException.INPUT_VALUE_TOO_LARGE,
@@ -217,8 +248,17 @@ public interface IIntegerItem extends IDecimalItem {
    * @return a new value resulting from adding this value to the provided addend
    *         value
    */
+  @SuppressWarnings("PMD.OnlyOneReturn")
   @NonNull
   default IIntegerItem add(@NonNull IIntegerItem addend) {
+    if (isLongValue() && addend.isLongValue()) {
+      try {
+        return valueOf(Math.addExact(asLong(), addend.asLong()));
+      } catch (ArithmeticException ex) { // NOPMD - intentional
+        // overflow, use BigInteger arithmetic
+      }
+    }
+
     BigInteger addendLeft = asInteger();
     BigInteger addendRight = addend.asInteger();
     return valueOf(ObjectUtils.notNull(addendLeft.add(addendRight)));
@@ -233,8 +273,17 @@ public interface IIntegerItem extends IDecimalItem {
    * @return a new value resulting from subtracting the subtrahend from the
    *         minuend
    */
+  @SuppressWarnings("PMD.OnlyOneReturn")
   @NonNull
   default IIntegerItem subtract(@NonNull IIntegerItem subtrahend) {
+    if (isLongValue() && subtrahend.isLongValue()) {
+      try {
+        return valueOf(Math.subtractExact(asLong(), subtrahend.asLong()));
+      } catch (ArithmeticException ex) { // NOPMD - intentional
+        // overflow, use BigInteger arithmetic
+      }
+    }
+
     BigInteger minuendInteger = asInteger();
     BigInteger subtrahendInteger = subtrahend.asInteger();
     return valueOf(ObjectUtils.notNull(minuendInteger.subtract(subtrahendInteger)));
@@ -248,8 +297,16 @@ public interface IIntegerItem extends IDecimalItem {
    * @return a new value resulting from multiplying the multiplicand by the
    *         multiplier
    */
+  @SuppressWarnings("PMD.OnlyOneReturn")
   @NonNull
   default IIntegerItem multiply(@NonNull IIntegerItem multiplier) {
+    if (isLongValue() && multiplier.isLongValue()) {
+      try {
+        return valueOf(Math.multiplyExact(asLong(), multiplier.asLong()));
+      } catch (ArithmeticException ex) { // NOPMD - intentional
+        // overflow, use BigInteger arithmetic
+      }
+    }
     return valueOf(ObjectUtils.notNull(asInteger().multiply(multiplier.asInteger())));
   }
 
@@ -261,8 +318,23 @@ public interface IIntegerItem extends IDecimalItem {
    *          the value to divide by
    * @return a new value resulting from dividing the dividend by the divisor
    */
+  @SuppressWarnings("PMD.OnlyOneReturn")
   @NonNull
   default IIntegerItem integerDivide(@NonNull IIntegerItem divisor) {
+    if (isLongValue() && divisor.isLongValue()) {
+      long dividendLong = asLong();
+      long divisorLong = divisor.asLong();
+      if (divisorLong == 0) {
+        throw new ArithmeticFunctionException(ArithmeticFunctionException.DIVISION_BY_ZERO,
+            ArithmeticFunctionException.DIVISION_BY_ZERO_MESSAGE);
+      }
+
+      // Long.MIN_VALUE / -1 is the only quotient that overflows
+      if (dividendLong != Long.MIN_VALUE || divisorLong != -1) {
+        return valueOf(dividendLong / divisorLong);
+      }
+    }
+
     BigInteger divisorInteger = divisor.asInteger();
 
     if (BigInteger.ZERO.equals(divisorInteger)) {
@@ -281,8 +353,20 @@ public interface IIntegerItem extends IDecimalItem {
    * @return a new value containing the remainder resulting from dividing the
    *         dividend by the divisor
    */
+  @SuppressWarnings("PMD.OnlyOneReturn")
   @NonNull
   default IIntegerItem mod(@NonNull IIntegerItem divisor) {
+    if (isLongValue() && divisor.isLongValue()) {
+      long divisorLong = divisor.asLong();
+      if (divisorLong == 0) {
+        throw new ArithmeticFunctionException(ArithmeticFunctionException.DIVISION_BY_ZERO,
+            ArithmeticFunctionException.DIVISION_BY_ZERO_MESSAGE);
+      }
+      // the remainder has the sign of the dividend, consistent with
+      // BigInteger.remainder
+      return valueOf(asLong() % divisorLong);
+    }
+
     BigInteger divisorInteger = divisor.asInteger();
 
     if (BigInteger.ZERO.equals(divisorInteger)) {
@@ -293,8 +377,12 @@ public interface IIntegerItem extends IDecimalItem {
     return valueOf(ObjectUtils.notNull(asInteger().remainder(divisorInteger)));
   }
 
+  @SuppressWarnings("PMD.OnlyOneReturn")
   @Override
   default IIntegerItem negate() {
+    if (isLongValue() && asLong() != Long.MIN_VALUE) {
+      return valueOf(-asLong());
+    }
     return valueOf(ObjectUtils.notNull(asInteger().negate()));
   }
 
@@ -312,6 +400,8 @@ public interface IIntegerItem extends IDecimalItem {
    *         than, equal to, or greater than the {@code item}.
    */
   default int compareTo(IIntegerItem item) {
-    return asInteger().compareTo(item.asInteger());
+    return isLongValue() && item.isLongValue()
+        ? Long.compare(asLong(), item.asLong())
+        : asInteger().compareTo(item.asInteger());
   }
 }
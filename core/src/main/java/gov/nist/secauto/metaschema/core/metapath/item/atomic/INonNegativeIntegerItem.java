@@ -7,6 +7,7 @@ package gov.nist.secauto.metaschema.core.metapath.item.atomic;
 
 import gov.nist.secauto.metaschema.core.datatype.adapter.MetaschemaDataTypeProvider;
 import gov.nist.secauto.metaschema.core.metapath.function.InvalidValueForCastFunctionException;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.impl.LongNonNegativeIntegerItemImpl;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.impl.NonNegativeIntegerItemImpl;
 import gov.nist.secauto.metaschema.core.metapath.type.IAtomicOrUnionType;
 import gov.nist.secauto.metaschema.core.metapath.type.InvalidTypeMetapathException;
@@ -92,10 +93,14 @@ public interface INonNegativeIntegerItem extends IIntegerItem {
    * @throws InvalidTypeMetapathException
    *           if the provided value is not a non-negative integer
    */
-  @SuppressWarnings("null")
   @NonNull
   static INonNegativeIntegerItem valueOf(long value) {
-    return valueOf(BigInteger.valueOf(value));
+    if (value < 0) {
+      throw new InvalidTypeMetapathException(
+          null,
+          String.format("Integer value '%d' must not be negative.", value));
+    }
+    return value == 0 ? new LongNonNegativeIntegerItemImpl(value) : IPositiveIntegerItem.valueOf(value);
   }
 
   /**
@@ -114,7 +119,9 @@ public interface INonNegativeIntegerItem extends IIntegerItem {
           null,
           String.format("Integer value '%s' must not be negative.", value));
     }
-    return new NonNegativeIntegerItemImpl(value);
+    return value.bitLength() < Long.SIZE
+        ? valueOf(value.longValue())
+        : new NonNegativeIntegerItemImpl(value);
   }
 
   /**
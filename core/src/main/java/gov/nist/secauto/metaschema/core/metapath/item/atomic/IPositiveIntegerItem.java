@@ -7,6 +7,7 @@ package gov.nist.secauto.metaschema.core.metapath.item.atomic;
 
 import gov.nist.secauto.metaschema.core.datatype.adapter.MetaschemaDataTypeProvider;
 import gov.nist.secauto.metaschema.core.metapath.function.InvalidValueForCastFunctionException;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.impl.LongPositiveIntegerItemImpl;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.impl.PositiveIntegerItemImpl;
 import gov.nist.secauto.metaschema.core.metapath.type.IAtomicOrUnionType;
 import gov.nist.secauto.metaschema.core.metapath.type.InvalidTypeMetapathException;
@@ -87,10 +88,14 @@ public interface IPositiveIntegerItem extends INonNegativeIntegerItem {
    * @throws InvalidTypeMetapathException
    *           if the provided value is not a positive integer
    */
-  @SuppressWarnings("null")
   @NonNull
   static IPositiveIntegerItem valueOf(long value) {
-    return valueOf(BigInteger.valueOf(value));
+    if (value <= 0) {
+      throw new InvalidTypeMetapathException(
+          null,
+          String.format("Integer value '%d' is negative or zero.", value));
+    }
+    return new LongPositiveIntegerItemImpl(value);
   }
 
   /**
@@ -109,7 +114,9 @@ public interface IPositiveIntegerItem extends INonNegativeIntegerItem {
           null,
           String.format("Integer value '%s' is negative or zero.", value));
     }
-    return new PositiveIntegerItemImpl(value);
+    return value.bitLength() < Long.SIZE
+        ? valueOf(value.longValue())
+        : new PositiveIntegerItemImpl(value);
   }
 
   /**
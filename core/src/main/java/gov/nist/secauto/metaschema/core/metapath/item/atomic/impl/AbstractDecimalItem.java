@@ -39,27 +39,6 @@ public abstract class AbstractDecimalItem<TYPE>
 
   @Override
   public IMapKey asMapKey() {
-    return new MapKey();
-  }
-
-  private final class MapKey
-      implements IMapKey {
-
-    @Override
-    public IDecimalItem getKey() {
-      return AbstractDecimalItem.this;
-    }
-
-    @Override
-    public int hashCode() {
-      return getKey().hashCode();
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-      return this == obj ||
-          obj instanceof AbstractDecimalItem.MapKey
-              && getKey().asDecimal().equals(((AbstractDecimalItem<?>.MapKey) obj).getKey().asDecimal());
-    }
+    return new DecimalMapKey(this);
   }
 }
@@ -47,7 +47,9 @@ public abstract class AbstractIntegerItem
 
   @Override
   public int hashCode() {
-    return asInteger().hashCode();
+    // consistent with AbstractLongIntegerItem for values in the long range
+    BigInteger value = asInteger();
+    return isLongValue() ? Long.hashCode(value.longValue()) : value.hashCode();
   }
 
   @SuppressWarnings("PMD.OnlyOneReturn")
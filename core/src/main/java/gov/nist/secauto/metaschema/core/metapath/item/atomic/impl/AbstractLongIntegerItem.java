@@ -0,0 +1,96 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.atomic.impl;
+
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.AbstractAtomicItemBase;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+import gov.nist.secauto.metaschema.core.metapath.item.function.IMapKey;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * An abstract implementation of a Metapath atomic item containing an integer
+ * data value that fits in a Java {@code long}.
+ * <p>
+ * The value is stored as a primitive, avoiding a {@link BigInteger} allocation
+ * unless the value is requested in that form.
+ */
+public abstract class AbstractLongIntegerItem
+    extends AbstractAtomicItemBase<BigInteger>
+    implements IIntegerItem {
+  private final long value;
+
+  /**
+   * Construct a new item with the provided {@code value}.
+   *
+   * @param value
+   *          the value to wrap
+   */
+  protected AbstractLongIntegerItem(long value) {
+    this.value = value;
+  }
+
+  @Override
+  public BigInteger getValue() {
+    return ObjectUtils.notNull(BigInteger.valueOf(value));
+  }
+
+  @Override
+  public boolean isLongValue() {
+    return true;
+  }
+
+  @Override
+  public long asLong() {
+    return value;
+  }
+
+  @Override
+  public BigInteger asInteger() {
+    return getValue();
+  }
+
+  @Override
+  public BigDecimal asDecimal() {
+    // consistent with AbstractIntegerItem
+    return new BigDecimal(value, MathContext.DECIMAL64);
+  }
+
+  @Override
+  public String asString() {
+    return ObjectUtils.notNull(Long.toString(value));
+  }
+
+  @Override
+  public boolean toEffectiveBoolean() {
+    return value != 0;
+  }
+
+  @Override
+  protected String getValueSignature() {
+    return asString();
+  }
+
+  @Override
+  public IMapKey asMapKey() {
+    return new DecimalMapKey(this);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(value);
+  }
+
+  @SuppressWarnings("PMD.OnlyOneReturn")
+  @Override
+  public boolean equals(Object obj) {
+    return this == obj
+        || obj instanceof IIntegerItem && compareTo((IIntegerItem) obj) == 0;
+  }
+}
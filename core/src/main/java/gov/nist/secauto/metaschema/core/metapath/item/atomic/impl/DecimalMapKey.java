@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.atomic.impl;
+
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IDecimalItem;
+import gov.nist.secauto.metaschema.core.metapath.item.function.IMapKey;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A map key for a decimal item, which is equal to other decimal map keys with
+ * the same decimal value regardless of the item's implementation.
+ */
+final class DecimalMapKey
+    implements IMapKey {
+  @NonNull
+  private final IDecimalItem key;
+
+  /**
+   * Construct a new map key for the provided item.
+   *
+   * @param key
+   *          the item to use as a key
+   */
+  DecimalMapKey(@NonNull IDecimalItem key) {
+    this.key = key;
+  }
+
+  @Override
+  public IDecimalItem getKey() {
+    return key;
+  }
+
+  @Override
+  public int hashCode() {
+    return getKey().hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return this == obj ||
+        obj instanceof DecimalMapKey
+            && getKey().asDecimal().equals(((DecimalMapKey) obj).getKey().asDecimal());
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.atomic.impl;
+
+import gov.nist.secauto.metaschema.core.datatype.adapter.IntegerAdapter;
+import gov.nist.secauto.metaschema.core.datatype.adapter.MetaschemaDataTypeProvider;
+
+/**
+ * An implementation of a Metapath atomic item containing an integer data value,
+ * stored as a Java {@code long}.
+ */
+public class LongIntegerItemImpl
+    extends AbstractLongIntegerItem {
+
+  /**
+   * Construct a new item with the provided {@code value}.
+   *
+   * @param value
+   *          the value to wrap
+   */
+  public LongIntegerItemImpl(long value) {
+    super(value);
+  }
+
+  @Override
+  public IntegerAdapter getJavaTypeAdapter() {
+    return MetaschemaDataTypeProvider.INTEGER;
+  }
+}
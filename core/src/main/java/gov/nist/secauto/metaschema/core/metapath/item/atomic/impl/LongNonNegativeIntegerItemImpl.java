@@ -0,0 +1,34 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.atomic.impl;
+
+import gov.nist.secauto.metaschema.core.datatype.adapter.MetaschemaDataTypeProvider;
+import gov.nist.secauto.metaschema.core.datatype.adapter.NonNegativeIntegerAdapter;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.INonNegativeIntegerItem;
+
+/**
+ * An implementation of a Metapath atomic item containing a non-negative integer
+ * data value, stored as a Java {@code long}.
+ */
+public class LongNonNegativeIntegerItemImpl
+    extends AbstractLongIntegerItem
+    implements INonNegativeIntegerItem {
+
+  /**
+   * Construct a new item with the provided {@code value}.
+   *
+   * @param value
+   *          the value to wrap
+   */
+  public LongNonNegativeIntegerItemImpl(long value) {
+    super(value);
+  }
+
+  @Override
+  public NonNegativeIntegerAdapter getJavaTypeAdapter() {
+    return MetaschemaDataTypeProvider.NON_NEGATIVE_INTEGER;
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.atomic.impl;
+
+import gov.nist.secauto.metaschema.core.datatype.adapter.MetaschemaDataTypeProvider;
+import gov.nist.secauto.metaschema.core.datatype.adapter.PositiveIntegerAdapter;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IPositiveIntegerItem;
+
+/**
+ * An implementation of a Metapath atomic item containing a positive integer
+ * data value, stored as a Java {@code long}.
+ */
+public class LongPositiveIntegerItemImpl
+    extends AbstractLongIntegerItem
+    implements IPositiveIntegerItem {
+
+  /**
+   * Construct a new item with the provided {@code value}.
+   *
+   * @param value
+   *          the value to wrap
+   */
+  public LongPositiveIntegerItemImpl(long value) {
+    super(value);
+  }
+
+  @Override
+  public PositiveIntegerAdapter getJavaTypeAdapter() {
+    return MetaschemaDataTypeProvider.POSITIVE_INTEGER;
+  }
+}
@@ -3,12 +3,104 @@ package gov.nist.secauto.metaschema.core.metapath.item.node;
 
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
+import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * A common base class for node item implementations.
  */
 public abstract class AbstractNodeItem implements INodeItem {
+  /**
+   * Indicates that the node's document order ordinal has not been determined.
+   */
+  private static final int UNRESOLVED = -2;
+
+  /**
+   * The node's position in a pre-order traversal of its document, or
+   * {@link DocumentOrder#NO_ORDINAL} if the node's document does not support
+   * ordinals.
+   * <p>
+   * This field is written last when ordinals are assigned, so a resolved value
+   * guarantees the other ordinal fields are visible.
+   */
+  private volatile int ordinal = UNRESOLVED;
+  private int lastDescendantOrdinal = DocumentOrder.NO_ORDINAL;
+  @Nullable
+  private IDocumentNodeItem orderedDocument;
+
+  /**
+   * Assign the document order ordinals for this node.
+   *
+   * @param document
+   *          the document containing this node
+   * @param ordinal
+   *          the position of this node in a pre-order traversal of the document
+   * @param lastDescendantOrdinal
+   *          the position of this node's last descendant, or this node's
+   *          position if it has no descendants
+   */
+  void assignOrdinals(@NonNull IDocumentNodeItem document, int ordinal, int lastDescendantOrdinal) {
+    this.orderedDocument = document;
+    this.lastDescendantOrdinal = lastDescendantOrdinal;
+    this.ordinal = ordinal;
+  }
+
+  /**
+   * Get the position of this node in a pre-order traversal of its document.
+   * <p>
+   * Ordinals are assigned to all nodes in a document the first time an ordinal
+   * is requested for any of the document's nodes.
+   *
+   * @return the position, or {@link DocumentOrder#NO_ORDINAL} if the node's
+   *         document does not support ordinals
+   */
+  int getOrdinal() {
+    int retval = ordinal;
+    if (retval == UNRESOLVED) {
+      INodeItem root = this;
+      INodeItem parent = root.getParentNodeItem();
+      while (parent != null) {
+        root = parent;
+        parent = root.getParentNodeItem();
+      }
+
+      if (root instanceof DocumentNodeItemImpl) {
+        ((DocumentNodeItemImpl) root).ensureOrdinals();
+      }
+
+      retval = ordinal;
+      if (retval == UNRESOLVED) {
+        // not part of an ordered document
+        retval = DocumentOrder.NO_ORDINAL;
+        ordinal = retval;
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Get the position of this node's last descendant in a pre-order traversal of
+   * its document.
+   * <p>
+   * Must only be called after {@link #getOrdinal()} returned a valid ordinal.
+   *
+   * @return the position
+   */
+  int getLastDescendantOrdinal() {
+    return lastDescendantOrdinal;
+  }
+
+  /**
+   * Get the document whose traversal was used to assign this node's ordinals.
+   * <p>
+   * Must only be called after {@link #getOrdinal()} returned a valid ordinal.
+   *
+   * @return the document
+   */
+  @Nullable
+  IDocumentNodeItem getOrderedDocument() {
+    return orderedDocument;
+  }
 
   /**
    * Generates a string signature for this node item in the format:
@@ -0,0 +1,80 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.node;
+
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
+
+import java.util.function.Supplier;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Caches the atomic item and string value derived from the bound value of a
+ * node item.
+ * <p>
+ * Both values are computed when first requested. They can be released once
+ * they are no longer needed, such as after validation, in which case they will
+ * be computed again if requested.
+ * <p>
+ * The derived values are immutable and equivalent each time they are computed,
+ * so concurrent callers may each compute a value without coordination.
+ */
+final class AtomicValueCache {
+  @NonNull
+  private final Supplier<IAnyAtomicItem> supplier;
+  @Nullable
+  private volatile IAnyAtomicItem atomicItem;
+  @Nullable
+  private volatile String stringValue;
+
+  /**
+   * Construct a new cache.
+   *
+   * @param supplier
+   *          used to create the atomic item from the node's bound value
+   */
+  AtomicValueCache(@NonNull Supplier<IAnyAtomicItem> supplier) {
+    this.supplier = supplier;
+  }
+
+  /**
+   * Get the atomic item, creating it if needed.
+   *
+   * @return the atomic item
+   */
+  IAnyAtomicItem getAtomicItem() {
+    IAnyAtomicItem retval = atomicItem;
+    if (retval == null) {
+      retval = supplier.get();
+      atomicItem = retval;
+    }
+    return retval;
+  }
+
+  /**
+   * Get the string value of the atomic item, creating it if needed.
+   *
+   * @return the string value
+   */
+  @NonNull
+  String getStringValue() {
+    String retval = stringValue;
+    if (retval == null) {
+      retval = getAtomicItem().asString();
+      stringValue = retval;
+    }
+    return retval;
+  }
+
+  /**
+   * Release the cached values.
+   */
+  void clear() {
+    atomicItem = null;
+    stringValue = null;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.node;
+
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An index of the flag and model node items in a document, grouped by name in
+ * document order.
+ * <p>
+ * The index reuses the document order ordinals assigned to each node by a
+ * pre-order traversal of the document. Since the descendants of a node occupy
+ * the contiguous range of ordinals following the node's ordinal, the
+ * descendants of a node with a given name can be found using a binary search
+ * over the ordinals of the nodes with that name. Only documents whose nodes
+ * have ordinals, as described by {@link DocumentOrder}, can be indexed.
+ * <p>
+ * The index is a snapshot of the document's node tree at the time it is built,
+ * so it must only be used for documents whose node tree cannot change.
+ */
+public final class DescendantNameIndex {
+  /**
+   * The indexed document, or {@code null} if the document's nodes have no
+   * ordinals.
+   */
+  @Nullable
+  private final IDocumentNodeItem document;
+  /**
+   * Maps each qualified name index position to the nodes having that name.
+   */
+  @NonNull
+  private final Map<Integer, NameEntries> nodesByName;
+
+  /**
+   * Build a new index for the provided document.
+   *
+   * @param document
+   *          the document to index
+   * @return the new index
+   */
+  @NonNull
+  public static DescendantNameIndex build(@NonNull IDocumentNodeItem document) {
+    Builder builder = new Builder();
+    boolean ordered = DocumentOrder.ordinal(document) != DocumentOrder.NO_ORDINAL;
+    if (ordered) {
+      for (Iterator<INodeItem> nodes = NodeAxisIterators.subtreeIterator(document); nodes.hasNext();) {
+        builder.add(ObjectUtils.notNull(nodes.next()));
+      }
+    }
+    return new DescendantNameIndex(ordered ? document : null, builder);
+  }
+
+  /**
+   * Get the index for the document containing the provided node, if the document
+   * supports indexing.
+   *
+   * @param node
+   *          a node in the document
+   * @return the index, or {@code null} if the node is not contained in a
+   *         document that supports indexing
+   */
+  @Nullable
+  public static DescendantNameIndex forNode(@NonNull INodeItem node) {
+    INodeItem root = node;
+    INodeItem parent = root.getParentNodeItem();
+    while (parent != null) {
+      root = parent;
+      parent = root.getParentNodeItem();
+    }
+    return root instanceof IDocumentNodeItem
+        ? ((IDocumentNodeItem) root).getDescendantNameIndex()
+        : null;
+  }
+
+  private DescendantNameIndex(@Nullable IDocumentNodeItem document, @NonNull Builder builder) {
+    this.document = document;
+
+    Map<Integer, NameEntries> nodesByName = new HashMap<>();
+    for (Map.Entry<Integer, List<INodeItem>> entry : builder.nodesByName.entrySet()) {
+      nodesByName.put(entry.getKey(), new NameEntries(
+          ObjectUtils.notNull(entry.getValue()),
+          ObjectUtils.notNull(builder.ordinalsByName.get(entry.getKey()))));
+    }
+    this.nodesByName = nodesByName;
+  }
+
+  /**
+   * Get the flag and model nodes with the provided name that are descendants of
+   * the provided node.
+   *
+   * @param node
+   *          the node whose descendants are to be searched
+   * @param name
+   *          the name of the descendant nodes to find
+   * @return the matching descendant nodes in document order, or {@code null} if
+   *         the node is not part of the indexed document
+   */
+  @Nullable
+  public List<INodeItem> getDescendantsWithName(
+      @NonNull INodeItem node,
+      @NonNull IEnhancedQName name) {
+    int ordinal = DocumentOrder.ordinal(node);
+
+    List<INodeItem> retval;
+    if (document == null
+        || ordinal == DocumentOrder.NO_ORDINAL
+        || !document.equals(((AbstractNodeItem) node).getOrderedDocument())) {
+      retval = null;
+    } else {
+      NameEntries entries = nodesByName.get(name.getIndexPosition());
+      retval = entries == null
+          ? CollectionUtil.emptyList()
+          // exclude the node itself from the range
+          : entries.getRange(ordinal + 1, DocumentOrder.lastDescendantOrdinal(node));
+    }
+    return retval;
+  }
+
+  private static final class NameEntries {
+    @NonNull
+    private final List<INodeItem> nodes;
+    @NonNull
+    private final int[] ordinals;
+
+    private NameEntries(@NonNull List<INodeItem> nodes, @NonNull List<Integer> ordinals) {
+      this.nodes = CollectionUtil.unmodifiableList(nodes);
+      this.ordinals = ordinals.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @NonNull
+    private List<INodeItem> getRange(int first, int last) {
+      int from = insertionPoint(first);
+      int to = insertionPoint(last + 1);
+      return ObjectUtils.notNull(nodes.subList(from, to));
+    }
+
+    private int insertionPoint(int ordinal) {
+      int index = Arrays.binarySearch(ordinals, ordinal);
+      return index < 0 ? -index - 1 : index;
+    }
+  }
+
+  private static final class Builder {
+    @NonNull
+    private final Map<Integer, List<INodeItem>> nodesByName = new HashMap<>();
+    @NonNull
+    private final Map<Integer, List<Integer>> ordinalsByName = new HashMap<>();
+
+    /**
+     * Add a node to the index. Nodes must be added in document order.
+     *
+     * @param node
+     *          the node to add
+     */
+    private void add(@NonNull INodeItem node) {
+      int ordinal = DocumentOrder.ordinal(node);
+      if (node instanceof IDefinitionNodeItem && ordinal != DocumentOrder.NO_ORDINAL) {
+        Integer key = ((IDefinitionNodeItem<?, ?>) node).getQName().getIndexPosition();
+        nodesByName.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+        ordinalsByName.computeIfAbsent(key, k -> new ArrayList<>()).add(ordinal);
+      }
+    }
+  }
+}
@@ -7,6 +7,9 @@ import gov.nist.secauto.metaschema.core.model.IResourceLocation;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import nl.talsmasoftware.lazy4j.Lazy;
@@ -22,6 +25,14 @@ class DocumentNodeItemImpl
   private final Lazy<ModelContainer> model;
   @NonNull
   private final StaticContext staticContext;
+  @NonNull
+  private final Lazy<DescendantNameIndex> descendantNameIndex;
+  /**
+   * Assigns document order ordinals to the document's nodes on first use,
+   * providing the number of nodes ordered.
+   */
+  @NonNull
+  private final Lazy<Integer> orderedNodeCount;
 
   public DocumentNodeItemImpl(
       @NonNull IAssemblyDefinition root,
@@ -42,6 +53,8 @@ class DocumentNodeItemImpl
     // ObjectUtils.notNull(binding.getUri())));
 
     this.staticContext = builder.build();
+    this.descendantNameIndex = ObjectUtils.notNull(Lazy.lazy(() -> DescendantNameIndex.build(this)));
+    this.orderedNodeCount = ObjectUtils.notNull(Lazy.lazy(this::assignOrdinals));
   }
 
   @Override
@@ -62,6 +75,59 @@ class DocumentNodeItemImpl
     return model.get();
   }
 
+  @Override
+  public DescendantNameIndex getDescendantNameIndex() {
+    return descendantNameIndex.get();
+  }
+
+  /**
+   * Assign document order ordinals to all nodes in this document, if this has
+   * not already been done.
+   */
+  void ensureOrdinals() {
+    orderedNodeCount.get();
+  }
+
+  /**
+   * Assign ordinals to the nodes in this document using an iterative pre-order
+   * traversal.
+   * <p>
+   * A node's sub-tree is complete once the traversal reaches a node that is not
+   * one of its descendants, at which point the node's last descendant ordinal
+   * is known.
+   *
+   * @return the number of ordered nodes
+   */
+  @SuppressWarnings("PMD.CompareObjectsWithEquals")
+  private int assignOrdinals() {
+    Deque<INodeItem> openNodes = new ArrayDeque<>();
+    Deque<Integer> openOrdinals = new ArrayDeque<>();
+
+    int ordinal = 0;
+    for (Iterator<INodeItem> nodes = NodeAxisIterators.subtreeIterator(this); nodes.hasNext(); ordinal++) {
+      INodeItem node = nodes.next();
+
+      // need to use != vs !Object.equals to ensure we are matching the same object
+      INodeItem parent = node.getParentNodeItem();
+      while (!openNodes.isEmpty() && openNodes.peek() != parent) { // NOPMD - intentional
+        assignOrdinals(ObjectUtils.notNull(openNodes.pop()), ObjectUtils.notNull(openOrdinals.pop()), ordinal - 1);
+      }
+      openNodes.push(node);
+      openOrdinals.push(ordinal);
+    }
+
+    while (!openNodes.isEmpty()) {
+      assignOrdinals(ObjectUtils.notNull(openNodes.pop()), ObjectUtils.notNull(openOrdinals.pop()), ordinal - 1);
+    }
+    return ordinal;
+  }
+
+  private void assignOrdinals(@NonNull INodeItem node, int ordinal, int lastDescendantOrdinal) {
+    if (node instanceof AbstractNodeItem) {
+      ((AbstractNodeItem) node).assignOrdinals(this, ordinal, lastDescendantOrdinal);
+    }
+  }
+
   @Override
   public Object getValue() {
     return getRootAssemblyNodeItem().getValue();
@@ -0,0 +1,223 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.node;
+
+import gov.nist.secauto.metaschema.core.metapath.item.IItem;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Provides operations on node items based on their position in document order.
+ * <p>
+ * Nodes in an immutable document produced by {@link DefaultNodeItemFactory} are
+ * assigned an ordinal based on a pre-order traversal of the document, along
+ * with the ordinal of their last descendant. This allows ordering, ancestry, and
+ * identity checks to be performed using integer comparisons and bit sets.
+ * Operations involving any other item fall back to the equivalent tree-based or
+ * hash-based approach.
+ */
+public final class DocumentOrder {
+  /**
+   * The ordinal value used for a node that has no document order ordinal.
+   */
+  public static final int NO_ORDINAL = -1;
+
+  private DocumentOrder() {
+    // disable construction
+  }
+
+  /**
+   * Get the document order ordinal for the provided item.
+   *
+   * @param item
+   *          the item to get the ordinal for
+   * @return the ordinal, or {@link #NO_ORDINAL} if the item has no ordinal
+   */
+  public static int ordinal(@NonNull IItem item) {
+    return item instanceof AbstractNodeItem
+        ? ((AbstractNodeItem) item).getOrdinal()
+        : NO_ORDINAL;
+  }
+
+  /**
+   * Get the document whose ordinals are used by the provided node.
+   *
+   * @param node
+   *          a node with a valid ordinal
+   * @return the document
+   */
+  @Nullable
+  private static IDocumentNodeItem document(@NonNull IItem node) {
+    return ((AbstractNodeItem) node).getOrderedDocument();
+  }
+
+  /**
+   * Determine if the provided nodes all have ordinals within the same document.
+   *
+   * @param nodes
+   *          the nodes to check
+   * @return {@code true} if the nodes are all ordered within the same document,
+   *         or {@code false} otherwise
+   */
+  public static boolean isOrderedInSameDocument(@NonNull List<? extends INodeItem> nodes) {
+    IDocumentNodeItem document = null;
+    boolean retval = true;
+    for (INodeItem node : nodes) {
+      if (ordinal(ObjectUtils.notNull(node)) == NO_ORDINAL) {
+        retval = false;
+        break;
+      }
+      IDocumentNodeItem nodeDocument = document(node);
+      if (document == null) {
+        document = nodeDocument;
+      } else if (!document.equals(nodeDocument)) {
+        retval = false;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Determine if a node is an ancestor of another node.
+   *
+   * @param ancestor
+   *          the potential ancestor
+   * @param node
+   *          the node whose ancestors are checked
+   * @return {@code true} if {@code ancestor} is an ancestor of {@code node}, or
+   *         {@code false} otherwise
+   */
+  public static boolean isAncestor(@NonNull INodeItem ancestor, @NonNull INodeItem node) {
+    int ancestorOrdinal = ordinal(ancestor);
+    int nodeOrdinal = ordinal(node);
+
+    boolean retval;
+    if (ancestorOrdinal != NO_ORDINAL
+        && nodeOrdinal != NO_ORDINAL
+        && ObjectUtils.notNull(document(ancestor)).equals(document(node))) {
+      retval = ancestorOrdinal < nodeOrdinal && nodeOrdinal <= lastDescendantOrdinal(ancestor);
+    } else {
+      retval = node.ancestor().anyMatch(ancestor::equals);
+    }
+    return retval;
+  }
+
+  /**
+   * Get the ordinal of the last descendant of the provided node.
+   * <p>
+   * Must only be called for nodes that have an ordinal.
+   *
+   * @param node
+   *          the node
+   * @return the ordinal
+   */
+  public static int lastDescendantOrdinal(@NonNull INodeItem node) {
+    return ((AbstractNodeItem) node).getLastDescendantOrdinal();
+  }
+
+  /**
+   * Remove duplicate items from the provided stream, retaining the first
+   * occurrence of each item.
+   * <p>
+   * This is equivalent to {@link Stream#distinct()}, but uses a bit set of
+   * ordinals for node items that are ordered within a document.
+   *
+   * @param <T>
+   *          the Java type of the items
+   * @param stream
+   *          the stream to remove duplicates from
+   * @return the stream without duplicates
+   */
+  @NonNull
+  public static <T extends IItem> Stream<T> distinct(@NonNull Stream<T> stream) {
+    return ObjectUtils.notNull(stream.filter(new Tracker()::add));
+  }
+
+  /**
+   * Produce a predicate that determines if an item is contained in the provided
+   * collection.
+   *
+   * @param items
+   *          the collection of items to match
+   * @return the membership predicate
+   */
+  @NonNull
+  public static Predicate<IItem> memberOf(@NonNull Collection<? extends IItem> items) {
+    Tracker tracker = new Tracker();
+    items.forEach(item -> tracker.add(ObjectUtils.notNull(item)));
+    return tracker::contains;
+  }
+
+  /**
+   * Tracks a set of items, using a bit set of ordinals per document for ordered
+   * node items and a hash set for all other items.
+   * <p>
+   * Instances are not thread safe.
+   */
+  private static final class Tracker {
+    @NonNull
+    private final Map<IDocumentNodeItem, BitSet> ordinalsByDocument = new IdentityHashMap<>();
+    @NonNull
+    private final Set<IItem> others = new HashSet<>();
+
+    /**
+     * Add the item to the tracked set.
+     *
+     * @param item
+     *          the item to add
+     * @return {@code true} if the item was not already tracked, or {@code false}
+     *         otherwise
+     */
+    public boolean add(@NonNull IItem item) {
+      int ordinal = ordinal(item);
+
+      boolean retval;
+      if (ordinal == NO_ORDINAL) {
+        retval = others.add(item);
+      } else {
+        BitSet ordinals = ordinalsByDocument.computeIfAbsent(document(item), key -> new BitSet());
+        retval = !ordinals.get(ordinal);
+        if (retval) {
+          ordinals.set(ordinal);
+        }
+      }
+      return retval;
+    }
+
+    /**
+     * Determine if the item is tracked.
+     *
+     * @param item
+     *          the item to check
+     * @return {@code true} if the item is tracked, or {@code false} otherwise
+     */
+    public boolean contains(@NonNull IItem item) {
+      int ordinal = ordinal(item);
+
+      boolean retval;
+      if (ordinal == NO_ORDINAL) {
+        retval = others.contains(item);
+      } else {
+        BitSet ordinals = ordinalsByDocument.get(document(item));
+        retval = ordinals != null && ordinals.get(ordinal);
+      }
+      return retval;
+    }
+  }
+}
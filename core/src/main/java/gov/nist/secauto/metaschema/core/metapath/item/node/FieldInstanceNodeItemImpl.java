@@ -28,10 +28,10 @@ class FieldInstanceNodeItemImpl
   private final Object value;
 
   /**
-   * Used to cache this object as an atomic item.
+   * Used to cache this object as an atomic item and string value.
    */
   @NonNull
-  private final Lazy<IAnyAtomicItem> atomicItem;
+  private final AtomicValueCache atomicValue;
 
   public FieldInstanceNodeItemImpl(
       @NonNull IFieldInstance instance,
@@ -43,7 +43,7 @@ class FieldInstanceNodeItemImpl
     this.model = ObjectUtils.notNull(Lazy.lazy(generator.newDataModelSupplier(this)));
     this.position = position;
     this.value = value;
-    this.atomicItem = ObjectUtils.notNull(Lazy.lazy(this::newAtomicItem));
+    this.atomicValue = new AtomicValueCache(this::newAtomicItem);
   }
 
   @SuppressWarnings("null")
@@ -70,12 +70,17 @@ class FieldInstanceNodeItemImpl
 
   @Override
   public IAnyAtomicItem toAtomicItem() {
-    return atomicItem.get();
+    return atomicValue.getAtomicItem();
   }
 
   @Override
   public String stringValue() {
-    return toAtomicItem().asString();
+    return atomicValue.getStringValue();
+  }
+
+  @Override
+  public void releaseValueCache() {
+    atomicValue.clear();
   }
 
   @Override
@@ -3,10 +3,8 @@ package gov.nist.secauto.metaschema.core.metapath.item.node;
 
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
 import gov.nist.secauto.metaschema.core.model.IFlagInstance;
-import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
-import nl.talsmasoftware.lazy4j.Lazy;
 
 /**
  * A {@link INodeItem} supported by a {@link IFlagInstance}, that may have an
@@ -21,10 +19,10 @@ class FlagInstanceNodeItemImpl
   private final Object value;
 
   /**
-   * Used to cache this object as an atomic item.
+   * Used to cache this object as an atomic item and string value.
    */
   @NonNull
-  private final Lazy<IAnyAtomicItem> atomicItem;
+  private final AtomicValueCache atomicValue;
 
   public FlagInstanceNodeItemImpl(
       @NonNull IFlagInstance instance,
@@ -32,7 +30,7 @@ class FlagInstanceNodeItemImpl
       @NonNull Object value) {
     super(instance, parent);
     this.value = value;
-    this.atomicItem = ObjectUtils.notNull(Lazy.lazy(this::newAtomicItem));
+    this.atomicValue = new AtomicValueCache(this::newAtomicItem);
   }
 
   @Override
@@ -48,11 +46,16 @@ class FlagInstanceNodeItemImpl
 
   @Override
   public IAnyAtomicItem toAtomicItem() {
-    return atomicItem.get();
+    return atomicValue.getAtomicItem();
   }
 
   @Override
   public String stringValue() {
-    return toAtomicItem().asString();
+    return atomicValue.getStringValue();
+  }
+
+  @Override
+  public void releaseValueCache() {
+    atomicValue.clear();
   }
 }
@@ -1,8 +1,12 @@
 
 package gov.nist.secauto.metaschema.core.metapath.item.node;
 
+import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAtomicValuedItem;
 import gov.nist.secauto.metaschema.core.metapath.type.IAtomicOrUnionType;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.Iterator;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -14,4 +18,54 @@ public interface IAtomicValuedNodeItem extends IAtomicValuedItem, INodeItem {
   default String stringValue() {
     return toAtomicItem().asString();
   }
+
+  /**
+   * Release any atomic item and string value cached by this node.
+   * <p>
+   * The values will be computed again if they are requested after being
+   * released.
+   */
+  default void releaseValueCache() {
+    // nothing is cached by default
+  }
+
+  /**
+   * Get the string value of the provided item's atomic value.
+   * <p>
+   * For an atomic valued node, this uses the node's cached string value.
+   *
+   * @param item
+   *          the item to get the string value for
+   * @return the string value
+   */
+  @NonNull
+  static String toAtomicString(@NonNull IItem item) {
+    return ObjectUtils.notNull(item instanceof IAtomicValuedNodeItem
+        ? ((IAtomicValuedNodeItem) item).stringValue()
+        : item.toAtomicItem().asString());
+  }
+
+  /**
+   * Release the values cached by the provided node, its flags, and all of its
+   * descendant nodes and their flags.
+   *
+   * @param node
+   *          the node to release the cached values for
+   */
+  static void releaseValueCaches(@NonNull INodeItem node) {
+    releaseFlagValueCaches(node);
+    Iterator<IModelNodeItem<?, ?>> descendants = NodeAxisIterators.descendantIterator(node);
+    while (descendants.hasNext()) {
+      releaseFlagValueCaches(ObjectUtils.notNull(descendants.next()));
+    }
+  }
+
+  private static void releaseFlagValueCaches(@NonNull INodeItem node) {
+    if (node instanceof IAtomicValuedNodeItem) {
+      ((IAtomicValuedNodeItem) node).releaseValueCache();
+    }
+    for (IFlagNodeItem flag : node.getFlags()) {
+      flag.releaseValueCache();
+    }
+  }
 }
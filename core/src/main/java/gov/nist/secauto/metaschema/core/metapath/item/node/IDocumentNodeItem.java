@@ -9,6 +9,7 @@ import gov.nist.secauto.metaschema.core.metapath.type.IKindTest;
 import java.net.URI;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * A node item that represents the root of a tree of nodes associated with a
@@ -58,6 +59,20 @@ public interface IDocumentNodeItem extends IDocumentBasedNodeItem {
   @NonNull
   IRootAssemblyNodeItem getRootAssemblyNodeItem();
 
+  /**
+   * Get the index of named descendant nodes for this document.
+   * <p>
+   * Only documents with a node tree that cannot change after construction
+   * support indexing.
+   *
+   * @return the index, or {@code null} if this document does not support
+   *         indexing
+   */
+  @Nullable
+  default DescendantNameIndex getDescendantNameIndex() {
+    return null;
+  }
+
   @Override
   default String format(@NonNull IPathFormatter formatter) {
     return formatter.formatDocument(this);
@@ -58,13 +58,11 @@ public interface IModelNodeItem<D extends IModelDefinition, I extends INamedMode
 
   @Override
   default Stream<? extends IModelNodeItem<?, ?>> following() {
-    return followingSibling()
-        .flatMap(IModelNodeItem::descendantOrSelf);
+    return NodeAxisIterators.stream(NodeAxisIterators.followingIterator(this));
   }
 
   @Override
   default Stream<? extends IModelNodeItem<?, ?>> preceding() {
-    return precedingSibling()
-        .flatMap(IModelNodeItem::descendantOrSelf);
+    return NodeAxisIterators.stream(NodeAxisIterators.precedingIterator(this));
   }
 }
@@ -149,9 +149,7 @@ public interface INodeItem extends IItem, IPathSegment, INodeItemVisitable {
 
   @Override
   default Stream<? extends INodeItem> getPathStream() {
-    INodeItem parent = getParentNodeItem();
-    return ObjectUtils.notNull(
-        parent == null ? Stream.of(this) : Stream.concat(getParentNodeItem().getPathStream(), Stream.of(this)));
+    return ObjectUtils.notNull(Stream.concat(ancestor(), Stream.of(this)));
   }
 
   /**
@@ -187,8 +185,7 @@ public interface INodeItem extends IItem, IPathSegment, INodeItemVisitable {
    */
   @NonNull
   static Stream<? extends INodeItem> ancestorsOf(@NonNull INodeItem item) {
-    INodeItem parent = item.getParentNodeItem();
-    return ObjectUtils.notNull(parent == null ? Stream.empty() : Stream.concat(ancestorsOf(parent), Stream.of(parent)));
+    return ObjectUtils.notNull(NodeAxisIterators.ancestors(item).stream());
   }
 
   /**
@@ -213,12 +210,7 @@ public interface INodeItem extends IItem, IPathSegment, INodeItemVisitable {
    */
   @NonNull
   static Stream<? extends IModelNodeItem<?, ?>> decendantsOf(@NonNull INodeItem item) {
-    Stream<? extends IModelNodeItem<?, ?>> children = item.modelItems();
-
-    return ObjectUtils.notNull(children.flatMap(child -> {
-      assert child != null;
-      return Stream.concat(Stream.of(child), decendantsOf(child));
-    }));
+    return NodeAxisIterators.stream(NodeAxisIterators.descendantIterator(item));
   }
 
   /**
@@ -0,0 +1,260 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.node;
+
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Provides iterative implementations of the node axes that traverse an
+ * arbitrary number of levels of a node tree.
+ * <p>
+ * The traversals use an explicit stack instead of recursion or nested streams.
+ * This keeps the per-node overhead constant regardless of the depth of the
+ * tree, and avoids a stack overflow for deeply nested content.
+ */
+public final class NodeAxisIterators {
+  private static final int CHARACTERISTICS
+      = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+  private NodeAxisIterators() {
+    // disable construction
+  }
+
+  /**
+   * Get the ancestors of the provided node, ordered from the farthest ancestor
+   * to the closest.
+   * <p>
+   * The resulting collection's {@link Deque#spliterator()} is sized.
+   *
+   * @param node
+   *          the node to get the ancestors for
+   * @return the ancestors
+   */
+  @NonNull
+  public static Deque<INodeItem> ancestors(@NonNull INodeItem node) {
+    Deque<INodeItem> retval = new ArrayDeque<>();
+    for (INodeItem parent = node.getParentNodeItem(); parent != null; parent = parent.getParentNodeItem()) {
+      retval.push(parent);
+    }
+    return retval;
+  }
+
+  /**
+   * Get an iterator over the descendant model items of the provided node, in
+   * document order.
+   *
+   * @param node
+   *          the node to get the descendants for
+   * @return the iterator
+   */
+  @NonNull
+  public static Iterator<IModelNodeItem<?, ?>> descendantIterator(@NonNull INodeItem node) {
+    return new PreOrderIterator(new ChildIterator(node));
+  }
+
+  /**
+   * Get an iterator over the siblings that follow the provided node, and their
+   * descendants, in document order.
+   *
+   * @param node
+   *          the node to get the following nodes for
+   * @return the iterator
+   */
+  @SuppressWarnings("PMD.CompareObjectsWithEquals")
+  @NonNull
+  public static Iterator<IModelNodeItem<?, ?>> followingIterator(@NonNull IModelNodeItem<?, ?> node) {
+    IModelNodeItem<?, ?> parent = node.getParentContentNodeItem();
+
+    Iterator<IModelNodeItem<?, ?>> siblings;
+    if (parent == null) {
+      siblings = Collections.emptyIterator();
+    } else {
+      siblings = new ChildIterator(parent);
+      // need to use != vs !Object.equals to ensure we are matching the same object
+      while (siblings.hasNext() && siblings.next() != node) { // NOPMD - intentional
+        // skip the siblings preceding the node
+      }
+    }
+    return new PreOrderIterator(siblings);
+  }
+
+  /**
+   * Get an iterator over the siblings that precede the provided node, and their
+   * descendants, in document order.
+   *
+   * @param node
+   *          the node to get the preceding nodes for
+   * @return the iterator
+   */
+  @SuppressWarnings("PMD.CompareObjectsWithEquals")
+  @NonNull
+  public static Iterator<IModelNodeItem<?, ?>> precedingIterator(@NonNull IModelNodeItem<?, ?> node) {
+    IModelNodeItem<?, ?> parent = node.getParentContentNodeItem();
+
+    List<IModelNodeItem<?, ?>> siblings = new ArrayList<>();
+    if (parent != null) {
+      Iterator<IModelNodeItem<?, ?>> children = new ChildIterator(parent);
+      while (children.hasNext()) {
+        IModelNodeItem<?, ?> child = children.next();
+        // need to use == vs Object.equals to ensure we are matching the same object
+        if (child == node) {
+          break;
+        }
+        siblings.add(child);
+      }
+    }
+    return new PreOrderIterator(siblings.iterator());
+  }
+
+  /**
+   * Get an iterator over the provided node, its flags, and its descendant flags
+   * and model items, in document order.
+   * <p>
+   * The flags of a node precede its model items. The contents of a cycled
+   * assembly node are not traversed, since they repeat an ancestor's contents.
+   *
+   * @param node
+   *          the node whose sub-tree is to be traversed
+   * @return the iterator
+   */
+  @NonNull
+  public static Iterator<INodeItem> subtreeIterator(@NonNull INodeItem node) {
+    return new SubtreeIterator(node);
+  }
+
+  /**
+   * Get a sequential stream over the items provided by an axis iterator.
+   *
+   * @param <T>
+   *          the Java type of the items
+   * @param iterator
+   *          the axis iterator
+   * @return the stream
+   */
+  @NonNull
+  public static <T> Stream<T> stream(@NonNull Iterator<T> iterator) {
+    return ObjectUtils.notNull(StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, CHARACTERISTICS),
+        false));
+  }
+
+  /**
+   * Iterates over the model items of a node, in document order, without
+   * creating a stream.
+   */
+  private static final class ChildIterator implements Iterator<IModelNodeItem<?, ?>> {
+    @NonNull
+    private final Iterator<? extends List<? extends IModelNodeItem<?, ?>>> lists;
+    @NonNull
+    private Iterator<? extends IModelNodeItem<?, ?>> current = Collections.emptyIterator();
+
+    private ChildIterator(@NonNull INodeItem node) {
+      this.lists = ObjectUtils.notNull(node.getModelItems().iterator());
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!current.hasNext() && lists.hasNext()) {
+        current = ObjectUtils.notNull(lists.next().iterator());
+      }
+      return current.hasNext();
+    }
+
+    @Override
+    public IModelNodeItem<?, ?> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return current.next();
+    }
+  }
+
+  /**
+   * Performs a pre-order traversal of a sequence of sibling nodes and their
+   * descendants, using a stack of child iterators.
+   */
+  private static final class PreOrderIterator implements Iterator<IModelNodeItem<?, ?>> {
+    @NonNull
+    private final Deque<Iterator<IModelNodeItem<?, ?>>> stack = new ArrayDeque<>();
+
+    private PreOrderIterator(@NonNull Iterator<IModelNodeItem<?, ?>> roots) {
+      stack.push(roots);
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!stack.isEmpty() && !stack.peek().hasNext()) {
+        stack.pop();
+      }
+      return !stack.isEmpty();
+    }
+
+    @Override
+    public IModelNodeItem<?, ?> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      IModelNodeItem<?, ?> item = stack.peek().next();
+      if (!item.getModelItems().isEmpty()) {
+        stack.push(new ChildIterator(item));
+      }
+      return item;
+    }
+  }
+
+  /**
+   * Performs a pre-order traversal of a node and all of its flag and model
+   * descendants, using a stack of content iterators.
+   */
+  private static final class SubtreeIterator implements Iterator<INodeItem> {
+    @NonNull
+    private final Deque<Iterator<? extends INodeItem>> stack = new ArrayDeque<>();
+
+    private SubtreeIterator(@NonNull INodeItem node) {
+      stack.push(ObjectUtils.notNull(List.of(node).iterator()));
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!stack.isEmpty() && !stack.peek().hasNext()) {
+        stack.pop();
+      }
+      return !stack.isEmpty();
+    }
+
+    @Override
+    public INodeItem next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      INodeItem item = stack.peek().next();
+      if (!(item instanceof ICycledAssemblyNodeItem)) {
+        // pushed in reverse, so the flags precede the model items
+        if (!item.getModelItems().isEmpty()) {
+          stack.push(new ChildIterator(item));
+        }
+        if (!item.getFlags().isEmpty()) {
+          stack.push(ObjectUtils.notNull(item.getFlags().iterator()));
+        }
+      }
+      return item;
+    }
+  }
+}
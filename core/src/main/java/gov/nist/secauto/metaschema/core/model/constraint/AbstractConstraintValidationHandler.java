@@ -9,6 +9,7 @@ import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
 import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.format.IPathFormatter;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IAtomicValuedNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.util.CustomCollectors;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
@@ -311,7 +312,7 @@ public abstract class AbstractConstraintValidationHandler implements IConstraint
         .collect(CustomCollectors.joiningWithOxfordComma("or"));
 
     return ObjectUtils.notNull(String.format("Value '%s' doesn't match one of '%s' at path '%s'",
-        target.toAtomicItem().asString(),
+        IAtomicValuedNodeItem.toAtomicString(target),
         allowedValues,
         toPath(target)));
   }
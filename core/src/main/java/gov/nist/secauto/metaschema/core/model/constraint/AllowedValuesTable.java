@@ -0,0 +1,171 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A merged lookup table for a fixed sequence of allowed values constraints
+ * that all target the same node.
+ * <p>
+ * The outcome of checking every possible value against the constraints is
+ * computed once, allowing a value to be checked using a single lookup. The
+ * outcomes are the same as those produced when the constraints are registered
+ * and checked one at a time, in order.
+ * <p>
+ * Tables are immutable and may be shared across threads.
+ */
+final class AllowedValuesTable {
+  @NonNull
+  private final List<IAllowedValuesConstraint> constraints;
+  @NonNull
+  private final Map<String, Outcome> valueOutcomes;
+  @NonNull
+  private final Outcome otherOutcome;
+
+  /**
+   * Compile a table for the provided constraints.
+   *
+   * @param constraints
+   *          the constraints, in the order they are registered for a target
+   * @return the table, or {@code null} if there are no constraints or if their
+   *         extensibility conflicts, which must be reported for each target
+   */
+  @Nullable
+  static AllowedValuesTable compile(@NonNull List<IAllowedValuesConstraint> constraints) {
+    AllowedValuesTable retval = null;
+    if (!constraints.isEmpty() && !isExtensibleConflict(constraints)) {
+      retval = new AllowedValuesTable(constraints);
+    }
+    return retval;
+  }
+
+  private static boolean isExtensibleConflict(@NonNull List<IAllowedValuesConstraint> constraints) {
+    boolean retval = false;
+    IAllowedValuesConstraint.Extensible extensible = IAllowedValuesConstraint.Extensible.EXTERNAL;
+    for (IAllowedValuesConstraint constraint : constraints) {
+      IAllowedValuesConstraint.Extensible newExtensible = constraint.getExtensible();
+      if (newExtensible.ordinal() > extensible.ordinal()) {
+        extensible = newExtensible;
+      } else if (newExtensible.ordinal() < extensible.ordinal()
+          || IAllowedValuesConstraint.Extensible.NONE.equals(newExtensible)) {
+        // the extensibility is exceeded, or there are multiple constraints with
+        // scope='none'
+        retval = true;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  private AllowedValuesTable(@NonNull List<IAllowedValuesConstraint> constraints) {
+    this.constraints = CollectionUtil.unmodifiableList(new ArrayList<>(constraints));
+
+    boolean allowOthers = constraints.stream().allMatch(IAllowedValuesConstraint::isAllowedOther);
+
+    Map<String, Outcome> outcomes = new HashMap<>();
+    for (IAllowedValuesConstraint constraint : constraints) {
+      for (String value : constraint.getAllowedValues().keySet()) {
+        outcomes.computeIfAbsent(value, key -> newOutcome(constraints, key, allowOthers));
+      }
+    }
+    this.valueOutcomes = CollectionUtil.unmodifiableMap(outcomes);
+    this.otherOutcome = newOutcome(constraints, null, allowOthers);
+  }
+
+  @NonNull
+  private static Outcome newOutcome(
+      @NonNull List<IAllowedValuesConstraint> constraints,
+      @Nullable String value,
+      boolean allowOthers) {
+    boolean match = false;
+    List<IAllowedValuesConstraint> passed = new ArrayList<>();
+    List<IAllowedValuesConstraint> failed = new ArrayList<>();
+    for (IAllowedValuesConstraint constraint : constraints) {
+      if (value != null && constraint.getAllowedValue(value) != null) {
+        match = true;
+        passed.add(constraint);
+      } else if (IAllowedValuesConstraint.Extensible.NONE.equals(constraint.getExtensible())) {
+        // hard failure, since no other values can satisfy this constraint
+        failed = CollectionUtil.singletonList(constraint);
+        match = false;
+        break;
+      } else {
+        failed.add(constraint);
+      }
+    }
+    // it's not a failure if allow others is true
+    return new Outcome(passed, !match && !allowOthers ? failed : CollectionUtil.emptyList());
+  }
+
+  /**
+   * Get the constraints merged by this table, in registration order.
+   *
+   * @return the constraints
+   */
+  @NonNull
+  List<IAllowedValuesConstraint> getConstraints() {
+    return constraints;
+  }
+
+  /**
+   * Get the outcome of checking the provided value against the constraints.
+   *
+   * @param value
+   *          the target's value
+   * @return the outcome
+   */
+  @NonNull
+  Outcome lookup(@NonNull String value) {
+    Outcome retval = valueOutcomes.get(value);
+    return retval == null ? otherOutcome : retval;
+  }
+
+  /**
+   * The result of checking a value against the constraints.
+   */
+  static final class Outcome {
+    @NonNull
+    private final List<IAllowedValuesConstraint> passed;
+    @NonNull
+    private final List<IAllowedValuesConstraint> failed;
+
+    private Outcome(
+        @NonNull List<IAllowedValuesConstraint> passed,
+        @NonNull List<IAllowedValuesConstraint> failed) {
+      this.passed = CollectionUtil.unmodifiableList(passed);
+      this.failed = CollectionUtil.unmodifiableList(failed);
+    }
+
+    /**
+     * Get the constraints that allow the value.
+     *
+     * @return the passing constraints
+     */
+    @NonNull
+    List<IAllowedValuesConstraint> getPassed() {
+      return passed;
+    }
+
+    /**
+     * Get the constraints to report as violated.
+     *
+     * @return the violated constraints, which is empty if the value is allowed
+     */
+    @NonNull
+    List<IAllowedValuesConstraint> getFailed() {
+      return failed;
+    }
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.StaticContext;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IDefinitionNodeItem;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A precompiled plan for validating the constraints of a single definition.
+ * <p>
+ * The definition's constraints are grouped by their target Metapath
+ * expression, allowing each distinct target to be evaluated once per validated
+ * node, no matter how many constraints share it. The constraints are ordered
+ * so that the cheapest kinds of constraints are evaluated first. Allowed values
+ * constraints targeting the node itself are merged into a single lookup table.
+ * <p>
+ * Plans are immutable and may be shared across threads.
+ */
+final class ConstraintValidationPlan {
+  @NonNull
+  private static final IConstraintVisitor<Void, Integer> COST_VISITOR = new CostVisitor();
+
+  @NonNull
+  private final List<TargetGroup> targetGroups;
+  @Nullable
+  private final AllowedValuesTable contextAllowedValues;
+
+  /**
+   * Compile a validation plan for the constraints of the provided definition.
+   *
+   * @param definition
+   *          the definition whose constraints are to be validated
+   * @return the plan
+   */
+  @NonNull
+  static ConstraintValidationPlan compile(@NonNull IValueConstrained definition) {
+    List<IConstraint> constraints = new ArrayList<>();
+    constraints.addAll(definition.getExpectConstraints());
+    constraints.addAll(definition.getAllowedValuesConstraints());
+    constraints.addAll(definition.getIndexHasKeyConstraints());
+    constraints.addAll(definition.getMatchesConstraints());
+    if (definition instanceof IModelConstrained) {
+      IModelConstrained modelConstrained = (IModelConstrained) definition;
+      constraints.addAll(modelConstrained.getHasCardinalityConstraints());
+      constraints.addAll(modelConstrained.getIndexConstraints());
+      constraints.addAll(modelConstrained.getUniqueConstraints());
+    }
+
+    // the sort is stable, so constraints of the same kind keep their order
+    constraints.sort(Comparator.comparingInt(constraint -> constraint.accept(COST_VISITOR, null)));
+
+    // the outcome of allowed values constraints targeting the node itself can be
+    // precomputed, since the node's value is only checked against these
+    // constraints, unless it is also targeted by other definitions
+    AllowedValuesTable contextAllowedValues = AllowedValuesTable.compile(ObjectUtils.notNull(constraints.stream()
+        .filter(constraint -> constraint instanceof IAllowedValuesConstraint && isContextTarget(constraint))
+        .map(constraint -> (IAllowedValuesConstraint) constraint)
+        .collect(Collectors.toList())));
+    if (contextAllowedValues != null) {
+      constraints.removeAll(contextAllowedValues.getConstraints());
+    }
+
+    Map<TargetKey, List<IConstraint>> groups = new LinkedHashMap<>();
+    for (IConstraint constraint : constraints) {
+      groups.computeIfAbsent(new TargetKey(constraint.getTarget()), key -> new ArrayList<>())
+          .add(constraint);
+    }
+
+    return new ConstraintValidationPlan(
+        ObjectUtils.notNull(groups.values().stream()
+            .map(TargetGroup::new)
+            .collect(Collectors.toUnmodifiableList())),
+        contextAllowedValues);
+  }
+
+  private static boolean isContextTarget(@NonNull IConstraint constraint) {
+    return IConstraint.DEFAULT_TARGET_METAPATH.getPath().equals(constraint.getTarget().getPath().trim());
+  }
+
+  private ConstraintValidationPlan(
+      @NonNull List<TargetGroup> targetGroups,
+      @Nullable AllowedValuesTable contextAllowedValues) {
+    this.targetGroups = targetGroups;
+    this.contextAllowedValues = contextAllowedValues;
+  }
+
+  /**
+   * Get the groups of constraints sharing a target, in evaluation order.
+   *
+   * @return the target groups
+   */
+  @NonNull
+  List<TargetGroup> getTargetGroups() {
+    return targetGroups;
+  }
+
+  /**
+   * Get the merged allowed values constraints that target the validated node
+   * itself.
+   * <p>
+   * These constraints are not included in the target groups.
+   *
+   * @return the merged constraints, or {@code null} if there are no such
+   *         constraints or if they must be checked individually
+   */
+  @Nullable
+  AllowedValuesTable getContextAllowedValues() {
+    return contextAllowedValues;
+  }
+
+  /**
+   * A set of constraints that share the same target expression.
+   */
+  static final class TargetGroup {
+    @NonNull
+    private final List<IConstraint> constraints;
+
+    private TargetGroup(@NonNull List<IConstraint> constraints) {
+      this.constraints = CollectionUtil.unmodifiableList(new ArrayList<>(constraints));
+    }
+
+    /**
+     * Get the constraints sharing the target, in evaluation order.
+     *
+     * @return the constraints
+     */
+    @NonNull
+    List<IConstraint> getConstraints() {
+      return constraints;
+    }
+
+    /**
+     * Evaluate the shared target expression against the provided item.
+     * <p>
+     * The resulting sequence is reusable, since it is consumed by each of the
+     * group's constraints.
+     *
+     * @param item
+     *          the node item to evaluate the target expression against
+     * @param dynamicContext
+     *          the Metapath evaluation context to use
+     * @return the matching nodes as a sequence
+     */
+    @NonNull
+    ISequence<? extends IDefinitionNodeItem<?, ?>> matchTargets(
+        @NonNull IDefinitionNodeItem<?, ?> item,
+        @NonNull DynamicContext dynamicContext) {
+      return ObjectUtils.notNull(constraints.get(0).matchTargets(item, dynamicContext).reusable());
+    }
+  }
+
+  /**
+   * Identifies equivalent target expressions.
+   * <p>
+   * Two targets are equivalent if they have the same path, ignoring leading and
+   * trailing whitespace, and are compiled using the same static context.
+   */
+  private static final class TargetKey {
+    @NonNull
+    private final String path;
+    @NonNull
+    private final StaticContext staticContext;
+
+    private TargetKey(@NonNull IMetapathExpression target) {
+      this.path = ObjectUtils.notNull(target.getPath().trim());
+      this.staticContext = target.getStaticContext();
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, staticContext);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof TargetKey)) {
+        return false;
+      }
+      TargetKey other = (TargetKey) obj;
+      return path.equals(other.path) && Objects.equals(staticContext, other.staticContext);
+    }
+  }
+
+  /**
+   * Provides the relative cost of evaluating each kind of constraint against a
+   * target.
+   */
+  private static final class CostVisitor implements IConstraintVisitor<Void, Integer> {
+    @Override
+    public Integer visitCardinalityConstraint(ICardinalityConstraint constraint, Void state) {
+      // only counts the targets
+      return 0;
+    }
+
+    @Override
+    public Integer visitAllowedValues(IAllowedValuesConstraint constraint, Void state) {
+      // only records the targets, with the values checked after validation
+      return 1;
+    }
+
+    @Override
+    public Integer visitMatchesConstraint(IMatchesConstraint constraint, Void state) {
+      return 2;
+    }
+
+    @Override
+    public Integer visitExpectConstraint(IExpectConstraint constraint, Void state) {
+      return 3;
+    }
+
+    @Override
+    public Integer visitIndexHasKeyConstraint(IIndexHasKeyConstraint constraint, Void state) {
+      // evaluates the key fields for each target, like the unique and index
+      // constraints, and probes the index if it is already registered
+      return 4;
+    }
+
+    @Override
+    public Integer visitUniqueConstraint(IUniqueConstraint constraint, Void state) {
+      return 5;
+    }
+
+    @Override
+    public Integer visitIndexConstraint(IIndexConstraint constraint, Void state) {
+      return 6;
+    }
+  }
+}
@@ -12,16 +12,18 @@ import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
 import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
 import gov.nist.secauto.metaschema.core.metapath.MetapathException;
-import gov.nist.secauto.metaschema.core.metapath.function.library.FnBoolean;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.node.AbstractNodeItemVisitor;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IAssemblyNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IAtomicValuedNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IDefinitionNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IFieldNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IFlagNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IModelNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IModuleNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
+import gov.nist.secauto.metaschema.core.model.IDefinition;
 import gov.nist.secauto.metaschema.core.model.IFieldDefinition;
 import gov.nist.secauto.metaschema.core.model.IFlagDefinition;
 import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
@@ -33,12 +35,16 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -65,10 +71,29 @@ public class DefaultConstraintValidator
   private final Map<String, IIndex> indexNameToIndexMap = new ConcurrentHashMap<>();
   @NonNull
   private final Map<String, List<KeyRef>> indexNameToKeyRefMap = new ConcurrentHashMap<>();
+  /**
+   * The nodes passed to {@link #validate(INodeItem, DynamicContext)}, used to
+   * release cached values when validation is finalized.
+   */
+  @NonNull
+  private final List<INodeItem> validatedItems = new ArrayList<>();
   @NonNull
   private final IConstraintValidationHandler handler;
   @NonNull
   private final IMutableConfiguration<ValidationFeature<?>> configuration;
+  /**
+   * The handler recording the findings of the subtree being validated by the
+   * current thread, when validating in parallel.
+   */
+  @NonNull
+  private final ThreadLocal<DeferredConstraintValidationHandler> subtreeHandler = new ThreadLocal<>();
+  /**
+   * The compiled validation plans, by definition.
+   */
+  @NonNull
+  private final Map<IDefinition, ConstraintValidationPlan> validationPlans = new ConcurrentHashMap<>();
+  @NonNull
+  private final ConstraintExecutor constraintExecutor = new ConstraintExecutor();
 
   /**
    * Construct a new constraint validator instance.
@@ -127,19 +152,84 @@ public class DefaultConstraintValidator
 
   /**
    * Get the validation handler to use for handling constraint violations.
+   * <p>
+   * When validating in parallel, this is a handler that records the findings
+   * for the subtree being validated by the current thread. The recorded
+   * findings are passed to the handler provided to this validator in document
+   * order once validation completes.
    *
    * @return the handler
    */
   @NonNull
   protected IConstraintValidationHandler getConstraintValidationHandler() {
-    return handler;
+    IConstraintValidationHandler retval = subtreeHandler.get();
+    return retval == null ? handler : retval;
+  }
+
+  /**
+   * Perform an action that depends on state shared across the whole validation,
+   * such as the named indexes and the allowed values targeting each node.
+   * <p>
+   * When validating in parallel, the action is deferred until the findings of
+   * the current subtree are replayed, which ensures shared state is updated in
+   * document order. Otherwise, the action is performed immediately.
+   *
+   * @param action
+   *          the action, which is passed the handler to report findings to
+   */
+  private void performInDocumentOrder(@NonNull Consumer<IConstraintValidationHandler> action) {
+    DeferredConstraintValidationHandler deferred = subtreeHandler.get();
+    if (deferred == null) {
+      action.accept(getConstraintValidationHandler());
+    } else {
+      deferred.record(action);
+    }
   }
 
   @Override
   public void validate(
       @NonNull INodeItem item,
       @NonNull DynamicContext dynamicContext) {
-    item.accept(new Visitor(), dynamicContext);
+    if (isFeatureEnabled(ValidationFeature.VALIDATE_RELEASE_VALUE_CACHES)) {
+      synchronized (validatedItems) {
+        validatedItems.add(item);
+      }
+    }
+
+    int parallelism = getConfiguration().<Integer>get(ValidationFeature.VALIDATE_PARALLELISM);
+    if (parallelism > 1) {
+      validateInParallel(item, dynamicContext, parallelism);
+    } else {
+      item.accept(new Visitor(), dynamicContext);
+    }
+  }
+
+  /**
+   * Validate the provided item, validating independent subtrees concurrently.
+   * <p>
+   * Each subtree records its findings, which are replayed to the handler on the
+   * calling thread in document order once all subtrees are validated.
+   *
+   * @param item
+   *          the item to validate
+   * @param dynamicContext
+   *          the Metapath dynamic execution context to use for Metapath
+   *          evaluation
+   * @param parallelism
+   *          the number of threads to use
+   */
+  private void validateInParallel(
+      @NonNull INodeItem item,
+      @NonNull DynamicContext dynamicContext,
+      int parallelism) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      SubtreeTask task = new SubtreeTask(item, dynamicContext);
+      pool.invoke(task);
+      task.replay(getConstraintValidationHandler());
+    } finally {
+      pool.shutdown();
+    }
   }
 
   /**
@@ -159,10 +249,7 @@ public class DefaultConstraintValidator
       @NonNull DynamicContext dynamicContext) {
     IFlagDefinition definition = item.getDefinition();
 
-    validateExpect(definition.getExpectConstraints(), item, dynamicContext);
-    validateAllowedValues(definition.getAllowedValuesConstraints(), item, dynamicContext);
-    validateIndexHasKey(definition.getIndexHasKeyConstraints(), item, dynamicContext);
-    validateMatches(definition.getMatchesConstraints(), item, dynamicContext);
+    validate(getValidationPlan(definition), item, dynamicContext);
   }
 
   /**
@@ -182,10 +269,7 @@ public class DefaultConstraintValidator
       @NonNull DynamicContext dynamicContext) {
     IFieldDefinition definition = item.getDefinition();
 
-    validateExpect(definition.getExpectConstraints(), item, dynamicContext);
-    validateAllowedValues(definition.getAllowedValuesConstraints(), item, dynamicContext);
-    validateIndexHasKey(definition.getIndexHasKeyConstraints(), item, dynamicContext);
-    validateMatches(definition.getMatchesConstraints(), item, dynamicContext);
+    validate(getValidationPlan(definition), item, dynamicContext);
   }
 
   /**
@@ -205,21 +289,31 @@ public class DefaultConstraintValidator
       @NonNull DynamicContext dynamicContext) {
     IAssemblyDefinition definition = item.getDefinition();
 
-    validateExpect(definition.getExpectConstraints(), item, dynamicContext);
-    validateAllowedValues(definition.getAllowedValuesConstraints(), item, dynamicContext);
-    validateIndexHasKey(definition.getIndexHasKeyConstraints(), item, dynamicContext);
-    validateMatches(definition.getMatchesConstraints(), item, dynamicContext);
-    validateHasCardinality(definition.getHasCardinalityConstraints(), item, dynamicContext);
-    validateIndex(definition.getIndexConstraints(), item, dynamicContext);
-    validateUnique(definition.getUniqueConstraints(), item, dynamicContext);
+    validate(getValidationPlan(definition), item, dynamicContext);
   }
 
   /**
-   * Evaluates the provided collection of {@code constraints} in the context of
-   * the {@code item}.
+   * Get the validation plan for the constraints of the provided definition,
+   * compiling it on first use.
    *
-   * @param constraints
-   *          the constraints to execute
+   * @param definition
+   *          the definition whose constraints are to be validated
+   * @return the validation plan
+   */
+  @NonNull
+  private ConstraintValidationPlan getValidationPlan(@NonNull IDefinition definition) {
+    return ObjectUtils.notNull(validationPlans.computeIfAbsent(definition, ConstraintValidationPlan::compile));
+  }
+
+  /**
+   * Evaluates the constraints in the provided {@code plan} in the context of the
+   * {@code item}.
+   * <p>
+   * Each distinct target is evaluated once, with the resulting targets shared by
+   * all constraints having that target.
+   *
+   * @param plan
+   *          the plan identifying the constraints to execute
    * @param item
    *          the focus of Metapath evaluation
    * @param dynamicContext
@@ -227,18 +321,47 @@ public class DefaultConstraintValidator
    *          evaluation
    */
   @SuppressWarnings("PMD.AvoidCatchingGenericException")
-  private void validateHasCardinality( // NOPMD false positive
-      @NonNull List<? extends ICardinalityConstraint> constraints,
-      @NonNull IAssemblyNodeItem item,
+  private void validate(
+      @NonNull ConstraintValidationPlan plan,
+      @NonNull IDefinitionNodeItem<?, ?> item,
       @NonNull DynamicContext dynamicContext) {
-    for (ICardinalityConstraint constraint : constraints) {
-      assert constraint != null;
+    AllowedValuesTable contextAllowedValues = plan.getContextAllowedValues();
+    if (contextAllowedValues != null && item.hasValue()) {
+      performInDocumentOrder(handler -> {
+        ValueStatus valueStatus = valueMap.get(item);
+        if (valueStatus != null) {
+          // the node is already targeted by the constraints of another node, so
+          // these constraints must be checked along with those constraints
+          registerAllowedValues(contextAllowedValues.getConstraints(), item, item, dynamicContext);
+          valueStatus.markContextConstraintsRegistered();
+        }
+        // otherwise the merged constraints are checked once the node's visit ends
+      });
+    }
 
+    for (ConstraintValidationPlan.TargetGroup group : plan.getTargetGroups()) {
+      ISequence<? extends IDefinitionNodeItem<?, ?>> targets;
       try {
-        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, dynamicContext);
-        validateHasCardinality(constraint, item, targets, dynamicContext);
+        targets = group.matchTargets(item, dynamicContext);
       } catch (RuntimeException ex) {
-        handleError(constraint, item, ex, dynamicContext);
+        // each constraint sharing the target fails
+        for (IConstraint constraint : group.getConstraints()) {
+          assert constraint != null;
+          handleError(constraint, item, ex, dynamicContext);
+        }
+        targets = null;
+      }
+
+      if (targets != null) {
+        TargetedItems targetedItems = new TargetedItems(item, targets, dynamicContext);
+        for (IConstraint constraint : group.getConstraints()) {
+          assert constraint != null;
+          try {
+            constraint.accept(constraintExecutor, targetedItems);
+          } catch (RuntimeException ex) {
+            handleError(constraint, item, ex, dynamicContext);
+          }
+        }
       }
     }
   }
@@ -283,35 +406,6 @@ public class DefaultConstraintValidator
     }
   }
 
-  /**
-   * Evaluates the provided collection of {@code constraints} in the context of
-   * the {@code item}.
-   *
-   * @param constraints
-   *          the constraints to execute
-   * @param item
-   *          the focus of Metapath evaluation
-   * @param dynamicContext
-   *          the Metapath dynamic execution context to use for Metapath
-   *          evaluation
-   */
-  @SuppressWarnings("PMD.AvoidCatchingGenericException")
-  private void validateIndex(
-      @NonNull List<? extends IIndexConstraint> constraints,
-      @NonNull IAssemblyNodeItem item,
-      @NonNull DynamicContext dynamicContext) {
-    for (IIndexConstraint constraint : constraints) {
-      assert constraint != null;
-
-      try {
-        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, dynamicContext);
-        validateIndex(constraint, item, targets, dynamicContext);
-      } catch (RuntimeException ex) {
-        handleError(constraint, item, ex, dynamicContext);
-      }
-    }
-  }
-
   /**
    * Evaluates the provided {@code constraint} against each of the
    * {@code targets}.
@@ -335,29 +429,55 @@ public class DefaultConstraintValidator
       @NonNull DynamicContext dynamicContext) {
     String indexName = constraint.getName();
 
-    IConstraintValidationHandler handler = getConstraintValidationHandler();
-    if (indexNameToIndexMap.containsKey(indexName)) {
-      handler.handleIndexDuplicateViolation(constraint, node, dynamicContext);
+    if (subtreeHandler.get() == null) {
+      IConstraintValidationHandler handler = getConstraintValidationHandler();
+      if (indexNameToIndexMap.containsKey(indexName)) {
+        handler.handleIndexDuplicateViolation(constraint, node, dynamicContext);
+      } else {
+        indexNameToIndexMap.put(indexName, newIndex(constraint, node, targets, handler, dynamicContext));
+      }
     } else {
-      IIndex index = IIndex.newInstance(constraint.getKeyFields());
-      targets.stream()
-          .forEachOrdered(item -> {
-            assert item != null;
-            if (item.hasValue()) {
-              try {
-                INodeItem oldItem = index.put(item, dynamicContext);
-                if (oldItem == null) {
-                  handlePass(constraint, node, item, dynamicContext);
-                } else {
-                  handler.handleIndexDuplicateKeyViolation(constraint, node, oldItem, item, dynamicContext);
-                }
-              } catch (MetapathException ex) {
-                handler.handleKeyMatchError(constraint, node, item, ex, dynamicContext);
+      // build the index now, but only register it and report its findings in
+      // document order, since another subtree may define an index with the same
+      // name
+      DeferredConstraintValidationHandler indexHandler = new DeferredConstraintValidationHandler();
+      IIndex index = newIndex(constraint, node, targets, indexHandler, dynamicContext);
+      performInDocumentOrder(handler -> {
+        if (indexNameToIndexMap.containsKey(indexName)) {
+          handler.handleIndexDuplicateViolation(constraint, node, dynamicContext);
+        } else {
+          indexHandler.replay(handler);
+          indexNameToIndexMap.put(indexName, index);
+        }
+      });
+    }
+  }
+
+  @NonNull
+  private IIndex newIndex(
+      @NonNull IIndexConstraint constraint,
+      @NonNull IAssemblyNodeItem node,
+      @NonNull ISequence<? extends INodeItem> targets,
+      @NonNull IConstraintValidationHandler handler,
+      @NonNull DynamicContext dynamicContext) {
+    IIndex index = IIndex.newInstance(constraint.getKeyFields());
+    targets.stream()
+        .forEachOrdered(item -> {
+          assert item != null;
+          if (item.hasValue()) {
+            try {
+              INodeItem oldItem = index.put(item, dynamicContext);
+              if (oldItem == null) {
+                handlePass(handler, constraint, node, item, dynamicContext);
+              } else {
+                handler.handleIndexDuplicateKeyViolation(constraint, node, oldItem, item, dynamicContext);
               }
+            } catch (MetapathException ex) {
+              handler.handleKeyMatchError(constraint, node, item, ex, dynamicContext);
             }
-          });
-      indexNameToIndexMap.put(indexName, index);
-    }
+          }
+        });
+    return index;
   }
 
   private void handlePass(
@@ -365,8 +485,17 @@ public class DefaultConstraintValidator
       @NonNull INodeItem node,
       @NonNull INodeItem item,
       @NonNull DynamicContext dynamicContext) {
+    handlePass(getConstraintValidationHandler(), constraint, node, item, dynamicContext);
+  }
+
+  private void handlePass(
+      @NonNull IConstraintValidationHandler handler,
+      @NonNull IConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull INodeItem item,
+      @NonNull DynamicContext dynamicContext) {
     if (isFeatureEnabled(ValidationFeature.VALIDATE_GENERATE_PASS_FINDINGS)) {
-      getConstraintValidationHandler().handlePass(constraint, node, item, dynamicContext);
+      handler.handlePass(constraint, node, item, dynamicContext);
     }
   }
 
@@ -407,35 +536,6 @@ public class DefaultConstraintValidator
     return ObjectUtils.notNull(builder.toString());
   }
 
-  /**
-   * Evaluates the provided collection of {@code constraints} in the context of
-   * the {@code item}.
-   *
-   * @param constraints
-   *          the constraints to execute
-   * @param item
-   *          the focus of Metapath evaluation
-   * @param dynamicContext
-   *          the Metapath dynamic execution context to use for Metapath
-   *          evaluation
-   */
-  @SuppressWarnings("PMD.AvoidCatchingGenericException")
-  private void validateUnique(
-      @NonNull List<? extends IUniqueConstraint> constraints,
-      @NonNull IAssemblyNodeItem item,
-      @NonNull DynamicContext dynamicContext) {
-    for (IUniqueConstraint constraint : constraints) {
-      assert constraint != null;
-
-      try {
-        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, dynamicContext);
-        validateUnique(constraint, item, targets, dynamicContext);
-      } catch (RuntimeException ex) {
-        handleError(constraint, item, ex, dynamicContext);
-      }
-    }
-  }
-
   /**
    * Evaluates the provided {@code constraint} against each of the
    * {@code targets}.
@@ -479,36 +579,6 @@ public class DefaultConstraintValidator
         });
   }
 
-  /**
-   * Evaluates the provided collection of {@code constraints} in the context of
-   * the {@code item}.
-   *
-   * @param constraints
-   *          the constraints to execute
-   * @param item
-   *          the focus of Metapath evaluation
-   * @param dynamicContext
-   *          the Metapath dynamic execution context to use for Metapath
-   *          evaluation
-   */
-  @SuppressWarnings("PMD.AvoidCatchingGenericException")
-  private void validateMatches( // NOPMD false positive
-      @NonNull List<? extends IMatchesConstraint> constraints,
-      @NonNull IDefinitionNodeItem<?, ?> item,
-      @NonNull DynamicContext dynamicContext) {
-
-    for (IMatchesConstraint constraint : constraints) {
-      assert constraint != null;
-
-      try {
-        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, dynamicContext);
-        validateMatches(constraint, item, targets, dynamicContext);
-      } catch (RuntimeException ex) {
-        handleError(constraint, item, ex, dynamicContext);
-      }
-    }
-  }
-
   /**
    * Evaluates the provided {@code constraint} against each of the
    * {@code targets}.
@@ -541,7 +611,7 @@ public class DefaultConstraintValidator
       @NonNull INodeItem node,
       @NonNull INodeItem item,
       @NonNull DynamicContext dynamicContext) {
-    String value = item.toAtomicItem().asString();
+    String value = IAtomicValuedNodeItem.toAtomicString(item);
 
     IConstraintValidationHandler handler = getConstraintValidationHandler();
     boolean valid = true;
@@ -567,36 +637,6 @@ public class DefaultConstraintValidator
     }
   }
 
-  /**
-   * Evaluates the provided collection of {@code constraints} in the context of
-   * the {@code item}.
-   *
-   * @param constraints
-   *          the constraints to execute
-   * @param item
-   *          the focus of Metapath evaluation
-   * @param dynamicContext
-   *          the Metapath dynamic execution context to use for Metapath
-   *          evaluation
-   */
-  @SuppressWarnings("PMD.AvoidCatchingGenericException")
-  private void validateIndexHasKey( // NOPMD false positive
-      @NonNull List<? extends IIndexHasKeyConstraint> constraints,
-      @NonNull IDefinitionNodeItem<?, ?> item,
-      @NonNull DynamicContext dynamicContext) {
-
-    for (IIndexHasKeyConstraint constraint : constraints) {
-      assert constraint != null;
-
-      try {
-        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, dynamicContext);
-        validateIndexHasKey(constraint, item, targets);
-      } catch (RuntimeException ex) {
-        handleError(constraint, item, ex, dynamicContext);
-      }
-    }
-  }
-
   /**
    * Evaluates the provided {@code constraint} against each of the
    * {@code targets}.
@@ -609,49 +649,52 @@ public class DefaultConstraintValidator
    * @param targets
    *          the focus of Metapath evaluation for evaluating any constraint
    *          Metapath clauses
+   * @param dynamicContext
+   *          the Metapath dynamic execution context to use for Metapath
+   *          evaluation
    */
   private void validateIndexHasKey(
       @NonNull IIndexHasKeyConstraint constraint,
       @NonNull IDefinitionNodeItem<?, ?> node,
-      @NonNull ISequence<? extends INodeItem> targets) {
+      @NonNull ISequence<? extends INodeItem> targets,
+      @NonNull DynamicContext dynamicContext) {
     String indexName = constraint.getIndexName();
 
-    List<KeyRef> keyRefItems = indexNameToKeyRefMap.get(indexName);
-    if (keyRefItems == null) {
-      keyRefItems = new LinkedList<>();
-      indexNameToKeyRefMap.put(indexName, keyRefItems);
-    }
-
-    keyRefItems.add(new KeyRef(constraint, node, new ArrayList<>(targets)));
-  }
-
-  /**
-   * Evaluates the provided collection of {@code constraints} in the context of
-   * the {@code item}.
-   *
-   * @param constraints
-   *          the constraints to execute
-   * @param item
-   *          the focus of Metapath evaluation
-   * @param dynamicContext
-   *          the Metapath dynamic execution context to use for Metapath
-   *          evaluation
-   */
-  @SuppressWarnings("PMD.AvoidCatchingGenericException")
-  private void validateExpect(
-      @NonNull List<? extends IExpectConstraint> constraints,
-      @NonNull IDefinitionNodeItem<?, ?> item,
-      @NonNull DynamicContext dynamicContext) {
-    for (IExpectConstraint constraint : constraints) {
-      assert constraint != null;
+    // compute the keys now, so the targets' values are not needed later
+    IConstraintValidationHandler handler = getConstraintValidationHandler();
+    KeyRefContext keyRefContext = new KeyRefContext(constraint, node);
+    List<KeyRef> keyRefs = new ArrayList<>(targets.size());
+    targets.stream()
+        .forEachOrdered(item -> {
+          assert item != null;
+          try {
+            keyRefs.add(new KeyRef(
+                keyRefContext,
+                item,
+                IIndex.toKeyValues(item, constraint.getKeyFields(), dynamicContext)));
+          } catch (MetapathException ex) {
+            handler.handleKeyMatchError(constraint, node, item, ex, dynamicContext);
+          }
+        });
 
-      try {
-        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, dynamicContext);
-        validateExpect(constraint, item, targets, dynamicContext);
-      } catch (RuntimeException ex) {
-        handleError(constraint, item, ex, dynamicContext);
+    performInDocumentOrder(documentHandler -> {
+      IIndex index = indexNameToIndexMap.get(indexName);
+      if (index == null) {
+        // the index may be defined later in the document, so the key references
+        // are resolved in the order they are registered once validation is
+        // finalized
+        indexNameToKeyRefMap
+            .computeIfAbsent(indexName, key -> new ArrayList<>())
+            .addAll(keyRefs);
+      } else {
+        // a registered index is complete, so the key references can be resolved
+        // now
+        for (KeyRef keyRef : keyRefs) {
+          assert keyRef != null;
+          validateKeyRef(documentHandler, keyRef, indexName, index, dynamicContext);
+        }
       }
-    }
+    });
   }
 
   /**
@@ -684,8 +727,9 @@ public class DefaultConstraintValidator
 
             if (item.hasValue()) {
               try {
-                ISequence<?> result = metapath.evaluate(item, dynamicContext);
-                if (FnBoolean.fnBoolean(result).toBoolean()) {
+                // evaluated lazily, since only the effective boolean value is needed
+                Boolean result = metapath.evaluateAs(item, IMetapathExpression.ResultType.BOOLEAN, dynamicContext);
+                if (Boolean.TRUE.equals(result)) {
                   handlePass(constraint, node, item, dynamicContext);
                 } else {
                   handler.handleExpectViolation(constraint, node, item, dynamicContext);
@@ -700,34 +744,6 @@ public class DefaultConstraintValidator
     }
   }
 
-  /**
-   * Evaluates the provided collection of {@code constraints} in the context of
-   * the {@code item}.
-   *
-   * @param constraints
-   *          the constraints to execute
-   * @param item
-   *          the focus of Metapath evaluation
-   * @param dynamicContext
-   *          the Metapath dynamic execution context to use for Metapath
-   *          evaluation
-   */
-  @SuppressWarnings("PMD.AvoidCatchingGenericException")
-  private void validateAllowedValues(
-      @NonNull List<? extends IAllowedValuesConstraint> constraints,
-      @NonNull IDefinitionNodeItem<?, ?> item,
-      @NonNull DynamicContext dynamicContext) {
-    for (IAllowedValuesConstraint constraint : constraints) {
-      assert constraint != null;
-      try {
-        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, dynamicContext);
-        validateAllowedValues(constraint, item, targets, dynamicContext);
-      } catch (RuntimeException ex) {
-        handleError(constraint, item, ex, dynamicContext);
-      }
-    }
-  }
-
   /**
    * Evaluates the provided {@code constraint} against each of the
    * {@code targets}.
@@ -753,11 +769,15 @@ public class DefaultConstraintValidator
     targets.stream().forEachOrdered(item -> {
       assert item != null;
       if (item.hasValue()) {
-        try {
-          updateValueStatus(item, constraint, node);
-        } catch (RuntimeException ex) {
-          handleError(constraint, item, ex, dynamicContext);
-        }
+        // a target may belong to another subtree, whose values may already be
+        // checked, so the target is registered in document order
+        performInDocumentOrder(handler -> {
+          try {
+            updateValueStatus(item, constraint, node);
+          } catch (RuntimeException ex) {
+            handleError(constraint, item, ex, dynamicContext);
+          }
+        });
       }
     });
   }
@@ -803,48 +823,156 @@ public class DefaultConstraintValidator
       @NonNull INodeItem targetItem,
       @NonNull DynamicContext dynamicContext) {
     ValueStatus valueStatus = valueMap.remove(targetItem);
+
+    AllowedValuesTable contextAllowedValues = null;
+    if (targetItem instanceof IDefinitionNodeItem && targetItem.hasValue()) {
+      IDefinition definition = ((IDefinitionNodeItem<?, ?>) targetItem).getDefinition();
+      contextAllowedValues = getValidationPlan(definition).getContextAllowedValues();
+    }
+
+    if (contextAllowedValues != null) {
+      if (valueStatus == null) {
+        validateAllowedValues(contextAllowedValues, (IDefinitionNodeItem<?, ?>) targetItem, dynamicContext);
+      } else if (!valueStatus.isContextConstraintsRegistered()) {
+        // constraints targeting this node were registered while visiting its
+        // children, which must be checked after the node's own constraints
+        registerAllowedValues(
+            contextAllowedValues.getConstraints(),
+            targetItem,
+            (IDefinitionNodeItem<?, ?>) targetItem,
+            dynamicContext);
+        for (Pair<IAllowedValuesConstraint, IDefinitionNodeItem<?, ?>> pair : valueStatus.getConstraints()) {
+          registerAllowedValues(
+              CollectionUtil.singletonList(ObjectUtils.notNull(pair.getLeft())),
+              targetItem,
+              ObjectUtils.notNull(pair.getRight()),
+              dynamicContext);
+        }
+        valueStatus = valueMap.remove(targetItem);
+      }
+    }
+
     if (valueStatus != null) {
       valueStatus.validate(dynamicContext);
     }
   }
 
+  /**
+   * Register the provided allowed values constraints for the {@code targetItem}.
+   *
+   * @param constraints
+   *          the allowed values constraints to register
+   * @param targetItem
+   *          the item whose value is targeted by the constraints
+   * @param node
+   *          the original focus of Metapath evaluation for identifying the
+   *          targets
+   * @param dynamicContext
+   *          the Metapath dynamic execution context to use for Metapath
+   *          evaluation
+   */
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private void registerAllowedValues(
+      @NonNull List<IAllowedValuesConstraint> constraints,
+      @NonNull INodeItem targetItem,
+      @NonNull IDefinitionNodeItem<?, ?> node,
+      @NonNull DynamicContext dynamicContext) {
+    for (IAllowedValuesConstraint constraint : constraints) {
+      assert constraint != null;
+      try {
+        updateValueStatus(targetItem, constraint, node);
+      } catch (RuntimeException ex) {
+        handleError(constraint, targetItem, ex, dynamicContext);
+      }
+    }
+  }
+
+  /**
+   * Check the value of the {@code item} using the provided merged constraints,
+   * when no other constraints target the item.
+   *
+   * @param constraints
+   *          the merged allowed values constraints
+   * @param item
+   *          the item whose value will be validated
+   * @param dynamicContext
+   *          the Metapath dynamic execution context to use for Metapath
+   *          evaluation
+   */
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private void validateAllowedValues(
+      @NonNull AllowedValuesTable constraints,
+      @NonNull IDefinitionNodeItem<?, ?> item,
+      @NonNull DynamicContext dynamicContext) {
+    AllowedValuesTable.Outcome outcome;
+    try {
+      outcome = constraints.lookup(IAtomicValuedNodeItem.toAtomicString(item));
+    } catch (RuntimeException ex) {
+      for (IAllowedValuesConstraint constraint : constraints.getConstraints()) {
+        assert constraint != null;
+        handleError(constraint, item, ex, dynamicContext);
+      }
+      outcome = null;
+    }
+
+    if (outcome != null) {
+      for (IAllowedValuesConstraint constraint : outcome.getPassed()) {
+        assert constraint != null;
+        handlePass(constraint, item, item, dynamicContext);
+      }
+
+      List<IAllowedValuesConstraint> failedConstraints = outcome.getFailed();
+      if (!failedConstraints.isEmpty()) {
+        getConstraintValidationHandler().handleAllowedValuesViolation(failedConstraints, item, dynamicContext);
+      }
+    }
+  }
+
   @SuppressWarnings("PMD.AvoidCatchingGenericException")
   @Override
   public void finalizeValidation(DynamicContext dynamicContext) {
-    // key references
+    // key references to indexes that were not registered when the reference was
+    // validated
+    IConstraintValidationHandler handler = getConstraintValidationHandler();
     for (Map.Entry<String, List<KeyRef>> entry : indexNameToKeyRefMap.entrySet()) {
       String indexName = ObjectUtils.notNull(entry.getKey());
       IIndex index = indexNameToIndexMap.get(indexName);
 
-      List<KeyRef> keyRefs = entry.getValue();
+      for (KeyRef keyRef : entry.getValue()) {
+        assert keyRef != null;
+        validateKeyRef(handler, keyRef, indexName, index, dynamicContext);
+      }
+    }
+    indexNameToKeyRefMap.clear();
 
-      for (KeyRef keyRef : keyRefs) {
-        IIndexHasKeyConstraint constraint = keyRef.getConstraint();
+    releaseValueCaches();
+  }
 
-        INodeItem node = keyRef.getNode();
-        List<INodeItem> targets = keyRef.getTargets();
-        for (INodeItem item : targets) {
-          assert item != null;
-          try {
-            validateKeyRef(constraint, node, item, indexName, index, dynamicContext);
-          } catch (RuntimeException ex) {
-            handleError(constraint, item, ex, dynamicContext);
-          }
-        }
+  /**
+   * Release the atomic values cached by the validated nodes, if enabled by
+   * {@link ValidationFeature#VALIDATE_RELEASE_VALUE_CACHES}.
+   */
+  private void releaseValueCaches() {
+    synchronized (validatedItems) {
+      for (INodeItem item : validatedItems) {
+        IAtomicValuedNodeItem.releaseValueCaches(ObjectUtils.notNull(item));
       }
+      validatedItems.clear();
     }
   }
 
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
   private void validateKeyRef(
-      @NonNull IIndexHasKeyConstraint constraint,
-      @NonNull INodeItem contextNode,
-      @NonNull INodeItem item,
+      @NonNull IConstraintValidationHandler handler,
+      @NonNull KeyRef keyRef,
       @NonNull String indexName,
       @Nullable IIndex index,
       @NonNull DynamicContext dynamicContext) {
-    IConstraintValidationHandler handler = getConstraintValidationHandler();
+    IIndexHasKeyConstraint constraint = keyRef.getConstraint();
+    INodeItem contextNode = keyRef.getNode();
+    INodeItem item = keyRef.getTarget();
     try {
-      List<String> key = IIndex.toKey(item, constraint.getKeyFields(), dynamicContext);
+      List<String> key = keyRef.getKey();
 
       if (index == null) {
         handler.handleMissingIndexViolation(
@@ -860,11 +988,11 @@ public class DefaultConstraintValidator
         if (referencedItem == null) {
           handler.handleIndexMiss(constraint, contextNode, item, key, dynamicContext);
         } else {
-          handlePass(constraint, contextNode, item, dynamicContext);
+          handlePass(handler, constraint, contextNode, item, dynamicContext);
         }
       }
-    } catch (MetapathException ex) {
-      handler.handleKeyMatchError(constraint, contextNode, item, ex, dynamicContext);
+    } catch (RuntimeException ex) {
+      handler.handleError(constraint, item, toErrorMessage(constraint, item, ex), ex, dynamicContext);
     }
   }
 
@@ -878,10 +1006,41 @@ public class DefaultConstraintValidator
     private boolean allowOthers = true;
     @NonNull
     private IAllowedValuesConstraint.Extensible extensible = IAllowedValuesConstraint.Extensible.EXTERNAL;
+    private boolean contextConstraintsRegistered;
 
     public ValueStatus(@NonNull INodeItem item) {
       this.item = item;
-      this.value = item.toAtomicItem().asString();
+      this.value = IAtomicValuedNodeItem.toAtomicString(item);
+    }
+
+    /**
+     * Get the registered constraints, along with the node each constraint was
+     * evaluated against.
+     *
+     * @return the registered constraints
+     */
+    @NonNull
+    public List<Pair<IAllowedValuesConstraint, IDefinitionNodeItem<?, ?>>> getConstraints() {
+      return CollectionUtil.unmodifiableList(constraints);
+    }
+
+    /**
+     * Record that the merged allowed values constraints targeting the node
+     * itself have been registered.
+     */
+    public void markContextConstraintsRegistered() {
+      contextConstraintsRegistered = true;
+    }
+
+    /**
+     * Determine if the merged allowed values constraints targeting the node
+     * itself have been registered.
+     *
+     * @return {@code true} if these constraints have been registered, or
+     *         {@code false} otherwise
+     */
+    public boolean isContextConstraintsRegistered() {
+      return contextConstraintsRegistered;
     }
 
     public void registerAllowedValue(
@@ -990,7 +1149,7 @@ public class DefaultConstraintValidator
 
       validateFlag(item, effectiveContext);
       super.visitFlag(item, effectiveContext);
-      handleAllowedValues(item, context);
+      performInDocumentOrder(handler -> handleAllowedValues(item, context));
       return null;
     }
 
@@ -1003,7 +1162,7 @@ public class DefaultConstraintValidator
 
       validateField(item, effectiveContext);
       super.visitField(item, effectiveContext);
-      handleAllowedValues(item, context);
+      performInDocumentOrder(handler -> handleAllowedValues(item, context));
       return null;
     }
 
@@ -1031,36 +1190,246 @@ public class DefaultConstraintValidator
     }
   }
 
-  private static class KeyRef {
+  /**
+   * The targets of a constraint, along with the node they were evaluated
+   * against.
+   */
+  private static final class TargetedItems {
+    @NonNull
+    private final IDefinitionNodeItem<?, ?> node;
+    @NonNull
+    private final ISequence<? extends IDefinitionNodeItem<?, ?>> targets;
+    @NonNull
+    private final DynamicContext dynamicContext;
+
+    private TargetedItems(
+        @NonNull IDefinitionNodeItem<?, ?> node,
+        @NonNull ISequence<? extends IDefinitionNodeItem<?, ?>> targets,
+        @NonNull DynamicContext dynamicContext) {
+      this.node = node;
+      this.targets = targets;
+      this.dynamicContext = dynamicContext;
+    }
+
+    @NonNull
+    public IDefinitionNodeItem<?, ?> getNode() {
+      return node;
+    }
+
+    @NonNull
+    public IAssemblyNodeItem getAssemblyNode() {
+      // model constraints are only defined on assemblies
+      return (IAssemblyNodeItem) node;
+    }
+
+    @NonNull
+    public ISequence<? extends IDefinitionNodeItem<?, ?>> getTargets() {
+      return targets;
+    }
+
+    @NonNull
+    public DynamicContext getDynamicContext() {
+      return dynamicContext;
+    }
+  }
+
+  /**
+   * Evaluates a constraint against its already matched targets.
+   */
+  private final class ConstraintExecutor
+      implements IConstraintVisitor<TargetedItems, Void> {
+
+    @Override
+    public Void visitAllowedValues(IAllowedValuesConstraint constraint, TargetedItems state) {
+      validateAllowedValues(constraint, state.getNode(), state.getTargets(), state.getDynamicContext());
+      return null;
+    }
+
+    @Override
+    public Void visitCardinalityConstraint(ICardinalityConstraint constraint, TargetedItems state) {
+      validateHasCardinality(constraint, state.getAssemblyNode(), state.getTargets(), state.getDynamicContext());
+      return null;
+    }
+
+    @Override
+    public Void visitExpectConstraint(IExpectConstraint constraint, TargetedItems state) {
+      validateExpect(constraint, state.getNode(), state.getTargets(), state.getDynamicContext());
+      return null;
+    }
+
+    @Override
+    public Void visitMatchesConstraint(IMatchesConstraint constraint, TargetedItems state) {
+      validateMatches(constraint, state.getNode(), state.getTargets(), state.getDynamicContext());
+      return null;
+    }
+
+    @Override
+    public Void visitIndexConstraint(IIndexConstraint constraint, TargetedItems state) {
+      validateIndex(constraint, state.getAssemblyNode(), state.getTargets(), state.getDynamicContext());
+      return null;
+    }
+
+    @Override
+    public Void visitIndexHasKeyConstraint(IIndexHasKeyConstraint constraint, TargetedItems state) {
+      validateIndexHasKey(constraint, state.getNode(), state.getTargets(), state.getDynamicContext());
+      return null;
+    }
+
+    @Override
+    public Void visitUniqueConstraint(IUniqueConstraint constraint, TargetedItems state) {
+      validateUnique(constraint, state.getAssemblyNode(), state.getTargets(), state.getDynamicContext());
+      return null;
+    }
+  }
+
+  /**
+   * A visitor that validates the child assemblies of each node as separate
+   * tasks, which may be performed concurrently.
+   * <p>
+   * The visitor is used within a {@link SubtreeTask}, so the findings of the
+   * current node are recorded by the task's handler. A placeholder is recorded
+   * for each child task, which ensures the child's findings are replayed in
+   * document order.
+   */
+  private final class ParallelVisitor
+      extends Visitor {
+
+    @Override
+    protected Void visitModelChildren(@NonNull INodeItem item, DynamicContext context) {
+      assert context != null;
+
+      List<SubtreeTask> tasks = new ArrayList<>();
+      for (List<? extends IModelNodeItem<?, ?>> childItems : item.getModelItems()) {
+        for (IModelNodeItem<?, ?> childItem : childItems) {
+          assert childItem != null;
+          if (childItem instanceof IAssemblyNodeItem) {
+            // each task uses a forked context, since tasks evaluate concurrently
+            SubtreeTask task = new SubtreeTask(childItem, context.fork());
+            performInDocumentOrder(task::replay);
+            task.fork();
+            tasks.add(task);
+          } else {
+            // fields are small, so validate them in the current task
+            childItem.accept(this, context);
+          }
+        }
+      }
+
+      for (SubtreeTask task : tasks) {
+        task.join();
+      }
+      return null;
+    }
+  }
+
+  /**
+   * A task that validates a subtree, recording its findings for replay in
+   * document order.
+   */
+  private final class SubtreeTask
+      extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    @NonNull
+    private final transient INodeItem item;
+    @NonNull
+    private final transient DynamicContext dynamicContext;
+    @NonNull
+    private final transient DeferredConstraintValidationHandler findings = new DeferredConstraintValidationHandler();
+
+    private SubtreeTask(@NonNull INodeItem item, @NonNull DynamicContext dynamicContext) {
+      this.item = item;
+      this.dynamicContext = dynamicContext;
+    }
+
+    @Override
+    protected void compute() {
+      // the current thread may be performing another task that is waiting on a
+      // join, so restore that task's handler once this task completes
+      DeferredConstraintValidationHandler previous = subtreeHandler.get();
+      subtreeHandler.set(findings);
+      try {
+        item.accept(new ParallelVisitor(), dynamicContext);
+      } finally {
+        if (previous == null) {
+          subtreeHandler.remove();
+        } else {
+          subtreeHandler.set(previous);
+        }
+      }
+    }
+
+    /**
+     * Replay the findings of this subtree to the provided handler.
+     *
+     * @param handler
+     *          the handler to replay the findings to
+     */
+    public void replay(@NonNull IConstraintValidationHandler handler) {
+      findings.replay(handler);
+    }
+  }
+
+  /**
+   * The constraint and the node it was evaluated against, which are shared by
+   * the key references to each of the constraint's targets.
+   */
+  private static final class KeyRefContext {
     @NonNull
     private final IIndexHasKeyConstraint constraint;
     @NonNull
     private final INodeItem node;
+
+    private KeyRefContext(@NonNull IIndexHasKeyConstraint constraint, @NonNull INodeItem node) {
+      this.constraint = constraint;
+      this.node = node;
+    }
+  }
+
+  /**
+   * A reference to a key in a named index, whose key has already been computed.
+   * <p>
+   * A pending reference to an index that is not registered yet retains its
+   * target node, along with the context node it shares with the other targets
+   * of the same constraint, until validation is finalized. These nodes are
+   * needed to report findings, so the document they belong to remains reachable
+   * while such references are pending.
+   */
+  private static class KeyRef {
     @NonNull
-    private final List<INodeItem> targets;
+    private final KeyRefContext context;
+    @NonNull
+    private final INodeItem target;
+    @NonNull
+    private final String[] key;
 
     public KeyRef(
-        @NonNull IIndexHasKeyConstraint constraint,
-        @NonNull INodeItem node,
-        @NonNull List<INodeItem> targets) {
-      this.node = node;
-      this.constraint = constraint;
-      this.targets = targets;
+        @NonNull KeyRefContext context,
+        @NonNull INodeItem target,
+        @NonNull String[] key) {
+      this.context = context;
+      this.target = target;
+      this.key = key;
     }
 
     @NonNull
     public IIndexHasKeyConstraint getConstraint() {
-      return constraint;
+      return context.constraint;
     }
 
     @NonNull
     protected INodeItem getNode() {
-      return node;
+      return context.node;
     }
 
     @NonNull
-    public List<INodeItem> getTargets() {
-      return targets;
+    public INodeItem getTarget() {
+      return target;
+    }
+
+    @NonNull
+    public List<String> getKey() {
+      return CollectionUtil.unmodifiableList(ObjectUtils.notNull(Arrays.asList(key)));
     }
   }
 }
@@ -0,0 +1,200 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.MetapathException;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A validation handler that records the handler calls made during the
+ * validation of a subtree, so that they can be replayed to another handler
+ * later.
+ * <p>
+ * This allows subtrees to be validated concurrently, while the findings are
+ * delivered to the target handler on a single thread in document order.
+ * <p>
+ * This class is not thread safe. Each instance is confined to the task
+ * validating a single subtree.
+ */
+final class DeferredConstraintValidationHandler implements IConstraintValidationHandler {
+  @NonNull
+  private final List<Consumer<IConstraintValidationHandler>> actions = new ArrayList<>();
+
+  /**
+   * Record an action to perform when this handler is replayed.
+   *
+   * @param action
+   *          the action, which is passed the handler being replayed to
+   */
+  public void record(@NonNull Consumer<IConstraintValidationHandler> action) {
+    actions.add(action);
+  }
+
+  /**
+   * Perform the recorded actions, in the order they were recorded, using the
+   * provided handler.
+   *
+   * @param handler
+   *          the handler to replay the recorded calls to
+   */
+  public void replay(@NonNull IConstraintValidationHandler handler) {
+    for (Consumer<IConstraintValidationHandler> action : actions) {
+      action.accept(handler);
+    }
+  }
+
+  @Override
+  public void handleCardinalityMinimumViolation(
+      ICardinalityConstraint constraint,
+      INodeItem target,
+      ISequence<? extends INodeItem> testedItems,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleCardinalityMinimumViolation(constraint, target, testedItems, dynamicContext));
+  }
+
+  @Override
+  public void handleCardinalityMaximumViolation(
+      ICardinalityConstraint constraint,
+      INodeItem target,
+      ISequence<? extends INodeItem> testedItems,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleCardinalityMaximumViolation(constraint, target, testedItems, dynamicContext));
+  }
+
+  @Override
+  public void handleIndexDuplicateViolation(
+      IIndexConstraint constraint,
+      INodeItem node,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleIndexDuplicateViolation(constraint, node, dynamicContext));
+  }
+
+  @Override
+  public void handleIndexDuplicateKeyViolation(
+      IIndexConstraint constraint,
+      INodeItem node,
+      INodeItem oldItem,
+      INodeItem target,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleIndexDuplicateKeyViolation(constraint, node, oldItem, target, dynamicContext));
+  }
+
+  @Override
+  public void handleUniqueKeyViolation(
+      IUniqueConstraint constraint,
+      INodeItem node,
+      INodeItem oldItem,
+      INodeItem target,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleUniqueKeyViolation(constraint, node, oldItem, target, dynamicContext));
+  }
+
+  @Override
+  public void handleKeyMatchError(
+      IKeyConstraint constraint,
+      INodeItem node,
+      INodeItem target,
+      MetapathException exception,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleKeyMatchError(constraint, node, target, exception, dynamicContext));
+  }
+
+  @Override
+  public void handleMissingIndexViolation(
+      IIndexHasKeyConstraint constraint,
+      INodeItem node,
+      INodeItem target,
+      String message,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleMissingIndexViolation(constraint, node, target, message, dynamicContext));
+  }
+
+  @Override
+  public void handleIndexMiss(
+      IIndexHasKeyConstraint constraint,
+      INodeItem node,
+      INodeItem target,
+      List<String> key,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleIndexMiss(constraint, node, target, key, dynamicContext));
+  }
+
+  @Override
+  public void handleMatchPatternViolation(
+      IMatchesConstraint constraint,
+      INodeItem node,
+      INodeItem target,
+      String value,
+      Pattern pattern,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleMatchPatternViolation(constraint, node, target, value, pattern, dynamicContext));
+  }
+
+  @Override
+  public void handleMatchDatatypeViolation(
+      IMatchesConstraint constraint,
+      INodeItem node,
+      INodeItem target,
+      String value,
+      IDataTypeAdapter<?> adapter,
+      IllegalArgumentException cause,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleMatchDatatypeViolation(
+        constraint,
+        node,
+        target,
+        value,
+        adapter,
+        cause,
+        dynamicContext));
+  }
+
+  @Override
+  public void handleExpectViolation(
+      IExpectConstraint constraint,
+      INodeItem node,
+      INodeItem target,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleExpectViolation(constraint, node, target, dynamicContext));
+  }
+
+  @Override
+  public void handleAllowedValuesViolation(
+      List<IAllowedValuesConstraint> failedConstraints,
+      INodeItem target,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleAllowedValuesViolation(failedConstraints, target, dynamicContext));
+  }
+
+  @Override
+  public void handlePass(
+      IConstraint constraint,
+      INodeItem node,
+      INodeItem target,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handlePass(constraint, node, target, dynamicContext));
+  }
+
+  @Override
+  public void handleError(
+      IConstraint constraint,
+      INodeItem node,
+      String message,
+      Throwable exception,
+      DynamicContext dynamicContext) {
+    record(handler -> handler.handleError(constraint, node, message, exception, dynamicContext));
+  }
+}
@@ -9,17 +9,18 @@ import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
 import gov.nist.secauto.metaschema.core.metapath.MetapathException;
 import gov.nist.secauto.metaschema.core.metapath.item.IItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IAtomicValuedNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.metapath.type.InvalidTypeMetapathException;
-import gov.nist.secauto.metaschema.core.model.constraint.impl.DefaultIndex;
+import gov.nist.secauto.metaschema.core.model.constraint.impl.CompositeKeyIndex;
+import gov.nist.secauto.metaschema.core.model.constraint.impl.SingleKeyIndex;
 import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -36,7 +37,10 @@ public interface IIndex {
    */
   @NonNull
   static IIndex newInstance(@NonNull List<? extends IKeyField> keyFields) {
-    return new DefaultIndex(keyFields);
+    // use a layout specialized to the number of key fields
+    return keyFields.size() == 1
+        ? new SingleKeyIndex(keyFields)
+        : new CompositeKeyIndex(keyFields);
   }
 
   /**
@@ -135,12 +139,31 @@ public interface IIndex {
   static List<String> toKey(@NonNull INodeItem item, @NonNull List<? extends IKeyField> keyFields,
       @NonNull DynamicContext dynamicContext) {
     return CollectionUtil.unmodifiableList(
-        ObjectUtils.notNull(keyFields.stream()
-            .map(keyField -> {
-              assert keyField != null;
-              return buildKeyItem(item, keyField, dynamicContext);
-            })
-            .collect(Collectors.toCollection(ArrayList::new))));
+        ObjectUtils.notNull(Arrays.asList(toKeyValues(item, keyFields, dynamicContext))));
+  }
+
+  /**
+   * Construct the values of a key by evaluating the provided key field
+   * components against the provided item.
+   *
+   * @param item
+   *          the item to generate the key from
+   * @param keyFields
+   *          the key field components used to generate the key
+   * @param dynamicContext
+   *          the Metapath evaluation context
+   * @return a new array of key values, which may contain {@code null} values
+   */
+  @NonNull
+  static String[] toKeyValues(@NonNull INodeItem item, @NonNull List<? extends IKeyField> keyFields,
+      @NonNull DynamicContext dynamicContext) {
+    String[] retval = new String[keyFields.size()];
+    int index = 0;
+    for (IKeyField keyField : keyFields) {
+      assert keyField != null;
+      retval[index++] = toKeyValue(item, keyField, dynamicContext);
+    }
+    return retval;
   }
 
   /**
@@ -156,7 +179,7 @@ public interface IIndex {
    * @return the key value or {@code null} if the evaluation resulted in no value
    */
   @Nullable
-  private static String buildKeyItem(
+  static String toKeyValue(
       @NonNull INodeItem item,
       @NonNull IKeyField keyField,
       @NonNull DynamicContext dynamicContext) {
@@ -171,7 +194,7 @@ public interface IIndex {
 
     String keyValue = null;
     if (keyItem != null) {
-      keyValue = keyItem.toAtomicItem().asString();
+      keyValue = IAtomicValuedNodeItem.toAtomicString(keyItem);
       assert keyValue != null;
       Pattern pattern = keyField.getPattern();
       if (pattern != null) {
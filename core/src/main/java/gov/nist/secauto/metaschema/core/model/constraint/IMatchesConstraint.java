@@ -6,6 +6,7 @@
 package gov.nist.secauto.metaschema.core.model.constraint;
 
 import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
+import gov.nist.secauto.metaschema.core.metapath.function.regex.RegexPatternCache;
 import gov.nist.secauto.metaschema.core.model.constraint.impl.DefaultMatchesConstraint;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
@@ -76,7 +77,7 @@ public interface IMatchesConstraint extends IConfigurableMessageConstraint {
      * @return this builder
      */
     public Builder regex(@NonNull String pattern) {
-      return regex(ObjectUtils.notNull(Pattern.compile(pattern)));
+      return regex(RegexPatternCache.instance().get(pattern, 0));
     }
 
     /**
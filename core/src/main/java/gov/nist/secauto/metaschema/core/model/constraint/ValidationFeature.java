@@ -19,6 +19,27 @@ public final class ValidationFeature<V>
   public static final ValidationFeature<Boolean> VALIDATE_GENERATE_PASS_FINDINGS
       = new ValidationFeature<>("include-pass-findings", Boolean.class, false);
 
+  /**
+   * If enabled, release the atomic values cached by the validated nodes once
+   * validation is finalized, reducing the memory retained by the validated
+   * document.
+   */
+  @NonNull
+  public static final ValidationFeature<Boolean> VALIDATE_RELEASE_VALUE_CACHES
+      = new ValidationFeature<>("release-value-caches", Boolean.class, false);
+
+  /**
+   * The number of threads to use to validate a document. If greater than
+   * {@code 1}, independent subtrees of the document are validated concurrently.
+   * <p>
+   * Findings are reported to the validation handler in document order on the
+   * thread that requested validation, so the handler does not need to be thread
+   * safe.
+   */
+  @NonNull
+  public static final ValidationFeature<Integer> VALIDATE_PARALLELISM
+      = new ValidationFeature<>("parallelism", Integer.class, 1);
+
   private ValidationFeature(
       @NonNull String name,
       @NonNull Class<V> valueClass,
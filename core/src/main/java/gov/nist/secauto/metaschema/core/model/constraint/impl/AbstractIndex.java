@@ -5,7 +5,6 @@
 
 package gov.nist.secauto.metaschema.core.model.constraint.impl;
 
-import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.model.constraint.ConstraintInitializationException;
 import gov.nist.secauto.metaschema.core.model.constraint.IIndex;
 import gov.nist.secauto.metaschema.core.model.constraint.IKeyField;
@@ -13,17 +12,16 @@ import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
-public class DefaultIndex implements IIndex {
+/**
+ * Provides common support for index implementations.
+ */
+public abstract class AbstractIndex implements IIndex {
   @NonNull
   private final List<IKeyField> keyFields;
-  @NonNull
-  private final Map<List<String>, INodeItem> keyToItemMap = new ConcurrentHashMap<>();
 
   /**
    * Construct a new index.
@@ -31,7 +29,7 @@ public class DefaultIndex implements IIndex {
    * @param keyFields
    *          the key field components to use to generate keys by default
    */
-  public DefaultIndex(@NonNull List<? extends IKeyField> keyFields) {
+  protected AbstractIndex(@NonNull List<? extends IKeyField> keyFields) {
     this.keyFields = CollectionUtil.unmodifiableList(new ArrayList<>(keyFields));
   }
 
@@ -40,18 +38,15 @@ public class DefaultIndex implements IIndex {
     return keyFields;
   }
 
-  @Override
-  public INodeItem put(@NonNull INodeItem item, @NonNull List<String> key) {
-    INodeItem oldItem = null;
-    if (!IIndex.isAllNulls(key)) {
-      // only add keys with some information (values)
-      oldItem = keyToItemMap.put(key, item);
-    }
-    return oldItem;
-  }
-
-  @Override
-  public INodeItem get(List<String> key) {
+  /**
+   * Ensure the provided key has a value for each of the index's key fields.
+   *
+   * @param key
+   *          the key to check
+   * @throws ConstraintInitializationException
+   *           if the key is not the required size
+   */
+  protected void checkKeySize(@NonNull List<String> key) {
     int requiredSize = getKeyFields().size();
     if (requiredSize != key.size()) {
       throw new ConstraintInitializationException(
@@ -61,6 +56,5 @@ public class DefaultIndex implements IIndex {
                   .collect(Collectors.joining(",", "{", "}")),
               requiredSize));
     }
-    return keyToItemMap.get(key);
   }
 }
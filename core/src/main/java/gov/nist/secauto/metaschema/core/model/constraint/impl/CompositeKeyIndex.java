@@ -0,0 +1,109 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint.impl;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+import gov.nist.secauto.metaschema.core.model.constraint.IIndex;
+import gov.nist.secauto.metaschema.core.model.constraint.IKeyField;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * An index whose keys are formed from any number of key fields.
+ * <p>
+ * Each key is stored as a fixed-size array of key values along with its
+ * precomputed hash code, which avoids retaining a key list for each indexed
+ * item and rehashing the key values on each map access.
+ */
+public class CompositeKeyIndex
+    extends AbstractIndex {
+  @NonNull
+  private final Map<CompositeKey, INodeItem> keyToItemMap = new ConcurrentHashMap<>();
+
+  /**
+   * Construct a new index.
+   *
+   * @param keyFields
+   *          the key field components to use to generate keys by default
+   */
+  public CompositeKeyIndex(@NonNull List<? extends IKeyField> keyFields) {
+    super(keyFields);
+  }
+
+  @Override
+  public INodeItem put(@NonNull INodeItem item, @NonNull DynamicContext dynamicContext) {
+    return put(item, IIndex.toKeyValues(item, getKeyFields(), dynamicContext));
+  }
+
+  @Override
+  public INodeItem put(@NonNull INodeItem item, @NonNull List<String> key) {
+    checkKeySize(key);
+    return put(item, key.toArray(new String[0]));
+  }
+
+  @Nullable
+  private INodeItem put(@NonNull INodeItem item, @NonNull String[] key) {
+    // only add keys with some information (values)
+    return CompositeKey.isAllNulls(key) ? null : keyToItemMap.put(new CompositeKey(key), item);
+  }
+
+  @Override
+  public INodeItem get(@NonNull INodeItem item, @NonNull DynamicContext dynamicContext) {
+    return keyToItemMap.get(new CompositeKey(IIndex.toKeyValues(item, getKeyFields(), dynamicContext)));
+  }
+
+  @Override
+  public INodeItem get(List<String> key) {
+    checkKeySize(key);
+    return keyToItemMap.get(new CompositeKey(key.toArray(new String[0])));
+  }
+
+  private static final class CompositeKey {
+    @NonNull
+    private final String[] values;
+    private final int hash;
+
+    private CompositeKey(@NonNull String[] values) {
+      this.values = values;
+      this.hash = Arrays.hashCode(values);
+    }
+
+    private static boolean isAllNulls(@NonNull String[] values) {
+      boolean retval = true;
+      for (String value : values) {
+        if (value != null) {
+          retval = false;
+          break;
+        }
+      }
+      return retval;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof CompositeKey)) {
+        return false;
+      }
+      CompositeKey other = (CompositeKey) obj;
+      return hash == other.hash && Arrays.equals(values, other.values);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint.impl;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+import gov.nist.secauto.metaschema.core.model.constraint.IIndex;
+import gov.nist.secauto.metaschema.core.model.constraint.IKeyField;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * An index whose keys are formed from a single key field.
+ * <p>
+ * The key value is used directly as the map key, avoiding the creation of a
+ * key list for each indexed item.
+ */
+public class SingleKeyIndex
+    extends AbstractIndex {
+  @NonNull
+  private final IKeyField keyField;
+  @NonNull
+  private final Map<String, INodeItem> keyToItemMap = new ConcurrentHashMap<>();
+
+  /**
+   * Construct a new index.
+   *
+   * @param keyFields
+   *          the key field components to use to generate keys by default, which
+   *          must contain a single key field
+   */
+  public SingleKeyIndex(@NonNull List<? extends IKeyField> keyFields) {
+    super(keyFields);
+    if (keyFields.size() != 1) {
+      throw new IllegalArgumentException(
+          String.format("Expected a single key field, but found '%d'.", keyFields.size()));
+    }
+    this.keyField = ObjectUtils.requireNonNull(keyFields.get(0));
+  }
+
+  @Override
+  public INodeItem put(@NonNull INodeItem item, @NonNull DynamicContext dynamicContext) {
+    return put(item, IIndex.toKeyValue(item, keyField, dynamicContext));
+  }
+
+  @Override
+  public INodeItem put(@NonNull INodeItem item, @NonNull List<String> key) {
+    checkKeySize(key);
+    return put(item, key.get(0));
+  }
+
+  private INodeItem put(@NonNull INodeItem item, String key) {
+    // only add keys with some information (values)
+    return key == null ? null : keyToItemMap.put(key, item);
+  }
+
+  @Override
+  public INodeItem get(@NonNull INodeItem item, @NonNull DynamicContext dynamicContext) {
+    return get(IIndex.toKeyValue(item, keyField, dynamicContext));
+  }
+
+  @Override
+  public INodeItem get(List<String> key) {
+    checkKeySize(key);
+    return get(key.get(0));
+  }
+
+  private INodeItem get(String key) {
+    return key == null ? null : keyToItemMap.get(key);
+  }
+}
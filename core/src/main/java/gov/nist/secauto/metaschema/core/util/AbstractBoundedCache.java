@@ -0,0 +1,109 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.function.Function;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A base class for a bounded, thread-safe cache of immutable values that are
+ * expensive to compute.
+ * <p>
+ * Once the maximum size is reached, the least valuable entries are evicted.
+ * Failures to compute a value are not cached.
+ *
+ * @param <K>
+ *          the Java type of the cache keys
+ * @param <V>
+ *          the Java type of the cached values
+ */
+public abstract class AbstractBoundedCache<K, V> {
+  @NonNull
+  private final Cache<K, V> cache;
+
+  /**
+   * Construct a new cache.
+   *
+   * @param maximumSize
+   *          the maximum number of values to retain, after which the least
+   *          valuable entries will be evicted
+   */
+  protected AbstractBoundedCache(long maximumSize) {
+    this.cache = ObjectUtils.notNull(Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .recordStats()
+        .<K, V>build());
+  }
+
+  /**
+   * Get the value for the provided key, computing the value using the provided
+   * {@code loader} if it is not already cached.
+   *
+   * @param key
+   *          the cache key
+   * @param loader
+   *          the function used to compute the value on a cache miss
+   * @return the value
+   */
+  @NonNull
+  protected V get(@NonNull K key, @NonNull Function<? super K, ? extends V> loader) {
+    return ObjectUtils.notNull(cache.get(key, loader));
+  }
+
+  /**
+   * Change the maximum number of values to retain.
+   * <p>
+   * Setting the maximum size to {@code 0} effectively disables caching.
+   *
+   * @param maximumSize
+   *          the new maximum size
+   */
+  public void setMaximumSize(long maximumSize) {
+    cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumSize));
+  }
+
+  /**
+   * Get the maximum number of values to retain.
+   *
+   * @return the maximum size
+   */
+  public long getMaximumSize() {
+    return cache.policy().eviction()
+        .map(eviction -> eviction.getMaximum())
+        .orElse(Long.MAX_VALUE);
+  }
+
+  /**
+   * Get the approximate number of values currently cached.
+   *
+   * @return the number of cached values
+   */
+  public long size() {
+    return cache.estimatedSize();
+  }
+
+  /**
+   * Get a snapshot of the hit, miss, and eviction statistics for this cache.
+   *
+   * @return the statistics
+   */
+  @NonNull
+  public CacheStats getStatistics() {
+    return ObjectUtils.notNull(cache.stats());
+  }
+
+  /**
+   * Discard all cached values.
+   */
+  public void clear() {
+    cache.invalidateAll();
+  }
+}
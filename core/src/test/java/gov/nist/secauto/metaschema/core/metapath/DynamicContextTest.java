@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class DynamicContextTest {
+  @Test
+  void testForkIsolatesVariablesAndConfiguration() {
+    IEnhancedQName name = IEnhancedQName.of("x");
+    DynamicContext context = new DynamicContext()
+        .bindVariableValue(name, ISequence.of(IIntegerItem.ONE));
+    DynamicContext fork = context.fork()
+        .disablePredicateEvaluation()
+        .bindVariableValue(IEnhancedQName.of("y"), ISequence.of(IIntegerItem.ZERO));
+
+    assertAll(
+        () -> assertSame(context.getStaticContext(), fork.getStaticContext()),
+        () -> assertEquals(context.getCurrentDateTime(), fork.getCurrentDateTime()),
+        () -> assertEquals(ISequence.of(IIntegerItem.ONE), fork.getVariableValue(name)),
+        () -> assertThrows(StaticMetapathException.class,
+            () -> context.getVariableValue(IEnhancedQName.of("y"))),
+        () -> assertTrue(context.getConfiguration()
+            .isFeatureEnabled(MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES)),
+        () -> assertFalse(fork.getConfiguration()
+            .isFeatureEnabled(MetapathEvaluationFeature.METAPATH_EVALUATE_PREDICATES)));
+  }
+
+  @Test
+  void testSubContextVariableScoping() {
+    IEnhancedQName nameX = IEnhancedQName.of("x");
+    IEnhancedQName nameY = IEnhancedQName.of("y");
+    DynamicContext context = new DynamicContext()
+        .bindVariableValue(nameX, ISequence.of(IIntegerItem.ONE));
+    DynamicContext subContext = context.subContext()
+        .bindVariableValue(nameY, ISequence.of(IIntegerItem.ONE))
+        .bindVariableValue(nameX, ISequence.of(IIntegerItem.ZERO));
+    DynamicContext nested = subContext.subContext();
+
+    // re-binding replaces the sub-context's own binding
+    for (int i = 2; i < 5; i++) {
+      subContext.bindVariableValue(nameY, ISequence.of(IIntegerItem.valueOf(i)));
+    }
+
+    assertAll(
+        () -> assertEquals(ISequence.of(IIntegerItem.ONE), context.getVariableValue(nameX)),
+        () -> assertThrows(StaticMetapathException.class, () -> context.getVariableValue(nameY)),
+        () -> assertEquals(ISequence.of(IIntegerItem.ZERO), subContext.getVariableValue(nameX)),
+        () -> assertEquals(ISequence.of(IIntegerItem.valueOf(4)), subContext.getVariableValue(nameY)),
+        // bindings made after a sub-context is created are not visible to it
+        () -> assertEquals(ISequence.of(IIntegerItem.ONE), nested.getVariableValue(nameY)));
+  }
+
+  @Test
+  void testConcurrentEvaluation() throws InterruptedException, ExecutionException {
+    IMetapathExpression expression = IMetapathExpression.compile("sum(for $i in 1 to 100 return $i * $i)");
+    DynamicContext context = new DynamicContext();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<BigDecimal>> results = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        DynamicContext fork = context.fork();
+        results.add(executor.submit(
+            () -> expression.evaluateAs(null, IMetapathExpression.ResultType.NUMBER, fork)));
+      }
+
+      for (Future<BigDecimal> result : results) {
+        assertEquals(0, BigDecimal.valueOf(338_350).compareTo(result.get()));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertTrue(context.getExecutionStack().isEmpty());
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class MetapathExpressionCacheTest {
+
+  @Test
+  void testCacheHit() {
+    MetapathExpressionCache cache = new MetapathExpressionCache(10);
+    StaticContext staticContext = StaticContext.instance();
+
+    MetapathExpression first = cache.get("1 + 1", staticContext, MetapathExpression::compileUncached);
+    MetapathExpression second = cache.get("1 + 1", staticContext, MetapathExpression::compileUncached);
+
+    assertAll(
+        () -> assertSame(first, second),
+        () -> assertEquals(1, cache.getStatistics().hitCount()),
+        () -> assertEquals(1, cache.getStatistics().missCount()));
+  }
+
+  @Test
+  void testDistinctStaticContext() {
+    MetapathExpressionCache cache = new MetapathExpressionCache(10);
+
+    MetapathExpression first = cache.get("1 + 1", StaticContext.instance(), MetapathExpression::compileUncached);
+    MetapathExpression second = cache.get("1 + 1", StaticContext.builder().build(),
+        MetapathExpression::compileUncached);
+
+    assertNotSame(first, second);
+  }
+
+  @Test
+  void testFailureNotCached() {
+    MetapathExpressionCache cache = new MetapathExpressionCache(10);
+
+    assertThrows(MetapathException.class,
+        () -> cache.get("**", StaticContext.instance(), MetapathExpression::compileUncached));
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.cst;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.ExpressionTestBase;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.MetapathException;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+import gov.nist.secauto.metaschema.core.testing.model.mocking.MockNodeItemFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.URI;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class CSTCompilerTest
+    extends ExpressionTestBase {
+
+  @NonNull
+  private static IDocumentNodeItem newDocument() {
+    MockNodeItemFactory factory = new MockNodeItemFactory();
+
+    return factory.document(URI.create("http://example.com/content"), IEnhancedQName.of(NS, "root"), List.of(),
+        List.of(
+            factory.assembly(IEnhancedQName.of(NS, "node"),
+                List.of(
+                    factory.flag(IEnhancedQName.of("id"), IStringItem.valueOf("1")),
+                    factory.flag(IEnhancedQName.of("type"), IStringItem.valueOf("a"))),
+                List.of(
+                    factory.assembly(IEnhancedQName.of(NS, "child"),
+                        List.of(factory.flag(IEnhancedQName.of("v"), IStringItem.valueOf("x"))),
+                        List.of()),
+                    factory.assembly(IEnhancedQName.of(NS, "child"),
+                        List.of(factory.flag(IEnhancedQName.of("v"), IStringItem.valueOf("y"))),
+                        List.of()))),
+            factory.assembly(IEnhancedQName.of(NS, "node"),
+                List.of(
+                    factory.flag(IEnhancedQName.of("id"), IStringItem.valueOf("2")),
+                    factory.flag(IEnhancedQName.of("type"), IStringItem.valueOf("b"))),
+                List.of(
+                    factory.assembly(IEnhancedQName.of(NS, "child"),
+                        List.of(factory.flag(IEnhancedQName.of("v"), IStringItem.valueOf("z"))),
+                        List.of())))));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "/root/node/child/@v",
+      "/root/node[@type = 'b']/child",
+      "/root/node[@id eq '1' or @type = 'b']/@id",
+      "/root/node[child/@v = 'y' and @type = 'a']/@id",
+      "/root/node[2]/@id",
+      "/root/node/child[@v = ('x', 'z')]/../@id",
+      "//child[@v != 'x']",
+      "count(/root/node/child)",
+      "exists(/root/node/missing)",
+      "for $node in /root/node return $node/@id",
+      "'literal'",
+      "()",
+  })
+  void testCompiledResultMatchesCST(@NonNull String metapath) {
+    IDocumentNodeItem document = newDocument();
+    DynamicContext dynamicContext = newDynamicContext();
+    IMetapathExpression expression = IMetapathExpression.compile(metapath, dynamicContext.getStaticContext());
+
+    ISequence<?> expected = expression.evaluate(document, dynamicContext);
+    ISequence<?> actual = expression.evaluate(document, newDynamicContext().enableExpressionCompilation());
+
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  void testPredicateEvaluationDisabled() {
+    IDocumentNodeItem document = newDocument();
+    DynamicContext dynamicContext = newDynamicContext().disablePredicateEvaluation();
+    IMetapathExpression expression
+        = IMetapathExpression.compile("/root/node[@type = 'b']", dynamicContext.getStaticContext());
+
+    ISequence<?> expected = expression.evaluate(document, dynamicContext);
+    ISequence<?> actual = expression.evaluate(document, dynamicContext.enableExpressionCompilation());
+
+    // both nodes are selected, since the predicate is not evaluated
+    assertAll(
+        () -> assertEquals(2, expected.size()),
+        () -> assertEquals(expected, actual));
+  }
+
+  @Test
+  void testEmptyContextRaisesError() {
+    DynamicContext dynamicContext = newDynamicContext().enableExpressionCompilation();
+    IMetapathExpression expression = IMetapathExpression.compile("./@id", dynamicContext.getStaticContext());
+
+    assertThrows(MetapathException.class, () -> expression.evaluate(null, dynamicContext));
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.cst;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import gov.nist.secauto.metaschema.core.metapath.IExpression;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.StaticContext;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.IntegerLiteral;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.SequenceExpression;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.GeneralComparison;
+import gov.nist.secauto.metaschema.core.metapath.cst.logic.PredicateExpression;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.Addition;
+import gov.nist.secauto.metaschema.core.metapath.cst.math.Division;
+import gov.nist.secauto.metaschema.core.metapath.cst.path.ContextItem;
+import gov.nist.secauto.metaschema.core.metapath.function.ComparisonFunctions;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigInteger;
+import java.util.List;
+
+class CSTOptimizerTest {
+
+  @Test
+  void testConstantFolding() {
+    StaticContext staticContext = StaticContext.instance();
+    IExpression expr = new Addition(
+        "1 + 2",
+        new IntegerLiteral("1", BigInteger.ONE),
+        new IntegerLiteral("2", BigInteger.TWO));
+
+    IExpression result = CSTOptimizer.optimize(expr, staticContext);
+
+    assertThat(result).isInstanceOf(IntegerLiteral.class);
+    assertEquals(BigInteger.valueOf(3), ((IntegerLiteral) result).getValue().asInteger());
+  }
+
+  @Test
+  void testConstantFoldingErrorDeferred() {
+    StaticContext staticContext = StaticContext.instance();
+    IExpression expr = new Division(
+        "1 div 0",
+        new IntegerLiteral("1", BigInteger.ONE),
+        new IntegerLiteral("0", BigInteger.ZERO));
+
+    assertSame(expr, CSTOptimizer.optimize(expr, staticContext));
+  }
+
+  @Test
+  void testCountToExists() {
+    StaticContext staticContext = StaticContext.instance();
+    IExpression expr = new GeneralComparison(
+        "count(.) > 0",
+        new StaticFunctionCall(
+            "count(.)",
+            () -> staticContext.lookupFunction("count", 1),
+            CollectionUtil.singletonList(ContextItem.instance())),
+        ComparisonFunctions.Operator.GT,
+        new IntegerLiteral("0", BigInteger.ZERO));
+
+    IExpression result = CSTOptimizer.optimize(expr, staticContext);
+
+    assertThat(result).isInstanceOf(StaticFunctionCall.class);
+    assertEquals("exists", ((StaticFunctionCall) result).getFunction().getName());
+  }
+
+  @Test
+  void testPredicateNotFoldedToPosition() {
+    StaticContext staticContext = StaticContext.instance();
+    IExpression predicate = new Addition(
+        "1 + 1",
+        new IntegerLiteral("1", BigInteger.ONE),
+        new IntegerLiteral("1", BigInteger.ONE));
+    IExpression expr = new PredicateExpression(
+        "(1, 2)[1 + 1]",
+        new SequenceExpression(
+            "(1, 2)",
+            List.of(new IntegerLiteral("1", BigInteger.ONE), new IntegerLiteral("2", BigInteger.TWO))),
+        List.of(predicate));
+
+    // the predicate must not become an integer literal, which would change it
+    // from a boolean filter to a positional selection
+    assertSame(expr, CSTOptimizer.optimize(expr, staticContext));
+  }
+
+  @Test
+  void testLetBoundExpressionOptimized() {
+    StaticContext staticContext = StaticContext.instance();
+    IExpression expr = new Let(
+        "let $x := 1 + 2 return $x",
+        IEnhancedQName.of("x"),
+        new Addition(
+            "1 + 2",
+            new IntegerLiteral("1", BigInteger.ONE),
+            new IntegerLiteral("2", BigInteger.TWO)),
+        new VariableReference("$x", IEnhancedQName.of("x")));
+
+    IExpression result = CSTOptimizer.optimize(expr, staticContext);
+
+    assertThat(result).isInstanceOf(Let.class);
+    assertThat(((Let) result).getVariable().getBoundExpression()).isInstanceOf(IntegerLiteral.class);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "if (1 = 1) then 'a' else 'b'",
+      "concat('a', 'b', 'c')",
+      "true() and 1 + 1 = 2",
+      "false() or 'x' = 'x'",
+      "count((1, 2, 3)) > 0",
+      "0 < count(())",
+      "-(1 + 2) * 3",
+      "(10, 20, 30)[1 + 1]",
+      "(10, 20, 30)[2]",
+      "(10, 20, 30)[. > 1 + 9]",
+      "let $x := 1 + 2 return $x * 2",
+      "for $x in (1, 2) return $x + 2 * 3",
+      "some $x in (1, 2) satisfies $x = 1 + 1",
+      "(1, 2) ! (. + 1 * 2)",
+      "array { 1 + 1, 3 }",
+      "[1 + 1, 3]",
+      "map { 'a': 1 + 1 }('a')",
+  })
+  void testOptimizedResultMatchesUnoptimized(String metapath) {
+    StaticContext optimized = StaticContext.builder().build();
+    StaticContext unoptimized = StaticContext.builder()
+        .optimizeExpressions(false)
+        .build();
+
+    assertEquals(
+        IMetapathExpression.compile(metapath, unoptimized).evaluate().toSignature(),
+        IMetapathExpression.compile(metapath, optimized).evaluate().toSignature());
+  }
+}
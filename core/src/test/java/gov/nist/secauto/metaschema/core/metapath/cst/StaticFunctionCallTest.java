@@ -0,0 +1,59 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.cst;
+
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.integer;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.string;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import gov.nist.secauto.metaschema.core.metapath.ExpressionTestBase;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.MetapathException;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class StaticFunctionCallTest
+    extends ExpressionTestBase {
+  private static Stream<Arguments> provideValues() { // NOPMD - false positive
+    return Stream.of(
+        // arguments that already have the required type
+        Arguments.of(ISequence.of(integer(3)), "string-length('abc')"),
+        Arguments.of(ISequence.of(string("ABC")), "upper-case(string('abc'))"),
+        // arguments that require conversion
+        Arguments.of(ISequence.of(integer(3)), "string-length(xs:anyURI('abc'))"),
+        // a context item whose static type is imprecise
+        Arguments.of(ISequence.of(integer(1), integer(2)), "('a', 'bb') ! string-length(.)"),
+        Arguments.of(ISequence.of(integer(3)), "let $x := 'abc' return string-length($x)"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideValues")
+  void testFunctionCall(@NonNull ISequence<?> expected, @NonNull String metapath) {
+    assertEquals(
+        expected,
+        IMetapathExpression.compile(metapath).evaluate(null, newDynamicContext()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "string-length(('a', 'b'))",
+      "upper-case(1)",
+  })
+  void testInvalidArgument(@NonNull String metapath) {
+    assertThrows(
+        MetapathException.class,
+        () -> IMetapathExpression.compile(metapath).evaluate(null, newDynamicContext()));
+  }
+}
@@ -6,15 +6,21 @@
 package gov.nist.secauto.metaschema.core.metapath.cst.items;
 
 import static gov.nist.secauto.metaschema.core.metapath.TestUtils.integer;
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import gov.nist.secauto.metaschema.core.metapath.ExpressionTestBase;
 import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.MetapathException;
+import gov.nist.secauto.metaschema.core.metapath.function.ArithmeticFunctionException;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.stream.Stream;
 
@@ -51,4 +57,22 @@ class RangeTest
         expected,
         IMetapathExpression.compile(metapath).evaluate(null, newDynamicContext()));
   }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "1 to 5000000000",
+      "-9223372036854775808 to 9223372036854775807",
+      "1 to 99999999999999999999999",
+  })
+  void testRangeTooLarge(@NonNull String metapath) {
+    MetapathException thrown = assertThrows(MetapathException.class,
+        () -> IMetapathExpression.compile(metapath).evaluate(null, newDynamicContext()));
+    Throwable cause = thrown.getCause();
+
+    assertAll(
+        () -> assertTrue(cause instanceof ArithmeticFunctionException),
+        () -> assertEquals(
+            ArithmeticFunctionException.OVERFLOW_UNDERFLOW_ERROR,
+            ((ArithmeticFunctionException) cause).getCode()));
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.cst.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import gov.nist.secauto.metaschema.core.metapath.ExpressionTestBase;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class GeneralComparisonTest
+    extends ExpressionTestBase {
+  private static Stream<Arguments> provideValues() { // NOPMD - false positive
+    return Stream.of(
+        // pairwise comparison
+        Arguments.of(true, "(1, 2) = (2, 3)"),
+        Arguments.of(false, "(1, 2) = (3, 4)"),
+        Arguments.of(false, "() = (1, 2)"),
+        Arguments.of(true, "('a', 1) = ('b', 'a')"),
+        // join-based numeric comparison
+        Arguments.of(true, "(1 to 10) = (10 to 20)"),
+        Arguments.of(false, "(1 to 10) = (11 to 20)"),
+        Arguments.of(true, "(1 to 10) != (1 to 10)"),
+        Arguments.of(false, "(1, 1, 1, 1, 1, 1) != (1, 1, 1, 1, 1, 1)"),
+        Arguments.of(true, "(5 to 15) < (0 to 5, 6)"),
+        Arguments.of(false, "(6 to 15) < (0 to 6)"),
+        Arguments.of(true, "(6 to 15) <= (0 to 6)"),
+        Arguments.of(false, "(7 to 15) <= (0 to 6)"),
+        Arguments.of(true, "(0 to 10) > (10 to 20)"),
+        Arguments.of(false, "(0 to 10) > (10 to 20, 11)"),
+        Arguments.of(true, "(0 to 10) >= (10 to 20)"),
+        Arguments.of(false, "(0 to 9) >= (10 to 20)"),
+        // join-based string comparison
+        Arguments.of(true, "('a', 'b', 'c', 'd', 'e', 'f') = ('z', 'y', 'x', 'w', 'v', 'f')"),
+        Arguments.of(false, "('a', 'b', 'c', 'd', 'e', 'f') = ('z', 'y', 'x', 'w', 'v', 'u')"),
+        Arguments.of(true, "('a', 'b', 'c', 'd', 'e', 'f') < ('b', 'b', 'b', 'b', 'b', 'b')"),
+        Arguments.of(false, "('c', 'd', 'e', 'f', 'g', 'h') <= ('a', 'b', 'a', 'b', 'a', 'b')"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideValues")
+  void testExpression(boolean expected, @NonNull String metapath) {
+    Boolean result = IMetapathExpression.compile(metapath)
+        .evaluateAs(null, IMetapathExpression.ResultType.BOOLEAN, newDynamicContext());
+    assertEquals(expected, result);
+  }
+}
@@ -5,6 +5,7 @@
 
 package gov.nist.secauto.metaschema.core.metapath.cst.logic;
 
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.integer;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
@@ -14,16 +15,25 @@ import static org.mockito.Mockito.verify;
 import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.ExpressionTestBase;
 import gov.nist.secauto.metaschema.core.metapath.IExpression;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.cst.items.IntegerLiteral;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IAssemblyNodeItem;
 import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
 import gov.nist.secauto.metaschema.core.testing.model.mocking.MockNodeItemFactory;
 import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 
+import java.math.BigInteger;
 import java.util.List;
+import java.util.stream.Stream;
 
+import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 @SuppressFBWarnings("RV_RETURN_VALUE_IGNORED_NO_SIDE_EFFECT")
@@ -86,4 +96,42 @@ class PredicateExpressionTest
     verify(predicates, never()).stream();
     verify(predicates, never()).iterator();
   }
+
+  private static Stream<Arguments> providePositionalValues() { // NOPMD - false positive
+    return Stream.of(
+        Arguments.of(ISequence.of(integer(3)), "(1 to 5)[3]"),
+        Arguments.of(ISequence.of(), "(1 to 5)[0]"),
+        Arguments.of(ISequence.of(), "(1 to 5)[6]"),
+        Arguments.of(ISequence.of(integer(1), integer(3), integer(5)), "(1 to 5)[. mod 2 = 1]"),
+        // positions are relative to the items selected by the preceding predicate
+        Arguments.of(ISequence.of(integer(3)), "(1 to 5)[. > 2][1]"),
+        Arguments.of(ISequence.of(integer(4)), "(1 to 5)[2][. > 3]"),
+        Arguments.of(ISequence.of(integer(3)), "(1 to 5)[3][1]"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("providePositionalValues")
+  void testPositionalPredicate(@NonNull ISequence<?> expected, @NonNull String metapath) {
+    assertEquals(
+        expected,
+        IMetapathExpression.compile(metapath).evaluate(null, newDynamicContext()));
+  }
+
+  @Test
+  void testPositionalPredicateTerminatesEarly() {
+    DynamicContext dynamicContext = newDynamicContext();
+    ISequence<?> focus = ISequence.empty();
+
+    // an unbounded stream of integers
+    IExpression stepExpr = new MockNodeItemFactory().mock(IExpression.class);
+    doReturn(ISequence.of(Stream.iterate(1L, value -> value + 1).map(IIntegerItem::valueOf)))
+        .when(stepExpr).accept(dynamicContext, focus);
+
+    PredicateExpression expr = new PredicateExpression(
+        "test data",
+        stepExpr,
+        List.of(new IntegerLiteral("2", BigInteger.TWO)));
+
+    assertEquals(ISequence.of(integer(2)), expr.accept(dynamicContext, focus));
+  }
 }
@@ -8,6 +8,7 @@ package gov.nist.secauto.metaschema.core.metapath.cst.path;
 import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.ExpressionTestBase;
 import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.impl.StreamSequence;
 import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IDocumentNodeItem;
@@ -23,6 +24,8 @@ import org.junit.jupiter.api.Test;
 
 import java.net.URI;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -559,4 +562,20 @@ class StepTest
             ObjectUtils.requireNonNull(nodeA.getModelItemsByName(IEnhancedQName.of(NS, "y"))).iterator().next(),
             ObjectUtils.requireNonNull(nodeA.getModelItemsByName(IEnhancedQName.of(NS, "z"))).iterator().next()));
   }
+
+  @Test
+  void testStreamBackedFocusIsNotMaterialized() {
+    DynamicContext dynamicContext = newDynamicContext();
+
+    IModelNodeItem<?, ?> nodeB
+        = ObjectUtils.requireNonNull(IMetapathExpression.compile("/root/node-2/b", dynamicContext.getStaticContext())
+            .evaluateAs(getTestNodeItem(), IMetapathExpression.ResultType.ITEM, dynamicContext));
+
+    StreamSequence<INodeItem> focus = new StreamSequence<>(Stream.of(nodeB));
+    ISequence<?> actual = new Step("child::*", Axis.CHILDREN).accept(dynamicContext, focus);
+
+    // evaluating the step must not collect the focus into a list
+    Assertions.assertThat(focus.isMaterialized()).isFalse();
+    Assertions.assertThat(actual.reusable()).isEqualTo(nodeB.modelItems().collect(Collectors.toList()));
+  }
 }
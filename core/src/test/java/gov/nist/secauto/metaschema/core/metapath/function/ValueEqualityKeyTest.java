@@ -0,0 +1,75 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.function;
+
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.bool;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.decimal;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.integer;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.string;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import gov.nist.secauto.metaschema.core.metapath.ExpressionTestBase;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ValueEqualityKeyTest
+    extends ExpressionTestBase {
+
+  @Test
+  void testNumericKeys() {
+    ValueEqualityKey key = ValueEqualityKey.NUMERIC;
+    IIntegerItem big = IIntegerItem.valueOf("99999999999999999999999");
+
+    assertAll(
+        () -> assertEquals(key.keyFor(integer(1)), key.keyFor(decimal("1.0"))),
+        () -> assertEquals(key.keyFor(decimal("1.00")), key.keyFor(decimal("1.0"))),
+        () -> assertEquals(key.keyFor(big), key.keyFor(decimal("99999999999999999999999.000"))),
+        () -> assertNotEquals(key.keyFor(integer(1)), key.keyFor(decimal("1.01"))),
+        () -> assertNotEquals(key.keyFor(big), key.keyFor(integer(1))));
+  }
+
+  @Test
+  void testKinds() {
+    assertAll(
+        () -> assertEquals(ValueEqualityKey.STRING, ValueEqualityKey.forItems(List.of(string("a"), string("b")))),
+        () -> assertEquals(ValueEqualityKey.NUMERIC, ValueEqualityKey.forItems(List.of(integer(1), decimal("2.0")))),
+        () -> assertEquals(ValueEqualityKey.BOOLEAN, ValueEqualityKey.forItems(List.of(bool(true)))),
+        () -> assertNull(ValueEqualityKey.forItems(List.of(string("a"), integer(1)))),
+        () -> assertNull(ValueEqualityKey.forItems(List.of())));
+  }
+
+  private static Stream<Arguments> provideValues() { // NOPMD - false positive
+    return Stream.of(
+        Arguments.of(ISequence.of(integer(3), decimal("1.0"), integer(2)),
+            "distinct-values((3, 1.0, 1, 2, 3.00, 2))"),
+        Arguments.of(ISequence.of(string("b"), string("a")), "distinct-values(('b', 'a', 'b', 'a'))"),
+        Arguments.of(ISequence.of(integer(2), integer(3)), "index-of((1, 2.0, 2), 2)"),
+        Arguments.of(ISequence.of(integer(1), integer(3)), "index-of(('a', 'b', 'a'), 'a')"),
+        Arguments.of(ISequence.of(integer(2)), "index-of(('a', 1), 1)"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideValues")
+  void testKeyedFunctions(@NonNull ISequence<?> expected, @NonNull String metapath) {
+    assertEquals(
+        expected,
+        IMetapathExpression.compile(metapath).evaluate(null, newDynamicContext()));
+  }
+}
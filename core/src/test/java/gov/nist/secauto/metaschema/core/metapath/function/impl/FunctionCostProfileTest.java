@@ -0,0 +1,127 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.function.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.function.IFunction;
+import gov.nist.secauto.metaschema.core.metapath.function.IFunction.MemoizationPolicy;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+class FunctionCostProfileTest {
+  @Test
+  void testAdaptiveAdmission() {
+    FunctionCostProfile cheap = new FunctionCostProfile();
+    FunctionCostProfile expensive = new FunctionCostProfile();
+    for (int i = 0; i < FunctionCostProfile.WARMUP_EXECUTIONS - 1; i++) {
+      cheap.record(100);
+      expensive.record(FunctionCostProfile.ADMISSION_THRESHOLD_NANOS * 2);
+    }
+
+    // not admitted until warmed up
+    assertFalse(expensive.isAdmitted(MemoizationPolicy.ADAPTIVE));
+
+    cheap.record(100);
+    expensive.record(FunctionCostProfile.ADMISSION_THRESHOLD_NANOS * 2);
+
+    assertAll(
+        () -> assertFalse(cheap.isAdmitted(MemoizationPolicy.ADAPTIVE)),
+        () -> assertTrue(expensive.isAdmitted(MemoizationPolicy.ADAPTIVE)),
+        () -> assertTrue(cheap.isAdmitted(MemoizationPolicy.ALWAYS)),
+        () -> assertFalse(expensive.isAdmitted(MemoizationPolicy.NEVER)));
+
+    // admission follows a drop in cost
+    for (int i = 0; i < 64; i++) {
+      expensive.record(100);
+    }
+    assertFalse(expensive.isAdmitted(MemoizationPolicy.ADAPTIVE));
+  }
+
+  @Test
+  void testPolicyControlsCaching() {
+    AtomicInteger calls = new AtomicInteger();
+    IFunction always = IFunction.builder()
+        .name("always")
+        .namespace("http://example.com/ns")
+        .deterministic()
+        .memoization(MemoizationPolicy.ALWAYS)
+        .returnType(IIntegerItem.type())
+        .returnOne()
+        .functionHandler((function, arguments, dynamicContext, focus) -> {
+          calls.incrementAndGet();
+          return ISequence.of(IIntegerItem.ONE);
+        })
+        .build();
+    IFunction never = IFunction.builder()
+        .name("never")
+        .namespace("http://example.com/ns")
+        .deterministic()
+        .memoization(MemoizationPolicy.NEVER)
+        .returnType(IIntegerItem.type())
+        .returnOne()
+        .functionHandler((function, arguments, dynamicContext, focus) -> {
+          calls.incrementAndGet();
+          return ISequence.of(IIntegerItem.ONE);
+        })
+        .build();
+
+    DynamicContext dynamicContext = new DynamicContext();
+    for (int i = 0; i < 3; i++) {
+      always.execute(List.of(), dynamicContext, ISequence.empty());
+      never.execute(List.of(), dynamicContext, ISequence.empty());
+    }
+
+    assertAll(
+        () -> assertEquals(4, calls.get()),
+        () -> assertEquals(2, dynamicContext.getFunctionResultCacheStatistics().hitCount()),
+        () -> assertEquals(1, dynamicContext.getFunctionResultCacheStatistics().missCount()),
+        () -> assertEquals(2, dynamicContext.fork().getFunctionResultCacheStatistics().hitCount()));
+  }
+
+  @Test
+  void testOnlyMaterializedResultsAreProfiled() {
+    IFunction lazy = IFunction.builder()
+        .name("lazy")
+        .namespace("http://example.com/ns")
+        .deterministic()
+        .memoization(MemoizationPolicy.ADAPTIVE)
+        .returnType(IIntegerItem.type())
+        .returnOne()
+        .functionHandler((function, arguments, dynamicContext, focus) -> ISequence.of(Stream.of(IIntegerItem.ONE)))
+        .build();
+    IFunction eager = IFunction.builder()
+        .name("eager")
+        .namespace("http://example.com/ns")
+        .deterministic()
+        .memoization(MemoizationPolicy.ADAPTIVE)
+        .returnType(IIntegerItem.type())
+        .returnOne()
+        .functionHandler((function, arguments, dynamicContext, focus) -> ISequence.of(IIntegerItem.ONE))
+        .build();
+
+    DynamicContext dynamicContext = new DynamicContext();
+    for (int i = 0; i < 3; i++) {
+      // the lazy result's items are produced after the call returns
+      assertEquals(IIntegerItem.ONE, lazy.execute(List.of(), dynamicContext, ISequence.empty()).getFirstItem(true));
+      assertEquals(IIntegerItem.ONE, eager.execute(List.of(), dynamicContext, ISequence.empty()).getFirstItem(true));
+    }
+
+    assertAll(
+        () -> assertEquals(0, ((AbstractFunction) lazy).getCostProfile().getExecutions()),
+        () -> assertEquals(3, ((AbstractFunction) eager).getCostProfile().getExecutions()));
+  }
+}
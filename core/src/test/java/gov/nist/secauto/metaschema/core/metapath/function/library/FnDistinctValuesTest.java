@@ -5,6 +5,7 @@
 
 package gov.nist.secauto.metaschema.core.metapath.function.library;
 
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.date;
 import static gov.nist.secauto.metaschema.core.metapath.TestUtils.decimal;
 import static gov.nist.secauto.metaschema.core.metapath.TestUtils.integer;
 import static gov.nist.secauto.metaschema.core.metapath.TestUtils.sequence;
@@ -35,7 +36,10 @@ class FnDistinctValuesTest
             "fn:distinct-values((meta:string('cherry'),meta:string('plum'),meta:string('plum')))"),
         Arguments.of(
             sequence(string("a"), integer(2)),
-            "fn:distinct-values(('a', 2, 'a', 2.0))"));
+            "fn:distinct-values(('a', 2, 'a', 2.0))"),
+        Arguments.of(
+            sequence(integer(1), string("b"), date("2020-01-01"), integer(2), string("c")),
+            "fn:distinct-values((1, 'b', meta:date('2020-01-01'), 1.0, 'b', 2, meta:date('2020-01-01'), 'c', 2.0))"));
   }
 
   @ParameterizedTest
@@ -13,6 +13,7 @@ import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IBooleanItem;
 import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -38,4 +39,13 @@ class FnExistsTest
         ISequence.of(expected),
         CollectionUtil.singletonList(ISequence.of(values)));
   }
+
+  @Test
+  void testUnboundedSequence() {
+    // only completes if the items are pulled lazily from the stream
+    assertFunctionResult(
+        FnExists.SIGNATURE,
+        ISequence.of(bool(true)),
+        CollectionUtil.singletonList(ISequence.of(Stream.generate(() -> integer(1)))));
+  }
 }
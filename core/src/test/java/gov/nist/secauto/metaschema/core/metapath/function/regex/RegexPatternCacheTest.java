@@ -0,0 +1,56 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.function.regex;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.StaticContext;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+class RegexPatternCacheTest {
+
+  @Test
+  void testCacheHit() {
+    RegexPatternCache cache = new RegexPatternCache(10);
+
+    Pattern first = cache.get("a+b", Pattern.CASE_INSENSITIVE);
+    Pattern second = cache.get("a+b", Pattern.CASE_INSENSITIVE);
+    cache.get("a+b", 0);
+
+    assertAll(
+        () -> assertSame(first, second),
+        () -> assertEquals(1, cache.getStatistics().hitCount()),
+        () -> assertEquals(2, cache.getStatistics().missCount()));
+  }
+
+  @Test
+  void testFailureNotCached() {
+    RegexPatternCache cache = new RegexPatternCache(10);
+
+    assertThrows(PatternSyntaxException.class, () -> cache.get("(", 0));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testLiteralPatternCompiledWithExpression() {
+    String pattern = "literal-pattern-[0-9]+";
+    IMetapathExpression.compile("matches('literal-pattern-42', '" + pattern + "', 'i')", StaticContext.instance());
+
+    RegexPatternCache cache = RegexPatternCache.instance();
+    long hits = cache.getStatistics().hitCount();
+    cache.get(pattern, Pattern.CASE_INSENSITIVE);
+
+    assertEquals(hits + 1, cache.getStatistics().hitCount());
+  }
+}
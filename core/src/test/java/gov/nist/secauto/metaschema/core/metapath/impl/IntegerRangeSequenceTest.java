@@ -0,0 +1,81 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.impl;
+
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.integer;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.metapath.ExpressionTestBase;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.item.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class IntegerRangeSequenceTest
+    extends ExpressionTestBase {
+
+  @Test
+  void testRange() {
+    ISequence<IIntegerItem> range = IntegerRangeSequence.of(-1, 3);
+    IntegerRangeSequence reversed = ((IntegerRangeSequence) range).reverse();
+
+    assertAll(
+        () -> assertEquals(ISequence.of(integer(-1), integer(0), integer(1), integer(2), integer(3)), range),
+        () -> assertEquals(5, range.size()),
+        () -> assertEquals(integer(2), range.get(3)),
+        () -> assertEquals(4, range.indexOf(integer(3))),
+        () -> assertTrue(range.contains(integer(-1))),
+        () -> assertFalse(range.contains(integer(4))),
+        () -> assertFalse(range.contains(IIntegerItem.valueOf("99999999999999999999999"))),
+        () -> assertEquals(
+            List.of(integer(3), integer(2), integer(1), integer(0), integer(-1)),
+            reversed.stream().collect(Collectors.toList())),
+        () -> assertEquals(0, reversed.indexOf(integer(3))),
+        () -> assertEquals(range, reversed.reverse()),
+        () -> assertEquals(integer(5), ((IntegerRangeSequence) range).sum()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> range.get(5)));
+  }
+
+  @Test
+  void testRangeBounds() {
+    assertAll(
+        () -> assertTrue(IntegerRangeSequence.of(2, 1).isEmpty()),
+        () -> assertEquals(ISequence.of(integer(1)), IntegerRangeSequence.of(1, 1)),
+        () -> assertThrows(ArithmeticException.class, () -> IntegerRangeSequence.of(0, Integer.MAX_VALUE)),
+        () -> assertThrows(ArithmeticException.class, () -> IntegerRangeSequence.of(Long.MIN_VALUE, Long.MAX_VALUE)));
+  }
+
+  private static Stream<Arguments> provideValues() { // NOPMD - false positive
+    return Stream.of(
+        Arguments.of(ISequence.of(integer(3), integer(2), integer(1)), "reverse(1 to 3)"),
+        Arguments.of(ISequence.of(IIntegerItem.valueOf(50_000_005_000_000L)), "sum(1 to 10000000)"),
+        Arguments.of(ISequence.of(integer(100_000_000)), "count(1 to 100000000)"),
+        Arguments.of(ISequence.of(integer(999_999)), "(1 to 1000000)[999999]"),
+        Arguments.of(ISequence.of(integer(6)), "sum(for $i in 1 to 3 return $i)"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideValues")
+  void testRangeExpression(@NonNull ISequence<?> expected, @NonNull String metapath) {
+    assertEquals(
+        expected,
+        IMetapathExpression.compile(metapath).evaluate(null, newDynamicContext()));
+  }
+}
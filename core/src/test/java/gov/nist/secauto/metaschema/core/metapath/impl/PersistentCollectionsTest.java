@@ -0,0 +1,133 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class PersistentCollectionsTest {
+  /**
+   * A key type with a poor hash code, used to force hash collisions.
+   */
+  private static final class CollidingKey {
+    private final int value;
+
+    private CollidingKey(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public int hashCode() {
+      return value % 4;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof CollidingKey && ((CollidingKey) obj).value == value;
+    }
+  }
+
+  @Test
+  void testMapMatchesHashMap() {
+    Map<Integer, String> expected = new HashMap<>();
+    PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+    for (int i = 0; i < 5_000; i++) {
+      expected.put(i * 31, "v" + i);
+      map = map.with(i * 31, "v" + i);
+    }
+    for (int i = 0; i < 5_000; i += 3) {
+      expected.remove(i * 31);
+      map = map.without(i * 31);
+    }
+
+    assertEquals(expected.size(), map.size());
+    assertEquals(expected, map);
+    assertEquals(expected, new HashMap<>(map));
+  }
+
+  @Test
+  void testMapCollisions() {
+    PersistentHashMap<CollidingKey, Integer> added = PersistentHashMap.empty();
+    for (int i = 0; i < 20; i++) {
+      added = added.with(new CollidingKey(i), i);
+    }
+    PersistentHashMap<CollidingKey, Integer> removed = added;
+    for (int i = 0; i < 20; i += 2) {
+      removed = removed.without(new CollidingKey(i));
+    }
+    PersistentHashMap<CollidingKey, Integer> full = added;
+    PersistentHashMap<CollidingKey, Integer> half = removed;
+
+    assertAll(
+        () -> assertEquals(20, full.size()),
+        () -> assertEquals(7, full.get(new CollidingKey(7))),
+        () -> assertEquals(10, half.size()),
+        () -> assertFalse(half.containsKey(new CollidingKey(4))),
+        () -> assertEquals(5, half.get(new CollidingKey(5))),
+        () -> assertEquals(10, half.entrySet().stream().count()));
+  }
+
+  @Test
+  void testMapUpdateLeavesOriginalUnchanged() {
+    PersistentHashMap<String, Integer> original = PersistentHashMap.<String, Integer>empty()
+        .with("a", 1)
+        .with("b", 2);
+    PersistentHashMap<String, Integer> updated = original.with("a", 3).without("b");
+
+    assertAll(
+        () -> assertEquals(Map.of("a", 1, "b", 2), original),
+        () -> assertEquals(Map.of("a", 3), updated),
+        () -> assertSame(original, PersistentHashMap.copyOf(original)),
+        () -> assertSame(original, original.without("missing")));
+  }
+
+  @Test
+  void testVectorAppendAcrossLevels() {
+    List<Integer> expected = new ArrayList<>();
+    PersistentVector<Integer> vector = PersistentVector.empty();
+    // crosses the tail, first trie level, and second trie level boundaries
+    for (int i = 0; i < 40_000; i++) {
+      expected.add(i);
+      vector = vector.append(i);
+    }
+
+    assertEquals(expected.size(), vector.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i), vector.get(i));
+    }
+    assertEquals(expected, vector);
+    assertEquals(expected, new ArrayList<>(vector));
+  }
+
+  @Test
+  void testVectorUpdateLeavesOriginalUnchanged() {
+    PersistentVector<Integer> original = PersistentVector.copyOf(List.of(0, 1, 2, 3, 4))
+        .appendAll(Collections.nCopies(2_000, 9));
+    PersistentVector<Integer> updated = original.with(1, 10).with(1_500, 20).with(2_004, 30);
+
+    assertAll(
+        () -> assertEquals(1, original.get(1)),
+        () -> assertEquals(9, original.get(1_500)),
+        () -> assertEquals(9, original.get(2_004)),
+        () -> assertEquals(10, updated.get(1)),
+        () -> assertEquals(20, updated.get(1_500)),
+        () -> assertEquals(30, updated.get(2_004)),
+        () -> assertEquals(original.size(), updated.size()),
+        () -> assertEquals(original.size() + 1, original.append(5).size()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> original.with(original.size(), 0)));
+  }
+}
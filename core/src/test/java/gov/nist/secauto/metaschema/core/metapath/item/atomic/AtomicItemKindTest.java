@@ -0,0 +1,76 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.atomic;
+
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.base64;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.bool;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.date;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.dateTime;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.dayTimeDuration;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.decimal;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.integer;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.string;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.time;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.uri;
+import static gov.nist.secauto.metaschema.core.metapath.TestUtils.yearMonthDuration;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import gov.nist.secauto.metaschema.core.metapath.function.ComparisonFunctions;
+import gov.nist.secauto.metaschema.core.metapath.type.InvalidTypeMetapathException;
+
+import org.junit.jupiter.api.Test;
+
+class AtomicItemKindTest {
+
+  @Test
+  void testItemKinds() {
+    assertAll(
+        () -> assertEquals(AtomicItemKind.STRING, string("a").getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.STRING, ITokenItem.valueOf("a").getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.INTEGER, integer(1).getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.INTEGER, IPositiveIntegerItem.valueOf(1).getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.DECIMAL, decimal("1.5").getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.BOOLEAN, bool(true).getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.DATE_TIME, dateTime("2020-01-01T00:00:00Z").getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.DATE, date("2020-01-01").getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.TIME, time("10:00:00").getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.YEAR_MONTH_DURATION, yearMonthDuration("P1Y").getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.DAY_TIME_DURATION, dayTimeDuration("P1D").getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.BASE64_BINARY, base64("AQID").getAtomicKind()),
+        () -> assertEquals(AtomicItemKind.OTHER, uri("http://example.com").getAtomicKind()));
+  }
+
+  @Test
+  void testStaticTypeKinds() {
+    assertAll(
+        () -> assertEquals(AtomicItemKind.INTEGER, AtomicItemKind.forStaticType(IIntegerItem.class)),
+        () -> assertEquals(AtomicItemKind.STRING, AtomicItemKind.forStaticType(IStringItem.class)),
+        () -> assertEquals(AtomicItemKind.DATE_TIME, AtomicItemKind.forStaticType(IDateTimeWithTimeZoneItem.class)),
+        // decimal and numeric items may also be integers
+        () -> assertNull(AtomicItemKind.forStaticType(IDecimalItem.class)),
+        () -> assertNull(AtomicItemKind.forStaticType(INumericItem.class)),
+        () -> assertNull(AtomicItemKind.forStaticType(IDurationItem.class)),
+        () -> assertNull(AtomicItemKind.forStaticType(IAnyAtomicItem.class)),
+        () -> assertNull(AtomicItemKind.forStaticType(String.class)));
+  }
+
+  @Test
+  void testComparisonDispatch() {
+    assertAll(
+        () -> assertEquals(IBooleanItem.TRUE,
+            ComparisonFunctions.compare(integer(1), ComparisonFunctions.Operator.EQ, decimal("1.0"))),
+        () -> assertEquals(IBooleanItem.TRUE,
+            ComparisonFunctions.compare(string("1"), ComparisonFunctions.Operator.EQ, integer(1))),
+        () -> assertEquals(IBooleanItem.TRUE,
+            ComparisonFunctions.compare(dayTimeDuration("P1D"), ComparisonFunctions.Operator.LT,
+                dayTimeDuration("P2D"))),
+        () -> assertThrows(InvalidTypeMetapathException.class,
+            () -> ComparisonFunctions.compare(integer(1), ComparisonFunctions.Operator.EQ, bool(true))));
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.atomic;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.impl.IntegerItemImpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+class IIntegerItemTest {
+  private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+  private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+  @Test
+  void testOverflowUsesBigInteger() {
+    IIntegerItem max = IIntegerItem.valueOf(Long.MAX_VALUE);
+    IIntegerItem min = IIntegerItem.valueOf(Long.MIN_VALUE);
+
+    assertAll(
+        () -> assertTrue(max.isLongValue()),
+        () -> assertEquals(LONG_MAX.add(BigInteger.ONE), max.add(IIntegerItem.ONE).asInteger()),
+        () -> assertFalse(max.add(IIntegerItem.ONE).isLongValue()),
+        () -> assertEquals(LONG_MIN.subtract(BigInteger.ONE), min.subtract(IIntegerItem.ONE).asInteger()),
+        () -> assertEquals(LONG_MAX.multiply(BigInteger.TWO), max.multiply(IIntegerItem.valueOf(2)).asInteger()),
+        () -> assertEquals(LONG_MIN.negate(), min.integerDivide(IIntegerItem.NEGATIVE_ONE).asInteger()),
+        () -> assertEquals(LONG_MIN.negate(), min.negate().asInteger()),
+        () -> assertEquals(LONG_MIN.negate(), min.abs().asInteger()),
+        () -> assertEquals(IIntegerItem.ZERO, min.mod(IIntegerItem.NEGATIVE_ONE)),
+        // results that fit in a long are compact again
+        () -> assertTrue(max.add(IIntegerItem.ONE).subtract(IIntegerItem.ONE).isLongValue()));
+  }
+
+  @Test
+  void testArithmetic() {
+    assertAll(
+        () -> assertEquals(IIntegerItem.valueOf(-3), IIntegerItem.valueOf(-7).integerDivide(IIntegerItem.valueOf(2))),
+        () -> assertEquals(IIntegerItem.valueOf(-1), IIntegerItem.valueOf(-7).mod(IIntegerItem.valueOf(2))),
+        () -> assertEquals(IIntegerItem.valueOf(42), IIntegerItem.valueOf(6).multiply(IIntegerItem.valueOf(7))),
+        () -> assertEquals(IIntegerItem.valueOf(-1), IIntegerItem.valueOf(6).subtract(IIntegerItem.valueOf(7))),
+        () -> assertEquals(IIntegerItem.valueOf(7), IIntegerItem.valueOf(-7).abs()));
+  }
+
+  @Test
+  void testCompactAndBigIntegerItemsAreEqual() {
+    IIntegerItem compact = IIntegerItem.valueOf(-12_345L);
+    IIntegerItem big = new IntegerItemImpl(BigInteger.valueOf(-12_345L));
+
+    assertAll(
+        () -> assertEquals(compact, big),
+        () -> assertEquals(big, compact),
+        () -> assertEquals(compact.hashCode(), big.hashCode()),
+        () -> assertEquals(compact.asMapKey(), big.asMapKey()),
+        () -> assertEquals(compact.asString(), big.asString()),
+        () -> assertEquals(compact.asDecimal(), big.asDecimal()),
+        () -> assertEquals(0, compact.compareTo(big)));
+  }
+}
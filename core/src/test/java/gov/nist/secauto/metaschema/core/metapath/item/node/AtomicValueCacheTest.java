@@ -0,0 +1,43 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.node;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AtomicValueCacheTest {
+
+  @Test
+  void testCacheAndRelease() {
+    AtomicInteger calls = new AtomicInteger();
+    AtomicValueCache cache = new AtomicValueCache(() -> {
+      calls.incrementAndGet();
+      return IIntegerItem.valueOf(42);
+    });
+
+    IIntegerItem first = (IIntegerItem) cache.getAtomicItem();
+    String string = cache.getStringValue();
+    IIntegerItem second = (IIntegerItem) cache.getAtomicItem();
+    int cachedCalls = calls.get();
+
+    cache.clear();
+    String afterClear = cache.getStringValue();
+
+    assertAll(
+        () -> assertEquals("42", string),
+        () -> assertSame(first, second),
+        () -> assertEquals(1, cachedCalls),
+        () -> assertEquals("42", afterClear),
+        () -> assertEquals(2, calls.get()));
+  }
+}
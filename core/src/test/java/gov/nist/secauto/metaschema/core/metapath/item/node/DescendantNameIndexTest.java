@@ -0,0 +1,104 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.node;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.StaticContext;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+import gov.nist.secauto.metaschema.core.testing.model.mocking.MockNodeItemFactory;
+import gov.nist.secauto.metaschema.core.testing.model.mocking.MockedDocumentGenerator;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.URI;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class DescendantNameIndexTest {
+  @NonNull
+  private static final IEnhancedQName FLAG = MockedDocumentGenerator.ASSEMBLY_FLAG_QNAME;
+  @NonNull
+  private static final IEnhancedQName NESTED = MockedDocumentGenerator.NESTED_QNAME;
+
+  @NonNull
+  private static IModelNodeItem<?, ?> child(@NonNull INodeItem parent, @NonNull IEnhancedQName name, int index) {
+    return ObjectUtils.notNull(parent.getModelItemsByName(name).get(index));
+  }
+
+  @Test
+  void testDescendantsWithName() {
+    IDocumentNodeItem document = MockedDocumentGenerator.generateValuedDocumentNodeItem();
+    DescendantNameIndex index = DescendantNameIndex.build(document);
+
+    IRootAssemblyNodeItem root = document.getRootAssemblyNodeItem();
+    IModelNodeItem<?, ?> assembly1 = child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 0);
+    IModelNodeItem<?, ?> nested1 = child(assembly1, NESTED, 0);
+    IModelNodeItem<?, ?> assembly2 = child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 1);
+    IModelNodeItem<?, ?> nested2 = child(assembly2, NESTED, 0);
+    IModelNodeItem<?, ?> nested2Nested = child(nested2, NESTED, 0);
+
+    assertAll(
+        () -> assertEquals(List.of(nested1, nested2, nested2Nested), index.getDescendantsWithName(document, NESTED)),
+        () -> assertEquals(List.of(nested1), index.getDescendantsWithName(assembly1, NESTED)),
+        () -> assertEquals(List.of(nested2Nested), index.getDescendantsWithName(nested2, NESTED)),
+        () -> assertEquals(List.of(), index.getDescendantsWithName(nested2Nested, NESTED)),
+        () -> assertEquals(
+            List.of(
+                assembly1.getFlagByName(FLAG),
+                nested1.getFlagByName(FLAG),
+                assembly2.getFlagByName(FLAG),
+                nested2.getFlagByName(FLAG)),
+            index.getDescendantsWithName(root, FLAG)),
+        // nodes from another document are not indexed
+        () -> assertNull(index.getDescendantsWithName(
+            MockedDocumentGenerator.generateValuedDocumentNodeItem(), NESTED)));
+  }
+
+  @Test
+  void testUnorderedDocumentIsNotIndexed() {
+    MockNodeItemFactory factory = new MockNodeItemFactory();
+    IDocumentNodeItem document = factory.document(
+        URI.create("http://example.com/content"),
+        MockedDocumentGenerator.ROOT_QNAME,
+        List.of(),
+        List.of(factory.assembly(NESTED, List.of(), List.of())));
+
+    // the nodes have no ordinals, so searches must fall back to the node tree
+    assertNull(DescendantNameIndex.build(document).getDescendantsWithName(document, NESTED));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "//nested",
+      "//@assembly-flag",
+      "//nested[@assembly-flag='2.1']",
+      "//nested[1]",
+      "descendant::nested",
+      "descendant-or-self::nested",
+      "/root/assembly[2]//nested",
+  })
+  void testIndexedResultMatchesTreeSearch(@NonNull String metapath) {
+    IDocumentNodeItem document = MockedDocumentGenerator.generateValuedDocumentNodeItem();
+
+    StaticContext staticContext = StaticContext.builder()
+        .defaultModelNamespace(MockedDocumentGenerator.NS)
+        .build();
+    IMetapathExpression expression = IMetapathExpression.compile(metapath, staticContext);
+
+    assertEquals(
+        expression.evaluate(document, new DynamicContext(staticContext).disableDescendantNameIndex()),
+        expression.evaluate(document, new DynamicContext(staticContext)));
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.node;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.metapath.function.library.FnInnermost;
+import gov.nist.secauto.metaschema.core.metapath.function.library.FnOutermost;
+import gov.nist.secauto.metaschema.core.metapath.item.IItem;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+import gov.nist.secauto.metaschema.core.testing.model.mocking.MockNodeItemFactory;
+import gov.nist.secauto.metaschema.core.testing.model.mocking.MockedDocumentGenerator;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class DocumentOrderTest {
+  @NonNull
+  private static final String NS = "http://example.com/ns";
+
+  @NonNull
+  private static IDocumentNodeItem newDocument() {
+    MockNodeItemFactory factory = new MockNodeItemFactory();
+
+    return factory.document(URI.create("http://example.com/content"), IEnhancedQName.of(NS, "root"), List.of(),
+        List.of(
+            factory.assembly(IEnhancedQName.of(NS, "a"),
+                List.of(),
+                List.of(
+                    factory.assembly(IEnhancedQName.of(NS, "b"), List.of(), List.of()))),
+            factory.field(IEnhancedQName.of(NS, "c"), IStringItem.valueOf("c"), List.of())));
+  }
+
+  @NonNull
+  private static IModelNodeItem<?, ?> child(@NonNull INodeItem parent, @NonNull String name) {
+    return ObjectUtils.notNull(parent.getModelItemsByName(IEnhancedQName.of(NS, name)).get(0));
+  }
+
+  @NonNull
+  private static IModelNodeItem<?, ?> child(@NonNull INodeItem parent, @NonNull IEnhancedQName name, int index) {
+    return ObjectUtils.notNull(parent.getModelItemsByName(name).get(index));
+  }
+
+  @Test
+  void testUnorderedNodesUseTreeAndHashFallback() {
+    IDocumentNodeItem document = newDocument();
+    IRootAssemblyNodeItem root = document.getRootAssemblyNodeItem();
+    IModelNodeItem<?, ?> nodeA = child(root, "a");
+    IModelNodeItem<?, ?> nodeB = child(nodeA, "b");
+    IModelNodeItem<?, ?> nodeC = child(root, "c");
+
+    Predicate<IItem> memberOf = DocumentOrder.memberOf(List.of(nodeA, nodeC));
+
+    assertAll(
+        () -> assertEquals(DocumentOrder.NO_ORDINAL, DocumentOrder.ordinal(nodeA)),
+        () -> assertFalse(DocumentOrder.isOrderedInSameDocument(List.of(nodeA, nodeB))),
+        () -> assertTrue(DocumentOrder.isAncestor(root, nodeB)),
+        () -> assertTrue(DocumentOrder.isAncestor(nodeA, nodeB)),
+        () -> assertFalse(DocumentOrder.isAncestor(nodeB, nodeA)),
+        () -> assertFalse(DocumentOrder.isAncestor(nodeC, nodeB)),
+        () -> assertFalse(DocumentOrder.isAncestor(nodeA, nodeA)),
+        () -> assertEquals(
+            List.of(nodeB, nodeA, nodeC),
+            DocumentOrder.distinct(Stream.of(nodeB, nodeA, nodeB, nodeC, nodeA))
+                .collect(Collectors.toList())),
+        () -> assertTrue(memberOf.test(nodeA)),
+        () -> assertTrue(memberOf.test(nodeC)),
+        () -> assertFalse(memberOf.test(nodeB)),
+        () -> assertFalse(memberOf.test(IStringItem.valueOf("a"))));
+  }
+
+  @Test
+  void testOrderedNodesUseOrdinals() {
+    IDocumentNodeItem document = MockedDocumentGenerator.generateValuedDocumentNodeItem();
+    IRootAssemblyNodeItem root = document.getRootAssemblyNodeItem();
+    IModelNodeItem<?, ?> assembly1 = child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 0);
+    IModelNodeItem<?, ?> nested1 = child(assembly1, MockedDocumentGenerator.NESTED_QNAME, 0);
+    IModelNodeItem<?, ?> assembly2 = child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 1);
+    IModelNodeItem<?, ?> nested2 = child(assembly2, MockedDocumentGenerator.NESTED_QNAME, 0);
+    IModelNodeItem<?, ?> nested2Nested = child(nested2, MockedDocumentGenerator.NESTED_QNAME, 0);
+    IFlagNodeItem nested2Flag = ObjectUtils.requireNonNull(
+        nested2.getFlagByName(MockedDocumentGenerator.ASSEMBLY_FLAG_QNAME));
+
+    // the same node in a separately generated document has the same ordinal
+    IModelNodeItem<?, ?> otherAssembly1 = child(
+        MockedDocumentGenerator.generateValuedDocumentNodeItem().getRootAssemblyNodeItem(),
+        MockedDocumentGenerator.ASSEMBLY_QNAME,
+        0);
+
+    Predicate<IItem> memberOf = DocumentOrder.memberOf(List.of(assembly1, nested2Flag));
+
+    assertAll(
+        // flags precede model items, and a node's descendants follow it
+        () -> assertEquals(0, DocumentOrder.ordinal(document)),
+        () -> assertEquals(1, DocumentOrder.ordinal(root)),
+        () -> assertEquals(2, DocumentOrder.ordinal(assembly1)),
+        () -> assertEquals(4, DocumentOrder.ordinal(nested1)),
+        () -> assertEquals(9, DocumentOrder.ordinal(nested2Flag)),
+        () -> assertEquals(10, DocumentOrder.ordinal(nested2Nested)),
+        () -> assertEquals(5, DocumentOrder.lastDescendantOrdinal(assembly1)),
+        () -> assertEquals(10, DocumentOrder.lastDescendantOrdinal(document)),
+        () -> assertEquals(10, DocumentOrder.lastDescendantOrdinal(nested2Nested)),
+        () -> assertEquals(DocumentOrder.ordinal(assembly1), DocumentOrder.ordinal(otherAssembly1)),
+        () -> assertTrue(DocumentOrder.isOrderedInSameDocument(List.of(nested1, root, nested2Flag))),
+        () -> assertFalse(DocumentOrder.isOrderedInSameDocument(List.of(assembly1, otherAssembly1))),
+        // ancestry is determined using the descendant ordinal range
+        () -> assertTrue(DocumentOrder.isAncestor(document, nested2Nested)),
+        () -> assertTrue(DocumentOrder.isAncestor(assembly2, nested2Flag)),
+        () -> assertFalse(DocumentOrder.isAncestor(assembly1, nested2)),
+        () -> assertFalse(DocumentOrder.isAncestor(nested2Nested, nested2)),
+        () -> assertFalse(DocumentOrder.isAncestor(nested2Nested, nested2Flag)),
+        () -> assertFalse(DocumentOrder.isAncestor(assembly1, assembly1)),
+        () -> assertFalse(DocumentOrder.isAncestor(otherAssembly1, nested1)),
+        // duplicates are tracked per document using the ordinal bit sets
+        () -> assertEquals(
+            List.of(nested1, assembly1, otherAssembly1, nested2Flag),
+            DocumentOrder.distinct(Stream.of(nested1, assembly1, nested1, otherAssembly1, nested2Flag, assembly1))
+                .collect(Collectors.toList())),
+        () -> assertTrue(memberOf.test(assembly1)),
+        () -> assertTrue(memberOf.test(nested2Flag)),
+        () -> assertFalse(memberOf.test(nested2)),
+        () -> assertFalse(memberOf.test(otherAssembly1)));
+  }
+
+  @Test
+  void testOrderedInnermostAndOutermost() {
+    IDocumentNodeItem document = MockedDocumentGenerator.generateValuedDocumentNodeItem();
+    IRootAssemblyNodeItem root = document.getRootAssemblyNodeItem();
+    IModelNodeItem<?, ?> assembly1 = child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 0);
+    IModelNodeItem<?, ?> nested1 = child(assembly1, MockedDocumentGenerator.NESTED_QNAME, 0);
+    IModelNodeItem<?, ?> assembly2 = child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 1);
+    IModelNodeItem<?, ?> nested2 = child(assembly2, MockedDocumentGenerator.NESTED_QNAME, 0);
+    IModelNodeItem<?, ?> nested2Nested = child(nested2, MockedDocumentGenerator.NESTED_QNAME, 0);
+
+    // provided out of document order, with a duplicate, so the ordinal sort is
+    // required to find the ancestor relationships
+    List<INodeItem> nodes = List.of(nested2Nested, assembly1, nested2, nested1, assembly1);
+
+    assertAll(
+        () -> assertEquals(
+            List.of(nested2Nested, nested1),
+            FnInnermost.fnInnermost(nodes).collect(Collectors.toList())),
+        () -> assertEquals(
+            List.of(assembly1, nested2),
+            FnOutermost.fnOutermost(nodes).collect(Collectors.toList())),
+        () -> assertEquals(
+            List.of(nested2Nested, nested1),
+            FnInnermost.fnInnermost(List.of(root, nested2Nested, assembly2, nested1)).collect(Collectors.toList())),
+        () -> assertEquals(
+            List.of(root),
+            FnOutermost.fnOutermost(List.of(nested2Nested, root, nested1)).collect(Collectors.toList())));
+  }
+}
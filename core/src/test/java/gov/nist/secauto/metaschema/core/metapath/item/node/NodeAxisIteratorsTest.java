@@ -0,0 +1,90 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.node;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
+import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
+import gov.nist.secauto.metaschema.core.testing.model.mocking.MockNodeItemFactory;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class NodeAxisIteratorsTest {
+  @NonNull
+  private static final String NS = "http://example.com/ns";
+
+  @NonNull
+  private static IDocumentNodeItem newDocument() {
+    MockNodeItemFactory factory = new MockNodeItemFactory();
+
+    return factory.document(URI.create("http://example.com/content"), IEnhancedQName.of(NS, "root"), List.of(),
+        List.of(
+            factory.assembly(IEnhancedQName.of(NS, "a"),
+                List.of(),
+                List.of(
+                    factory.assembly(IEnhancedQName.of(NS, "b"), List.of(), List.of()),
+                    factory.field(IEnhancedQName.of(NS, "d"), IStringItem.valueOf("d"), List.of()))),
+            factory.field(IEnhancedQName.of(NS, "c"), IStringItem.valueOf("c"), List.of())));
+  }
+
+  @NonNull
+  private static IModelNodeItem<?, ?> child(@NonNull INodeItem parent, @NonNull String name) {
+    return ObjectUtils.notNull(parent.getModelItemsByName(IEnhancedQName.of(NS, name)).get(0));
+  }
+
+  @Test
+  void testAxes() {
+    IDocumentNodeItem document = newDocument();
+    IRootAssemblyNodeItem root = document.getRootAssemblyNodeItem();
+    IModelNodeItem<?, ?> nodeA = child(root, "a");
+    IModelNodeItem<?, ?> nodeB = child(nodeA, "b");
+    IModelNodeItem<?, ?> nodeD = child(nodeA, "d");
+    IModelNodeItem<?, ?> nodeC = child(root, "c");
+
+    assertAll(
+        () -> assertEquals(List.of(document, root, nodeA), nodeB.ancestor().collect(Collectors.toList())),
+        () -> assertEquals(List.of(document, root, nodeA, nodeB), nodeB.getPathStream().collect(Collectors.toList())),
+        () -> assertEquals(
+            List.of(root, nodeA, nodeB, nodeD, nodeC),
+            document.descendant().collect(Collectors.toList())),
+        () -> assertEquals(List.of(nodeB, nodeD), nodeA.descendant().collect(Collectors.toList())),
+        () -> assertEquals(List.of(), nodeC.descendant().collect(Collectors.toList())),
+        () -> assertEquals(List.of(nodeD), nodeB.following().collect(Collectors.toList())),
+        () -> assertEquals(List.of(nodeC), nodeA.following().collect(Collectors.toList())),
+        () -> assertEquals(List.of(nodeA, nodeB, nodeD), nodeC.preceding().collect(Collectors.toList())),
+        () -> assertEquals(List.of(), nodeA.preceding().collect(Collectors.toList())));
+  }
+
+  @Test
+  void testIteratorsAndSpliterators() {
+    IDocumentNodeItem document = newDocument();
+    IModelNodeItem<?, ?> nodeB = child(child(document.getRootAssemblyNodeItem(), "a"), "b");
+
+    Spliterator<INodeItem> ancestors = NodeAxisIterators.ancestors(nodeB).spliterator();
+    Iterator<IModelNodeItem<?, ?>> descendants = NodeAxisIterators.descendantIterator(nodeB);
+
+    assertAll(
+        () -> assertTrue(ancestors.hasCharacteristics(Spliterator.SIZED)),
+        () -> assertEquals(3, ancestors.getExactSizeIfKnown()),
+        () -> assertFalse(descendants.hasNext()),
+        () -> assertThrows(NoSuchElementException.class, descendants::next));
+  }
+}
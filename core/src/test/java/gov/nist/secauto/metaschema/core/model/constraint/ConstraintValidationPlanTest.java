@@ -0,0 +1,138 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import gov.nist.secauto.metaschema.core.datatype.markup.MarkupLine;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.StaticContext;
+import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
+import gov.nist.secauto.metaschema.core.model.ISource;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class ConstraintValidationPlanTest {
+  @NonNull
+  private static final ISource SOURCE = ISource.externalSource(
+      StaticContext.builder()
+          .baseUri(ObjectUtils.notNull(URI.create("https://example.com/constraints")))
+          .build(),
+      false);
+
+  @SuppressWarnings("null")
+  @Test
+  void testSharedTargets() {
+    StaticContext staticContext = SOURCE.getStaticContext();
+
+    IExpectConstraint expectName = IExpectConstraint.builder()
+        .source(SOURCE)
+        .target(IMetapathExpression.compile("@name", staticContext))
+        .test(IMetapathExpression.compile("true()", staticContext))
+        .build();
+    IAllowedValuesConstraint allowedId = IAllowedValuesConstraint.builder()
+        .source(SOURCE)
+        .target(IMetapathExpression.compile("@id", staticContext))
+        .allowedValue(IAllowedValue.of("a", MarkupLine.fromMarkdown("a"), null))
+        .build();
+    IAllowedValuesConstraint allowedName = IAllowedValuesConstraint.builder()
+        .source(SOURCE)
+        .target(IMetapathExpression.compile(" @name ", staticContext))
+        .allowedValue(IAllowedValue.of("b", MarkupLine.fromMarkdown("b"), null))
+        .build();
+
+    IAssemblyDefinition definition = mock(IAssemblyDefinition.class);
+    doReturn(List.of(expectName)).when(definition).getExpectConstraints();
+    doReturn(List.of(allowedId, allowedName)).when(definition).getAllowedValuesConstraints();
+
+    List<ConstraintValidationPlan.TargetGroup> groups
+        = ConstraintValidationPlan.compile(definition).getTargetGroups();
+
+    // the cheaper allowed values constraints are ordered first, with the
+    // constraints targeting "@name" sharing a group
+    assertAll(
+        () -> assertEquals(2, groups.size()),
+        () -> assertEquals(List.of(allowedId), groups.get(0).getConstraints()),
+        () -> assertEquals(List.of(allowedName, expectName), groups.get(1).getConstraints()));
+  }
+
+  @SuppressWarnings("null")
+  @Test
+  void testIndexHasKeyOrderedWithKeyConstraints() {
+    StaticContext staticContext = SOURCE.getStaticContext();
+    IMetapathExpression target = IMetapathExpression.compile("@name", staticContext);
+    IKeyField key = IKeyField.of(IMetapathExpression.compile(".", staticContext), null, null);
+
+    IExpectConstraint expect = IExpectConstraint.builder()
+        .source(SOURCE)
+        .target(target)
+        .test(IMetapathExpression.compile("true()", staticContext))
+        .build();
+    IIndexHasKeyConstraint indexHasKey = IIndexHasKeyConstraint.builder("names")
+        .source(SOURCE)
+        .target(target)
+        .keyField(key)
+        .build();
+    IUniqueConstraint unique = IUniqueConstraint.builder()
+        .source(SOURCE)
+        .target(target)
+        .keyField(key)
+        .build();
+
+    IAssemblyDefinition definition = mock(IAssemblyDefinition.class);
+    doReturn(List.of(expect)).when(definition).getExpectConstraints();
+    doReturn(List.of(indexHasKey)).when(definition).getIndexHasKeyConstraints();
+    doReturn(List.of(unique)).when(definition).getUniqueConstraints();
+
+    List<ConstraintValidationPlan.TargetGroup> groups
+        = ConstraintValidationPlan.compile(definition).getTargetGroups();
+
+    // the index has key constraint evaluates its key fields, so it is ordered
+    // after the expect constraint, along with the unique constraint
+    assertAll(
+        () -> assertEquals(1, groups.size()),
+        () -> assertEquals(List.of(expect, indexHasKey, unique), groups.get(0).getConstraints()));
+  }
+
+  @SuppressWarnings("null")
+  @Test
+  void testContextAllowedValues() {
+    IAllowedValuesConstraint open = IAllowedValuesConstraint.builder()
+        .source(SOURCE)
+        .allowedValue(IAllowedValue.of("a", MarkupLine.fromMarkdown("a"), null))
+        .allowsOther(true)
+        .build();
+    IAllowedValuesConstraint closed = IAllowedValuesConstraint.builder()
+        .source(SOURCE)
+        .allowedValue(IAllowedValue.of("b", MarkupLine.fromMarkdown("b"), null))
+        .allowsOther(false)
+        .build();
+
+    IAssemblyDefinition definition = mock(IAssemblyDefinition.class);
+    doReturn(List.of(open, closed)).when(definition).getAllowedValuesConstraints();
+
+    ConstraintValidationPlan plan = ConstraintValidationPlan.compile(definition);
+    AllowedValuesTable table = ObjectUtils.requireNonNull(plan.getContextAllowedValues());
+
+    assertAll(
+        () -> assertTrue(plan.getTargetGroups().isEmpty()),
+        () -> assertEquals(List.of(open), table.lookup("a").getPassed()),
+        () -> assertTrue(table.lookup("a").getFailed().isEmpty()),
+        () -> assertEquals(List.of(closed), table.lookup("b").getPassed()),
+        () -> assertTrue(table.lookup("c").getPassed().isEmpty()),
+        () -> assertEquals(List.of(open, closed), table.lookup("c").getFailed()));
+  }
+}
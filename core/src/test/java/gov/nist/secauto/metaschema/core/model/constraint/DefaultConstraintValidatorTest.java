@@ -11,6 +11,7 @@ import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,22 +21,32 @@ import static org.mockito.Mockito.mock;
 
 import gov.nist.secauto.metaschema.core.datatype.markup.MarkupLine;
 import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.IMetapathExpression;
 import gov.nist.secauto.metaschema.core.metapath.StaticContext;
 import gov.nist.secauto.metaschema.core.metapath.format.IPathFormatter;
 import gov.nist.secauto.metaschema.core.metapath.item.IItemVisitor;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IAssemblyNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IDocumentNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IFlagNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IRootAssemblyNodeItem;
 import gov.nist.secauto.metaschema.core.model.IFlagDefinition;
 import gov.nist.secauto.metaschema.core.model.ISource;
+import gov.nist.secauto.metaschema.core.model.validation.IValidationFinding;
 import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
 import gov.nist.secauto.metaschema.core.testing.model.mocking.MockNodeItemFactory;
+import gov.nist.secauto.metaschema.core.testing.model.mocking.MockedDocumentGenerator;
 import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.net.URI;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -203,4 +214,252 @@ class DefaultConstraintValidatorTest {
         () -> assertThat("only 1 finding", handler.getFindings(), hasSize(1)),
         () -> assertThat("finding is for a flag node", handler.getFindings(), hasItem(hasProperty("node", is(flag1)))));
   }
+
+  @Test
+  void testParallelValidationReportsSameFindings() {
+    List<String> sequential = validateConstrainedDocument(1);
+    List<String> parallel = validateConstrainedDocument(4);
+
+    assertAll(
+        // the duplicate index, the allowed values violation, and three index
+        // misses
+        () -> assertEquals(5, sequential.stream()
+            .filter(finding -> finding.startsWith(IValidationFinding.Kind.FAIL.name()))
+            .count()),
+        () -> assertEquals(sequential, parallel));
+  }
+
+  /**
+   * Validate a generated document, whose constraints relate nodes in the
+   * sibling {@code assembly} subtrees, which are validated concurrently when
+   * validating in parallel.
+   *
+   * @param parallelism
+   *          the number of threads to use for validation
+   * @return a description of each finding, in the order reported
+   */
+  @NonNull
+  private static List<String> validateConstrainedDocument(int parallelism) {
+    StaticContext staticContext = newConstraintContext();
+    ISource source = ISource.externalSource(staticContext, false);
+    IKeyField flagKey = IKeyField.of(IMetapathExpression.compile(".", staticContext), null, null);
+
+    IDocumentNodeItem document = MockedDocumentGenerator.generateValuedDocumentNodeItem();
+    IRootAssemblyNodeItem root = document.getRootAssemblyNodeItem();
+    IAssemblyNodeItem assembly = child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 0);
+    IAssemblyNodeItem nested = child(assembly, MockedDocumentGenerator.NESTED_QNAME, 0);
+
+    // referenced before the index is defined, so the keys are resolved when
+    // validation is finalized
+    root.getDefinition().addConstraint(IIndexHasKeyConstraint.builder("flags")
+        .source(source)
+        .target(IMetapathExpression.compile("assembly/@assembly-flag", staticContext))
+        .keyField(flagKey)
+        .build());
+    // defined by each assembly, so the second assembly defines a duplicate
+    assembly.getDefinition().addConstraint(IIndexConstraint.builder("flags")
+        .source(source)
+        .target(IMetapathExpression.compile("nested/@assembly-flag", staticContext))
+        .keyField(flagKey)
+        .build());
+    // the first assembly targets the flag of the second assembly
+    assembly.getDefinition().addConstraint(IAllowedValuesConstraint.builder()
+        .source(source)
+        .target(IMetapathExpression.compile("../assembly[2]/@assembly-flag", staticContext))
+        .allowedValue(IAllowedValue.of("1", MarkupLine.fromMarkdown("the first assembly"), null))
+        .allowsOther(false)
+        .build());
+    // referenced after the index is defined, so the keys are resolved when the
+    // constraint is validated
+    nested.getDefinition().addConstraint(IIndexHasKeyConstraint.builder("flags")
+        .source(source)
+        .target(IMetapathExpression.compile("@assembly-flag", staticContext))
+        .keyField(flagKey)
+        .build());
+
+    FindingCollectingConstraintValidationHandler handler = new FindingCollectingConstraintValidationHandler();
+    DefaultConstraintValidator validator = new DefaultConstraintValidator(handler)
+        .set(ValidationFeature.VALIDATE_GENERATE_PASS_FINDINGS, true)
+        .set(ValidationFeature.VALIDATE_PARALLELISM, parallelism);
+    DynamicContext dynamicContext = new DynamicContext(document.getStaticContext());
+    validator.validate(document, dynamicContext);
+    validator.finalizeValidation(dynamicContext);
+
+    return ObjectUtils.notNull(handler.getFindings().stream()
+        .map(finding -> finding.getKind() + " " + finding.getPath() + " " + finding.getMessage())
+        .collect(Collectors.toList()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 4 })
+  void testIndexHasKeyDefinedBeforeReference(int parallelism) {
+    StaticContext staticContext = newConstraintContext();
+    ISource source = ISource.externalSource(staticContext, false);
+
+    IDocumentNodeItem document = MockedDocumentGenerator.generateValuedDocumentNodeItem();
+    IRootAssemblyNodeItem root = document.getRootAssemblyNodeItem();
+    IAssemblyNodeItem nested1 = child(child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 0),
+        MockedDocumentGenerator.NESTED_QNAME, 0);
+    IAssemblyNodeItem nested2 = child(child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 1),
+        MockedDocumentGenerator.NESTED_QNAME, 0);
+
+    // the root is validated first, so the index is registered before it is
+    // referenced
+    root.getDefinition().addConstraint(IIndexConstraint.builder("flags")
+        .source(source)
+        .target(IMetapathExpression.compile("assembly[1]/nested/@assembly-flag", staticContext))
+        .keyField(IKeyField.of(IMetapathExpression.compile(".", staticContext), null, null))
+        .build());
+    // the key is only available using the let bound to the nested assembly
+    nested1.getDefinition().addLetExpression(ILet.of(IEnhancedQName.of("expected"), "@assembly-flag", source, null));
+    nested1.getDefinition().addConstraint(IIndexHasKeyConstraint.builder("flags")
+        .source(source)
+        .keyField(IKeyField.of(IMetapathExpression.compile("$expected", staticContext), null, null))
+        .build());
+
+    FindingCollectingConstraintValidationHandler handler = new FindingCollectingConstraintValidationHandler();
+    List<ConstraintValidationFinding> validated = validateAndFinalize(document, handler, parallelism);
+
+    assertAll(
+        // only the second nested assembly's key is missing from the index, and
+        // the miss is reported before validation is finalized
+        () -> assertEquals(List.of(nested2), toTargets(validated)),
+        () -> assertEquals(List.of(IValidationFinding.Kind.FAIL), toKinds(validated)),
+        () -> assertEquals(validated, handler.getFindings()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 4 })
+  void testIndexHasKeyDefinedAfterReference(int parallelism) {
+    StaticContext staticContext = newConstraintContext();
+    ISource source = ISource.externalSource(staticContext, false);
+    IKeyField flagKey = IKeyField.of(IMetapathExpression.compile(".", staticContext), null, null);
+
+    IDocumentNodeItem document = MockedDocumentGenerator.generateValuedDocumentNodeItem();
+    IRootAssemblyNodeItem root = document.getRootAssemblyNodeItem();
+    IAssemblyNodeItem nested1 = child(child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 0),
+        MockedDocumentGenerator.NESTED_QNAME, 0);
+    IAssemblyNodeItem nested2 = child(child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 1),
+        MockedDocumentGenerator.NESTED_QNAME, 0);
+    IAssemblyNodeItem nested2Nested = child(nested2, MockedDocumentGenerator.NESTED_QNAME, 0);
+
+    // the keys are computed using the let bound to the root, but are resolved
+    // once validation is finalized
+    root.getDefinition().addLetExpression(
+        ILet.of(IEnhancedQName.of("first"), "assembly[1]/@assembly-flag", source, null));
+    root.getDefinition().addConstraint(IIndexHasKeyConstraint.builder("flags")
+        .source(source)
+        .keyField(IKeyField.of(IMetapathExpression.compile("$first", staticContext), null, null))
+        .build());
+    root.getDefinition().addConstraint(IIndexHasKeyConstraint.builder("flags")
+        .source(source)
+        .target(IMetapathExpression.compile("assembly/nested/@assembly-flag", staticContext))
+        .keyField(flagKey)
+        .build());
+    // the last node in the document defines the index
+    nested2Nested.getDefinition().addConstraint(IIndexConstraint.builder("flags")
+        .source(source)
+        .target(IMetapathExpression.compile("ancestor::root/assembly/@assembly-flag", staticContext))
+        .keyField(flagKey)
+        .build());
+
+    FindingCollectingConstraintValidationHandler handler = new FindingCollectingConstraintValidationHandler();
+    List<ConstraintValidationFinding> validated = validateAndFinalize(document, handler, parallelism);
+
+    assertAll(
+        () -> assertTrue(validated.isEmpty(), "no findings before finalization"),
+        // the let-bound key is found, while the nested assembly keys are missing
+        () -> assertEquals(
+            List.of(
+                nested1.getFlagByName(MockedDocumentGenerator.ASSEMBLY_FLAG_QNAME),
+                nested2.getFlagByName(MockedDocumentGenerator.ASSEMBLY_FLAG_QNAME)),
+            toTargets(handler.getFindings())),
+        () -> assertEquals(
+            List.of(IValidationFinding.Kind.FAIL, IValidationFinding.Kind.FAIL),
+            toKinds(handler.getFindings())));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 4 })
+  void testIndexHasKeyMissingIndex(int parallelism) {
+    StaticContext staticContext = newConstraintContext();
+    ISource source = ISource.externalSource(staticContext, false);
+
+    IDocumentNodeItem document = MockedDocumentGenerator.generateValuedDocumentNodeItem();
+    IRootAssemblyNodeItem root = document.getRootAssemblyNodeItem();
+
+    root.getDefinition().addConstraint(IIndexHasKeyConstraint.builder("missing")
+        .source(source)
+        .target(IMetapathExpression.compile("assembly/@assembly-flag", staticContext))
+        .keyField(IKeyField.of(IMetapathExpression.compile(".", staticContext), null, null))
+        .build());
+
+    FindingCollectingConstraintValidationHandler handler = new FindingCollectingConstraintValidationHandler();
+    List<ConstraintValidationFinding> validated = validateAndFinalize(document, handler, parallelism);
+
+    assertAll(
+        () -> assertTrue(validated.isEmpty(), "no findings before finalization"),
+        () -> assertEquals(
+            List.of(
+                child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 0)
+                    .getFlagByName(MockedDocumentGenerator.ASSEMBLY_FLAG_QNAME),
+                child(root, MockedDocumentGenerator.ASSEMBLY_QNAME, 1)
+                    .getFlagByName(MockedDocumentGenerator.ASSEMBLY_FLAG_QNAME)),
+            toTargets(handler.getFindings())),
+        () -> assertEquals(
+            List.of(IValidationFinding.Kind.FAIL, IValidationFinding.Kind.FAIL),
+            toKinds(handler.getFindings())));
+  }
+
+  /**
+   * Validate the provided document, and then finalize validation.
+   *
+   * @param document
+   *          the document to validate
+   * @param handler
+   *          the handler to collect findings with
+   * @param parallelism
+   *          the number of threads to use for validation
+   * @return the findings reported before validation was finalized
+   */
+  @NonNull
+  private static List<ConstraintValidationFinding> validateAndFinalize(
+      @NonNull IDocumentNodeItem document,
+      @NonNull FindingCollectingConstraintValidationHandler handler,
+      int parallelism) {
+    DefaultConstraintValidator validator = new DefaultConstraintValidator(handler)
+        .set(ValidationFeature.VALIDATE_PARALLELISM, parallelism);
+    DynamicContext dynamicContext = new DynamicContext(document.getStaticContext());
+    validator.validate(document, dynamicContext);
+    List<ConstraintValidationFinding> retval = List.copyOf(handler.getFindings());
+    validator.finalizeValidation(dynamicContext);
+    return ObjectUtils.notNull(retval);
+  }
+
+  @NonNull
+  private static StaticContext newConstraintContext() {
+    return StaticContext.builder()
+        .defaultModelNamespace(NS)
+        .baseUri(ObjectUtils.notNull(URI.create("https://example.com/constraints")))
+        .build();
+  }
+
+  @NonNull
+  private static IAssemblyNodeItem child(@NonNull IAssemblyNodeItem parent, @NonNull IEnhancedQName name, int index) {
+    return (IAssemblyNodeItem) ObjectUtils.requireNonNull(parent.getModelItemsByName(name).get(index));
+  }
+
+  @NonNull
+  private static List<INodeItem> toTargets(@NonNull List<? extends ConstraintValidationFinding> findings) {
+    return ObjectUtils.notNull(findings.stream()
+        .map(ConstraintValidationFinding::getTarget)
+        .collect(Collectors.toList()));
+  }
+
+  @NonNull
+  private static List<IValidationFinding.Kind> toKinds(@NonNull List<? extends ConstraintValidationFinding> findings) {
+    return ObjectUtils.notNull(findings.stream()
+        .map(ConstraintValidationFinding::getKind)
+        .collect(Collectors.toList()));
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * SPDX-FileCopyrightText: none
+ * SPDX-License-Identifier: CC0-1.0
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+import gov.nist.secauto.metaschema.core.model.constraint.ConstraintInitializationException;
+import gov.nist.secauto.metaschema.core.model.constraint.IIndex;
+import gov.nist.secauto.metaschema.core.model.constraint.IKeyField;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+class CompositeKeyIndexTest {
+
+  @Test
+  void testSingleKey() {
+    IIndex index = IIndex.newInstance(List.of(mock(IKeyField.class)));
+    INodeItem item1 = mock(INodeItem.class);
+    INodeItem item2 = mock(INodeItem.class);
+
+    assertAll(
+        () -> assertTrue(index instanceof SingleKeyIndex),
+        () -> assertNull(index.put(item1, List.of("a"))),
+        () -> assertSame(item1, index.put(item2, List.of("a"))),
+        () -> assertSame(item2, index.get(List.of("a"))),
+        () -> assertNull(index.put(item1, Arrays.asList((String) null))),
+        () -> assertNull(index.get(Arrays.asList((String) null))),
+        () -> assertThrows(ConstraintInitializationException.class, () -> index.get(List.of("a", "b"))));
+  }
+
+  @Test
+  void testCompositeKey() {
+    IIndex index = IIndex.newInstance(List.of(mock(IKeyField.class), mock(IKeyField.class)));
+    INodeItem item1 = mock(INodeItem.class);
+    INodeItem item2 = mock(INodeItem.class);
+
+    assertAll(
+        () -> assertTrue(index instanceof CompositeKeyIndex),
+        () -> assertNull(index.put(item1, Arrays.asList("a", null))),
+        () -> assertNull(index.put(item2, List.of("a", "b"))),
+        () -> assertSame(item1, index.get(Arrays.asList("a", null))),
+        () -> assertSame(item2, index.get(List.of("a", "b"))),
+        () -> assertNull(index.get(List.of("b", "a"))),
+        // keys without any values are not indexed
+        () -> assertNull(index.put(item1, Arrays.asList(null, null))),
+        () -> assertNull(index.get(Arrays.asList(null, null))),
+        () -> assertThrows(ConstraintInitializationException.class, () -> index.get(List.of("a"))));
+  }
+}
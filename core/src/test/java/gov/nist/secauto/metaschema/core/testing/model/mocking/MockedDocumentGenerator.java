@@ -5,23 +5,33 @@
 
 package gov.nist.secauto.metaschema.core.testing.model.mocking;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
 import gov.nist.secauto.metaschema.core.mdm.IDMAssemblyNodeItem;
 import gov.nist.secauto.metaschema.core.mdm.IDMDocumentNodeItem;
 import gov.nist.secauto.metaschema.core.mdm.IDMFieldNodeItem;
 import gov.nist.secauto.metaschema.core.mdm.IDMFlagNodeItem;
 import gov.nist.secauto.metaschema.core.mdm.IDMRootAssemblyNodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IDocumentNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItemFactory;
 import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
 import gov.nist.secauto.metaschema.core.model.IAssemblyInstance;
 import gov.nist.secauto.metaschema.core.model.IFieldInstance;
 import gov.nist.secauto.metaschema.core.model.IFlagDefinition;
 import gov.nist.secauto.metaschema.core.model.IFlagInstance;
+import gov.nist.secauto.metaschema.core.model.IModelInstanceAbsolute;
+import gov.nist.secauto.metaschema.core.model.INamedModelInstanceAbsolute;
 import gov.nist.secauto.metaschema.core.model.ISource;
+import gov.nist.secauto.metaschema.core.model.IValued;
 import gov.nist.secauto.metaschema.core.qname.IEnhancedQName;
 import gov.nist.secauto.metaschema.core.testing.model.MockedModelTestSupport;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -81,6 +91,13 @@ public class MockedDocumentGenerator {
    */
   @NonNull
   public static final IEnhancedQName FLAG_QNAME = IEnhancedQName.of("flag");
+  /**
+   * The qualified name for the nested assembly nodes
+   * ({@code /Q{http://example.com/ns}root/Q{http://example.com/ns}assembly//Q{http://example.com/ns}nested})
+   * of a document generated by the {@link #generateValuedDocumentNodeItem()} method.
+   */
+  @NonNull
+  public static final IEnhancedQName NESTED_QNAME = IEnhancedQName.of(NS, "nested");
 
   /**
    * Generate a simple Metaschema-based document model.
@@ -125,6 +142,81 @@ public class MockedDocumentGenerator {
     return document;
   }
 
+  /**
+   * Generate a Metaschema-based document model using the default node item factory, whose nodes
+   * are assigned document order ordinals.
+   * <p>
+   * The document has the following structure, with the {@code assembly-flag} value of each node
+   * shown in brackets:
+   *
+   * <pre>
+   * /root
+   *   /assembly[1]
+   *     /nested[1.1]
+   *   /assembly[2]
+   *     /nested[2.1]
+   *       /nested
+   * </pre>
+   *
+   * @return the document node item for this model
+   */
+  @NonNull
+  public static IDocumentNodeItem generateValuedDocumentNodeItem() {
+    MockedModelTestSupport mocking = new MockedModelTestSupport();
+
+    ISource moduleSource = ISource.externalSource("https://example.com/module");
+
+    IAssemblyDefinition rootDefinition = mocking.assembly()
+        .qname(ROOT_QNAME)
+        .rootQName(ROOT_QNAME)
+        .source(moduleSource)
+        .modelInstances(List.of(
+            mocking.assembly()
+                .qname(ASSEMBLY_QNAME)
+                .flags(List.of(mocking.flag().qname(ASSEMBLY_FLAG_QNAME)))
+                .modelInstances(List.of(
+                    mocking.assembly()
+                        .qname(NESTED_QNAME)
+                        .flags(List.of(mocking.flag().qname(ASSEMBLY_FLAG_QNAME)))
+                        .modelInstances(List.of(
+                            mocking.assembly()
+                                .qname(NESTED_QNAME)))))))
+        .toDefinition();
+    bindValues(rootDefinition);
+
+    // each assembly value maps the local name of its flags and model instances to their values
+    Map<String, Object> value = Map.of(
+        ASSEMBLY_QNAME.getLocalName(), List.of(
+            Map.of(
+                ASSEMBLY_FLAG_QNAME.getLocalName(), "1",
+                NESTED_QNAME.getLocalName(), List.of(
+                    Map.of(ASSEMBLY_FLAG_QNAME.getLocalName(), "1.1"))),
+            Map.of(
+                ASSEMBLY_FLAG_QNAME.getLocalName(), "2",
+                NESTED_QNAME.getLocalName(), List.of(
+                    Map.of(
+                        ASSEMBLY_FLAG_QNAME.getLocalName(), "2.1",
+                        NESTED_QNAME.getLocalName(), List.of(Map.of()))))));
+
+    return INodeItemFactory.instance().newDocumentNodeItem(rootDefinition, BASE_URI, value);
+  }
+
+  private static void bindValues(@NonNull IAssemblyDefinition definition) {
+    for (IFlagInstance instance : definition.getFlagInstances()) {
+      bindValue(ObjectUtils.notNull(instance), instance.getName());
+    }
+    for (IModelInstanceAbsolute instance : definition.getModelInstances()) {
+      INamedModelInstanceAbsolute namedInstance = (INamedModelInstanceAbsolute) instance;
+      bindValue(namedInstance, namedInstance.getName());
+      doAnswer(invocation -> invocation.getArgument(0)).when(namedInstance).getItemValues(any());
+      bindValues((IAssemblyDefinition) namedInstance.getDefinition());
+    }
+  }
+
+  private static void bindValue(@NonNull IValued instance, @NonNull String name) {
+    doAnswer(invocation -> ((Map<?, ?>) invocation.getArgument(0)).get(name)).when(instance).getValue(any());
+  }
+
   /**
    * Generate a simple Metaschema-based document model.
    *